@@ -0,0 +1,60 @@
+package net.drewke.tdme.bench;
+
+/**
+ * Benchmark, a named operation measured by benchmark runner
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public abstract class Benchmark {
+
+	private String name;
+
+	/**
+	 * Public constructor
+	 * @param name
+	 */
+	public Benchmark(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Set up benchmark, called once before warm up and not measured
+	 */
+	public void setUp() {
+	}
+
+	/**
+	 * Tear down benchmark, called once after measurement and not measured
+	 */
+	public void tearDown() {
+	}
+
+	/**
+	 * @return number of operations done by one run() invocation
+	 */
+	public int getOperationsPerInvocation() {
+		return 1;
+	}
+
+	/**
+	 * Run benchmark operations once
+	 * @return any result depending on computation which is consumed by runner to prevent dead code elimination
+	 */
+	public abstract int run();
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return name;
+	}
+
+}
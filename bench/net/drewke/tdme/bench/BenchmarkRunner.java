@@ -0,0 +1,238 @@
+package net.drewke.tdme.bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import net.drewke.tdme.engine.physics.PhysicsBenchmarks;
+
+/**
+ * Headless benchmark runner
+ * 	Each benchmark is warmed up by time boxed iterations, then measured by iterations with a fixed number of invocations
+ * 	derived from warm up, reports time per operation, allocations of benchmark thread and garbage collections
+ *
+ * 	Usage: BenchmarkRunner [-w warm up iterations] [-i iterations] [-t iteration time in ms] [-l] [benchmark name regex]
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class BenchmarkRunner {
+
+	private int warmUpIterations = 5;
+	private int iterations = 10;
+	private long iterationTime = 500L;
+
+	private com.sun.management.ThreadMXBean threadMXBean;
+	private List<GarbageCollectorMXBean> garbageCollectorMXBeans;
+
+	// consumes benchmark results
+	private volatile int sink;
+
+	/**
+	 * Public constructor
+	 */
+	public BenchmarkRunner() {
+		java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (threadMXBean instanceof com.sun.management.ThreadMXBean &&
+			((com.sun.management.ThreadMXBean)threadMXBean).isThreadAllocatedMemorySupported() == true) {
+			this.threadMXBean = (com.sun.management.ThreadMXBean)threadMXBean;
+			this.threadMXBean.setThreadAllocatedMemoryEnabled(true);
+		}
+		this.garbageCollectorMXBeans = ManagementFactory.getGarbageCollectorMXBeans();
+	}
+
+	/**
+	 * Set warm up iterations
+	 * @param warm up iterations
+	 */
+	public void setWarmUpIterations(int warmUpIterations) {
+		this.warmUpIterations = warmUpIterations;
+	}
+
+	/**
+	 * Set measurement iterations
+	 * @param iterations
+	 */
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * Set iteration time
+	 * @param iteration time in milliseconds
+	 */
+	public void setIterationTime(long iterationTime) {
+		this.iterationTime = iterationTime;
+	}
+
+	/**
+	 * @return bytes allocated by current thread or -1 if not supported
+	 */
+	private long getAllocatedBytes() {
+		if (threadMXBean == null) return -1L;
+		return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * @return garbage collection count of all collectors
+	 */
+	private long getGarbageCollectionCount() {
+		long count = 0L;
+		for (GarbageCollectorMXBean garbageCollectorMXBean: garbageCollectorMXBeans) {
+			count+= Math.max(garbageCollectorMXBean.getCollectionCount(), 0L);
+		}
+		return count;
+	}
+
+	/**
+	 * @return garbage collection time of all collectors in milliseconds
+	 */
+	private long getGarbageCollectionTime() {
+		long time = 0L;
+		for (GarbageCollectorMXBean garbageCollectorMXBean: garbageCollectorMXBeans) {
+			time+= Math.max(garbageCollectorMXBean.getCollectionTime(), 0L);
+		}
+		return time;
+	}
+
+	/**
+	 * Print report header
+	 */
+	public void printHeader() {
+		System.out.println(
+			String.format(
+				Locale.US,
+				"%-52s %14s %12s %12s %12s %8s %8s",
+				"Benchmark", "ns/op", "error", "alloc B/op", "alloc MB/s", "gc count", "gc ms"
+			)
+		);
+	}
+
+	/**
+	 * Run given benchmark and print its report line
+	 * @param benchmark
+	 */
+	public void run(Benchmark benchmark) {
+		benchmark.setUp();
+		int sink = 0;
+
+		// warm up, time boxed, determines invocations per iteration
+		long invocations = 0L;
+		long warmUpTime = 0L;
+		for (int i = 0; i < warmUpIterations; i++) {
+			long timeStart = System.nanoTime();
+			long timeEnd = timeStart + iterationTime * 1000000L;
+			long timeNow;
+			do {
+				sink+= benchmark.run();
+				invocations++;
+				timeNow = System.nanoTime();
+			} while (timeNow < timeEnd);
+			warmUpTime+= timeNow - timeStart;
+		}
+		long iterationInvocations = Math.max(1L, (long)((double)invocations * iterationTime * 1000000L / Math.max(warmUpTime, 1L)));
+
+		// measure
+		int operationsPerInvocation = benchmark.getOperationsPerInvocation();
+		double[] iterationTimesPerOperation = new double[iterations];
+		long allocatedBytesStart = getAllocatedBytes();
+		long garbageCollectionCountStart = getGarbageCollectionCount();
+		long garbageCollectionTimeStart = getGarbageCollectionTime();
+		long measureTime = 0L;
+		for (int i = 0; i < iterations; i++) {
+			long timeStart = System.nanoTime();
+			for (long j = 0; j < iterationInvocations; j++) {
+				sink+= benchmark.run();
+			}
+			long time = System.nanoTime() - timeStart;
+			measureTime+= time;
+			iterationTimesPerOperation[i] = (double)time / (iterationInvocations * operationsPerInvocation);
+		}
+		long allocatedBytesEnd = getAllocatedBytes();
+		long garbageCollectionCount = getGarbageCollectionCount() - garbageCollectionCountStart;
+		long garbageCollectionTime = getGarbageCollectionTime() - garbageCollectionTimeStart;
+		this.sink+= sink;
+		benchmark.tearDown();
+
+		// mean and standard deviation of iteration times per operation
+		double mean = 0.0;
+		for (int i = 0; i < iterations; i++) mean+= iterationTimesPerOperation[i];
+		mean/= iterations;
+		double variance = 0.0;
+		for (int i = 0; i < iterations; i++) variance+= (iterationTimesPerOperation[i] - mean) * (iterationTimesPerOperation[i] - mean);
+		double error = iterations > 1?Math.sqrt(variance / (iterations - 1)):0.0;
+
+		// allocations
+		double operations = (double)iterationInvocations * operationsPerInvocation * iterations;
+		String allocatedBytesPerOperation = "n/a";
+		String allocationRate = "n/a";
+		if (allocatedBytesStart != -1L) {
+			long allocatedBytes = allocatedBytesEnd - allocatedBytesStart;
+			allocatedBytesPerOperation = String.format(Locale.US, "%.1f", allocatedBytes / operations);
+			allocationRate = String.format(Locale.US, "%.1f", allocatedBytes / (1024.0 * 1024.0) / (measureTime / 1000000000.0));
+		}
+
+		//
+		System.out.println(
+			String.format(
+				Locale.US,
+				"%-52s %14.1f %12.1f %12s %12s %8d %8d",
+				benchmark.getName(), mean, error, allocatedBytesPerOperation, allocationRate, garbageCollectionCount, garbageCollectionTime
+			)
+		);
+	}
+
+	/**
+	 * Main
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		BenchmarkRunner runner = new BenchmarkRunner();
+		Pattern pattern = null;
+		boolean list = false;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-w") == true && i + 1 < args.length) {
+				runner.setWarmUpIterations(Integer.parseInt(args[++i]));
+			} else
+			if (args[i].equals("-i") == true && i + 1 < args.length) {
+				runner.setIterations(Integer.parseInt(args[++i]));
+			} else
+			if (args[i].equals("-t") == true && i + 1 < args.length) {
+				runner.setIterationTime(Long.parseLong(args[++i]));
+			} else
+			if (args[i].equals("-l") == true) {
+				list = true;
+			} else {
+				pattern = Pattern.compile(args[i]);
+			}
+		}
+
+		// collect benchmarks
+		ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		for (Benchmark benchmark: PhysicsBenchmarks.getBenchmarks()) {
+			if (pattern != null && pattern.matcher(benchmark.getName()).find() == false) continue;
+			benchmarks.add(benchmark);
+		}
+
+		// list or run them
+		if (list == true) {
+			for (Benchmark benchmark: benchmarks) {
+				System.out.println(benchmark.getName());
+			}
+			return;
+		}
+		System.out.println(
+			"JVM: " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version") +
+			", processors: " + Runtime.getRuntime().availableProcessors() +
+			", warm up: " + runner.warmUpIterations + " x " + runner.iterationTime + "ms" +
+			", iterations: " + runner.iterations
+		);
+		runner.printHeader();
+		for (Benchmark benchmark: benchmarks) {
+			runner.run(benchmark);
+		}
+	}
+
+}
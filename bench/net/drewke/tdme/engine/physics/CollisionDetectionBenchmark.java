@@ -0,0 +1,111 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.bench.Benchmark;
+import net.drewke.tdme.engine.primitives.BoundingBox;
+import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.engine.primitives.Capsule;
+import net.drewke.tdme.engine.primitives.OrientedBoundingBox;
+import net.drewke.tdme.engine.primitives.Sphere;
+import net.drewke.tdme.engine.primitives.Triangle;
+import net.drewke.tdme.math.Vector3;
+
+/**
+ * Narrow phase benchmark of a shape pair, shapes penetrate each other near origin
+ * 	so each test runs the full path including collision response and hit points
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class CollisionDetectionBenchmark extends Benchmark {
+
+	protected final static String[] SHAPE_NAMES = {
+		"aabb", "sphere", "capsule", "obb", "triangle", "convexmesh", "heightfield", "trianglemesh"
+	};
+
+	private String shapeName1;
+	private String shapeName2;
+	private BoundingVolume boundingVolume1;
+	private BoundingVolume boundingVolume2;
+	private Vector3 movement;
+	private CollisionResponse collision;
+
+	/**
+	 * Public constructor
+	 * @param shape name 1
+	 * @param shape name 2
+	 */
+	public CollisionDetectionBenchmark(String shapeName1, String shapeName2) {
+		super("CollisionDetection.doCollide(" + shapeName1 + ", " + shapeName2 + ")");
+		this.shapeName1 = shapeName1;
+		this.shapeName2 = shapeName2;
+	}
+
+	/**
+	 * @param shape name
+	 * @return if shape is only used for static rigid bodies
+	 */
+	protected static boolean isStaticShape(String shapeName) {
+		return shapeName.equals("heightfield") == true || shapeName.equals("trianglemesh") == true;
+	}
+
+	/**
+	 * Create shape of given name
+	 * @param shape name
+	 * @return bounding volume
+	 */
+	private static BoundingVolume createShape(String shapeName) {
+		if (shapeName.equals("aabb") == true) {
+			return new BoundingBox(new Vector3(-0.4f, -0.2f, -0.4f), new Vector3(0.4f, 0.6f, 0.4f));
+		} else
+		if (shapeName.equals("sphere") == true) {
+			return new Sphere(new Vector3(0.1f, 0.3f, 0f), 0.5f);
+		} else
+		if (shapeName.equals("capsule") == true) {
+			return new Capsule(new Vector3(0f, 0.1f, 0.05f), new Vector3(0.1f, 0.9f, 0f), 0.3f);
+		} else
+		if (shapeName.equals("obb") == true) {
+			float angle = (float)Math.toRadians(30.0);
+			return new OrientedBoundingBox(
+				new Vector3(0f, 0.3f, 0.1f),
+				new Vector3((float)Math.cos(angle), 0f, (float)-Math.sin(angle)),
+				new Vector3(0f, 1f, 0f),
+				new Vector3((float)Math.sin(angle), 0f, (float)Math.cos(angle)),
+				new Vector3(0.5f, 0.5f, 0.5f)
+			);
+		} else
+		if (shapeName.equals("triangle") == true) {
+			return new Triangle(new Vector3(-1f, 0.05f, -1f), new Vector3(-1f, 0f, 1f), new Vector3(1f, -0.05f, 0.5f));
+		} else
+		if (shapeName.equals("convexmesh") == true) {
+			return PhysicsBenchmarks.createConvexMesh(
+				PhysicsBenchmarks.createBox(new Vector3(0.05f, 0.35f, 0f), new Vector3(0.45f, 0.45f, 0.45f))
+			);
+		} else
+		if (shapeName.equals("heightfield") == true) {
+			return PhysicsBenchmarks.createTerrain(16, 0.5f);
+		} else
+		if (shapeName.equals("trianglemesh") == true) {
+			return PhysicsBenchmarks.createGrid(16, 0.5f);
+		}
+		throw new IllegalArgumentException("Unknown shape: " + shapeName);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.bench.Benchmark#setUp()
+	 */
+	public void setUp() {
+		boundingVolume1 = createShape(shapeName1);
+		boundingVolume2 = createShape(shapeName2);
+		movement = new Vector3(0f, -0.1f, 0f);
+		collision = new CollisionResponse();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.bench.Benchmark#run()
+	 */
+	public int run() {
+		return boundingVolume1.doesCollideWith(boundingVolume2, movement, collision) == true?collision.getHitPointsCount():-1;
+	}
+
+}
@@ -0,0 +1,100 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.bench.Benchmark;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.utils.ArrayList;
+
+/**
+ * Constraints solver benchmark on stacked boxes
+ * 	Contacts are collected once from settled stacks, each run solves them without updating the rigid bodies
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class ConstraintsSolverBenchmark extends Benchmark {
+
+	private final static float DELTA_TIME = 1f / 60f;
+
+	private int stacks;
+	private int height;
+	private ConstraintsSolver constraintsSolver;
+	private java.util.ArrayList<RigidBody> collisionRigidBodies1;
+	private java.util.ArrayList<RigidBody> collisionRigidBodies2;
+	private java.util.ArrayList<CollisionResponse> collisions;
+
+	/**
+	 * Public constructor
+	 * @param stacks on x and z axis
+	 * @param height of each stack
+	 */
+	public ConstraintsSolverBenchmark(int stacks, int height) {
+		super("ConstraintsSolver.compute(stacked boxes " + stacks + "x" + stacks + "x" + height + ")");
+		this.stacks = stacks;
+		this.height = height;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.bench.Benchmark#setUp()
+	 */
+	public void setUp() {
+		// let stacks settle
+		World world = PhysicsBenchmarks.createStackedBoxesWorld(stacks, height);
+		for (int i = 0; i < 30; i++) world.update(DELTA_TIME);
+
+		// rigid bodies in index order
+		ArrayList<RigidBody> rigidBodies = new ArrayList<RigidBody>();
+		String[] staticIds = {"ground", "wall.near", "wall.far", "wall.left", "wall.right"};
+		for (int i = 0; i < staticIds.length; i++) rigidBodies.add(world.getRigidBody(staticIds[i]));
+		for (int z = 0; z < stacks; z++)
+		for (int x = 0; x < stacks; x++)
+		for (int y = 0; y < height; y++) {
+			rigidBodies.add(world.getRigidBody("box." + x + "." + y + "." + z));
+		}
+
+		// collect contacts
+		collisionRigidBodies1 = new java.util.ArrayList<RigidBody>();
+		collisionRigidBodies2 = new java.util.ArrayList<RigidBody>();
+		collisions = new java.util.ArrayList<CollisionResponse>();
+		Vector3 movement = new Vector3();
+		for (int i = 0; i < rigidBodies.size(); i++) {
+			RigidBody rigidBody1 = rigidBodies.get(i);
+			if (rigidBody1.isStatic() == true) continue;
+			rigidBody1.awake(true);
+			for (RigidBody rigidBody2: world.partition.getObjectsNearTo(rigidBody1.cbv)) {
+				if (rigidBody2 == rigidBody1 ||
+					(rigidBody2.isStatic() == false && rigidBody2.idx < rigidBody1.idx)) continue;
+				movement.set(rigidBody1.movement);
+				if (movement.computeLength() < 1e-6f) movement.set(0f, -1e-3f, 0f);
+				CollisionResponse collision = new CollisionResponse();
+				if (rigidBody1.cbv.doesCollideWith(rigidBody2.cbv, movement, collision) == true &&
+					collision.hasPenetration() == true) {
+					collisionRigidBodies1.add(rigidBody1);
+					collisionRigidBodies2.add(rigidBody2);
+					collisions.add(collision);
+				}
+			}
+		}
+
+		//
+		constraintsSolver = new ConstraintsSolver(rigidBodies);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.bench.Benchmark#run()
+	 */
+	public int run() {
+		for (int i = 0; i < collisions.size(); i++) {
+			constraintsSolver.allocateConstraintsEntity().set(
+				collisionRigidBodies1.get(i),
+				collisionRigidBodies2.get(i),
+				constraintsSolver.allocateCollision().fromResponse(collisions.get(i))
+			);
+		}
+		constraintsSolver.compute(DELTA_TIME);
+		int islands = constraintsSolver.getIslandCount();
+		constraintsSolver.reset();
+		return islands;
+	}
+
+}
@@ -0,0 +1,100 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.bench.Benchmark;
+import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.engine.primitives.OrientedBoundingBox;
+import net.drewke.tdme.math.Vector3;
+
+/**
+ * Oct tree partition benchmark, rigid bodies are spread over a 64 x 16 x 64 volume
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class PartitionOctTreeBenchmark extends Benchmark {
+
+	public enum Type {ADD_REMOVE, UPDATE, QUERY};
+
+	private Type type;
+	private int rigidBodyCount;
+	private RigidBody[] rigidBodies;
+	private BoundingVolume[][] boundingVolumes;
+	private int phase;
+	private PartitionOctTree partition;
+
+	/**
+	 * Public constructor
+	 * @param type
+	 * @param rigid body count
+	 */
+	public PartitionOctTreeBenchmark(Type type, int rigidBodyCount) {
+		super("PartitionOctTree." + type.name().toLowerCase() + "(" + rigidBodyCount + ")");
+		this.type = type;
+		this.rigidBodyCount = rigidBodyCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.bench.Benchmark#setUp()
+	 */
+	public void setUp() {
+		World world = new World();
+		OrientedBoundingBox box = PhysicsBenchmarks.createBox(new Vector3(), new Vector3(0.5f, 0.5f, 0.5f));
+		rigidBodies = new RigidBody[rigidBodyCount];
+		boundingVolumes = new BoundingVolume[rigidBodyCount][2];
+		for (int i = 0; i < rigidBodyCount; i++) {
+			float x = (i * 7919 % 128) * 0.5f - 32f;
+			float y = (i * 104729 % 32) * 0.5f;
+			float z = (i * 15485863 % 128) * 0.5f - 32f;
+			rigidBodies[i] = PhysicsBenchmarks.addRigidBody(world, "box" + i, PhysicsBenchmarks.createTransformations(x, y, z), box, 100f);
+
+			// bounding volumes of the two positions rigid bodies are moved between on update
+			boundingVolumes[i][0] = rigidBodies[i].cbv.clone();
+			rigidBodies[i].cbv.fromBoundingVolumeWithTransformations(rigidBodies[i].obv, PhysicsBenchmarks.createTransformations(x + 1.5f, y, z - 1.5f));
+			boundingVolumes[i][1] = rigidBodies[i].cbv.clone();
+			rigidBodies[i].cbv.fromBoundingVolume(boundingVolumes[i][0]);
+		}
+		partition = new PartitionOctTree();
+		if (type != Type.ADD_REMOVE) {
+			for (int i = 0; i < rigidBodyCount; i++) partition.addRigidBody(rigidBodies[i]);
+		}
+		phase = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.bench.Benchmark#getOperationsPerInvocation()
+	 */
+	public int getOperationsPerInvocation() {
+		return rigidBodyCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.bench.Benchmark#run()
+	 */
+	public int run() {
+		int result = 0;
+		switch (type) {
+			case ADD_REMOVE:
+				for (int i = 0; i < rigidBodyCount; i++) partition.addRigidBody(rigidBodies[i]);
+				for (int i = 0; i < rigidBodyCount; i++) partition.removeRigidBody(rigidBodies[i]);
+				break;
+			case UPDATE:
+				phase = (phase + 1) % 2;
+				for (int i = 0; i < rigidBodyCount; i++) {
+					rigidBodies[i].cbv.fromBoundingVolume(boundingVolumes[i][phase]);
+					partition.updateRigidBody(rigidBodies[i]);
+				}
+				break;
+			case QUERY:
+				for (int i = 0; i < rigidBodyCount; i++) {
+					for (RigidBody rigidBody: partition.getObjectsNearTo(rigidBodies[i].cbv)) {
+						result+= rigidBody.idx;
+					}
+				}
+				break;
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,254 @@
+package net.drewke.tdme.engine.physics;
+
+import java.util.ArrayList;
+
+import net.drewke.tdme.bench.Benchmark;
+import net.drewke.tdme.engine.Transformations;
+import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.engine.primitives.Capsule;
+import net.drewke.tdme.engine.primitives.ConvexMesh;
+import net.drewke.tdme.engine.primitives.HeightField;
+import net.drewke.tdme.engine.primitives.OrientedBoundingBox;
+import net.drewke.tdme.engine.primitives.Triangle;
+import net.drewke.tdme.engine.primitives.TriangleMesh;
+import net.drewke.tdme.math.Vector3;
+
+/**
+ * Physics benchmarks and the shapes and scenes they use
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class PhysicsBenchmarks {
+
+	private static int[][] boxFacesVerticesIndexes = {
+		{0,4,7}, {7,3,0},
+		{6,5,1}, {1,2,6},
+		{5,4,0}, {0,1,5},
+		{3,7,6}, {6,2,3},
+		{2,1,0}, {0,3,2},
+		{4,5,6}, {6,7,4},
+	};
+
+	/**
+	 * @return physics benchmarks
+	 */
+	public static ArrayList<Benchmark> getBenchmarks() {
+		ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+		// narrow phase, every shape pair, static vs static is never tested by world
+		String[] shapeNames = CollisionDetectionBenchmark.SHAPE_NAMES;
+		for (int i = 0; i < shapeNames.length; i++)
+		for (int j = 0; j < shapeNames.length; j++) {
+			if (CollisionDetectionBenchmark.isStaticShape(shapeNames[i]) == true &&
+				CollisionDetectionBenchmark.isStaticShape(shapeNames[j]) == true) continue;
+			benchmarks.add(new CollisionDetectionBenchmark(shapeNames[i], shapeNames[j]));
+		}
+
+		// broad phase
+		for (PartitionOctTreeBenchmark.Type type: PartitionOctTreeBenchmark.Type.values()) {
+			benchmarks.add(new PartitionOctTreeBenchmark(type, 1000));
+		}
+
+		// solver
+		benchmarks.add(new ConstraintsSolverBenchmark(4, 8));
+		benchmarks.add(new ConstraintsSolverBenchmark(10, 10));
+
+		// full world updates
+		benchmarks.add(new WorldBenchmark(WorldBenchmark.Scene.BOXES_ON_TERRAIN, 100));
+		benchmarks.add(new WorldBenchmark(WorldBenchmark.Scene.BOXES_ON_TERRAIN, 400));
+		benchmarks.add(new WorldBenchmark(WorldBenchmark.Scene.CAPSULE_CROWD, 100));
+		benchmarks.add(new WorldBenchmark(WorldBenchmark.Scene.CAPSULE_CROWD, 400));
+		benchmarks.add(new WorldBenchmark(WorldBenchmark.Scene.STACKED_BOXES, 10));
+		return benchmarks;
+	}
+
+	/**
+	 * Create transformations with given translation
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return transformations
+	 */
+	protected static Transformations createTransformations(float x, float y, float z) {
+		Transformations transformations = new Transformations();
+		transformations.getTranslation().set(x, y, z);
+		transformations.update();
+		return transformations;
+	}
+
+	/**
+	 * Create axis aligned oriented bounding box
+	 * @param center
+	 * @param half extension
+	 * @return oriented bounding box
+	 */
+	protected static OrientedBoundingBox createBox(Vector3 center, Vector3 halfExtension) {
+		return new OrientedBoundingBox(
+			center,
+			OrientedBoundingBox.AABB_AXIS_X.clone(),
+			OrientedBoundingBox.AABB_AXIS_Y.clone(),
+			OrientedBoundingBox.AABB_AXIS_Z.clone(),
+			halfExtension
+		);
+	}
+
+	/**
+	 * Create convex mesh of given oriented bounding box
+	 * @param obb
+	 * @return convex mesh
+	 */
+	protected static ConvexMesh createConvexMesh(OrientedBoundingBox obb) {
+		Vector3[] vertices = obb.getVertices();
+		Triangle[] triangles = new Triangle[boxFacesVerticesIndexes.length];
+		for (int i = 0; i < triangles.length; i++) {
+			triangles[i] = new Triangle(
+				vertices[boxFacesVerticesIndexes[i][0]].clone(),
+				vertices[boxFacesVerticesIndexes[i][1]].clone(),
+				vertices[boxFacesVerticesIndexes[i][2]].clone()
+			);
+		}
+		return new ConvexMesh(triangles);
+	}
+
+	/**
+	 * Create wavy height field terrain centered at origin
+	 * @param size in cells on x and z axis
+	 * @param spacing
+	 * @return height field
+	 */
+	protected static HeightField createTerrain(int size, float spacing) {
+		int columns = size + 1;
+		int rows = size + 1;
+		float[] heights = new float[columns * rows];
+		for (int z = 0; z < rows; z++)
+		for (int x = 0; x < columns; x++) {
+			heights[z * columns + x] = (float)(Math.sin(x * 0.35) * Math.cos(z * 0.25)) * 0.75f;
+		}
+		return new HeightField(new Vector3(-size * spacing / 2f, 0f, -size * spacing / 2f), columns, rows, spacing, heights);
+	}
+
+	/**
+	 * Create flat triangle mesh grid centered at origin
+	 * @param size in cells on x and z axis
+	 * @param spacing
+	 * @return triangle mesh
+	 */
+	protected static TriangleMesh createGrid(int size, float spacing) {
+		Triangle[] triangles = new Triangle[size * size * 2];
+		float offset = -size * spacing / 2f;
+		for (int z = 0; z < size; z++)
+		for (int x = 0; x < size; x++) {
+			Vector3 v0 = new Vector3(offset + x * spacing, 0f, offset + z * spacing);
+			Vector3 v1 = new Vector3(offset + x * spacing, 0f, offset + (z + 1) * spacing);
+			Vector3 v2 = new Vector3(offset + (x + 1) * spacing, 0f, offset + (z + 1) * spacing);
+			Vector3 v3 = new Vector3(offset + (x + 1) * spacing, 0f, offset + z * spacing);
+			triangles[(z * size + x) * 2 + 0] = new Triangle(v0, v1, v2);
+			triangles[(z * size + x) * 2 + 1] = new Triangle(v2.clone(), v3, v0.clone());
+		}
+		return new TriangleMesh(triangles);
+	}
+
+	/**
+	 * Add ground box and walls around given area as static rigid bodies
+	 * @param world
+	 * @param half size of area on x and z axis
+	 */
+	protected static void addArena(World world, float halfSize) {
+		world.addStaticRigidBody("ground", true, RigidBody.TYPEIDS_ALL, createTransformations(0f, -1f, 0f), createBox(new Vector3(), new Vector3(halfSize, 1f, halfSize)), 0.5f);
+		world.addStaticRigidBody("wall.near", true, RigidBody.TYPEIDS_ALL, createTransformations(0f, 4f, -halfSize - 1f), createBox(new Vector3(), new Vector3(halfSize, 5f, 1f)), 0.5f);
+		world.addStaticRigidBody("wall.far", true, RigidBody.TYPEIDS_ALL, createTransformations(0f, 4f, halfSize + 1f), createBox(new Vector3(), new Vector3(halfSize, 5f, 1f)), 0.5f);
+		world.addStaticRigidBody("wall.left", true, RigidBody.TYPEIDS_ALL, createTransformations(-halfSize - 1f, 4f, 0f), createBox(new Vector3(), new Vector3(1f, 5f, halfSize)), 0.5f);
+		world.addStaticRigidBody("wall.right", true, RigidBody.TYPEIDS_ALL, createTransformations(halfSize + 1f, 4f, 0f), createBox(new Vector3(), new Vector3(1f, 5f, halfSize)), 0.5f);
+	}
+
+	/**
+	 * Add dynamic rigid body
+	 * @param world
+	 * @param id
+	 * @param transformations
+	 * @param bounding volume
+	 * @param mass
+	 * @return rigid body
+	 */
+	protected static RigidBody addRigidBody(World world, String id, Transformations transformations, BoundingVolume boundingVolume, float mass) {
+		return world.addRigidBody(
+			id,
+			true,
+			RigidBody.TYPEIDS_ALL,
+			transformations,
+			boundingVolume,
+			0f,
+			0.5f,
+			mass,
+			RigidBody.computeInertiaMatrix(boundingVolume, mass, 1f, 1f, 1f)
+		);
+	}
+
+	/**
+	 * Create world with given number of boxes falling on height field terrain
+	 * @param boxes
+	 * @return world
+	 */
+	protected static World createBoxesOnTerrainWorld(int boxes) {
+		World world = new World();
+		world.addStaticRigidBody("terrain", true, RigidBody.TYPEIDS_ALL, createTransformations(0f, 0f, 0f), createTerrain(64, 1f), 0.5f);
+		OrientedBoundingBox box = createBox(new Vector3(), new Vector3(0.5f, 0.5f, 0.5f));
+		int columns = (int)Math.ceil(Math.sqrt(boxes));
+		for (int i = 0; i < boxes; i++) {
+			int x = i % columns;
+			int z = (i / columns) % columns;
+			addRigidBody(
+				world,
+				"box" + i,
+				createTransformations((x - columns / 2f) * 1.5f, 3f + (i % 3) * 1.2f, (z - columns / 2f) * 1.5f),
+				box,
+				100f
+			);
+		}
+		return world;
+	}
+
+	/**
+	 * Create world with given number of capsules walking to arena center
+	 * @param capsules
+	 * @return world
+	 */
+	protected static World createCapsuleCrowdWorld(int capsules) {
+		World world = new World();
+		int columns = (int)Math.ceil(Math.sqrt(capsules));
+		addArena(world, columns * 0.8f + 2f);
+		Capsule capsule = new Capsule(new Vector3(0f, 0.3f, 0f), new Vector3(0f, 1.5f, 0f), 0.3f);
+		for (int i = 0; i < capsules; i++) {
+			float x = (i % columns - columns / 2f) * 1.5f;
+			float z = (i / columns - columns / 2f) * 1.5f;
+			RigidBody rigidBody = addRigidBody(world, "capsule" + i, createTransformations(x, 0.05f, z), capsule, 80f);
+			rigidBody.getLinearVelocity().set(-x, 0f, -z).normalize().scale(2f);
+		}
+		return world;
+	}
+
+	/**
+	 * Create world with stacks of boxes on ground
+	 * @param stacks on x and z axis
+	 * @param height of each stack
+	 * @return world
+	 */
+	protected static World createStackedBoxesWorld(int stacks, int height) {
+		World world = new World();
+		addArena(world, stacks * 1.5f + 2f);
+		OrientedBoundingBox box = createBox(new Vector3(), new Vector3(0.5f, 0.5f, 0.5f));
+		for (int z = 0; z < stacks; z++)
+		for (int x = 0; x < stacks; x++)
+		for (int y = 0; y < height; y++) {
+			addRigidBody(
+				world,
+				"box." + x + "." + y + "." + z,
+				createTransformations((x - stacks / 2f) * 3f, 0.5f + y * 1.01f, (z - stacks / 2f) * 3f),
+				box,
+				100f
+			);
+		}
+		return world;
+	}
+
+}
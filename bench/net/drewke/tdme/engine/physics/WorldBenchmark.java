@@ -0,0 +1,87 @@
+package net.drewke.tdme.engine.physics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import net.drewke.tdme.bench.Benchmark;
+
+/**
+ * World update benchmark on parameterized scenes
+ * 	Scene is simulated for some frames to get into contact, then each run restores that state and updates the world
+ * 	a fixed number of frames, so every run measures the same frames
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class WorldBenchmark extends Benchmark {
+
+	public enum Scene {BOXES_ON_TERRAIN, CAPSULE_CROWD, STACKED_BOXES};
+
+	private final static float DELTA_TIME = 1f / 60f;
+	private final static int FRAMES_SETTLE = 45;
+	private final static int FRAMES = 10;
+
+	private Scene scene;
+	private int size;
+	private World world;
+	private ByteBuffer state;
+
+	/**
+	 * Public constructor
+	 * @param scene
+	 * @param size, rigid body count or stack count for stacked boxes
+	 */
+	public WorldBenchmark(Scene scene, int size) {
+		super("World.update(" + scene.name().toLowerCase() + ", " + size + ")");
+		this.scene = scene;
+		this.size = size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.bench.Benchmark#setUp()
+	 */
+	public void setUp() {
+		switch (scene) {
+			case BOXES_ON_TERRAIN:
+				world = PhysicsBenchmarks.createBoxesOnTerrainWorld(size);
+				break;
+			case CAPSULE_CROWD:
+				world = PhysicsBenchmarks.createCapsuleCrowdWorld(size);
+				break;
+			case STACKED_BOXES:
+				world = PhysicsBenchmarks.createStackedBoxesWorld(size, 5);
+				break;
+		}
+		for (int i = 0; i < FRAMES_SETTLE; i++) world.update(DELTA_TIME);
+		state = ByteBuffer.allocateDirect(world.computeStateSize()).order(ByteOrder.nativeOrder());
+		world.saveState(state);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.bench.Benchmark#tearDown()
+	 */
+	public void tearDown() {
+		world.reset();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.bench.Benchmark#getOperationsPerInvocation()
+	 */
+	public int getOperationsPerInvocation() {
+		return FRAMES;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.bench.Benchmark#run()
+	 */
+	public int run() {
+		state.rewind();
+		world.restoreState(state);
+		for (int i = 0; i < FRAMES; i++) world.update(DELTA_TIME);
+		return world.computeStateSize();
+	}
+
+}
@@ -70,7 +70,6 @@ uniform Material material;
 uniform Light lights[MAX_LIGHTS];
 
 uniform vec4 sceneColor;
-uniform vec4 effectColorMul;
 
 uniform sampler2D diffuseTextureUnit;
 uniform int diffuseTextureAvailable;
@@ -81,8 +80,6 @@ uniform int specularTextureAvailable;
 uniform sampler2D normalTextureUnit;
 uniform int normalTextureAvailable;
 
-uniform vec4 effectColorAdd;
-
 // material shininess
 float materialShininess;
 
@@ -92,6 +89,8 @@ in vec3 vsPosition;
 in vec3 vsNormal;
 in vec3 vsTangent;
 in vec3 vsBitangent;
+flat in vec4 vsEffectColorMul;
+flat in vec4 vsEffectColorAdd;
 
 out vec4 outColor;
 
@@ -172,13 +171,13 @@ void main (void) {
 	computeLights(normal, vsPosition);
 
 	// take effect colors into account
-	fragColor = fragColor * effectColorMul;
-	fragColor.a = material.diffuse.a * effectColorMul.a;
+	fragColor = fragColor * vsEffectColorMul;
+	fragColor.a = material.diffuse.a * vsEffectColorMul.a;
 
 	//
 	if (diffuseTextureAvailable == 1) {
-		outColor = clamp((effectColorAdd + (texture(diffuseTextureUnit, vsFragTextureUV)) * fragColor), 0.0, 1.0);
+		outColor = clamp((vsEffectColorAdd + (texture(diffuseTextureUnit, vsFragTextureUV)) * fragColor), 0.0, 1.0);
 	} else {
-		outColor = clamp(effectColorAdd + fragColor, 0.0, 1.0);
+		outColor = clamp(vsEffectColorAdd + fragColor, 0.0, 1.0);
 	}
 }
@@ -50,6 +50,12 @@ layout (location = 2) in vec2 inTextureUV;
 layout (location = 7) in vec3 inTangent;
 layout (location = 8) in vec3 inBitangent;
 
+// instanced rendering, normal matrix uses locations 3 - 5, model view matrix uses locations 9 - 12
+layout (location = 3) in mat3 inNormalMatrix;
+layout (location = 9) in mat4 inModelViewMatrix;
+layout (location = 13) in vec4 inEffectColorMul;
+layout (location = 14) in vec4 inEffectColorAdd;
+
 // uniforms
 uniform sampler2D displacementTextureUnit;
 uniform int displacementTextureAvailable;
@@ -59,6 +65,12 @@ uniform int normalTextureAvailable;
 uniform mat4 mvpMatrix;
 uniform mat4 mvMatrix;
 uniform mat4 normalMatrix;
+uniform mat4 projectionMatrix;
+
+uniform int instancedRendering;
+
+uniform vec4 effectColorMul;
+uniform vec4 effectColorAdd;
 
 // will be passed to fragment shader
 out vec2 vsFragTextureUV;
@@ -66,6 +78,8 @@ out vec3 vsPosition;
 out vec3 vsNormal;
 out vec3 vsTangent;
 out vec3 vsBitangent;
+flat out vec4 vsEffectColorMul;
+flat out vec4 vsEffectColorAdd;
 
 void main(void) {
 	// pass texture uv to fragment shader
@@ -81,20 +95,34 @@ void main(void) {
 		*/
 	}
 
-	//
-	gl_Position = mvpMatrix * vec4(inVertex, 1.0);
+	// matrices and effect colors are per instance when rendering instanced
+	mat4 vsMVMatrix;
+	mat4 vsNormalMatrix;
+	if (instancedRendering == 1) {
+		vsMVMatrix = inModelViewMatrix;
+		vsNormalMatrix = mat4(inNormalMatrix);
+		gl_Position = projectionMatrix * vsMVMatrix * vec4(inVertex, 1.0);
+		vsEffectColorMul = inEffectColorMul;
+		vsEffectColorAdd = inEffectColorAdd;
+	} else {
+		vsMVMatrix = mvMatrix;
+		vsNormalMatrix = normalMatrix;
+		gl_Position = mvpMatrix * vec4(inVertex, 1.0);
+		vsEffectColorMul = effectColorMul;
+		vsEffectColorAdd = effectColorAdd;
+	}
 
 	// Eye-coordinate position of vertex, needed in various calculations
-	vec4 vsPosition4 = mvMatrix * vec4(inVertex, 1.0);
+	vec4 vsPosition4 = vsMVMatrix * vec4(inVertex, 1.0);
 	vsPosition = vsPosition4.xyz / vsPosition4.w;
 
 	// compute the normal
-	vsNormal = normalize(vec3(normalMatrix * vec4(inNormal, 0.0)));
+	vsNormal = normalize(vec3(vsNormalMatrix * vec4(inNormal, 0.0)));
 
 	//
 	if (normalTextureAvailable == 1) {
-		vsTangent = normalize(vec3(normalMatrix * vec4(inTangent, 0.0)));
-		vsBitangent = normalize(vec3(normalMatrix * vec4(inBitangent, 0.0)));
+		vsTangent = normalize(vec3(vsNormalMatrix * vec4(inTangent, 0.0)));
+		vsBitangent = normalize(vec3(vsNormalMatrix * vec4(inBitangent, 0.0)));
 	}
 
 }
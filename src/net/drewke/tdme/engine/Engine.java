@@ -7,6 +7,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import net.drewke.tdme.engine.fileio.textures.PNG;
 import net.drewke.tdme.engine.model.Color4;
@@ -59,6 +65,37 @@ import com.jogamp.opengl.GLProfile;
  */
 public final class Engine {
 
+	/**
+	 * Compute transformations worker,
+	 * 	computes animations and skinning of every n-th object of current frame
+	 * @author Andreas Drewke
+	 * @version $Id$
+	 */
+	private final class ComputeTransformationsWorker implements Callable<Void> {
+
+		private int workerIdx;
+
+		/**
+		 * Public constructor
+		 * @param worker idx
+		 */
+		private ComputeTransformationsWorker(int workerIdx) {
+			this.workerIdx = workerIdx;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		public Void call() {
+			for (int i = workerIdx; i < computeTransformationsObjects.size(); i+= workerThreads) {
+				computeTransformationsObjects.get(i).computeTransformations();
+			}
+			return null;
+		}
+
+	}
+
 	protected static Engine instance = null;
 	protected static GLRenderer renderer;
 
@@ -109,6 +146,12 @@ public final class Engine {
 	private boolean renderingInitiated;
 	private boolean renderingComputedTransformations;
 
+	private int workerThreads;
+	private ExecutorService workerThreadPool;
+	private ArrayList<ComputeTransformationsWorker> computeTransformationsWorkers;
+	private ArrayList<Future<Void>> computeTransformationsWorkerFutures;
+	private ArrayList<Object3D> computeTransformationsObjects;
+
 	private Matrix4x4 modelViewMatrix;
 	private Matrix4x4 projectionMatrix;
 	private Matrix4x4 tmpMatrix4x4;
@@ -250,6 +293,13 @@ public final class Engine {
 		renderingInitiated = false;
 		renderingComputedTransformations = false;
 
+		// worker threads
+		workerThreads = 1;
+		workerThreadPool = null;
+		computeTransformationsWorkers = new ArrayList<ComputeTransformationsWorker>();
+		computeTransformationsWorkerFutures = new ArrayList<Future<Void>>();
+		computeTransformationsObjects = new ArrayList<Object3D>();
+
 		// matrices
 		modelViewMatrix = new Matrix4x4();
 		projectionMatrix = new Matrix4x4();
@@ -424,6 +474,47 @@ public final class Engine {
 		return object3DVBORenderer;
 	}
 
+	/**
+	 * @return number of worker threads used for computing transformations of visible objects
+	 */
+	public int getWorkerThreads() {
+		return workerThreads;
+	}
+
+	/**
+	 * Set number of worker threads used for computing transformations of visible objects,
+	 * 	with more than 1 worker thread animations and skinning of visible objects are computed in parallel,
+	 * 	workers are joined before rendering, uploading to graphics board is still done when rendering
+	 * @param worker threads
+	 */
+	public void setWorkerThreads(int workerThreads) {
+		if (workerThreads < 1) workerThreads = 1;
+		if (workerThreads == this.workerThreads) return;
+
+		// shut down current worker threads
+		if (workerThreadPool != null) {
+			workerThreadPool.shutdown();
+			workerThreadPool = null;
+		}
+		computeTransformationsWorkers.clear();
+
+		//
+		this.workerThreads = workerThreads;
+		if (workerThreads == 1) return;
+
+		// create worker threads
+		workerThreadPool = Executors.newFixedThreadPool(workerThreads, new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "tdme-engine-worker");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		for (int i = 0; i < workerThreads; i++) {
+			computeTransformationsWorkers.add(new ComputeTransformationsWorker(i));
+		}
+	}
+
 	/**
 	 * @return scene / background color
 	 */
@@ -560,6 +651,9 @@ public final class Engine {
 				final public void onUpdateMaterial() {
 					if (lightingShader != null) lightingShader.updateMaterial(this);
 				}
+				final public void onUpdateInstancedRendering() {
+					if (lightingShader != null) lightingShader.updateInstancedRendering(this);
+				}
 			};
 			// notify gl context to renderer
 			renderer.setGL(gl);
@@ -611,6 +705,9 @@ public final class Engine {
 				final public void onUpdateMaterial() {
 					if (lightingShader != null) lightingShader.updateMaterial(this);
 				}
+				final public void onUpdateInstancedRendering() {
+					if (lightingShader != null) lightingShader.updateInstancedRendering(this);
+				}
 			};
 			// notify gl context to renderer
 			renderer.setGL(gl);
@@ -662,6 +759,9 @@ public final class Engine {
 				final public void onUpdateMaterial() {
 					if (lightingShader != null) lightingShader.updateMaterial(this);
 				}
+				final public void onUpdateInstancedRendering() {
+					if (lightingShader != null) lightingShader.updateInstancedRendering(this);
+				}
 			};
 			// notify gl context to renderer
 			renderer.setGL(gl);
@@ -854,8 +954,8 @@ public final class Engine {
 			// object 3d
 			if (entity instanceof Object3D) {
 				Object3D object = (Object3D)entity;
-				// compute transformations
-				object.computeTransformations();
+				// add to objects to compute transformations for
+				computeTransformationsObjects.add(object);
 				// add to visible objects
 				visibleObjects.add(object);
 			} else
@@ -872,10 +972,44 @@ public final class Engine {
 			}
 		}
 
+		// compute transformations
+		if (workerThreadPool == null) {
+			for (int i = 0; i < computeTransformationsObjects.size(); i++) {
+				computeTransformationsObjects.get(i).computeTransformations();
+			}
+		} else {
+			computeTransformationsParallel();
+		}
+		computeTransformationsObjects.clear();
+
 		//
 		renderingComputedTransformations = true;
 	}
 
+	/**
+	 * Computes transformations of visible objects using worker threads,
+	 * 	returns after all workers have finished
+	 */
+	private void computeTransformationsParallel() {
+		// do the transformations
+		computeTransformationsWorkerFutures.clear();
+		for (int i = 0; i < computeTransformationsWorkers.size(); i++) {
+			computeTransformationsWorkerFutures.add(workerThreadPool.submit(computeTransformationsWorkers.get(i)));
+		}
+
+		// wait until done
+		try {
+			for (int i = 0; i < computeTransformationsWorkerFutures.size(); i++) {
+				computeTransformationsWorkerFutures.get(i).get();
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Engine::computeTransformationsParallel(): interrupted", ie);
+		} catch (ExecutionException ee) {
+			throw new RuntimeException("Engine::computeTransformationsParallel(): computing transformations failed", ee.getCause());
+		}
+	}
+
 	/**
 	 * Renders the scene
 	 * @param drawable
@@ -1162,6 +1296,9 @@ public final class Engine {
 		// dispose GUI
 		gui.dispose();
 
+		// shut down worker threads
+		setWorkerThreads(1);
+
 		// if disposing main engine
 		if (this == Engine.instance) {
 			guiRenderer.dispose();
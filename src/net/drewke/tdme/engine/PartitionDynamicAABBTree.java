@@ -0,0 +1,205 @@
+package net.drewke.tdme.engine;
+
+import net.drewke.tdme.engine.primitives.BoundingBox;
+import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.engine.primitives.DynamicAABBTree;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.utils.ArrayList;
+import net.drewke.tdme.utils.ArrayListIteratorMultiple;
+import net.drewke.tdme.utils.HashMap;
+
+/**
+ * Dynamic AABB tree partition implementation
+ * 	Entities are stored with fat bounds, moving entities only update the tree when leaving their fat bounds
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class PartitionDynamicAABBTree extends Partition {
+
+	private final static float FAT_MARGIN = 0.5f;
+
+	private DynamicAABBTree tree;
+
+	// proxies, entities are indexed by proxy id
+	private HashMap<String, Integer> entityProxies;
+	private Entity[] proxyEntities;
+
+	// queries
+	private ArrayList<Entity> visibleEntities;
+	private ArrayList<Entity> nearEntities;
+	private ArrayListIteratorMultiple<Entity> entityIterator;
+
+	private Vector3 halfExtension;
+	private Vector3 sideVector;
+	private Vector3 upVector;
+	private Vector3 forwardVector;
+
+	/**
+	 * Public constructor
+	 */
+	public PartitionDynamicAABBTree() {
+		this.tree = new DynamicAABBTree(FAT_MARGIN);
+		this.entityProxies = new HashMap<String, Integer>();
+		this.visibleEntities = new ArrayList<Entity>();
+		this.nearEntities = new ArrayList<Entity>();
+		this.entityIterator = new ArrayListIteratorMultiple<Entity>();
+		this.halfExtension = new Vector3();
+		this.sideVector = new Vector3(1f,0f,0f);
+		this.upVector = new Vector3(0f,1f,0f);
+		this.forwardVector = new Vector3(0f,0f,1f);
+		reset();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.Partition#reset()
+	 */
+	protected void reset() {
+		tree.clear();
+		entityProxies.clear();
+		proxyEntities = new Entity[256];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.Partition#addEntity(net.drewke.tdme.engine.Entity)
+	 */
+	protected void addEntity(Entity entity) {
+		if (entityProxies.get(entity.getId()) != null) {
+			updateEntity(entity);
+			return;
+		}
+		BoundingBox cbv = entity.getBoundingBoxTransformed();
+		float[] min = cbv.getMin().getArray();
+		float[] max = cbv.getMax().getArray();
+		int proxy = tree.createProxy(min[0], min[1], min[2], max[0], max[1], max[2], 0);
+		if (proxy >= proxyEntities.length) {
+			int newCapacity = proxyEntities.length * 2;
+			while (newCapacity <= proxy) newCapacity*= 2;
+			Entity[] newProxyEntities = new Entity[newCapacity];
+			System.arraycopy(proxyEntities, 0, newProxyEntities, 0, proxyEntities.length);
+			proxyEntities = newProxyEntities;
+		}
+		proxyEntities[proxy] = entity;
+		entityProxies.put(entity.getId(), proxy);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.Partition#updateEntity(net.drewke.tdme.engine.Entity)
+	 */
+	protected void updateEntity(Entity entity) {
+		Integer proxy = entityProxies.get(entity.getId());
+		if (proxy == null) {
+			addEntity(entity);
+			return;
+		}
+		BoundingBox cbv = entity.getBoundingBoxTransformed();
+		float[] min = cbv.getMin().getArray();
+		float[] max = cbv.getMax().getArray();
+		proxyEntities[proxy] = entity;
+		tree.moveProxy(proxy, min[0], min[1], min[2], max[0], max[1], max[2]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.Partition#removeEntity(net.drewke.tdme.engine.Entity)
+	 */
+	protected void removeEntity(Entity entity) {
+		Integer proxy = entityProxies.remove(entity.getId());
+		if (proxy == null) return;
+		tree.destroyProxy(proxy);
+		proxyEntities[proxy] = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.Partition#getVisibleEntities(net.drewke.tdme.engine.Frustum)
+	 */
+	public ArrayList<Entity> getVisibleEntities(Frustum frustum) {
+		visibleEntities.clear();
+		int proxyCount = tree.queryPlanes(frustum.getPlanes());
+		for (int i = 0; i < proxyCount; i++) {
+			Entity entity = proxyEntities[tree.getResult(i)];
+			if (frustum.isVisible(entity.getBoundingBoxTransformed()) == false) continue;
+			visibleEntities.add(entity);
+		}
+		return visibleEntities;
+	}
+
+	/**
+	 * Collect entities of last tree query
+	 * @return entity iterator
+	 */
+	private ArrayListIteratorMultiple<Entity> getQueryResult() {
+		nearEntities.clear();
+		for (int i = 0; i < tree.getResultCount(); i++) {
+			nearEntities.add(proxyEntities[tree.getResult(i)]);
+		}
+		entityIterator.clear();
+		entityIterator.addArrayList(nearEntities);
+		return entityIterator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.Partition#getObjectsNearTo(net.drewke.tdme.engine.primitives.BoundingVolume)
+	 */
+	public ArrayListIteratorMultiple<Entity> getObjectsNearTo(BoundingVolume cbv) {
+		float[] center = cbv.getCenter().getArray();
+		halfExtension.set(
+			cbv.computeDimensionOnAxis(sideVector) + 0.2f,
+			cbv.computeDimensionOnAxis(upVector) + 0.2f,
+			cbv.computeDimensionOnAxis(forwardVector) + 0.2f
+		).scale(0.5f);
+		float[] halfExtensionXYZ = halfExtension.getArray();
+		tree.queryAABB(
+			center[0] - halfExtensionXYZ[0],
+			center[1] - halfExtensionXYZ[1],
+			center[2] - halfExtensionXYZ[2],
+			center[0] + halfExtensionXYZ[0],
+			center[1] + halfExtensionXYZ[1],
+			center[2] + halfExtensionXYZ[2]
+		);
+		return getQueryResult();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.Partition#getObjectsNearTo(net.drewke.tdme.math.Vector3)
+	 */
+	public ArrayListIteratorMultiple<Entity> getObjectsNearTo(Vector3 center) {
+		float[] centerXYZ = center.getArray();
+		tree.queryAABB(
+			centerXYZ[0] - 0.1f,
+			centerXYZ[1] - 0.1f,
+			centerXYZ[2] - 0.1f,
+			centerXYZ[0] + 0.1f,
+			centerXYZ[1] + 0.1f,
+			centerXYZ[2] + 0.1f
+		);
+		return getQueryResult();
+	}
+
+	/**
+	 * Get entities which bounds are hit by line segment from p to q
+	 * @param p
+	 * @param q
+	 * @return entities hit by line segment
+	 */
+	public ArrayListIteratorMultiple<Entity> getObjectsOnSegment(Vector3 p, Vector3 q) {
+		float[] pXYZ = p.getArray();
+		float[] qXYZ = q.getArray();
+		tree.queryRay(pXYZ[0], pXYZ[1], pXYZ[2], qXYZ[0], qXYZ[1], qXYZ[2]);
+		return getQueryResult();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return "PartitionDynamicAABBTree [entities=" + entityProxies.size() + ", tree=" + tree + "]";
+	}
+
+}
@@ -4,15 +4,16 @@ import net.drewke.tdme.engine.primitives.BoundingBox;
 import net.drewke.tdme.engine.primitives.BoundingVolume;
 import net.drewke.tdme.engine.primitives.Capsule;
 import net.drewke.tdme.engine.primitives.ConvexMesh;
+import net.drewke.tdme.engine.primitives.HeightField;
 import net.drewke.tdme.engine.primitives.LineSegment;
 import net.drewke.tdme.engine.primitives.OrientedBoundingBox;
 import net.drewke.tdme.engine.primitives.Sphere;
 import net.drewke.tdme.engine.primitives.Triangle;
+import net.drewke.tdme.engine.primitives.TriangleMesh;
 import net.drewke.tdme.math.MathTools;
 import net.drewke.tdme.math.SeparatingAxisTheorem;
 import net.drewke.tdme.math.TriangleTriangleIntersection;
 import net.drewke.tdme.math.Vector3;
-import net.drewke.tdme.utils.ArrayList;
 import net.drewke.tdme.utils.Console;
 
 /**
@@ -24,18 +25,24 @@ public final class CollisionDetection {
 
 	private final static boolean VERBOSE = false;
 	private final static int SAT_AXES_TEST_MAX = 20;
+	private final static long SAT_FEATURE_TESTS_MAX = 65536L;
 	private final static int TRIANGLES_TEST_MAX = 10000;
+	private final static int CAST_ITERATIONS_MAX = 64;
+	private final static float CAST_TOLERANCE_MIN = 0.0001f;
+	private final static float CAST_TOLERANCE_RADIUS = 0.01f;
+	private final static float CONTACT_FEATURE_TOLERANCE = 0.02f;
+	private final static int CONTACT_FEATURE_VERTICES_MAX = 32;
 
-	// current thread id
-	private long threadId;
-
-	// collision detection instance -> thread mapping
-	private static ArrayList<CollisionDetection> instances = new ArrayList<CollisionDetection>(); 
-	private static CollisionDetection instanceLast = null;
-	private static Object synchronizeObject = new Object();
+	// collision detection instance -> thread mapping, replaced on reset
+	private static volatile ThreadLocal<CollisionDetection> instances = createInstances();
 
 	private static Vector3 zeroVector = new Vector3();
 	private static int[] lineSegmentsTriangleIndices = {0, 1, 1, 2, 2, 0};
+	private static Vector3[] aabbAxes = {
+		OrientedBoundingBox.AABB_AXIS_X,
+		OrientedBoundingBox.AABB_AXIS_Y,
+		OrientedBoundingBox.AABB_AXIS_Z
+	};
 
 	private LineSegment lineSegment = new LineSegment();
 	private Vector3 closestPointOnCapsule1 = new Vector3();
@@ -88,6 +95,10 @@ public final class CollisionDetection {
 	private Vector3 satAxisBestFit = new Vector3();
 	private float satAxisBestFitPenetration = 0f;
 
+	// convex mesh feature axes
+	private Vector3 meshAxis = new Vector3();
+	private Vector3 meshEdge = new Vector3();
+
 	private SeparatingAxisTheorem separatingAxisTheorem = new SeparatingAxisTheorem();
 
 	private Vector3 hitPoint = new Vector3();
@@ -99,54 +110,84 @@ public final class CollisionDetection {
 	private Vector3 hitPointTriangle2 = new Vector3();
 
 	private CollisionResponse collision1 = new CollisionResponse();
+
+	private Triangle heightFieldTriangle = new Triangle(new Vector3(), new Vector3(), new Vector3());
+	private CollisionResponse heightFieldCollision = new CollisionResponse();
+	private Triangle triangleMeshTriangle = new Triangle(new Vector3(), new Vector3(), new Vector3());
+	private CollisionResponse triangleMeshCollision = new CollisionResponse();
+
+	private Vector3 rayFrom = new Vector3();
+	private Vector3 rayDelta = new Vector3();
+	private Vector3 rayNormal = new Vector3();
+	private Vector3 rayTmp = new Vector3();
+	private Vector3 rayBoxCenter = new Vector3();
+	private Vector3 rayBoxHalfExtension = new Vector3();
+	private Vector3 rayCapsuleAxis = new Vector3();
+	private Vector3 rayCapsuleStartPerp = new Vector3();
+	private Vector3 rayCapsuleDeltaPerp = new Vector3();
+	private Vector3 rayTriangleEdge1 = new Vector3();
+	private Vector3 rayTriangleEdge2 = new Vector3();
+	private Vector3 rayTriangleP = new Vector3();
+	private Vector3 rayTriangleQ = new Vector3();
+	private Triangle rayTriangle = new Triangle(new Vector3(), new Vector3(), new Vector3());
+	private Vector3 castPosition = new Vector3();
+	private Vector3 castBoundsMin = new Vector3();
+	private Vector3 castBoundsMax = new Vector3();
+	private Capsule castCapsule = new Capsule(new Vector3(), new Vector3(0f, 1f, 0f), 0f);
+	private Vector3 castClosestPoint = new Vector3();
+
+	private GJK gjk = new GJK();
+	private Vector3 contactTangent1 = new Vector3();
+	private Vector3 contactTangent2 = new Vector3();
+	private Vector3 contactDirection = new Vector3();
+	private Vector3[] contactFeatureVertices = {
+		new Vector3(), new Vector3()
+	};
+	private float contactFeatureExtreme;
+	private float[] contactFeature1 = new float[CONTACT_FEATURE_VERTICES_MAX * 2];
+	private float[] contactFeature2 = new float[CONTACT_FEATURE_VERTICES_MAX * 2];
+	private float[] contactHull = new float[(CONTACT_FEATURE_VERTICES_MAX + 1) * 2 * 2];
+	private float[] contactPolygon = new float[CONTACT_FEATURE_VERTICES_MAX * 2 * 2 * 2];
+	private float[] contactPolygonClipped = new float[CONTACT_FEATURE_VERTICES_MAX * 2 * 2 * 2];
 	
 
 	private final static boolean CHECK_COLLISIONRESPONSE = false;
 
 	/**
-	 * Singleton method
+	 * Create collision detection instance -> thread mapping
+	 * @return thread local
+	 */
+	private static ThreadLocal<CollisionDetection> createInstances() {
+		return new ThreadLocal<CollisionDetection>() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.ThreadLocal#initialValue()
+			 */
+			protected CollisionDetection initialValue() {
+				return new CollisionDetection();
+			}
+		};
+	}
+
+	/**
+	 * Singleton method, each thread gets its own instance without any synchronization
 	 * @return collision detection for current thread
 	 */
 	public static CollisionDetection getInstance() {
-		// try to use last used thread
-		long currentThreadId = Thread.currentThread().getId();
-		if (instanceLast != null &&
-			instanceLast.threadId == currentThreadId) {
-			return instanceLast;
-		}
-
-		// otherwise find again collision detection instance by thread id
-		synchronized(synchronizeObject) {
-			// check if we already have this thread
-			for (int i = 0; i < instances.size(); i++) {
-				CollisionDetection instance = instances.get(i); 
-				if (instance.threadId == currentThreadId) {
-					instanceLast = instance;
-					return instance;
-				}
-			}
-	
-			// nope, add this one
-			CollisionDetection instance = new CollisionDetection(currentThreadId);
-			instances.add(instance);
-			instanceLast = instance;
-			return instance;
-		}
+		return instances.get();
 	}
 
 	/**
-	 * Reset
+	 * Reset, threads will create new instances on next use
 	 */
-	public static synchronized void reset() {
-		instances.clear();
+	public static void reset() {
+		instances = createInstances();
 	}
 
 	/**
 	 * Constructor
 	 */
-	private CollisionDetection(long threadId) {
-		this.threadId = threadId;
-
+	private CollisionDetection() {
 		// sat test variables
 		satPenetrations = new float[SAT_AXES_TEST_MAX];
 		satAxes = new Vector3[SAT_AXES_TEST_MAX];
@@ -197,12 +238,82 @@ public final class CollisionDetection {
 			}
 			if (haveSatAxisBestFit == false || -satPenetrations[i] > satAxisBestFitPenetration) {
 				haveSatAxisBestFit = true;
-				satAxisBestFit.set(satAxes[i]);
+				satAxisBestFit.set(satAxes[i]).normalize();
 				satAxisBestFitPenetration = -satPenetrations[i];
 			}
 		}
 	}
 
+	/**
+	 * Check if vertices are separated on given axis
+	 * @param vertices 1
+	 * @param vertices 2
+	 * @param axis
+	 * @return if separated, false on invalid axis
+	 */
+	private boolean isSeparatedOnAxis(Vector3[] vertices1, Vector3[] vertices2, Vector3 axis) {
+		if (separatingAxisTheorem.checkAxis(axis) == false) return false;
+		return separatingAxisTheorem.doSpanIntersect(vertices1, vertices2, axis, satPenetrations, 0) == false;
+	}
+
+	/**
+	 * Check if convex meshes are separated on a unique face normal or on a cross product of unique edge directions,
+	 * 	as this is quadratic in edges, GJK is used instead if there are more than SAT_FEATURE_TESTS_MAX vertex projections
+	 * @param convex mesh 1
+	 * @param convex mesh 2
+	 * @return if separated
+	 */
+	private boolean isSeparated(ConvexMesh mesh1, ConvexMesh mesh2) {
+		Vector3[] mesh1Vertices = mesh1.getVertices();
+		Vector3[] mesh2Vertices = mesh2.getVertices();
+		long axes = mesh1.getFaceNormalCount() + mesh2.getFaceNormalCount() + (long)mesh1.getEdgeCount() * mesh2.getEdgeCount();
+		if (axes * (mesh1Vertices.length + mesh2Vertices.length) > SAT_FEATURE_TESTS_MAX) return gjk.isSeparated(mesh1, mesh2);
+		for (int i = 0; i < mesh1.getFaceNormalCount(); i++) {
+			if (isSeparatedOnAxis(mesh1Vertices, mesh2Vertices, mesh1.computeFaceNormal(i, meshAxis)) == true) return true;
+		}
+		for (int i = 0; i < mesh2.getFaceNormalCount(); i++) {
+			if (isSeparatedOnAxis(mesh1Vertices, mesh2Vertices, mesh2.computeFaceNormal(i, meshAxis)) == true) return true;
+		}
+		for (int i = 0; i < mesh1.getEdgeCount(); i++) {
+			mesh1.computeEdge(i, meshEdge);
+			for (int j = 0; j < mesh2.getEdgeCount(); j++) {
+				Vector3.computeCrossProduct(meshEdge, mesh2.computeEdge(j, meshAxis), satAxis);
+				if (isSeparatedOnAxis(mesh1Vertices, mesh2Vertices, satAxis) == true) return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Check if convex mesh and oriented bounding box are separated on a unique face normal, an obb axis
+	 * 	or a cross product of a unique edge direction and an obb axis,
+	 * 	GJK is used instead if there are more than SAT_FEATURE_TESTS_MAX vertex projections
+	 * @param convex mesh
+	 * @param oriented bounding box
+	 * @return if separated
+	 */
+	private boolean isSeparated(ConvexMesh mesh, OrientedBoundingBox obb) {
+		Vector3[] meshVertices = mesh.getVertices();
+		Vector3[] obbVertices = obb.getVertices();
+		Vector3[] obbAxes = obb.getAxes();
+		long axes = mesh.getFaceNormalCount() + obbAxes.length + (long)mesh.getEdgeCount() * obbAxes.length;
+		if (axes * (meshVertices.length + obbVertices.length) > SAT_FEATURE_TESTS_MAX) return gjk.isSeparated(mesh, obb);
+		for (int i = 0; i < mesh.getFaceNormalCount(); i++) {
+			if (isSeparatedOnAxis(meshVertices, obbVertices, mesh.computeFaceNormal(i, meshAxis)) == true) return true;
+		}
+		for (int i = 0; i < obbAxes.length; i++) {
+			if (isSeparatedOnAxis(meshVertices, obbVertices, meshAxis.set(obbAxes[i])) == true) return true;
+		}
+		for (int i = 0; i < mesh.getEdgeCount(); i++) {
+			mesh.computeEdge(i, meshEdge);
+			for (int j = 0; j < obbAxes.length; j++) {
+				Vector3.computeCrossProduct(meshEdge, obbAxes[j], satAxis);
+				if (isSeparatedOnAxis(meshVertices, obbVertices, satAxis) == true) return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Reset triangles to test
 	 */
@@ -1010,6 +1121,9 @@ public final class CollisionDetection {
 		// do broad test
 		if (doBroadTest(mesh, obb) == false) return false;
 
+		// check if separated on unique features
+		if (isSeparated(mesh, obb) == true) return false;
+
 		//
 		Vector3[] obbVertices = obb.getVertices();
 		Vector3[] obbAxes = obb.getAxes();
@@ -1182,6 +1296,9 @@ public final class CollisionDetection {
 		// do broad test
 		if (doBroadTest(mesh1, mesh2) == false) return false;
 
+		// check if separated on unique features
+		if (isSeparated(mesh1, mesh2) == true) return false;
+
 		// do triangle triangle test
 		Vector3[] mesh1Vertices = mesh1.getVertices();
 		Vector3[] mesh2Vertices = mesh2.getVertices();
@@ -1472,6 +1589,1397 @@ public final class CollisionDetection {
 		return collision.hasEntitySelected();
 	}
 
+	/**
+	 * Orient collision response normals to point to front side of triangle
+	 * 	triangles of height fields and triangle meshes are one sided, a bounding volume that penetrates a triangle from behind has to be pushed to the front
+	 * @param triangle
+	 * @param collision response of triangle with other bounding volume
+	 */
+	private void orientResponseToTriangleFace(Triangle triangle, CollisionResponse collision) {
+		Vector3[] triangleVertices = triangle.getVertices();
+		triangle1Edge1.set(triangleVertices[1]).sub(triangleVertices[0]);
+		triangle1Edge2.set(triangleVertices[2]).sub(triangleVertices[1]);
+		Vector3.computeCrossProduct(triangle1Edge1, triangle1Edge2, triangle1Normal);
+		if (Vector3.computeDotProduct(collision.getNormal(), triangle1Normal) < 0f) {
+			collision.invertNormals();
+		}
+	}
+
+	/**
+	 * Check if height field collides with bounding volume
+	 * 	walks the height field cells below the bounding volume and tests their triangles
+	 * @param height field
+	 * @param bounding volume
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	private boolean doCollideHeightField(HeightField heightField, BoundingVolume bv, Vector3 movement, CollisionResponse collision) {
+		collision.reset();
+
+		// bounding volume axis aligned half extension
+		float[] bvCenterXYZ = bv.getCenter().getArray();
+		float bvHalfWidth = bv.computeDimensionOnAxis(OrientedBoundingBox.AABB_AXIS_X) / 2f;
+		float bvHalfHeight = bv.computeDimensionOnAxis(OrientedBoundingBox.AABB_AXIS_Y) / 2f;
+		float bvHalfDepth = bv.computeDimensionOnAxis(OrientedBoundingBox.AABB_AXIS_Z) / 2f;
+
+		// do broad test against height field bounds
+		float[] heightFieldCenterXYZ = heightField.getCenter().getArray();
+		if (Math.abs(bvCenterXYZ[0] - heightFieldCenterXYZ[0]) > bvHalfWidth + heightField.computeDimensionOnAxis(OrientedBoundingBox.AABB_AXIS_X) / 2f ||
+			Math.abs(bvCenterXYZ[1] - heightFieldCenterXYZ[1]) > bvHalfHeight + heightField.computeDimensionOnAxis(OrientedBoundingBox.AABB_AXIS_Y) / 2f ||
+			Math.abs(bvCenterXYZ[2] - heightFieldCenterXYZ[2]) > bvHalfDepth + heightField.computeDimensionOnAxis(OrientedBoundingBox.AABB_AXIS_Z) / 2f) {
+			return false;
+		}
+
+		// walk cells covered by bounding volume
+		float bvMinY = bvCenterXYZ[1] - bvHalfHeight;
+		int cellX0 = heightField.getCellX(bvCenterXYZ[0] - bvHalfWidth);
+		int cellX1 = heightField.getCellX(bvCenterXYZ[0] + bvHalfWidth);
+		int cellZ0 = heightField.getCellZ(bvCenterXYZ[2] - bvHalfDepth);
+		int cellZ1 = heightField.getCellZ(bvCenterXYZ[2] + bvHalfDepth);
+		for (int cellZ = cellZ0; cellZ <= cellZ1; cellZ++)
+		for (int cellX = cellX0; cellX <= cellX1; cellX++) {
+			// skip cells below bounding volume
+			if (heightField.getCellHeightMax(cellX, cellZ) < bvMinY) continue;
+
+			// test cell triangles
+			for (int triangleIdx = 0; triangleIdx < 2; triangleIdx++) {
+				heightField.computeCellTriangle(cellX, cellZ, triangleIdx, heightFieldTriangle);
+				if (heightFieldTriangle.doesCollideWith(bv, movement, heightFieldCollision) == true) {
+					orientResponseToTriangleFace(heightFieldTriangle, heightFieldCollision);
+					collision.mergeResponse(heightFieldCollision);
+				}
+			}
+		}
+
+		// we have a collision, return collision response
+		return collision.hasEntitySelected();
+	}
+
+	/**
+	 * Check if height field collides with sphere
+	 * @param height field
+	 * @param sphere
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(HeightField heightField, Sphere sphere, Vector3 movement, CollisionResponse collision) {
+		return doCollideHeightField(heightField, sphere, movement, collision);
+	}
+
+	/**
+	 * Check if sphere collides with height field
+	 * @param sphere
+	 * @param height field
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(Sphere sphere, HeightField heightField, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(heightField, sphere, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if height field collides with capsule
+	 * @param height field
+	 * @param capsule
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(HeightField heightField, Capsule capsule, Vector3 movement, CollisionResponse collision) {
+		return doCollideHeightField(heightField, capsule, movement, collision);
+	}
+
+	/**
+	 * Check if capsule collides with height field
+	 * @param capsule
+	 * @param height field
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(Capsule capsule, HeightField heightField, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(heightField, capsule, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if height field collides with oriented bounding box
+	 * @param height field
+	 * @param oriented bounding box
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(HeightField heightField, OrientedBoundingBox obb, Vector3 movement, CollisionResponse collision) {
+		return doCollideHeightField(heightField, obb, movement, collision);
+	}
+
+	/**
+	 * Check if oriented bounding box collides with height field
+	 * @param oriented bounding box
+	 * @param height field
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(OrientedBoundingBox obb, HeightField heightField, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(heightField, obb, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if height field collides with axis aligned bounding box
+	 * @param height field
+	 * @param axis aligned bounding box
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(HeightField heightField, BoundingBox aabb, Vector3 movement, CollisionResponse collision) {
+		// transform aabb to obb
+		obbConverted2.fromBoundingBox(aabb);
+
+		// do test
+		return doCollideHeightField(heightField, obbConverted2, movement, collision);
+	}
+
+	/**
+	 * Check if axis aligned bounding box collides with height field
+	 * @param axis aligned bounding box
+	 * @param height field
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(BoundingBox aabb, HeightField heightField, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(heightField, aabb, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if height field collides with triangle
+	 * @param height field
+	 * @param triangle
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(HeightField heightField, Triangle triangle, Vector3 movement, CollisionResponse collision) {
+		return doCollideHeightField(heightField, triangle, movement, collision);
+	}
+
+	/**
+	 * Check if triangle collides with height field
+	 * @param triangle
+	 * @param height field
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(Triangle triangle, HeightField heightField, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(heightField, triangle, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if height field collides with convex mesh
+	 * @param height field
+	 * @param convex mesh
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(HeightField heightField, ConvexMesh mesh, Vector3 movement, CollisionResponse collision) {
+		return doCollideHeightField(heightField, mesh, movement, collision);
+	}
+
+	/**
+	 * Check if convex mesh collides with height field
+	 * @param convex mesh
+	 * @param height field
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(ConvexMesh mesh, HeightField heightField, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(heightField, mesh, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if triangle mesh collides with bounding volume
+	 * 	tests only triangles which bounds overlap the bounding volume axis aligned bounds
+	 * @param triangle mesh
+	 * @param bounding volume
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	private boolean doCollideTriangleMesh(TriangleMesh mesh, BoundingVolume bv, Vector3 movement, CollisionResponse collision) {
+		collision.reset();
+
+		// do broad test
+		if (doBroadTest(mesh, bv) == false) return false;
+
+		// determine triangles overlapping bounding volume axis aligned bounds
+		float[] bvCenterXYZ = bv.getCenter().getArray();
+		float bvHalfWidth = bv.computeDimensionOnAxis(OrientedBoundingBox.AABB_AXIS_X) / 2f;
+		float bvHalfHeight = bv.computeDimensionOnAxis(OrientedBoundingBox.AABB_AXIS_Y) / 2f;
+		float bvHalfDepth = bv.computeDimensionOnAxis(OrientedBoundingBox.AABB_AXIS_Z) / 2f;
+		int triangleCount = mesh.queryAABB(
+			bvCenterXYZ[0] - bvHalfWidth,
+			bvCenterXYZ[1] - bvHalfHeight,
+			bvCenterXYZ[2] - bvHalfDepth,
+			bvCenterXYZ[0] + bvHalfWidth,
+			bvCenterXYZ[1] + bvHalfHeight,
+			bvCenterXYZ[2] + bvHalfDepth
+		);
+
+		// test triangles
+		for (int i = 0; i < triangleCount; i++) {
+			mesh.computeTriangle(mesh.getResult(i), triangleMeshTriangle);
+			if (triangleMeshTriangle.doesCollideWith(bv, movement, triangleMeshCollision) == true) {
+				orientResponseToTriangleFace(triangleMeshTriangle, triangleMeshCollision);
+				collision.mergeResponse(triangleMeshCollision);
+			}
+		}
+
+		// we have a collision, return collision response
+		return collision.hasEntitySelected();
+	}
+
+	/**
+	 * Check if triangle mesh collides with sphere
+	 * @param triangle mesh
+	 * @param sphere
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(TriangleMesh mesh, Sphere sphere, Vector3 movement, CollisionResponse collision) {
+		return doCollideTriangleMesh(mesh, sphere, movement, collision);
+	}
+
+	/**
+	 * Check if sphere collides with triangle mesh
+	 * @param sphere
+	 * @param triangle mesh
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(Sphere sphere, TriangleMesh mesh, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(mesh, sphere, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if triangle mesh collides with capsule
+	 * @param triangle mesh
+	 * @param capsule
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(TriangleMesh mesh, Capsule capsule, Vector3 movement, CollisionResponse collision) {
+		return doCollideTriangleMesh(mesh, capsule, movement, collision);
+	}
+
+	/**
+	 * Check if capsule collides with triangle mesh
+	 * @param capsule
+	 * @param triangle mesh
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(Capsule capsule, TriangleMesh mesh, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(mesh, capsule, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if triangle mesh collides with oriented bounding box
+	 * @param triangle mesh
+	 * @param oriented bounding box
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(TriangleMesh mesh, OrientedBoundingBox obb, Vector3 movement, CollisionResponse collision) {
+		return doCollideTriangleMesh(mesh, obb, movement, collision);
+	}
+
+	/**
+	 * Check if oriented bounding box collides with triangle mesh
+	 * @param oriented bounding box
+	 * @param triangle mesh
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(OrientedBoundingBox obb, TriangleMesh mesh, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(mesh, obb, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if triangle mesh collides with axis aligned bounding box
+	 * @param triangle mesh
+	 * @param axis aligned bounding box
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(TriangleMesh mesh, BoundingBox aabb, Vector3 movement, CollisionResponse collision) {
+		// transform aabb to obb
+		obbConverted2.fromBoundingBox(aabb);
+
+		// do test
+		return doCollideTriangleMesh(mesh, obbConverted2, movement, collision);
+	}
+
+	/**
+	 * Check if axis aligned bounding box collides with triangle mesh
+	 * @param axis aligned bounding box
+	 * @param triangle mesh
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(BoundingBox aabb, TriangleMesh mesh, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(mesh, aabb, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if triangle mesh collides with triangle
+	 * @param triangle mesh
+	 * @param triangle
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(TriangleMesh mesh, Triangle triangle, Vector3 movement, CollisionResponse collision) {
+		return doCollideTriangleMesh(mesh, triangle, movement, collision);
+	}
+
+	/**
+	 * Check if triangle collides with triangle mesh
+	 * @param triangle
+	 * @param triangle mesh
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(Triangle triangle, TriangleMesh mesh, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(mesh, triangle, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if triangle mesh collides with convex mesh
+	 * @param triangle mesh
+	 * @param convex mesh
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(TriangleMesh mesh, ConvexMesh convexMesh, Vector3 movement, CollisionResponse collision) {
+		return doCollideTriangleMesh(mesh, convexMesh, movement, collision);
+	}
+
+	/**
+	 * Check if convex mesh collides with triangle mesh
+	 * @param convex mesh
+	 * @param triangle mesh
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollide(ConvexMesh convexMesh, TriangleMesh mesh, Vector3 movement, CollisionResponse collision) {
+		if (doCollide(mesh, convexMesh, movement, collision) == true) {
+			collision.invertNormals();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns if given bounding volume is convex, so it can be tested with GJK and EPA, see doCollideGJKEPA()
+	 * @param bounding volume
+	 * @return if bounding volume is convex
+	 */
+	public static boolean isConvex(BoundingVolume bv) {
+		return
+			bv instanceof BoundingBox ||
+			bv instanceof OrientedBoundingBox ||
+			bv instanceof Sphere ||
+			bv instanceof Capsule ||
+			bv instanceof Triangle ||
+			bv instanceof ConvexMesh;
+	}
+
+	/**
+	 * Check if convex bounding volumes do collide using GJK and EPA on their support points,
+	 * 	alternative to dedicated doCollide() methods which do SAT over every convex mesh triangle
+	 * 	Hit points are determined by clipping the features of both bounding volumes which face each other on the contact plane,
+	 * 	if EPA fails on degenerated bounding volumes the dedicated test is used
+	 * @param bounding volume 1, must be convex
+	 * @param bounding volume 2, must be convex
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	public boolean doCollideGJKEPA(BoundingVolume bv1, BoundingVolume bv2, Vector3 movement, CollisionResponse collision) {
+		collision.reset();
+
+		// do broad test
+		if (doBroadTest(bv1, bv2) == false) return false;
+
+		// do narrow test
+		switch (gjk.computePenetration(bv1, bv2)) {
+			case SEPARATED:
+				return false;
+			case DEGENERATE:
+				return bv1.doesCollideWith(bv2, movement, collision);
+			case PENETRATING:
+				break;
+		}
+
+		// create single collision response
+		CollisionResponse.Entity entity = collision.addResponse(-gjk.getPenetration());
+		entity.getNormal().set(gjk.getNormal());
+		computeContactPlaneHitPoints(bv1, bv2, gjk.getNormal(), entity);
+		if (entity.getHitPointsCount() == 0) {
+			entity.addHitPoint(gjk.getPoint1());
+			entity.addHitPoint(gjk.getPoint2());
+		}
+		if (CHECK_COLLISIONRESPONSE) checkCollision(collision);
+
+		// we have a collision, return collision response
+		return true;
+	}
+
+	/**
+	 * Compute hit points by clipping features of both bounding volumes which face each other on contact plane
+	 * 	Features are vertices which are within tolerance of the support point on contact normal,
+	 * 	only face/face, face/edge and face/vertex contacts generate hit points this way
+	 * @param bounding volume 1
+	 * @param bounding volume 2
+	 * @param normal pointing from bounding volume 1 to bounding volume 2
+	 * @param collision entity
+	 */
+	private void computeContactPlaneHitPoints(BoundingVolume bv1, BoundingVolume bv2, Vector3 normal, CollisionResponse.Entity collisionEntity) {
+		// contact plane tangents
+		GJK.computeOrthogonalVector(normal, contactTangent1);
+		contactTangent1.normalize();
+		Vector3.computeCrossProduct(normal, contactTangent1, contactTangent2);
+
+		// features facing each other
+		int feature1Count = computeContactFeature(bv1, contactDirection.set(normal), contactFeature1);
+		float feature1Extreme = contactFeatureExtreme;
+		int feature2Count = computeContactFeature(bv2, contactDirection.set(normal).scale(-1f), contactFeature2);
+		float feature2Extreme = contactFeatureExtreme;
+		feature1Count = computeConvexHull(contactFeature1, feature1Count);
+		feature2Count = computeConvexHull(contactFeature2, feature2Count);
+
+		// clip features
+		int hitPointCount = 0;
+		if (feature1Count >= 3 && feature2Count >= 3) {
+			hitPointCount = clipPolygon(contactFeature1, feature1Count, contactFeature2, feature2Count);
+		} else
+		if (feature1Count >= 3 && feature2Count >= 1) {
+			hitPointCount = clipSegment(contactFeature2, feature2Count, contactFeature1, feature1Count);
+		} else
+		if (feature2Count >= 3 && feature1Count >= 1) {
+			hitPointCount = clipSegment(contactFeature1, feature1Count, contactFeature2, feature2Count);
+		}
+
+		// add hit points on plane between both features, hit points at a vertex of a feature get the vertex as feature
+		float height = (feature1Extreme - feature2Extreme) / 2f;
+		for (int i = 0; i < hitPointCount && collisionEntity.getHitPointsCount() < CollisionResponse.HITPOINT_COUNT; i++) {
+			float x = contactPolygon[i * 2 + 0];
+			float y = contactPolygon[i * 2 + 1];
+			int feature = computeContactPlaneHitPointFeature(bv1, 0, normal, 1f, feature1Extreme, x, y);
+			if (feature == CollisionResponse.FEATURE_NONE) feature = computeContactPlaneHitPointFeature(bv2, 1, normal, -1f, feature2Extreme, x, y);
+			hitPoint.set(normal).scale(height);
+			hitPoint.add(contactDirection.set(contactTangent1).scale(x));
+			hitPoint.add(contactDirection.set(contactTangent2).scale(y));
+			collisionEntity.addHitPoint(hitPoint, feature);
+		}
+	}
+
+	/**
+	 * Get vertices of bounding volumes which are polytopes
+	 * @param bounding volume
+	 * @return vertices or null
+	 */
+	private static Vector3[] getPolytopeVertices(BoundingVolume bv) {
+		if (bv instanceof BoundingBox) {
+			return ((BoundingBox)bv).getVertices();
+		} else
+		if (bv instanceof OrientedBoundingBox) {
+			return ((OrientedBoundingBox)bv).getVertices();
+		} else
+		if (bv instanceof Triangle) {
+			return ((Triangle)bv).getVertices();
+		} else
+		if (bv instanceof ConvexMesh) {
+			return ((ConvexMesh)bv).getVertices();
+		}
+		return null;
+	}
+
+	/**
+	 * Compute feature of hit point on contact plane, which is the vertex of the contact feature of given bounding volume located at hit point
+	 * @param bounding volume
+	 * @param bounding volume idx
+	 * @param normal
+	 * @param direction sign, 1 if feature faces along normal, -1 otherwise
+	 * @param feature extreme
+	 * @param x on contact plane
+	 * @param y on contact plane
+	 * @return feature or CollisionResponse.FEATURE_NONE
+	 */
+	private int computeContactPlaneHitPointFeature(BoundingVolume bv, int bvIdx, Vector3 normal, float directionSign, float featureExtreme, float x, float y) {
+		Vector3[] vertices = getPolytopeVertices(bv);
+		if (vertices == null) return CollisionResponse.FEATURE_NONE;
+		for (int i = 0; i < vertices.length; i++) {
+			if (Vector3.computeDotProduct(vertices[i], normal) * directionSign < featureExtreme - CONTACT_FEATURE_TOLERANCE) continue;
+			if (Math.abs(Vector3.computeDotProduct(vertices[i], contactTangent1) - x) > CONTACT_FEATURE_TOLERANCE ||
+				Math.abs(Vector3.computeDotProduct(vertices[i], contactTangent2) - y) > CONTACT_FEATURE_TOLERANCE) {
+				continue;
+			}
+			return CollisionResponse.computeFeature(bvIdx, i);
+		}
+		return CollisionResponse.FEATURE_NONE;
+	}
+
+	/**
+	 * Compute feature of bounding volume in given direction projected onto contact plane tangents,
+	 * 	stores support distance in contactFeatureExtreme
+	 * @param bounding volume
+	 * @param direction, normalized
+	 * @param feature, x and y on contact plane
+	 * @return feature vertex count
+	 */
+	private int computeContactFeature(BoundingVolume bv, Vector3 direction, float[] feature) {
+		// determine vertices
+		Vector3[] vertices = getPolytopeVertices(bv);
+		int vertexCount = 0;
+		if (vertices != null) {
+			vertexCount = vertices.length;
+		} else
+		if (bv instanceof Sphere) {
+			vertices = contactFeatureVertices;
+			Sphere sphere = (Sphere)bv;
+			vertices[vertexCount++].set(direction).scale(sphere.getRadius()).add(sphere.getCenter());
+		} else
+		if (bv instanceof Capsule) {
+			vertices = contactFeatureVertices;
+			Capsule capsule = (Capsule)bv;
+			vertices[vertexCount++].set(direction).scale(capsule.getRadius()).add(capsule.getA());
+			vertices[vertexCount++].set(direction).scale(capsule.getRadius()).add(capsule.getB());
+		}
+		if (vertexCount == 0) return 0;
+
+		// determine support distance
+		contactFeatureExtreme = Vector3.computeDotProduct(vertices[0], direction);
+		for (int i = 1; i < vertexCount; i++) {
+			contactFeatureExtreme = Math.max(contactFeatureExtreme, Vector3.computeDotProduct(vertices[i], direction));
+		}
+
+		// vertices within tolerance of support distance
+		int featureCount = 0;
+		for (int i = 0; i < vertexCount && featureCount < CONTACT_FEATURE_VERTICES_MAX; i++) {
+			if (Vector3.computeDotProduct(vertices[i], direction) < contactFeatureExtreme - CONTACT_FEATURE_TOLERANCE) continue;
+			feature[featureCount * 2 + 0] = Vector3.computeDotProduct(vertices[i], contactTangent1);
+			feature[featureCount * 2 + 1] = Vector3.computeDotProduct(vertices[i], contactTangent2);
+			featureCount++;
+		}
+		return featureCount;
+	}
+
+	/**
+	 * Compute counter clockwise convex hull of 2d points in place using monotone chain
+	 * @param points, x and y
+	 * @param point count
+	 * @return hull point count, 1 for a point, 2 for a line segment
+	 */
+	private int computeConvexHull(float[] points, int count) {
+		// sort points by x and y
+		for (int i = 1; i < count; i++) {
+			float x = points[i * 2 + 0];
+			float y = points[i * 2 + 1];
+			int j = i;
+			while (j > 0 && (points[(j - 1) * 2 + 0] > x || (points[(j - 1) * 2 + 0] == x && points[(j - 1) * 2 + 1] > y))) {
+				points[j * 2 + 0] = points[(j - 1) * 2 + 0];
+				points[j * 2 + 1] = points[(j - 1) * 2 + 1];
+				j--;
+			}
+			points[j * 2 + 0] = x;
+			points[j * 2 + 1] = y;
+		}
+
+		// lower and upper hull
+		int hullCount = 0;
+		for (int i = 0; i < count; i++) {
+			while (hullCount >= 2 && computeCross2D(contactHull, hullCount - 2, hullCount - 1, points[i * 2 + 0], points[i * 2 + 1]) <= MathTools.EPSILON) hullCount--;
+			contactHull[hullCount * 2 + 0] = points[i * 2 + 0];
+			contactHull[hullCount * 2 + 1] = points[i * 2 + 1];
+			hullCount++;
+		}
+		int lowerHullCount = hullCount + 1;
+		for (int i = count - 2; i >= 0; i--) {
+			while (hullCount >= lowerHullCount && computeCross2D(contactHull, hullCount - 2, hullCount - 1, points[i * 2 + 0], points[i * 2 + 1]) <= MathTools.EPSILON) hullCount--;
+			contactHull[hullCount * 2 + 0] = points[i * 2 + 0];
+			contactHull[hullCount * 2 + 1] = points[i * 2 + 1];
+			hullCount++;
+		}
+
+		// last point equals first point
+		if (hullCount > 1) hullCount--;
+
+		// remove coincident points of degenerated hulls
+		if (hullCount == 2 &&
+			Math.abs(contactHull[0] - contactHull[2]) < MathTools.EPSILON &&
+			Math.abs(contactHull[1] - contactHull[3]) < MathTools.EPSILON) {
+			hullCount = 1;
+		}
+		System.arraycopy(contactHull, 0, points, 0, hullCount * 2);
+		return hullCount;
+	}
+
+	/**
+	 * Compute 2d cross product of edge a to b and a to point
+	 * @param points, x and y
+	 * @param index a
+	 * @param index b
+	 * @param point x
+	 * @param point y
+	 * @return cross product, positive if point is left of edge
+	 */
+	private static float computeCross2D(float[] points, int a, int b, float x, float y) {
+		float ax = points[a * 2 + 0];
+		float ay = points[a * 2 + 1];
+		return (points[b * 2 + 0] - ax) * (y - ay) - (points[b * 2 + 1] - ay) * (x - ax);
+	}
+
+	/**
+	 * Clip polygon by convex clipping polygon using Sutherland-Hodgman, result is stored in contact polygon
+	 * @param polygon, x and y, counter clockwise
+	 * @param polygon point count
+	 * @param clipping polygon, x and y, counter clockwise
+	 * @param clipping polygon point count
+	 * @return contact polygon point count
+	 */
+	private int clipPolygon(float[] polygon, int polygonCount, float[] clippingPolygon, int clippingPolygonCount) {
+		System.arraycopy(polygon, 0, contactPolygon, 0, polygonCount * 2);
+		int count = polygonCount;
+		for (int i = 0; i < clippingPolygonCount && count > 0; i++) {
+			int j = (i + 1) % clippingPolygonCount;
+			System.arraycopy(contactPolygon, 0, contactPolygonClipped, 0, count * 2);
+			int clippedCount = count;
+			count = 0;
+			for (int k = 0; k < clippedCount; k++) {
+				int l = (k + 1) % clippedCount;
+				float x1 = contactPolygonClipped[k * 2 + 0];
+				float y1 = contactPolygonClipped[k * 2 + 1];
+				float x2 = contactPolygonClipped[l * 2 + 0];
+				float y2 = contactPolygonClipped[l * 2 + 1];
+				float side1 = computeCross2D(clippingPolygon, i, j, x1, y1);
+				float side2 = computeCross2D(clippingPolygon, i, j, x2, y2);
+				if (side1 >= 0f) {
+					contactPolygon[count * 2 + 0] = x1;
+					contactPolygon[count * 2 + 1] = y1;
+					count++;
+				}
+				if ((side1 >= 0f) != (side2 >= 0f)) {
+					float t = side1 / (side1 - side2);
+					contactPolygon[count * 2 + 0] = x1 + (x2 - x1) * t;
+					contactPolygon[count * 2 + 1] = y1 + (y2 - y1) * t;
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Clip point or line segment by convex clipping polygon, result is stored in contact polygon
+	 * @param segment, x and y
+	 * @param segment point count, 1 or 2
+	 * @param clipping polygon, x and y, counter clockwise
+	 * @param clipping polygon point count
+	 * @return contact polygon point count
+	 */
+	private int clipSegment(float[] segment, int segmentCount, float[] clippingPolygon, int clippingPolygonCount) {
+		float x1 = segment[0];
+		float y1 = segment[1];
+		float x2 = segment[(segmentCount - 1) * 2 + 0];
+		float y2 = segment[(segmentCount - 1) * 2 + 1];
+		float t1 = 0f;
+		float t2 = 1f;
+		for (int i = 0; i < clippingPolygonCount; i++) {
+			int j = (i + 1) % clippingPolygonCount;
+			float side1 = computeCross2D(clippingPolygon, i, j, x1, y1);
+			float side2 = computeCross2D(clippingPolygon, i, j, x2, y2);
+			if (side1 < 0f && side2 < 0f) return 0;
+			if (side1 < 0f) t1 = Math.max(t1, side1 / (side1 - side2));
+			if (side2 < 0f) t2 = Math.min(t2, side1 / (side1 - side2));
+		}
+		if (t1 > t2) return 0;
+		contactPolygon[0] = x1 + (x2 - x1) * t1;
+		contactPolygon[1] = y1 + (y2 - y1) * t1;
+		if (segmentCount == 1) return 1;
+		contactPolygon[2] = x1 + (x2 - x1) * t2;
+		contactPolygon[3] = y1 + (y2 - y1) * t2;
+		return 2;
+	}
+
+	/**
+	 * Cast ray from given start to given end against given bounding volume,
+	 * 	given hit is only updated if bounding volume is hit before current hit fraction, so hit fraction limits the cast
+	 * 	Rays starting inside a box, sphere, capsule or convex mesh hit at fraction 0,
+	 * 	height fields and triangle meshes are treated as surfaces
+	 * @param bounding volume
+	 * @param from
+	 * @param to
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	public boolean doRayCast(BoundingVolume bv, Vector3 from, Vector3 to, RayCastHit hit) {
+		rayFrom.set(from);
+		rayDelta.set(to).sub(from);
+		if (bv instanceof BoundingBox) {
+			return doRayCastBoundingBox((BoundingBox)bv, hit);
+		} else
+		if (bv instanceof OrientedBoundingBox) {
+			OrientedBoundingBox obb = (OrientedBoundingBox)bv;
+			return doRayCastBox(obb.getCenter(), obb.getAxes(), obb.getHalfExtension(), hit);
+		} else
+		if (bv instanceof Sphere) {
+			Sphere sphere = (Sphere)bv;
+			return doRayCastSphere(sphere.getCenter(), sphere.getRadius(), 0f, hit);
+		} else
+		if (bv instanceof Capsule) {
+			Capsule capsule = (Capsule)bv;
+			return doRayCastCapsule(capsule.getA(), capsule.getB(), capsule.getRadius(), 0f, hit);
+		} else
+		if (bv instanceof Triangle) {
+			return doRayCastTriangle((Triangle)bv, hit);
+		} else
+		if (bv instanceof ConvexMesh) {
+			return doRayCastConvexMesh((ConvexMesh)bv, hit);
+		} else
+		if (bv instanceof HeightField) {
+			return doRayCastHeightField((HeightField)bv, hit);
+		} else
+		if (bv instanceof TriangleMesh) {
+			return doRayCastTriangleMesh((TriangleMesh)bv, hit);
+		} else {
+			Console.println("CollisionDetection::doRayCast(): unsupported bounding volume: " + bv);
+			return false;
+		}
+	}
+
+	/**
+	 * Cast sphere with given radius from given start to given end against given bounding volume,
+	 * 	given hit is only updated if bounding volume is hit before current hit fraction, so hit fraction limits the cast
+	 * 	Spheres and capsules are tested exactly as ray against the shape extended by radius,
+	 * 	other bounding volumes are tested by conservative advancement using their closest point
+	 * @param bounding volume
+	 * @param radius
+	 * @param from
+	 * @param to
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	public boolean doSphereCast(BoundingVolume bv, float radius, Vector3 from, Vector3 to, RayCastHit hit) {
+		rayFrom.set(from);
+		rayDelta.set(to).sub(from);
+		if (bv instanceof Sphere) {
+			Sphere sphere = (Sphere)bv;
+			return doRayCastSphere(sphere.getCenter(), sphere.getRadius(), radius, hit);
+		} else
+		if (bv instanceof Capsule) {
+			Capsule capsule = (Capsule)bv;
+			return doRayCastCapsule(capsule.getA(), capsule.getB(), capsule.getRadius(), radius, hit);
+		} else {
+			return doSphereCastConservativeAdvancement(bv, radius, hit);
+		}
+	}
+
+	/**
+	 * Cast capsule along given movement against given bounding volume,
+	 * 	given hit is only updated if bounding volume is hit before current hit fraction, so hit fraction limits the cast
+	 * 	Convex bounding volumes are tested by conservative advancement on GJK distance of the whole capsule,
+	 * 	height fields and triangle meshes the same way with each of their triangles within the swept capsule bounds
+	 * 	Capsules starting inside a convex bounding volume hit at fraction 0
+	 * @param bounding volume
+	 * @param capsule
+	 * @param movement
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	public boolean doCapsuleCast(BoundingVolume bv, Capsule capsule, Vector3 movement, RayCastHit hit) {
+		rayFrom.set(capsule.getCenter());
+		rayDelta.set(movement);
+		if (isConvex(bv) == true) {
+			return doCapsuleCastConservativeAdvancement(bv, capsule, hit);
+		} else
+		if (bv instanceof HeightField) {
+			return doCapsuleCastHeightField((HeightField)bv, capsule, hit);
+		} else
+		if (bv instanceof TriangleMesh) {
+			return doCapsuleCastTriangleMesh((TriangleMesh)bv, capsule, hit);
+		} else {
+			Console.println("CollisionDetection::doCapsuleCast(): unsupported bounding volume: " + bv);
+			return false;
+		}
+	}
+
+	/**
+	 * Compute fraction where segment from given start to given end enters axis aligned bounds of given bounding volume extended by radius
+	 * @param bounding volume
+	 * @param radius
+	 * @param from
+	 * @param to
+	 * @return fraction or Float.MAX_VALUE if segment misses bounds
+	 */
+	public float computeSegmentEntryFraction(BoundingVolume bv, float radius, Vector3 from, Vector3 to) {
+		float[] centerXYZ = bv.getCenter().getArray();
+		float[] fromXYZ = from.getArray();
+		float[] toXYZ = to.getArray();
+		float fractionMin = 0f;
+		float fractionMax = 1f;
+		for (int i = 0; i < 3; i++) {
+			float halfExtension = bv.computeDimensionOnAxis(aabbAxes[i]) / 2f + radius;
+			float min = centerXYZ[i] - halfExtension;
+			float max = centerXYZ[i] + halfExtension;
+			float delta = toXYZ[i] - fromXYZ[i];
+			if (Math.abs(delta) < MathTools.EPSILON) {
+				if (fromXYZ[i] < min || fromXYZ[i] > max) return Float.MAX_VALUE;
+				continue;
+			}
+			float fraction1 = (min - fromXYZ[i]) / delta;
+			float fraction2 = (max - fromXYZ[i]) / delta;
+			if (fraction1 > fraction2) {
+				float tmp = fraction1;
+				fraction1 = fraction2;
+				fraction2 = tmp;
+			}
+			if (fraction1 > fractionMin) fractionMin = fraction1;
+			if (fraction2 < fractionMax) fractionMax = fraction2;
+			if (fractionMin > fractionMax) return Float.MAX_VALUE;
+		}
+		return fractionMin;
+	}
+
+	/**
+	 * Set up ray cast hit at given fraction of current ray if not behind current hit
+	 * @param fraction
+	 * @param normal, will be normalized
+	 * @param cast radius, hit point is moved by radius against normal
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean setRayCastHit(float fraction, Vector3 normal, float radius, RayCastHit hit) {
+		if (fraction > hit.fraction) return false;
+		if (normal.computeLengthSquared() < MathTools.EPSILON * MathTools.EPSILON) {
+			// no normal, use ray direction
+			normal.set(rayDelta).scale(-1f);
+			if (normal.computeLengthSquared() < MathTools.EPSILON * MathTools.EPSILON) normal.set(0f, 1f, 0f);
+		}
+		hit.fraction = fraction;
+		hit.normal.set(normal).normalize();
+		hit.point.set(rayDelta).scale(fraction).add(rayFrom).sub(normal.set(hit.normal).scale(radius));
+		return true;
+	}
+
+	/**
+	 * Cast current ray against bounding box
+	 * @param bounding box
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doRayCastBoundingBox(BoundingBox aabb, RayCastHit hit) {
+		rayBoxCenter.set(aabb.getMin()).add(aabb.getMax()).scale(0.5f);
+		rayBoxHalfExtension.set(aabb.getMax()).sub(aabb.getMin()).scale(0.5f);
+		return doRayCastBox(rayBoxCenter, aabbAxes, rayBoxHalfExtension, hit);
+	}
+
+	/**
+	 * Cast current ray against box using slab test along box axes
+	 * @param center
+	 * @param axes
+	 * @param half extension
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doRayCastBox(Vector3 center, Vector3[] axes, Vector3 halfExtension, RayCastHit hit) {
+		float[] halfExtensionXYZ = halfExtension.getArray();
+		float fractionMin = -Float.MAX_VALUE;
+		float fractionMax = Float.MAX_VALUE;
+		int axisIdxMin = -1;
+		float axisSignMin = 0f;
+		rayTmp.set(rayFrom).sub(center);
+		for (int i = 0; i < 3; i++) {
+			float start = Vector3.computeDotProduct(rayTmp, axes[i]);
+			float delta = Vector3.computeDotProduct(rayDelta, axes[i]);
+			if (Math.abs(delta) < MathTools.EPSILON) {
+				if (start < -halfExtensionXYZ[i] || start > halfExtensionXYZ[i]) return false;
+				continue;
+			}
+			float fraction1 = (-halfExtensionXYZ[i] - start) / delta;
+			float fraction2 = (halfExtensionXYZ[i] - start) / delta;
+			float sign = -1f;
+			if (fraction1 > fraction2) {
+				float tmp = fraction1;
+				fraction1 = fraction2;
+				fraction2 = tmp;
+				sign = 1f;
+			}
+			if (fraction1 > fractionMin) {
+				fractionMin = fraction1;
+				axisIdxMin = i;
+				axisSignMin = sign;
+			}
+			if (fraction2 < fractionMax) fractionMax = fraction2;
+			if (fractionMin > fractionMax) return false;
+		}
+
+		// box behind ray
+		if (fractionMax < 0f) return false;
+
+		// ray starts in box
+		if (fractionMin <= 0f || axisIdxMin == -1) {
+			return setRayCastHit(0f, rayNormal.set(0f, 0f, 0f), 0f, hit);
+		}
+
+		// ray enters box
+		return setRayCastHit(fractionMin, rayNormal.set(axes[axisIdxMin]).scale(axisSignMin), 0f, hit);
+	}
+
+	/**
+	 * Cast current ray against sphere extended by cast radius
+	 * @param center
+	 * @param radius
+	 * @param cast radius
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doRayCastSphere(Vector3 center, float radius, float castRadius, RayCastHit hit) {
+		float radiusExtended = radius + castRadius;
+		rayTmp.set(rayFrom).sub(center);
+		float a = Vector3.computeDotProduct(rayDelta, rayDelta);
+		float b = Vector3.computeDotProduct(rayTmp, rayDelta);
+		float c = Vector3.computeDotProduct(rayTmp, rayTmp) - radiusExtended * radiusExtended;
+
+		// ray starts in sphere
+		if (c <= 0f) {
+			return setRayCastHit(0f, rayNormal.set(rayTmp), castRadius, hit);
+		}
+
+		// sphere behind ray or no ray
+		if (b > 0f || a < MathTools.EPSILON * MathTools.EPSILON) return false;
+
+		// intersect
+		float discriminant = b * b - a * c;
+		if (discriminant < 0f) return false;
+		float fraction = (-b - (float)Math.sqrt(discriminant)) / a;
+		if (fraction < 0f || fraction > hit.fraction) return false;
+		return setRayCastHit(fraction, rayNormal.set(rayDelta).scale(fraction).add(rayTmp), castRadius, hit);
+	}
+
+	/**
+	 * Cast current ray against capsule extended by cast radius
+	 * @param a
+	 * @param b
+	 * @param radius
+	 * @param cast radius
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doRayCastCapsule(Vector3 a, Vector3 b, float radius, float castRadius, RayCastHit hit) {
+		float radiusExtended = radius + castRadius;
+		rayCapsuleAxis.set(b).sub(a);
+		rayTmp.set(rayFrom).sub(a);
+		float axisLengthSquared = Vector3.computeDotProduct(rayCapsuleAxis, rayCapsuleAxis);
+		boolean hitUpdated = false;
+		if (axisLengthSquared > MathTools.EPSILON * MathTools.EPSILON) {
+			// components of ray start and direction perpendicular to capsule axis
+			float axisDotDelta = Vector3.computeDotProduct(rayCapsuleAxis, rayDelta);
+			float axisDotStart = Vector3.computeDotProduct(rayCapsuleAxis, rayTmp);
+			rayCapsuleStartPerp.set(rayCapsuleAxis).scale(-axisDotStart / axisLengthSquared).add(rayTmp);
+			rayCapsuleDeltaPerp.set(rayCapsuleAxis).scale(-axisDotDelta / axisLengthSquared).add(rayDelta);
+			float qa = Vector3.computeDotProduct(rayCapsuleDeltaPerp, rayCapsuleDeltaPerp);
+			float qb = Vector3.computeDotProduct(rayCapsuleStartPerp, rayCapsuleDeltaPerp);
+			float qc = Vector3.computeDotProduct(rayCapsuleStartPerp, rayCapsuleStartPerp) - radiusExtended * radiusExtended;
+
+			// ray starts in cylinder
+			if (qc <= 0f && axisDotStart >= 0f && axisDotStart <= axisLengthSquared) {
+				return setRayCastHit(0f, rayNormal.set(rayCapsuleStartPerp), castRadius, hit);
+			}
+
+			// intersect infinite cylinder, hit must be between capsule end points
+			if (qa > MathTools.EPSILON * MathTools.EPSILON) {
+				float discriminant = qb * qb - qa * qc;
+				if (discriminant >= 0f) {
+					float fraction = (-qb - (float)Math.sqrt(discriminant)) / qa;
+					float axisFraction = (axisDotStart + fraction * axisDotDelta) / axisLengthSquared;
+					if (fraction >= 0f && fraction <= hit.fraction && axisFraction >= 0f && axisFraction <= 1f) {
+						hitUpdated = setRayCastHit(fraction, rayNormal.set(rayCapsuleDeltaPerp).scale(fraction).add(rayCapsuleStartPerp), castRadius, hit);
+					}
+				}
+			}
+		}
+
+		// end spheres
+		if (doRayCastSphere(a, radius, castRadius, hit) == true) hitUpdated = true;
+		if (doRayCastSphere(b, radius, castRadius, hit) == true) hitUpdated = true;
+		return hitUpdated;
+	}
+
+	/**
+	 * Cast current ray against triangle, triangles are hit from both sides
+	 * @param triangle
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doRayCastTriangle(Triangle triangle, RayCastHit hit) {
+		Vector3[] triangleVertices = triangle.getVertices();
+		rayTriangleEdge1.set(triangleVertices[1]).sub(triangleVertices[0]);
+		rayTriangleEdge2.set(triangleVertices[2]).sub(triangleVertices[0]);
+		Vector3.computeCrossProduct(rayDelta, rayTriangleEdge2, rayTriangleP);
+		float determinant = Vector3.computeDotProduct(rayTriangleEdge1, rayTriangleP);
+		if (Math.abs(determinant) < MathTools.EPSILON * MathTools.EPSILON) return false;
+		float determinantInverse = 1f / determinant;
+		rayTmp.set(rayFrom).sub(triangleVertices[0]);
+		float u = Vector3.computeDotProduct(rayTmp, rayTriangleP) * determinantInverse;
+		if (u < 0f || u > 1f) return false;
+		Vector3.computeCrossProduct(rayTmp, rayTriangleEdge1, rayTriangleQ);
+		float v = Vector3.computeDotProduct(rayDelta, rayTriangleQ) * determinantInverse;
+		if (v < 0f || u + v > 1f) return false;
+		float fraction = Vector3.computeDotProduct(rayTriangleEdge2, rayTriangleQ) * determinantInverse;
+		if (fraction < 0f || fraction > hit.fraction) return false;
+
+		// normal facing against ray
+		Vector3.computeCrossProduct(rayTriangleEdge1, rayTriangleEdge2, rayNormal);
+		if (Vector3.computeDotProduct(rayNormal, rayDelta) > 0f) rayNormal.scale(-1f);
+		return setRayCastHit(fraction, rayNormal, 0f, hit);
+	}
+
+	/**
+	 * Cast current ray against convex mesh
+	 * @param convex mesh
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doRayCastConvexMesh(ConvexMesh mesh, RayCastHit hit) {
+		// ray starts in convex mesh
+		if (mesh.containsPoint(rayFrom) == true) {
+			return setRayCastHit(0f, rayNormal.set(0f, 0f, 0f), 0f, hit);
+		}
+
+		// test triangles
+		boolean hitUpdated = false;
+		Triangle[] triangles = mesh.getTriangles();
+		for (int i = 0; i < triangles.length; i++) {
+			if (doRayCastTriangle(triangles[i], hit) == true) hitUpdated = true;
+		}
+		return hitUpdated;
+	}
+
+	/**
+	 * Cast current ray against height field,
+	 * 	walks cells along ray front to back and stops at first cell which triangles are hit
+	 * @param height field
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doRayCastHeightField(HeightField heightField, RayCastHit hit) {
+		// clip ray to height field bounds
+		float fractionMin = computeSegmentEntryFraction(heightField, 0f, rayFrom, rayTmp.set(rayFrom).add(rayDelta));
+		if (fractionMin > hit.fraction) return false;
+		float[] fromXYZ = rayFrom.getArray();
+		float[] deltaXYZ = rayDelta.getArray();
+		float fractionMax = hit.fraction;
+
+		// set up cell walk on x, z
+		float originX = heightField.getOrigin().getX();
+		float originZ = heightField.getOrigin().getZ();
+		float spacingX = heightField.getSpacingX();
+		float spacingZ = heightField.getSpacingZ();
+		int cellX = heightField.getCellX(fromXYZ[0] + deltaXYZ[0] * fractionMin);
+		int cellZ = heightField.getCellZ(fromXYZ[2] + deltaXYZ[2] * fractionMin);
+		int cellStepX = deltaXYZ[0] > 0f?1:-1;
+		int cellStepZ = deltaXYZ[2] > 0f?1:-1;
+		float cellFractionDeltaX = Float.MAX_VALUE;
+		float cellFractionDeltaZ = Float.MAX_VALUE;
+		float cellFractionNextX = Float.MAX_VALUE;
+		float cellFractionNextZ = Float.MAX_VALUE;
+		if (Math.abs(deltaXYZ[0]) > MathTools.EPSILON) {
+			cellFractionDeltaX = spacingX / Math.abs(deltaXYZ[0]);
+			cellFractionNextX = (originX + (cellX + (cellStepX > 0?1:0)) * spacingX - fromXYZ[0]) / deltaXYZ[0];
+		}
+		if (Math.abs(deltaXYZ[2]) > MathTools.EPSILON) {
+			cellFractionDeltaZ = spacingZ / Math.abs(deltaXYZ[2]);
+			cellFractionNextZ = (originZ + (cellZ + (cellStepZ > 0?1:0)) * spacingZ - fromXYZ[2]) / deltaXYZ[2];
+		}
+
+		// walk cells
+		float cellFractionEnter = fractionMin;
+		int cellsX = heightField.getColumns() - 1;
+		int cellsZ = heightField.getRows() - 1;
+		while (true) {
+			float cellFractionExit = Math.min(fractionMax, Math.min(cellFractionNextX, cellFractionNextZ));
+
+			// test cell triangles if ray is not above cell
+			float cellRayMinY = fromXYZ[1] + Math.min(deltaXYZ[1] * cellFractionEnter, deltaXYZ[1] * cellFractionExit);
+			if (cellRayMinY <= heightField.getCellHeightMax(cellX, cellZ)) {
+				boolean hitUpdated = false;
+				for (int triangleIdx = 0; triangleIdx < 2; triangleIdx++) {
+					heightField.computeCellTriangle(cellX, cellZ, triangleIdx, rayTriangle);
+					if (doRayCastTriangle(rayTriangle, hit) == true) hitUpdated = true;
+				}
+				if (hitUpdated == true) return true;
+			}
+
+			// next cell
+			if (cellFractionExit >= fractionMax) break;
+			if (cellFractionNextX < cellFractionNextZ) {
+				cellX+= cellStepX;
+				cellFractionEnter = cellFractionNextX;
+				cellFractionNextX+= cellFractionDeltaX;
+			} else {
+				cellZ+= cellStepZ;
+				cellFractionEnter = cellFractionNextZ;
+				cellFractionNextZ+= cellFractionDeltaZ;
+			}
+			if (cellX < 0 || cellX >= cellsX || cellZ < 0 || cellZ >= cellsZ) break;
+		}
+		return false;
+	}
+
+	/**
+	 * Cast current ray against triangle mesh
+	 * @param triangle mesh
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doRayCastTriangleMesh(TriangleMesh mesh, RayCastHit hit) {
+		float[] fromXYZ = rayFrom.getArray();
+		float[] deltaXYZ = rayDelta.getArray();
+		int triangleCount = mesh.queryRay(
+			fromXYZ[0],
+			fromXYZ[1],
+			fromXYZ[2],
+			fromXYZ[0] + deltaXYZ[0],
+			fromXYZ[1] + deltaXYZ[1],
+			fromXYZ[2] + deltaXYZ[2],
+			hit.fraction
+		);
+		boolean hitUpdated = false;
+		for (int i = 0; i < triangleCount; i++) {
+			mesh.computeTriangle(mesh.getResult(i), rayTriangle);
+			if (doRayCastTriangle(rayTriangle, hit) == true) hitUpdated = true;
+		}
+		return hitUpdated;
+	}
+
+	/**
+	 * Cast sphere along current ray against bounding volume using conservative advancement,
+	 * 	sphere advances by its distance to closest point of bounding volume until it touches
+	 * @param bounding volume
+	 * @param radius
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doSphereCastConservativeAdvancement(BoundingVolume bv, float radius, RayCastHit hit) {
+		float deltaLength = rayDelta.computeLength();
+		float tolerance = Math.max(CAST_TOLERANCE_MIN, radius * CAST_TOLERANCE_RADIUS);
+		float fraction = 0f;
+		for (int i = 0; i < CAST_ITERATIONS_MAX; i++) {
+			castPosition.set(rayDelta).scale(fraction).add(rayFrom);
+			bv.computeClosestPointOnBoundingVolume(castPosition, castClosestPoint);
+			rayNormal.set(castPosition).sub(castClosestPoint);
+			float distance = rayNormal.computeLength() - radius;
+
+			// touching
+			if (distance < tolerance) {
+				if (setRayCastHit(fraction, rayNormal, 0f, hit) == false) return false;
+				hit.point.set(castClosestPoint);
+				return true;
+			}
+
+			// advance
+			if (deltaLength < MathTools.EPSILON) return false;
+			fraction+= distance / deltaLength;
+			if (fraction > hit.fraction) return false;
+		}
+		return false;
+	}
+
+	/**
+	 * Cast capsule along current ray against convex bounding volume using conservative advancement,
+	 * 	capsule advances by its GJK distance to bounding volume divided by its movement towards it until it touches
+	 * @param bounding volume, must be convex
+	 * @param capsule
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doCapsuleCastConservativeAdvancement(BoundingVolume bv, Capsule capsule, RayCastHit hit) {
+		float tolerance = Math.max(CAST_TOLERANCE_MIN, capsule.getRadius() * CAST_TOLERANCE_RADIUS);
+		float fraction = 0f;
+		castCapsule.setRadius(capsule.getRadius());
+		for (int i = 0; i < CAST_ITERATIONS_MAX; i++) {
+			castPosition.set(rayDelta).scale(fraction);
+			castCapsule.getA().set(capsule.getA()).add(castPosition);
+			castCapsule.getB().set(capsule.getB()).add(castPosition);
+			castCapsule.update();
+			float distance = gjk.computeDistance(castCapsule, bv);
+
+			// touching, normal points from bounding volume to capsule, overlapping capsules use ray direction
+			if (distance < tolerance) {
+				if (distance > 0f) {
+					rayNormal.set(gjk.getNormal()).scale(-1f);
+				} else {
+					rayNormal.set(0f, 0f, 0f);
+				}
+				if (setRayCastHit(fraction, rayNormal, 0f, hit) == false) return false;
+				if (distance > 0f) hit.point.set(gjk.getPoint2());
+				return true;
+			}
+
+			// advance
+			float approach = Vector3.computeDotProduct(rayDelta, gjk.getNormal());
+			if (approach < MathTools.EPSILON) return false;
+			fraction+= distance / approach;
+			if (fraction > hit.fraction) return false;
+		}
+		return false;
+	}
+
+	/**
+	 * Compute bounds of capsule swept along current ray up to current hit fraction
+	 * @param capsule
+	 * @param hit
+	 */
+	private void computeCapsuleCastBounds(Capsule capsule, RayCastHit hit) {
+		float radius = capsule.getRadius();
+		float[] aXYZ = capsule.getA().getArray();
+		float[] bXYZ = capsule.getB().getArray();
+		float[] deltaXYZ = rayDelta.getArray();
+		float[] minXYZ = castBoundsMin.getArray();
+		float[] maxXYZ = castBoundsMax.getArray();
+		for (int i = 0; i < 3; i++) {
+			float delta = deltaXYZ[i] * hit.fraction;
+			minXYZ[i] = Math.min(aXYZ[i], bXYZ[i]) + Math.min(delta, 0f) - radius;
+			maxXYZ[i] = Math.max(aXYZ[i], bXYZ[i]) + Math.max(delta, 0f) + radius;
+		}
+	}
+
+	/**
+	 * Cast capsule along current ray against height field cell triangles within swept capsule bounds
+	 * @param height field
+	 * @param capsule
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doCapsuleCastHeightField(HeightField heightField, Capsule capsule, RayCastHit hit) {
+		computeCapsuleCastBounds(capsule, hit);
+		int cellXMin = heightField.getCellX(castBoundsMin.getX());
+		int cellXMax = heightField.getCellX(castBoundsMax.getX());
+		int cellZMin = heightField.getCellZ(castBoundsMin.getZ());
+		int cellZMax = heightField.getCellZ(castBoundsMax.getZ());
+		boolean hitUpdated = false;
+		for (int cellZ = cellZMin; cellZ <= cellZMax; cellZ++)
+		for (int cellX = cellXMin; cellX <= cellXMax; cellX++) {
+			if (castBoundsMin.getY() > heightField.getCellHeightMax(cellX, cellZ)) continue;
+			for (int triangleIdx = 0; triangleIdx < 2; triangleIdx++) {
+				heightField.computeCellTriangle(cellX, cellZ, triangleIdx, rayTriangle);
+				if (doCapsuleCastConservativeAdvancement(rayTriangle, capsule, hit) == true) hitUpdated = true;
+			}
+		}
+		return hitUpdated;
+	}
+
+	/**
+	 * Cast capsule along current ray against triangle mesh triangles within swept capsule bounds
+	 * @param triangle mesh
+	 * @param capsule
+	 * @param hit
+	 * @return if hit has been updated
+	 */
+	private boolean doCapsuleCastTriangleMesh(TriangleMesh mesh, Capsule capsule, RayCastHit hit) {
+		computeCapsuleCastBounds(capsule, hit);
+		int triangleCount = mesh.queryAABB(
+			castBoundsMin.getX(),
+			castBoundsMin.getY(),
+			castBoundsMin.getZ(),
+			castBoundsMax.getX(),
+			castBoundsMax.getY(),
+			castBoundsMax.getZ()
+		);
+		boolean hitUpdated = false;
+		for (int i = 0; i < triangleCount; i++) {
+			mesh.computeTriangle(mesh.getResult(i), rayTriangle);
+			if (doCapsuleCastConservativeAdvancement(rayTriangle, capsule, hit) == true) hitUpdated = true;
+		}
+		return hitUpdated;
+	}
+
 	/**
 	 * Compute hit points for intersecting obb1 with obb2
 	 * @param obb1
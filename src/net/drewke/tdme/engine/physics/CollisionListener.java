@@ -1,7 +1,7 @@
 package net.drewke.tdme.engine.physics;
 
 /**
- * Rigid body collision listener
+ * Rigid body collision listener, called with buffered contact events after world update, see ContactEventListener
  * @author Andreas Drewke
  * @version $Id$
  */
@@ -14,6 +14,7 @@ public final class CollisionResponse {
 
 	public final static int ENTITY_COUNT = 15;
 	public final static int HITPOINT_COUNT = 30;
+	public final static int FEATURE_NONE = -1;
 
 	/**
 	 * Collision Response Entity
@@ -24,6 +25,7 @@ public final class CollisionResponse {
 		protected float distance;
 		protected Vector3 normal;
 		protected ArrayList<Vector3> hitPoints;
+		protected int[] hitPointFeatures;
 		protected int hitPointsCount;
 
 		/**
@@ -56,10 +58,19 @@ public final class CollisionResponse {
 		}
 
 		/**
-		 * Adds a hit point
+		 * Adds a hit point without feature
 		 * @param hit point
 		 */
 		public void addHitPoint(Vector3 hitPoint) {
+			addHitPoint(hitPoint, FEATURE_NONE);
+		}
+
+		/**
+		 * Adds a hit point
+		 * @param hit point
+		 * @param feature, identifies the bounding volume vertex the hit point belongs to, see computeFeature(), or FEATURE_NONE
+		 */
+		public void addHitPoint(Vector3 hitPoint, int feature) {
 			// check if we already have this hit point
 			for (int i = 0; i < hitPointsCount; i++) {
 				if (hitPoints.get(i).equals(hitPoint, 0.1f)) return;
@@ -68,6 +79,7 @@ public final class CollisionResponse {
 				Console.println("CollisionResponse::Entity::too many hit points");
 				return;
 			}
+			hitPointFeatures[hitPointsCount] = feature;
 			hitPoints.get(hitPointsCount++).set(hitPoint);
 		}
 
@@ -87,6 +99,15 @@ public final class CollisionResponse {
 			return hitPoints.get(i);
 		}
 
+		/**
+		 * Get feature of hit point of given index
+		 * @param i
+		 * @return feature or FEATURE_NONE
+		 */
+		public int getHitPointFeatureAt(int i) {
+			return hitPointFeatures[i];
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * @see java.lang.Object#toString()
@@ -121,6 +142,7 @@ public final class CollisionResponse {
 			entity.distance = 0f;
 			entity.normal = new Vector3();
 			entity.hitPoints = new ArrayList<Vector3>();
+			entity.hitPointFeatures = new int[HITPOINT_COUNT];
 			entity.hitPointsCount = 0;
 			for (int j = 0; j < HITPOINT_COUNT; j++) {
 				entity.hitPoints.add(new Vector3());
@@ -324,6 +346,26 @@ public final class CollisionResponse {
 		return selectedEntity.hitPoints.get(i);
 	}
 
+	/**
+	 * Get feature of hit point of given index
+	 * @param i
+	 * @return feature of hit point for given hit points index or FEATURE_NONE
+	 */
+	public int getHitPointFeatureAt(int i) {
+		if (selectedEntity == null) return FEATURE_NONE;
+		return selectedEntity.hitPointFeatures[i];
+	}
+
+	/**
+	 * Compute feature of a hit point which is located at a vertex of a bounding volume tested
+	 * @param bounding volume idx, 0 or 1 as given to collision test
+	 * @param vertex idx
+	 * @return feature
+	 */
+	public static int computeFeature(int bvIdx, int vertexIdx) {
+		return vertexIdx << 1 | bvIdx;
+	}
+
 	/**
 	 * Invert normals
 	 */
@@ -363,6 +405,7 @@ public final class CollisionResponse {
 			dstEntity.hitPointsCount = srcEntity.hitPointsCount;
 			for (int j = 0; j < srcEntity.hitPointsCount; j++) {
 				dstEntity.hitPoints.get(j).set(srcEntity.hitPoints.get(j));
+				dstEntity.hitPointFeatures[j] = srcEntity.hitPointFeatures[j];
 			}
 		}
 
@@ -402,7 +445,7 @@ public final class CollisionResponse {
 
 			//	(add) hit points
 			for (int j = 0; j < srcEntity.hitPointsCount; j++) {
-				dstEntity.addHitPoint(srcEntity.hitPoints.get(j));
+				dstEntity.addHitPoint(srcEntity.hitPoints.get(j), srcEntity.hitPointFeatures[j]);
 			}
 		}
 
@@ -47,6 +47,7 @@ public final class ConstraintsEntity {
 	private float muMg;
 
 	private Vector3 tmpVector3 = new Vector3();
+	private Vector3 tmpVector3Angular = new Vector3();
 	private Vector3 r1 = new Vector3();
 	private Vector3 r2 = new Vector3();
 	private Vector3 r1CrossN = new Vector3();
@@ -105,18 +106,31 @@ public final class ConstraintsEntity {
 		computeCrossProduct(collision.getNormal(), this.frictionVectors[0], this.frictionVectors[1]);
 	}
 
+	/**
+	 * Set up jacobian 1x6 matrix values of given constraint and body
+	 * @param jacobian matrices
+	 * @param constraint idx
+	 * @param body 0 or 1
+	 * @param linear part
+	 * @param angular part
+	 */
+	private static void setJacobianValues(float[] jacobianMatrices, int constraintIdx, int body, Vector3 linear, Vector3 angular) {
+		int offset = constraintIdx * ConstraintsSolver.CONSTRAINT_MATRIX_SIZE + body * 6;
+		System.arraycopy(linear.getArray(), 0, jacobianMatrices, offset + 0, 3);
+		System.arraycopy(angular.getArray(), 0, jacobianMatrices, offset + 3, 3);
+	}
+
 	/**
 	 * Compute jacobian
 	 * @param constraint idx
 	 * @param jacobian matrices
 	 */
-	protected void computeJacobian(int constraintIdx, Matrix1x6[][] jacobianMatrices) {
+	protected void computeJacobian(int constraintIdx, float[] jacobianMatrices) {
 		Vector3 body1Position = rb1.getPosition();
 		Vector3 body2Position = rb2.getPosition();
 		Vector3 n = collision.getNormal();
 		Vector3 t1 = frictionVectors[0];
 		Vector3 t2 = frictionVectors[1];
-		Matrix1x6 jacobianMatrix;
 		int currentConstraintIdx = constraintIdx;
 		for (int hitPointIdx = 0; hitPointIdx < collision.getHitPointsCount(); hitPointIdx++) {
 			Vector3 point = collision.getHitPointAt(hitPointIdx);
@@ -127,13 +141,9 @@ public final class ConstraintsEntity {
 			computeCrossProduct(r1, n, r1CrossN);
 			computeCrossProduct(r2, n, r2CrossN);
 
-			jacobianMatrix = jacobianMatrices[currentConstraintIdx][0];
-			jacobianMatrix.setValue(0, tmpVector3.set(n).scale(-1f));
-			jacobianMatrix.setValue(3, tmpVector3.set(r1CrossN).scale(-1f));
+			setJacobianValues(jacobianMatrices, currentConstraintIdx, 0, tmpVector3.set(n).scale(-1f), tmpVector3Angular.set(r1CrossN).scale(-1f));
 
-			jacobianMatrix = jacobianMatrices[currentConstraintIdx][1];
-			jacobianMatrix.setValue(0, n);
-			jacobianMatrix.setValue(3, r2CrossN);
+			setJacobianValues(jacobianMatrices, currentConstraintIdx, 1, n, r2CrossN);
 
 			//
 			currentConstraintIdx++;
@@ -142,24 +152,16 @@ public final class ConstraintsEntity {
 			computeCrossProduct(r1, t2, r1CrossU2);
 			computeCrossProduct(r2, t2, r2CrossU2);
 
-			jacobianMatrix = jacobianMatrices[currentConstraintIdx][0];
-			jacobianMatrix.setValue(0, tmpVector3.set(t1).scale(-1f));
-			jacobianMatrix.setValue(3, tmpVector3.set(r1CrossU1).scale(-1f));
+			setJacobianValues(jacobianMatrices, currentConstraintIdx, 0, tmpVector3.set(t1).scale(-1f), tmpVector3Angular.set(r1CrossU1).scale(-1f));
 
-			jacobianMatrix = jacobianMatrices[currentConstraintIdx][1];
-			jacobianMatrix.setValue(0, t1);
-			jacobianMatrix.setValue(3, r2CrossU1);
+			setJacobianValues(jacobianMatrices, currentConstraintIdx, 1, t1, r2CrossU1);
 
 			//
 			currentConstraintIdx++;
 
-			jacobianMatrix = jacobianMatrices[currentConstraintIdx][0];
-			jacobianMatrix.setValue(0, tmpVector3.set(t2).scale(-1f));
-			jacobianMatrix.setValue(3, tmpVector3.set(r1CrossU2).scale(-1f));
+			setJacobianValues(jacobianMatrices, currentConstraintIdx, 0, tmpVector3.set(t2).scale(-1f), tmpVector3Angular.set(r1CrossU2).scale(-1f));
 
-			jacobianMatrix = jacobianMatrices[currentConstraintIdx][1];
-			jacobianMatrix.setValue(0, t2);
-			jacobianMatrix.setValue(3, r2CrossU2);
+			setJacobianValues(jacobianMatrices, currentConstraintIdx, 1, t2, r2CrossU2);
 
 			currentConstraintIdx++;
 		}
@@ -170,12 +172,12 @@ public final class ConstraintsEntity {
 	 * @param constraint idx
 	 * @param lower bounds
 	 */
-	protected void computeLowerBound(int constraintIdx, DynamicVector lowerBounds) {
+	protected void computeLowerBound(int constraintIdx, float[] lowerBounds) {
 		int currentConstraintIdx = constraintIdx;
 		for (int hitPointIdx = 0; hitPointIdx < collision.getHitPointsCount(); hitPointIdx++) {
-			lowerBounds.setValue(currentConstraintIdx++, 0f);		// Lower bound for the contact constraint
-			lowerBounds.setValue(currentConstraintIdx++, -muMg);	// Lower bound for the first friction constraint
-			lowerBounds.setValue(currentConstraintIdx++, -muMg);	// Lower bound for the second friction constraint
+			lowerBounds[currentConstraintIdx++] = 0f;		// Lower bound for the contact constraint
+			lowerBounds[currentConstraintIdx++] = -muMg;	// Lower bound for the first friction constraint
+			lowerBounds[currentConstraintIdx++] = -muMg;	// Lower bound for the second friction constraint
 		}
 	}
 
@@ -184,12 +186,12 @@ public final class ConstraintsEntity {
 	 * @param constraint idx
 	 * @param upper bounds
 	 */
-	protected void computeUpperBound(int constraintIdx, DynamicVector upperBounds) {
+	protected void computeUpperBound(int constraintIdx, float[] upperBounds) {
 		int currentConstraintIdx = constraintIdx;
 		for (int hitPointIdx = 0; hitPointIdx < collision.getHitPointsCount(); hitPointIdx++) {
-			upperBounds.setValue(currentConstraintIdx++, Float.POSITIVE_INFINITY);	// Upper bound for the contact constraint
-			upperBounds.setValue(currentConstraintIdx++, +muMg);			// Upper bound for the first friction constraint
-			upperBounds.setValue(currentConstraintIdx++, +muMg);			// Upper bound for the second friction constraint
+			upperBounds[currentConstraintIdx++] = Float.POSITIVE_INFINITY;	// Upper bound for the contact constraint
+			upperBounds[currentConstraintIdx++] = +muMg;			// Upper bound for the first friction constraint
+			upperBounds[currentConstraintIdx++] = +muMg;			// Upper bound for the second friction constraint
 		}
 	}
 
@@ -198,7 +200,7 @@ public final class ConstraintsEntity {
 	 * @param constraint idx
 	 * @param error values
 	 */
-	protected void computeBaumgarte(int constraintIdx, DynamicVector errorValues) {
+	protected void computeBaumgarte(int constraintIdx, float[] errorValues) {
 		int currentConstraintIdx = constraintIdx;
 		
 		float restitutionCoeff = rb1.restitution + rb2.restitution;
@@ -211,9 +213,9 @@ public final class ConstraintsEntity {
 			) +
 			(0.4f * penetration);
 		for (int hitPointIdx = 0; hitPointIdx < collision.getHitPointsCount(); hitPointIdx++) {
-			errorValues.setValue(currentConstraintIdx++, errorValue);	// Error value for contact constraint
-			errorValues.setValue(currentConstraintIdx++, 0f);			// Error value for friction constraint
-			errorValues.setValue(currentConstraintIdx++, 0f);			// Error value for friction constraint
+			errorValues[currentConstraintIdx++] = errorValue;	// Error value for contact constraint
+			errorValues[currentConstraintIdx++] = 0f;			// Error value for friction constraint
+			errorValues[currentConstraintIdx++] = 0f;			// Error value for friction constraint
 		}
 	}
 
@@ -26,11 +26,15 @@
 
 package net.drewke.tdme.engine.physics;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import net.drewke.tdme.math.MathTools;
 import net.drewke.tdme.math.Vector3;
 import net.drewke.tdme.utils.ArrayList;
-import net.drewke.tdme.utils.HashMap;
-import net.drewke.tdme.utils.Key;
 
 /**
  * Constraints solver
@@ -39,39 +43,103 @@ import net.drewke.tdme.utils.Key;
  */
 public final class ConstraintsSolver {
 
-	protected final static int BODIES_MAX = 256;
-	protected final static int CONSTRAINTS_MAX = BODIES_MAX * 3;
+	/**
+	 * Island solver, solves islands until all islands have been solved
+	 * @author Andreas Drewke
+	 * @version $Id$
+	 */
+	private final class IslandSolver implements Callable<Void> {
+
+		private float dt;
+		private float tmpMatrix1x6[] = new float[6];
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		public Void call() {
+			while (true == true) {
+				int island = nextIsland.getAndIncrement();
+				if (island >= islandCount) break;
+				solveIsland(island, dt, tmpMatrix1x6);
+			}
+			return null;
+		}
+
+	}
+
+	protected final static int BODIES_INITIAL = 256;
+	protected final static int CONSTRAINTS_INITIAL = BODIES_INITIAL * 3;
+
+	// struct of arrays element sizes
+	protected final static int BODY_VECTOR_SIZE = 6;
+	protected final static int BODY_INERTIA_SIZE = 9;
+	protected final static int CONSTRAINT_MATRIX_SIZE = 2 * 6;
+
+	protected final static int ITERATIONS_DEFAULT = 20;
 
 	private int constraintsEntityCount = 0;
 	private int collisionsCount = 0;
 	private int constraintsCount = 0;
-	private int keyCount = 0;
 
 	private ArrayList<RigidBody> rigidBodies = null;
-	private HashMap<String, RigidBody> constrainedBodies = new HashMap<String, RigidBody>();
 	private ContactCache contactCache = new ContactCache();
 
-	// constraints
-	private int[][] constraintsBodyIdxMap = new int[CONSTRAINTS_MAX][];
-	private Matrix1x6[][] jacobianMatrices = new Matrix1x6[CONSTRAINTS_MAX][];
-	private Vector6[][] bVectors = new Vector6[CONSTRAINTS_MAX][];
-	private DynamicVector lambda = new DynamicVector(CONSTRAINTS_MAX);
-	private DynamicVector lambdaInit = new DynamicVector(CONSTRAINTS_MAX);
-	private DynamicVector errorValues = new DynamicVector(CONSTRAINTS_MAX);
-	private DynamicVector b = new DynamicVector(CONSTRAINTS_MAX);
-	private DynamicVector lowerBounds = new DynamicVector(CONSTRAINTS_MAX);
-	private DynamicVector upperBounds = new DynamicVector(CONSTRAINTS_MAX);
-	private float d[] = new float[CONSTRAINTS_MAX];
-
-	// bodies
-	private ConstraintsEntity[] constraintsEntities = new ConstraintsEntity[BODIES_MAX];
-	private CollisionResponse[] collisions = new CollisionResponse[BODIES_MAX];
-	private Key[] keys = new Key[BODIES_MAX * 2];
-	private Matrix6x6[] invInertiaMatrices = new Matrix6x6[BODIES_MAX];
-	private Vector6[] velocityVectors = new Vector6[BODIES_MAX];
-	private Vector6[] constrainedVelocityVectors = new Vector6[BODIES_MAX];
-	private Vector6[] forcesVectors = new Vector6[BODIES_MAX];
-	private Vector6[] a = new Vector6[BODIES_MAX];
+	// constraints, indexed by constraint idx
+	//	body idx map, 2 entries per constraint
+	//	jacobian matrices and b vectors, 2 times 1x6 / 6 entries per constraint, body 1 followed by body 2
+	private int constraintsCapacity = 0;
+	private int[] constraintsBodyIdxMap = null;
+	private float[] jacobianMatrices = null;
+	private float[] bVectors = null;
+	private float[] lambda = null;
+	private float[] lambdaInit = null;
+	private float[] errorValues = null;
+	private float[] b = null;
+	private float[] lowerBounds = null;
+	private float[] upperBounds = null;
+	private float[] d = null;
+
+	// bodies, indexed by rigid body idx
+	//	inverse inertia is stored as inverse mass and 3x3 world inverse inertia, 
+	//	the remaining entries of the 6x6 inverse inertia matrix are always zero
+	private int bodiesCapacity = 0;
+	private float[] inverseMasses = null;
+	private float[] invInertiaMatrices = null;
+	private float[] velocityVectors = null;
+	private float[] constrainedVelocityVectors = null;
+	private float[] forcesVectors = null;
+	private float[] a = null;
+	private boolean[] staticBodies = null;
+	private boolean[] constrainedBodies = null;
+
+	// islands, built by union find over constraints entities of non static bodies
+	private int islandCount = 0;
+	private int[] islandParents = new int[0];
+	private int[] islandByRoot = new int[0];
+	private int[] islandConstraintsEntityOffsets = new int[1];
+	private int[] islandConstraintOffsets = new int[1];
+	private boolean[] islandsAtRest = new boolean[0];
+	private int[] islandIterations = new int[0];
+	private ConstraintsEntity[] constraintsEntitiesSorted = new ConstraintsEntity[0];
+
+	// parallel island solving
+	private ExecutorService workerThreadPool = null;
+	private ArrayList<IslandSolver> islandSolvers = new ArrayList<IslandSolver>();
+	private ArrayList<Future<Void>> islandSolverFutures = new ArrayList<Future<Void>>();
+	private AtomicInteger nextIsland = new AtomicInteger();
+
+	// iterations
+	private int iterations = ITERATIONS_DEFAULT;
+	private float lambdaTolerance = 0f;
+
+	// contact cache warm starts of last computation
+	private int warmStartCount = 0;
+	private int warmStartHitCount = 0;
+
+	// constraints entities, collisions
+	private ConstraintsEntity[] constraintsEntities = new ConstraintsEntity[0];
+	private CollisionResponse[] collisions = new CollisionResponse[0];
 
 	// user velocity constraints
 	private ArrayList<RigidBody> rigidBodiesVelocityChange = new ArrayList<RigidBody>();
@@ -79,9 +147,7 @@ public final class ConstraintsSolver {
 	private ArrayList<RigidBody> rigidBodiesChainsResult = new ArrayList<RigidBody>();
 
 	// tmp
-	private float tmpLamdaValues[] = new float[CollisionResponse.HITPOINT_COUNT * 3];
-	private Matrix1x6 tmpMatrix1x6 = new Matrix1x6();
-	private Vector6 tmpVector6 = new Vector6();
+	private float tmpMatrix1x6[] = new float[6];
 
 	// update
 	private Vector3 newLinearVelocity = new Vector3();
@@ -98,56 +164,238 @@ public final class ConstraintsSolver {
 		this.rigidBodies = rigidBodies;
 
 		// constraints related initalizations
-		for (int i = 0; i < CONSTRAINTS_MAX; i++) {
-			constraintsBodyIdxMap[i] = new int[2];
-			jacobianMatrices[i] = new Matrix1x6[2];
-			jacobianMatrices[i][0] = new Matrix1x6();
-			jacobianMatrices[i][1] = new Matrix1x6();
-			bVectors[i] = new Vector6[2];
-			bVectors[i][0] = new Vector6();
-			bVectors[i][1] = new Vector6();
-		}
+		ensureConstraintsCapacity(CONSTRAINTS_INITIAL);
 
 		// body related initalizations
-		for (int i = 0; i < BODIES_MAX; i++) {
-			invInertiaMatrices[i] = new Matrix6x6();
-			velocityVectors[i] = new Vector6();
-			constrainedVelocityVectors[i] = new Vector6();
-			forcesVectors[i] = new Vector6();
-			a[i] = new Vector6();
-			constraintsEntities[i] = new ConstraintsEntity();
-			collisions[i] = new CollisionResponse();
+		ensureBodiesCapacity(BODIES_INITIAL);
+
+		// constraints entities, collisions
+		growConstraintsEntities(BODIES_INITIAL);
+	}
+
+	/**
+	 * Compute new capacity for given current capacity and required size
+	 * @param capacity
+	 * @param size
+	 * @return new capacity
+	 */
+	private static int computeCapacity(int capacity, int size) {
+		int newCapacity = capacity < 1?1:capacity;
+		while (newCapacity < size) newCapacity*= 2;
+		return newCapacity;
+	}
+
+	/**
+	 * Grow given float array to given size, existing values will be kept
+	 * @param array
+	 * @param size
+	 * @return new array
+	 */
+	private static float[] grow(float[] array, int size) {
+		float[] newArray = new float[size];
+		if (array != null) System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	/**
+	 * Grow given int array to given size, existing values will be kept
+	 * @param array
+	 * @param size
+	 * @return new array
+	 */
+	private static int[] grow(int[] array, int size) {
+		int[] newArray = new int[size];
+		if (array != null) System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	/**
+	 * Ensure that constraints arrays can hold given number of constraints
+	 * @param constraints
+	 */
+	private void ensureConstraintsCapacity(int constraints) {
+		if (constraints <= constraintsCapacity) return;
+		constraintsCapacity = computeCapacity(constraintsCapacity, constraints);
+		constraintsBodyIdxMap = grow(constraintsBodyIdxMap, constraintsCapacity * 2);
+		jacobianMatrices = grow(jacobianMatrices, constraintsCapacity * CONSTRAINT_MATRIX_SIZE);
+		bVectors = grow(bVectors, constraintsCapacity * CONSTRAINT_MATRIX_SIZE);
+		lambda = grow(lambda, constraintsCapacity);
+		lambdaInit = grow(lambdaInit, constraintsCapacity);
+		errorValues = grow(errorValues, constraintsCapacity);
+		b = grow(b, constraintsCapacity);
+		lowerBounds = grow(lowerBounds, constraintsCapacity);
+		upperBounds = grow(upperBounds, constraintsCapacity);
+		d = grow(d, constraintsCapacity);
+	}
+
+	/**
+	 * Ensure that bodies arrays can hold given number of bodies
+	 * @param bodies
+	 */
+	private void ensureBodiesCapacity(int bodies) {
+		if (bodies <= bodiesCapacity) return;
+		bodiesCapacity = computeCapacity(bodiesCapacity, bodies);
+		inverseMasses = grow(inverseMasses, bodiesCapacity);
+		invInertiaMatrices = grow(invInertiaMatrices, bodiesCapacity * BODY_INERTIA_SIZE);
+		velocityVectors = grow(velocityVectors, bodiesCapacity * BODY_VECTOR_SIZE);
+		constrainedVelocityVectors = grow(constrainedVelocityVectors, bodiesCapacity * BODY_VECTOR_SIZE);
+		forcesVectors = grow(forcesVectors, bodiesCapacity * BODY_VECTOR_SIZE);
+		a = grow(a, bodiesCapacity * BODY_VECTOR_SIZE);
+		boolean[] newStaticBodies = new boolean[bodiesCapacity];
+		if (staticBodies != null) System.arraycopy(staticBodies, 0, newStaticBodies, 0, staticBodies.length);
+		staticBodies = newStaticBodies;
+		boolean[] newConstrainedBodies = new boolean[bodiesCapacity];
+		if (constrainedBodies != null) System.arraycopy(constrainedBodies, 0, newConstrainedBodies, 0, constrainedBodies.length);
+		constrainedBodies = newConstrainedBodies;
+	}
+
+	/**
+	 * Set worker thread pool used to solve islands in parallel
+	 * @param worker thread pool or null for solving in current thread
+	 * @param worker threads
+	 */
+	protected void setWorkerThreadPool(ExecutorService workerThreadPool, int workerThreads) {
+		this.workerThreadPool = workerThreadPool;
+		islandSolvers.clear();
+		if (workerThreadPool == null) return;
+		for (int i = 0; i < workerThreads; i++) {
+			islandSolvers.add(new IslandSolver());
 		}
+	}
 
-		// keys
-		for (int i = 0; i < BODIES_MAX * 2; i++) {
-			keys[i] = new Key();
+	/**
+	 * @return number of PGLCP iterations
+	 */
+	protected int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Set number of PGLCP iterations
+	 * @param iterations
+	 */
+	protected void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * @return lambda tolerance
+	 */
+	protected float getLambdaTolerance() {
+		return lambdaTolerance;
+	}
+
+	/**
+	 * Set lambda tolerance, PGLCP iterations of a island stop early if largest lambda change of a iteration is below tolerance
+	 * @param lambda tolerance
+	 */
+	protected void setLambdaTolerance(float lambdaTolerance) {
+		this.lambdaTolerance = lambdaTolerance;
+	}
+
+	/**
+	 * @return number of islands of last computation
+	 */
+	protected int getIslandCount() {
+		return islandCount;
+	}
+
+	/**
+	 * @return number of constraints entities
+	 */
+	protected int getConstraintsEntityCount() {
+		return constraintsEntityCount;
+	}
+
+	/**
+	 * @return number of constraints of last computation
+	 */
+	protected int getConstraintsCount() {
+		return constraintsCount;
+	}
+
+	/**
+	 * @return number of PGLCP iterations of last computation over all islands
+	 */
+	protected int getIterationCount() {
+		int iterationCount = 0;
+		for (int i = 0; i < islandCount; i++) {
+			iterationCount+= islandIterations[i];
 		}
+		return iterationCount;
+	}
+
+	/**
+	 * @return number of contact cache warm start lookups of last computation
+	 */
+	protected int getWarmStartCount() {
+		return warmStartCount;
+	}
+
+	/**
+	 * @return number of contact cache warm start lookups of last computation which found a contact manifold
+	 */
+	protected int getWarmStartHitCount() {
+		return warmStartHitCount;
+	}
 
-		// 
-		lambda.setSize(CONSTRAINTS_MAX);
-		lambdaInit.setSize(CONSTRAINTS_MAX);
-		errorValues.setSize(CONSTRAINTS_MAX);
-		b.setSize(CONSTRAINTS_MAX);
-		lowerBounds.setSize(CONSTRAINTS_MAX);
-		upperBounds.setSize(CONSTRAINTS_MAX);
+	/**
+	 * Grow constraints entities and collisions
+	 * @param size
+	 */
+	private void growConstraintsEntities(int size) {
+		int oldSize = constraintsEntities.length;
+		int newSize = computeCapacity(oldSize, size);
+		ConstraintsEntity[] newConstraintsEntities = new ConstraintsEntity[newSize];
+		CollisionResponse[] newCollisions = new CollisionResponse[newSize];
+		System.arraycopy(constraintsEntities, 0, newConstraintsEntities, 0, oldSize);
+		System.arraycopy(collisions, 0, newCollisions, 0, oldSize);
+		for (int i = oldSize; i < newSize; i++) {
+			newConstraintsEntities[i] = new ConstraintsEntity();
+			newCollisions[i] = new CollisionResponse();
+		}
+		constraintsEntities = newConstraintsEntities;
+		collisions = newCollisions;
 	}
 
 	/**
 	 * Reset
 	 */
 	protected void reset() {
+		for (int i = 0; i < constraintsEntityCount; i++) {
+			ConstraintsEntity constraintedBody = constraintsEntities[i];
+			constrainedBodies[constraintedBody.rb1.idx] = false;
+			constrainedBodies[constraintedBody.rb2.idx] = false;
+		}
 		constraintsEntityCount = 0;
 		collisionsCount = 0;
 		constraintsCount = 0;
-		keyCount = 0;
-		constrainedBodies.clear();
+		warmStartCount = 0;
+		warmStartHitCount = 0;
+	}
+
+	/**
+	 * @return contact cache
+	 */
+	protected ContactCache getContactCache() {
+		return contactCache;
+	}
+
+	/**
+	 * Remove rigid body from contact cache,
+	 * 	contact cache entries of given moved rigid body index get moved to rigid body index
+	 * @param rigid body index
+	 * @param moved rigid body index or -1
+	 */
+	protected void removeRigidBody(int idx, int idxMoved) {
+		contactCache.removeRigidBody(idx, idxMoved);
 	}
 
 	/**
 	 * @return constraints entity
 	 */
 	protected ConstraintsEntity allocateConstraintsEntity() {
+		if (constraintsEntityCount == constraintsEntities.length) growConstraintsEntities(constraintsEntityCount + 1);
 		return constraintsEntities[constraintsEntityCount++];
 	}
 
@@ -155,21 +403,111 @@ public final class ConstraintsSolver {
 	 * @return collision response
 	 */
 	protected CollisionResponse allocateCollision() {
+		if (collisionsCount == collisions.length) growConstraintsEntities(collisionsCount + 1);
 		return collisions[collisionsCount++];
 	}
 
 	/**
-	 * @return key
+	 * Multiplies a 1x6 matrix with a vector 6
+	 * @param matrix array
+	 * @param matrix offset
+	 * @param vector array
+	 * @param vector offset
+	 * @return scalar product
+	 */
+	private static float multiply(float[] matrix, int matrixOffset, float[] vector, int vectorOffset) {
+		return
+			matrix[matrixOffset + 0] * vector[vectorOffset + 0] + matrix[matrixOffset + 1] * vector[vectorOffset + 1] + matrix[matrixOffset + 2] * vector[vectorOffset + 2] +
+			matrix[matrixOffset + 3] * vector[vectorOffset + 3] + matrix[matrixOffset + 4] * vector[vectorOffset + 4] + matrix[matrixOffset + 5] * vector[vectorOffset + 5];
+	}
+
+	/**
+	 * Multiplies a 1x6 matrix with inverse inertia matrix of given body into destination 1x6 matrix
+	 * @param matrix array
+	 * @param matrix offset
+	 * @param body idx
+	 * @param destination matrix
+	 */
+	private void multiplyInvInertia(float[] matrix, int matrixOffset, int bodyIdx, float[] dest) {
+		float inverseMass = inverseMasses[bodyIdx];
+		int inertiaOffset = bodyIdx * BODY_INERTIA_SIZE;
+		dest[0] = matrix[matrixOffset + 0] * inverseMass;
+		dest[1] = matrix[matrixOffset + 1] * inverseMass;
+		dest[2] = matrix[matrixOffset + 2] * inverseMass;
+		dest[3] =
+			matrix[matrixOffset + 3] * invInertiaMatrices[inertiaOffset + 0 * 3 + 0] +
+			matrix[matrixOffset + 4] * invInertiaMatrices[inertiaOffset + 1 * 3 + 0] +
+			matrix[matrixOffset + 5] * invInertiaMatrices[inertiaOffset + 2 * 3 + 0];
+		dest[4] =
+			matrix[matrixOffset + 3] * invInertiaMatrices[inertiaOffset + 0 * 3 + 1] +
+			matrix[matrixOffset + 4] * invInertiaMatrices[inertiaOffset + 1 * 3 + 1] +
+			matrix[matrixOffset + 5] * invInertiaMatrices[inertiaOffset + 2 * 3 + 1];
+		dest[5] =
+			matrix[matrixOffset + 3] * invInertiaMatrices[inertiaOffset + 0 * 3 + 2] +
+			matrix[matrixOffset + 4] * invInertiaMatrices[inertiaOffset + 1 * 3 + 2] +
+			matrix[matrixOffset + 5] * invInertiaMatrices[inertiaOffset + 2 * 3 + 2];
+	}
+
+	/**
+	 * Multiplies inverse inertia matrix of given body with transposed 1x6 matrix into destination vector 6
+	 * @param body idx
+	 * @param matrix array
+	 * @param matrix offset
+	 * @param destination array
+	 * @param destination offset
 	 */
-	protected Key allocateKey() {
-		return keys[keyCount++];
+	private void multiplyInvInertiaTransposed(int bodyIdx, float[] matrix, int matrixOffset, float[] dest, int destOffset) {
+		float inverseMass = inverseMasses[bodyIdx];
+		int inertiaOffset = bodyIdx * BODY_INERTIA_SIZE;
+		dest[destOffset + 0] = inverseMass * matrix[matrixOffset + 0];
+		dest[destOffset + 1] = inverseMass * matrix[matrixOffset + 1];
+		dest[destOffset + 2] = inverseMass * matrix[matrixOffset + 2];
+		dest[destOffset + 3] =
+			invInertiaMatrices[inertiaOffset + 0 * 3 + 0] * matrix[matrixOffset + 3] +
+			invInertiaMatrices[inertiaOffset + 0 * 3 + 1] * matrix[matrixOffset + 4] +
+			invInertiaMatrices[inertiaOffset + 0 * 3 + 2] * matrix[matrixOffset + 5];
+		dest[destOffset + 4] =
+			invInertiaMatrices[inertiaOffset + 1 * 3 + 0] * matrix[matrixOffset + 3] +
+			invInertiaMatrices[inertiaOffset + 1 * 3 + 1] * matrix[matrixOffset + 4] +
+			invInertiaMatrices[inertiaOffset + 1 * 3 + 2] * matrix[matrixOffset + 5];
+		dest[destOffset + 5] =
+			invInertiaMatrices[inertiaOffset + 2 * 3 + 0] * matrix[matrixOffset + 3] +
+			invInertiaMatrices[inertiaOffset + 2 * 3 + 1] * matrix[matrixOffset + 4] +
+			invInertiaMatrices[inertiaOffset + 2 * 3 + 2] * matrix[matrixOffset + 5];
 	}
 
 	/**
-	 * @return key
+	 * Adds scaled vector 6 to destination vector 6
+	 * @param vector array
+	 * @param vector offset
+	 * @param scale
+	 * @param destination array
+	 * @param destination offset
 	 */
-	protected void releaseKey() {
-		keyCount--;
+	private static void addScaled(float[] vector, int vectorOffset, float scale, float[] dest, int destOffset) {
+		dest[destOffset + 0]+= vector[vectorOffset + 0] * scale;
+		dest[destOffset + 1]+= vector[vectorOffset + 1] * scale;
+		dest[destOffset + 2]+= vector[vectorOffset + 2] * scale;
+		dest[destOffset + 3]+= vector[vectorOffset + 3] * scale;
+		dest[destOffset + 4]+= vector[vectorOffset + 4] * scale;
+		dest[destOffset + 5]+= vector[vectorOffset + 5] * scale;
+	}
+
+	/**
+	 * Subtracts scaled vector 6 from destination vector 6
+	 * @param vector array
+	 * @param vector offset
+	 * @param scale
+	 * @param destination array
+	 * @param destination offset
+	 */
+	private static void subScaled(float[] vector, int vectorOffset, float scale, float[] dest, int destOffset) {
+		dest[destOffset + 0]-= vector[vectorOffset + 0] * scale;
+		dest[destOffset + 1]-= vector[vectorOffset + 1] * scale;
+		dest[destOffset + 2]-= vector[vectorOffset + 2] * scale;
+		dest[destOffset + 3]-= vector[vectorOffset + 3] * scale;
+		dest[destOffset + 4]-= vector[vectorOffset + 4] * scale;
+		dest[destOffset + 5]-= vector[vectorOffset + 5] * scale;
 	}
 
 	/**
@@ -184,42 +522,42 @@ public final class ConstraintsSolver {
 		for (int i = 0; i < constraintsEntityCount; i++) {
 			ConstraintsEntity constraintedBody = constraintsEntities[i];
 
-			constrainedBodies.put(constraintedBody.rb1.id, constraintedBody.rb1);
-			constrainedBodies.put(constraintedBody.rb2.id, constraintedBody.rb2);
+			constrainedBodies[constraintedBody.rb1.idx] = true;
+			constrainedBodies[constraintedBody.rb2.idx] = true;
 
 			constraintsCount+= constraintedBody.collision.getHitPointsCount() * 3;
 		}
 
+		// make sure we have enough space for constraints
+		ensureConstraintsCapacity(constraintsCount);
+
 		//
 		int currentConstraint = 0;
+		warmStartCount = constraintsEntityCount;
+		warmStartHitCount = 0;
 		for (int i = 0; i < constraintsEntityCount; i++) {
 			ConstraintsEntity constraintedBody = constraintsEntities[i];
 			int hitPointsCount = constraintedBody.collision.getHitPointsCount();
 
 			//
 			for (int j = 0; j < hitPointsCount * 3; j++) {
-				constraintsBodyIdxMap[currentConstraint + j][0] = constraintedBody.rb1.idx;
-				constraintsBodyIdxMap[currentConstraint + j][1] = constraintedBody.rb2.idx;
+				constraintsBodyIdxMap[(currentConstraint + j) * 2 + 0] = constraintedBody.rb1.idx;
+				constraintsBodyIdxMap[(currentConstraint + j) * 2 + 1] = constraintedBody.rb2.idx;
 			}
 			constraintedBody.computeJacobian(currentConstraint, jacobianMatrices);
 			constraintedBody.computeLowerBound(currentConstraint, lowerBounds);
 			constraintedBody.computeUpperBound(currentConstraint, upperBounds);
 			constraintedBody.computeBaumgarte(currentConstraint, errorValues);
 
-			// contact cache
-			ContactCache.ContactCacheInfo contactCacheInfo = contactCache.get(
-				constraintedBody.rb1,
-				constraintedBody.rb2,
-				constraintedBody.collision
-			);
-			if (contactCacheInfo != null) {
-				for (int j = 0; j < hitPointsCount * 3; j++) {
-					lambdaInit.setValue(currentConstraint + j, contactCacheInfo.lamdas[j]);
-				}				
-			} else {
-				for (int j = 0; j < hitPointsCount * 3; j++) {
-					lambdaInit.setValue(currentConstraint + j, 0.0f);
-				}
+			// warm start from contact cache
+			if (contactCache.warmStart(
+					constraintedBody.rb1,
+					constraintedBody.rb2,
+					constraintedBody.collision,
+					lambdaInit,
+					currentConstraint
+				) == true) {
+				warmStartHitCount++;
 			}
 
 			//
@@ -231,36 +569,57 @@ public final class ConstraintsSolver {
 	 * Fill matrices
 	 */
 	private void fillMatrices() {
-		for (RigidBody rb: constrainedBodies.getValuesIterator()) {
-			int bodyIdx = rb.idx;
-
-			Vector6 velocityVector = velocityVectors[bodyIdx];
-			velocityVector.setValue(0, rb.linearVelocity);
-			velocityVector.setValue(3, rb.angularVelocity);
-
-			Vector6 constainedVelocityVector = constrainedVelocityVectors[bodyIdx];
-			constainedVelocityVector.fill(0.0f);
+		// visit constrained bodies in index order
+		for (int bodyIdx = 0; bodyIdx < rigidBodies.size(); bodyIdx++) {
+			if (constrainedBodies[bodyIdx] == false) continue;
+			RigidBody rb = rigidBodies.get(bodyIdx);
+			int vectorOffset = bodyIdx * BODY_VECTOR_SIZE;
+
+			float[] linearVelocityXYZ = rb.linearVelocity.getArray();
+			float[] angularVelocityXYZ = rb.angularVelocity.getArray();
+			velocityVectors[vectorOffset + 0] = linearVelocityXYZ[0];
+			velocityVectors[vectorOffset + 1] = linearVelocityXYZ[1];
+			velocityVectors[vectorOffset + 2] = linearVelocityXYZ[2];
+			velocityVectors[vectorOffset + 3] = angularVelocityXYZ[0];
+			velocityVectors[vectorOffset + 4] = angularVelocityXYZ[1];
+			velocityVectors[vectorOffset + 5] = angularVelocityXYZ[2];
+
+			for (int i = 0; i < BODY_VECTOR_SIZE; i++) {
+				constrainedVelocityVectors[vectorOffset + i] = 0.0f;
+			}
 
-			Vector6 forcesVector = forcesVectors[bodyIdx];
-			forcesVector.setValue(0, rb.force);
-			forcesVector.setValue(3, rb.torque);
+			float[] forceXYZ = rb.force.getArray();
+			float[] torqueXYZ = rb.torque.getArray();
+			forcesVectors[vectorOffset + 0] = forceXYZ[0];
+			forcesVectors[vectorOffset + 1] = forceXYZ[1];
+			forcesVectors[vectorOffset + 2] = forceXYZ[2];
+			forcesVectors[vectorOffset + 3] = torqueXYZ[0];
+			forcesVectors[vectorOffset + 4] = torqueXYZ[1];
+			forcesVectors[vectorOffset + 5] = torqueXYZ[2];
+
+			for (int i = 0; i < BODY_VECTOR_SIZE; i++) {
+				a[vectorOffset + i] = 0.0f;
+			}
 
-			Matrix6x6 invInertiaMatrix = invInertiaMatrices[bodyIdx];
-			invInertiaMatrix.fill(0.0f);
-			float[] worldInverseInertiaArray = rb.worldInverseInertia.getArray();
+			int inertiaOffset = bodyIdx * BODY_INERTIA_SIZE;
+			staticBodies[bodyIdx] = rb.isStatic;
 			if (rb.isStatic == false) {
-				invInertiaMatrix.setValue(0, 0, rb.inverseMass);
-				invInertiaMatrix.setValue(1, 1, rb.inverseMass);
-				invInertiaMatrix.setValue(2, 2, rb.inverseMass);
-				invInertiaMatrix.setValue(3, 3, worldInverseInertiaArray[0 + 0]);
-				invInertiaMatrix.setValue(3, 4, worldInverseInertiaArray[0 + 1]);
-				invInertiaMatrix.setValue(3, 5, worldInverseInertiaArray[0 + 2]);
-				invInertiaMatrix.setValue(4, 3, worldInverseInertiaArray[4 + 0]);
-				invInertiaMatrix.setValue(4, 4, worldInverseInertiaArray[4 + 1]);
-				invInertiaMatrix.setValue(4, 5, worldInverseInertiaArray[4 + 2]);
-				invInertiaMatrix.setValue(5, 3, worldInverseInertiaArray[8 + 0]);
-				invInertiaMatrix.setValue(5, 4, worldInverseInertiaArray[8 + 1]);
-				invInertiaMatrix.setValue(5, 5, worldInverseInertiaArray[8 + 2]);
+				float[] worldInverseInertiaArray = rb.worldInverseInertia.getArray();
+				inverseMasses[bodyIdx] = rb.inverseMass;
+				invInertiaMatrices[inertiaOffset + 0] = worldInverseInertiaArray[0 + 0];
+				invInertiaMatrices[inertiaOffset + 1] = worldInverseInertiaArray[0 + 1];
+				invInertiaMatrices[inertiaOffset + 2] = worldInverseInertiaArray[0 + 2];
+				invInertiaMatrices[inertiaOffset + 3] = worldInverseInertiaArray[4 + 0];
+				invInertiaMatrices[inertiaOffset + 4] = worldInverseInertiaArray[4 + 1];
+				invInertiaMatrices[inertiaOffset + 5] = worldInverseInertiaArray[4 + 2];
+				invInertiaMatrices[inertiaOffset + 6] = worldInverseInertiaArray[8 + 0];
+				invInertiaMatrices[inertiaOffset + 7] = worldInverseInertiaArray[8 + 1];
+				invInertiaMatrices[inertiaOffset + 8] = worldInverseInertiaArray[8 + 2];
+			} else {
+				inverseMasses[bodyIdx] = 0.0f;
+				for (int i = 0; i < BODY_INERTIA_SIZE; i++) {
+					invInertiaMatrices[inertiaOffset + i] = 0.0f;
+				}
 			}
 		}
 	}
@@ -268,115 +627,265 @@ public final class ConstraintsSolver {
 	/**
 	 * Compute vector b
 	 * @param delta time
+	 * @param constraints start
+	 * @param constraints end
+	 * @param tmp matrix 1x6
 	 */
-	private void computeVectorB(float dt) {
+	private void computeVectorB(float dt, int constraintsStart, int constraintsEnd, float[] tmpMatrix1x6) {
 		float oneOverDT = 1.0f / dt;
-		errorValues.scale(oneOverDT, b);
-		for (int i = 0; i < constraintsCount; i++) {
-			int body1Idx = constraintsBodyIdxMap[i][0];
-			int body2Idx = constraintsBodyIdxMap[i][1];
+		for (int i = constraintsStart; i < constraintsEnd; i++) {
+			int body1Idx = constraintsBodyIdxMap[i * 2 + 0];
+			int body2Idx = constraintsBodyIdxMap[i * 2 + 1];
+			int jacobian1Offset = i * CONSTRAINT_MATRIX_SIZE;
+			int jacobian2Offset = i * CONSTRAINT_MATRIX_SIZE + 6;
 
 			// 1.0 / dt * J * V
 			float t1 =
-				jacobianMatrices[i][0].multiply(velocityVectors[body1Idx]) +
-				jacobianMatrices[i][1].multiply(velocityVectors[body2Idx]) *
+				multiply(jacobianMatrices, jacobian1Offset, velocityVectors, body1Idx * BODY_VECTOR_SIZE) +
+				multiply(jacobianMatrices, jacobian2Offset, velocityVectors, body2Idx * BODY_VECTOR_SIZE) *
 				oneOverDT;
 
 			// J*M^-1*F_ext 
-			float t2 =
-				jacobianMatrices[i][0].multiply(invInertiaMatrices[body1Idx], tmpMatrix1x6).multiply(forcesVectors[body1Idx]) +
-				jacobianMatrices[i][1].multiply(invInertiaMatrices[body2Idx], tmpMatrix1x6).multiply(forcesVectors[body2Idx]);
+			multiplyInvInertia(jacobianMatrices, jacobian1Offset, body1Idx, tmpMatrix1x6);
+			float t2 = multiply(tmpMatrix1x6, 0, forcesVectors, body1Idx * BODY_VECTOR_SIZE);
+			multiplyInvInertia(jacobianMatrices, jacobian2Offset, body2Idx, tmpMatrix1x6);
+			t2+= multiply(tmpMatrix1x6, 0, forcesVectors, body2Idx * BODY_VECTOR_SIZE);
 
 			//
-			float result = b.getValue(i) + t1 + t2;
-			b.setValue(i, result);
+			b[i] = errorValues[i] * oneOverDT + t1 + t2;
 		}
 	}
 
 	/**
 	 * Computes matrix b
+	 * @param constraints start
+	 * @param constraints end
 	 */
-	private void computeMatrixB() {
-		for (int i = 0; i < constraintsCount; i++) {
-			int body1Idx = constraintsBodyIdxMap[i][0];
-			int body2Idx = constraintsBodyIdxMap[i][1];
-			invInertiaMatrices[body1Idx].multiply(jacobianMatrices[i][0].getTranspose(tmpVector6), bVectors[i][0]);
-			invInertiaMatrices[body2Idx].multiply(jacobianMatrices[i][1].getTranspose(tmpVector6), bVectors[i][1]);
+	private void computeMatrixB(int constraintsStart, int constraintsEnd) {
+		for (int i = constraintsStart; i < constraintsEnd; i++) {
+			int body1Idx = constraintsBodyIdxMap[i * 2 + 0];
+			int body2Idx = constraintsBodyIdxMap[i * 2 + 1];
+			int matrix1Offset = i * CONSTRAINT_MATRIX_SIZE;
+			int matrix2Offset = i * CONSTRAINT_MATRIX_SIZE + 6;
+			multiplyInvInertiaTransposed(body1Idx, jacobianMatrices, matrix1Offset, bVectors, matrix1Offset);
+			multiplyInvInertiaTransposed(body2Idx, jacobianMatrices, matrix2Offset, bVectors, matrix2Offset);
 		}
 	}
 
 	/**
-	 * Compute vector a
-	 * @param a
+	 * Compute vector a, a has been zeroed for constrained bodies in fillMatrices()
+	 * 	Note: static bodies are shared between islands, they have no inverse mass and inertia, so they are skipped
+	 * @param constraints start
+	 * @param constraints end
 	 */
-	private void computeVectorA() {
-		for (RigidBody rb: constrainedBodies.getValuesIterator()) {
-			a[rb.idx].fill(0.0f);
-		}
-		for (int i = 0; i < constraintsCount; i++) {
-			int body1Idx = constraintsBodyIdxMap[i][0];
-			int body2Idx = constraintsBodyIdxMap[i][1];
-			a[body1Idx].add(tmpVector6.set(bVectors[i][0]).scale(lambda.getValue(i)));
-			a[body2Idx].add(tmpVector6.set(bVectors[i][1]).scale(lambda.getValue(i)));
+	private void computeVectorA(int constraintsStart, int constraintsEnd) {
+		for (int i = constraintsStart; i < constraintsEnd; i++) {
+			int body1Idx = constraintsBodyIdxMap[i * 2 + 0];
+			int body2Idx = constraintsBodyIdxMap[i * 2 + 1];
+			if (staticBodies[body1Idx] == false) addScaled(bVectors, i * CONSTRAINT_MATRIX_SIZE, lambda[i], a, body1Idx * BODY_VECTOR_SIZE);
+			if (staticBodies[body2Idx] == false) addScaled(bVectors, i * CONSTRAINT_MATRIX_SIZE + 6, lambda[i], a, body2Idx * BODY_VECTOR_SIZE);
 		}
 	}
 
 	/**
 	 * PGLCP
+	 * @param constraints start
+	 * @param constraints end
+	 * @return iterations done
 	 */
-	private void PGLCP() {
-		for (int i = 0; i < constraintsCount; i++) {
-			lambda.setValue(i, lambdaInit.getValue(i));			
-		}
+	private int PGLCP(int constraintsStart, int constraintsEnd) {
+		System.arraycopy(lambdaInit, constraintsStart, lambda, constraintsStart, constraintsEnd - constraintsStart);
 
 		//
-		computeVectorA();
+		computeVectorA(constraintsStart, constraintsEnd);
 
 		//
-		for (int i = 0; i < constraintsCount; i++) {
+		for (int i = constraintsStart; i < constraintsEnd; i++) {
 			// d[i] = (J_sp[i][0] * B_sp[0][i] + J_sp[i][1] * B_sp[1][i]);
 			d[i] =
-				jacobianMatrices[i][0].multiply(bVectors[i][0]) +
-				jacobianMatrices[i][1].multiply(bVectors[i][1]);
+				multiply(jacobianMatrices, i * CONSTRAINT_MATRIX_SIZE, bVectors, i * CONSTRAINT_MATRIX_SIZE) +
+				multiply(jacobianMatrices, i * CONSTRAINT_MATRIX_SIZE + 6, bVectors, i * CONSTRAINT_MATRIX_SIZE + 6);
 		}
 
 		//
-		for (int iteration = 0; iteration < 20; iteration++) {
-			//
-			for (int i = 0; i < constraintsCount; i++) {
-				int body1Idx = constraintsBodyIdxMap[i][0];
-				int body2Idx = constraintsBodyIdxMap[i][1];
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			float lambdaDeltaMax = 0f;
+			for (int i = constraintsStart; i < constraintsEnd; i++) {
+				int body1Idx = constraintsBodyIdxMap[i * 2 + 0];
+				int body2Idx = constraintsBodyIdxMap[i * 2 + 1];
+				int body1Offset = body1Idx * BODY_VECTOR_SIZE;
+				int body2Offset = body2Idx * BODY_VECTOR_SIZE;
+				int matrix1Offset = i * CONSTRAINT_MATRIX_SIZE;
+				int matrix2Offset = i * CONSTRAINT_MATRIX_SIZE + 6;
 
 				float xDelta =
 					(
-						b.getValue(i) -
-						jacobianMatrices[i][0].multiply(a[body1Idx]) -
-						jacobianMatrices[i][1].multiply(a[body2Idx])
+						b[i] -
+						multiply(jacobianMatrices, matrix1Offset, a, body1Offset) -
+						multiply(jacobianMatrices, matrix2Offset, a, body2Offset)
 					) / d[i];
-				float xTemp = lambda.getValue(i);
+				float xTemp = lambda[i];
 
-				float min = Math.min(xTemp + xDelta, upperBounds.getValue(i));
-				float max = Math.max(lowerBounds.getValue(i), min);
-				lambda.setValue(i,max);
+				float min = Math.min(xTemp + xDelta, upperBounds[i]);
+				float max = Math.max(lowerBounds[i], min);
+				lambda[i] = max;
 
-				xDelta = lambda.getValue(i) - xTemp;
-				a[body1Idx].add(tmpVector6.set(bVectors[i][0]).scale(xDelta));
-				a[body2Idx].add(tmpVector6.set(bVectors[i][1]).scale(xDelta));
-		
+				xDelta = lambda[i] - xTemp;
+				if (staticBodies[body1Idx] == false) addScaled(bVectors, matrix1Offset, xDelta, a, body1Offset);
+				if (staticBodies[body2Idx] == false) addScaled(bVectors, matrix2Offset, xDelta, a, body2Offset);
+				lambdaDeltaMax = Math.max(lambdaDeltaMax, Math.abs(xDelta));
 			}
+
+			// stop if converged
+			if (lambdaDeltaMax < lambdaTolerance) return iteration + 1;
 		}
+		return iterations;
 	}
 
 	/**
 	 * Compute vector velocity constraints
+	 * @param delta time
+	 * @param constraints start
+	 * @param constraints end
 	 */
-	private void computeVectorVelocityConstraints(float dt) {
-		for (int i = 0; i < constraintsCount; i++) {
-			int body1Idx = constraintsBodyIdxMap[i][0];
-			int body2Idx = constraintsBodyIdxMap[i][1];
-			constrainedVelocityVectors[body1Idx].sub(tmpVector6.set(bVectors[i][0]).scale(lambda.getValue(i) * dt));
-			constrainedVelocityVectors[body2Idx].sub(tmpVector6.set(bVectors[i][1]).scale(lambda.getValue(i) * dt));
+	private void computeVectorVelocityConstraints(float dt, int constraintsStart, int constraintsEnd) {
+		for (int i = constraintsStart; i < constraintsEnd; i++) {
+			int body1Idx = constraintsBodyIdxMap[i * 2 + 0];
+			int body2Idx = constraintsBodyIdxMap[i * 2 + 1];
+			if (staticBodies[body1Idx] == false) subScaled(bVectors, i * CONSTRAINT_MATRIX_SIZE, lambda[i] * dt, constrainedVelocityVectors, body1Idx * BODY_VECTOR_SIZE);
+			if (staticBodies[body2Idx] == false) subScaled(bVectors, i * CONSTRAINT_MATRIX_SIZE + 6, lambda[i] * dt, constrainedVelocityVectors, body2Idx * BODY_VECTOR_SIZE);
+		}
+	}
 
+	/**
+	 * Find island root of given body with path halving
+	 * @param body idx
+	 * @return root body idx
+	 */
+	private int findIslandRoot(int bodyIdx) {
+		while (islandParents[bodyIdx] != bodyIdx) {
+			islandParents[bodyIdx] = islandParents[islandParents[bodyIdx]];
+			bodyIdx = islandParents[bodyIdx];
+		}
+		return bodyIdx;
+	}
+
+	/**
+	 * Compute islands, which are groups of non static bodies connected by constraints entities
+	 * 	Static bodies do not connect islands. Constraints entities get sorted by island,
+	 * 	so each island has a continuous range of constraints entities and constraints.
+	 */
+	private void computeIslands() {
+		// reset
+		islandCount = 0;
+		if (islandParents.length < rigidBodies.size()) {
+			islandParents = new int[computeCapacity(islandParents.length, rigidBodies.size())];
+			islandByRoot = new int[islandParents.length];
+		}
+		for (int i = 0; i < rigidBodies.size(); i++) {
+			rigidBodies.get(i).islandIdx = -1;
+			islandParents[i] = i;
+			islandByRoot[i] = -1;
+		}
+		if (constraintsEntityCount == 0) return;
+
+		// union bodies of constraints entities
+		for (int i = 0; i < constraintsEntityCount; i++) {
+			ConstraintsEntity constraintsEntity = constraintsEntities[i];
+			if (constraintsEntity.rb1.isStatic == true || constraintsEntity.rb2.isStatic == true) continue;
+			int root1 = findIslandRoot(constraintsEntity.rb1.idx);
+			int root2 = findIslandRoot(constraintsEntity.rb2.idx);
+			if (root1 != root2) islandParents[root2] = root1;
+		}
+
+		// assign islands in order of first occurrence, count constraints entities and constraints per island
+		if (islandConstraintsEntityOffsets.length < constraintsEntityCount + 1) {
+			islandConstraintsEntityOffsets = new int[computeCapacity(islandConstraintsEntityOffsets.length, constraintsEntityCount + 1)];
+			islandConstraintOffsets = new int[islandConstraintsEntityOffsets.length];
+			islandsAtRest = new boolean[islandConstraintsEntityOffsets.length];
+			islandIterations = new int[islandConstraintsEntityOffsets.length];
+		}
+		for (int i = 0; i < constraintsEntityCount; i++) {
+			ConstraintsEntity constraintsEntity = constraintsEntities[i];
+			RigidBody rigidBody = constraintsEntity.rb1.isStatic == true?constraintsEntity.rb2:constraintsEntity.rb1;
+			int root = findIslandRoot(rigidBody.idx);
+			int island = islandByRoot[root];
+			if (island == -1) {
+				island = islandCount++;
+				islandByRoot[root] = island;
+				islandConstraintsEntityOffsets[island + 1] = 0;
+				islandConstraintOffsets[island + 1] = 0;
+			}
+			if (constraintsEntity.rb1.isStatic == false) constraintsEntity.rb1.islandIdx = island;
+			if (constraintsEntity.rb2.isStatic == false) constraintsEntity.rb2.islandIdx = island;
+			islandConstraintsEntityOffsets[island + 1]++;
+			islandConstraintOffsets[island + 1]+= constraintsEntity.collision.getHitPointsCount() * 3;
+		}
+
+		// compute offsets
+		islandConstraintsEntityOffsets[0] = 0;
+		islandConstraintOffsets[0] = 0;
+		for (int i = 0; i < islandCount; i++) {
+			islandConstraintsEntityOffsets[i + 1]+= islandConstraintsEntityOffsets[i];
+			islandConstraintOffsets[i + 1]+= islandConstraintOffsets[i];
+		}
+
+		// sort constraints entities by island, keep order within island
+		if (constraintsEntitiesSorted.length < constraintsEntities.length) {
+			constraintsEntitiesSorted = new ConstraintsEntity[constraintsEntities.length];
+		}
+		for (int i = 0; i < constraintsEntityCount; i++) {
+			ConstraintsEntity constraintsEntity = constraintsEntities[i];
+			RigidBody rigidBody = constraintsEntity.rb1.isStatic == true?constraintsEntity.rb2:constraintsEntity.rb1;
+			constraintsEntitiesSorted[islandConstraintsEntityOffsets[rigidBody.islandIdx]++] = constraintsEntity;
+		}
+		System.arraycopy(constraintsEntitiesSorted, 0, constraintsEntities, 0, constraintsEntityCount);
+
+		// offsets have been moved to island end while sorting, so restore them
+		for (int i = islandCount; i > 0; i--) {
+			islandConstraintsEntityOffsets[i] = islandConstraintsEntityOffsets[i - 1];
+		}
+		islandConstraintsEntityOffsets[0] = 0;
+	}
+
+	/**
+	 * Solve given island
+	 * @param island
+	 * @param delta time
+	 * @param tmp matrix 1x6
+	 */
+	private void solveIsland(int island, float dt, float[] tmpMatrix1x6) {
+		int constraintsStart = islandConstraintOffsets[island];
+		int constraintsEnd = islandConstraintOffsets[island + 1];
+		computeVectorB(dt, constraintsStart, constraintsEnd, tmpMatrix1x6);
+		computeMatrixB(constraintsStart, constraintsEnd);
+		islandIterations[island] = PGLCP(constraintsStart, constraintsEnd);
+		computeVectorVelocityConstraints(dt, constraintsStart, constraintsEnd);
+	}
+
+	/**
+	 * Solve islands using worker thread pool
+	 * @param delta time
+	 */
+	private void solveIslandsParallel(float dt) {
+		nextIsland.set(0);
+		islandSolverFutures.clear();
+		for (int i = 0; i < islandSolvers.size(); i++) {
+			IslandSolver islandSolver = islandSolvers.get(i);
+			islandSolver.dt = dt;
+			islandSolverFutures.add(workerThreadPool.submit(islandSolver));
+		}
+
+		// wait until done
+		try {
+			for (int i = 0; i < islandSolverFutures.size(); i++) {
+				islandSolverFutures.get(i).get();
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("ConstraintsSolver::solveIslandsParallel(): interrupted", ie);
+		} catch (ExecutionException ee) {
+			throw new RuntimeException("ConstraintsSolver::solveIslandsParallel(): solving island failed", ee.getCause());
 		}
 	}
 
@@ -384,25 +893,19 @@ public final class ConstraintsSolver {
 	 * Update contact cache
 	 */
 	private void updateContactCache() {
-		//
-		contactCache.clear();
-
-		//
 		int constraintsIdx = 0;
 		for (int i = 0; i < constraintsEntityCount; i++) {
 			ConstraintsEntity constraintsEntity = constraintsEntities[i];
-			int hitPoints = constraintsEntity.collision.getHitPointsCount();
-			for (int j = 0; j < hitPoints * 3; j++) {
-				tmpLamdaValues[j] = lambda.getValue(constraintsIdx + j);
-			}
-			contactCache.add(
+			contactCache.update(
 				constraintsEntity.rb1,
 				constraintsEntity.rb2,
 				constraintsEntity.collision,
-				tmpLamdaValues
+				lambda,
+				constraintsIdx
 			);
-			constraintsIdx+= hitPoints * 3;
+			constraintsIdx+= constraintsEntity.collision.getHitPointsCount() * 3;
 		}
+		contactCache.removeStale();
 	}
 
 	/**
@@ -644,14 +1147,22 @@ public final class ConstraintsSolver {
 	 * @param rigid bodies
 	 */
 	protected void compute(float dt) {
-		if (constraintsEntityCount == 0) return;
+		ensureBodiesCapacity(rigidBodies.size());
+		computeIslands();
+		if (constraintsEntityCount == 0) {
+			contactCache.removeStale();
+			return;
+		}
 		checkVelocityConstraint();
 		initialize(dt);
 		fillMatrices();
-		computeVectorB(dt);
-		computeMatrixB();
-		PGLCP();
-		computeVectorVelocityConstraints(dt);
+		if (workerThreadPool != null && islandCount > 1) {
+			solveIslandsParallel(dt);
+		} else {
+			for (int i = 0; i < islandCount; i++) {
+				solveIsland(i, dt, tmpMatrix1x6);
+			}
+		}
 		updateContactCache();
 	}
 
@@ -661,17 +1172,16 @@ public final class ConstraintsSolver {
 	 * @param dest
 	 */
 	private void getConstrainedVelocity(RigidBody body, Vector3 linearVelocity, Vector3 angularVelocity) {
-		Vector6 vector6 = constrainedVelocityVectors[body.idx];
-		float[] vector6Array = vector6.data;
+		int vectorOffset = body.idx * BODY_VECTOR_SIZE;
 		linearVelocity.set(
-			vector6Array[0],
-			vector6Array[1],
-			vector6Array[2]
+			constrainedVelocityVectors[vectorOffset + 0],
+			constrainedVelocityVectors[vectorOffset + 1],
+			constrainedVelocityVectors[vectorOffset + 2]
 		);
 		angularVelocity.set(
-			vector6Array[3],
-			vector6Array[4],
-			vector6Array[5]
+			constrainedVelocityVectors[vectorOffset + 3],
+			constrainedVelocityVectors[vectorOffset + 4],
+			constrainedVelocityVectors[vectorOffset + 5]
 		);
 	}
 
@@ -695,7 +1205,7 @@ public final class ConstraintsSolver {
 			newAngularVelocity.set(0f, 0f, 0f);
 
 			// if constrained retrieve constrained velocities
-			if (constrainedBodies.get(body.id) != null) {
+			if (constrainedBodies[body.idx] == true) {
 				getConstrainedVelocity(body, newLinearVelocity, newAngularVelocity);
 			}
 
@@ -717,6 +1227,21 @@ public final class ConstraintsSolver {
 			// update rigid body
 			body.update(deltaTime);
 		}
+
+		// put islands to sleep if all of their bodies are at rest
+		for (int i = 0; i < islandCount; i++) {
+			islandsAtRest[i] = true;
+		}
+		for (int i = 0; i < rigidBodies.size(); i++) {
+			RigidBody body = rigidBodies.get(i);
+			if (body.islandIdx == -1) continue;
+			if (body.isAtRest() == false) islandsAtRest[body.islandIdx] = false;
+		}
+		for (int i = 0; i < rigidBodies.size(); i++) {
+			RigidBody body = rigidBodies.get(i);
+			if (body.islandIdx == -1) continue;
+			if (islandsAtRest[body.islandIdx] == true) body.sleepAtRest();
+		}
 	}
 	
 }
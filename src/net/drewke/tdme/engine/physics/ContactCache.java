@@ -26,130 +26,435 @@
 
 package net.drewke.tdme.engine.physics;
 
+import java.nio.ByteBuffer;
+
+import net.drewke.tdme.math.Quaternion;
 import net.drewke.tdme.math.Vector3;
-import net.drewke.tdme.utils.HashMap;
-import net.drewke.tdme.utils.Key;
-import net.drewke.tdme.utils.Pool;
+import net.drewke.tdme.utils.ArrayList;
+import net.drewke.tdme.utils.LongHashSet;
 
 /**
  * Contact cache manager
+ * 	Keeps a persistent contact manifold per rigid body pair, keyed by packed rigid body indices.
+ * 	Manifold points are anchored in body space of both rigid bodies, so they move with the rigid bodies.
+ * 	Hit points of a new collision are matched with manifold points by feature if the narrow phase provides one, otherwise by proximity,
+ * 	to warm start the solver with accumulated impulses of the matching points.
+ * 	Solved hit points get merged into the manifold, replacing matching points, adding new ones or replacing the oldest ones if full.
+ * 	Points whose anchors drifted apart get dropped, manifolds not updated in a frame get removed.
+ * 	Warm starting and updating is not thread safe, the solver does both sequentially.
  * @author Andreas Drewke
  * @version $Id$
  */
 public final class ContactCache {
 
+	protected final static int MANIFOLD_POINTS_MAX = 8;
+
+	private final static float POINT_DISTANCE_MAX = 0.1f;
+	private final static float NORMAL_DOT_MIN = 0.95f;
+
 	/**
-	 * Contact cache info
+	 * Contact manifold
 	 */
-	protected static class ContactCacheInfo {
-		protected Key key;
-		protected RigidBody rb1;
-		protected RigidBody rb2;
-		protected int hitPointCount;
-		protected Vector3[] hitPoints;
-		protected float[] lamdas;
+	protected final static class ContactManifold {
+		protected int frame;
+		protected Vector3 normal = new Vector3();
+		protected int pointCount;
+		// points in body space of rigid body 1 and rigid body 2
+		protected float[] points1 = new float[MANIFOLD_POINTS_MAX * 3];
+		protected float[] points2 = new float[MANIFOLD_POINTS_MAX * 3];
+		// feature of points, see CollisionResponse::computeFeature(), and frame points have been updated last
+		protected int[] pointsFeature = new int[MANIFOLD_POINTS_MAX];
+		protected int[] pointsFrame = new int[MANIFOLD_POINTS_MAX];
+		// accumulated impulses for contact and both friction constraints per hit point
+		protected float[] impulses = new float[MANIFOLD_POINTS_MAX * 3];
+		protected boolean[] pointsMatched = new boolean[MANIFOLD_POINTS_MAX];
+		protected boolean[] pointsValid = new boolean[MANIFOLD_POINTS_MAX];
 	}
 
-	private Key key = new Key();
-	private int keyPoolIdx = 0;
-	private Key[] keyPool = null;
-	private int contactCacheInfoPoolIdx = 0;
-	private ContactCacheInfo[] contactCacheInfoPool = null;
-	private HashMap<Key, ContactCacheInfo> contactCache = new HashMap<Key, ContactCacheInfo>();
-	private Vector3 tmpVector3 = new Vector3();
+	private int frame = 0;
+	private LongHashSet manifoldKeys = new LongHashSet();
+	private ArrayList<ContactManifold> manifolds = new ArrayList<ContactManifold>();
+	private ArrayList<ContactManifold> manifoldsPool = new ArrayList<ContactManifold>();
+
+	// manifold point index matching hit point or -1
+	private int[] hitPointsMatch = new int[CollisionResponse.HITPOINT_COUNT];
+	private Quaternion inverseOrientation = new Quaternion();
+	private Vector3 point = new Vector3();
+	private Vector3 point1 = new Vector3();
+	private Vector3 point2 = new Vector3();
 
 	/**
 	 * Constructor
 	 */
 	protected ContactCache() {
-		keyPool = new Key[ConstraintsSolver.CONSTRAINTS_MAX];
-		contactCacheInfoPool = new ContactCacheInfo[ConstraintsSolver.CONSTRAINTS_MAX];
-		for (int i = 0; i < ConstraintsSolver.CONSTRAINTS_MAX; i++) {
-			keyPool[i] = new Key();
-			contactCacheInfoPool[i] = new ContactCacheInfo();
-			contactCacheInfoPool[i].hitPoints = new Vector3[CollisionResponse.HITPOINT_COUNT];
-			contactCacheInfoPool[i].lamdas = new float[CollisionResponse.HITPOINT_COUNT * 3];
-			for (int j = 0; j < CollisionResponse.HITPOINT_COUNT; j++) {
-				contactCacheInfoPool[i].hitPoints[j] = new Vector3();
-			}
-		}
 	}
 
 	/**
 	 * Clear contact cache
 	 */
 	protected void clear() {
-		keyPoolIdx = 0;
-		contactCacheInfoPoolIdx = 0;
-		contactCache.clear();
+		for (int i = 0; i < manifolds.size(); i++) {
+			manifoldsPool.add(manifolds.get(i));
+		}
+		manifolds.clear();
+		manifoldKeys.clear();
+	}
+
+	/**
+	 * @return number of contact manifolds
+	 */
+	protected int size() {
+		return manifoldKeys.size();
+	}
+
+	/**
+	 * Get contact manifold of given rigid bodies
+	 * @param rb1
+	 * @param rb2
+	 * @return contact manifold or null
+	 */
+	protected ContactManifold get(RigidBody rb1, RigidBody rb2) {
+		int manifoldIdx = manifoldKeys.indexOf(LongHashSet.pack(rb1.idx, rb2.idx));
+		return manifoldIdx == -1?null:manifolds.get(manifoldIdx);
 	}
 
 	/**
-	 * 
+	 * Compute point in body space of given rigid body
+	 * @param rigid body
+	 * @param world point
+	 * @param body point
+	 * @return body point
+	 */
+	private Vector3 computeBodyPoint(RigidBody rb, Vector3 worldPoint, Vector3 bodyPoint) {
+		inverseOrientation.set(rb.orientation).invert();
+		return inverseOrientation.multiply(point.set(worldPoint).sub(rb.position), bodyPoint);
+	}
+
+	/**
+	 * Compute world point of manifold point in body space of given rigid body
+	 * @param rigid body
+	 * @param manifold points
+	 * @param manifold point idx
+	 * @param world point
+	 * @return world point
+	 */
+	private Vector3 computeWorldPoint(RigidBody rb, float[] points, int pointIdx, Vector3 worldPoint) {
+		point.set(points[pointIdx * 3 + 0], points[pointIdx * 3 + 1], points[pointIdx * 3 + 2]);
+		return rb.orientation.multiply(point, worldPoint).add(rb.position);
+	}
+
+	/**
+	 * Match hit points of given collision with manifold points, first by feature and then by proximity in body space of rigid body 1,
+	 * 	only valid manifold points are matched, which are points whose world points of rigid body 1 and 2 did not drift apart
+	 * @param manifold
 	 * @param rb1
 	 * @param rb2
 	 * @param collision
-	 * @param lamdaValues
-	 */
-	protected void add(RigidBody rb1, RigidBody rb2, CollisionResponse collision, float[] lamdaValues) {
-		// construct contact cache
-		ContactCacheInfo contactCacheInfo = contactCacheInfoPool[contactCacheInfoPoolIdx++];
-		contactCacheInfo.rb1 = rb1;
-		contactCacheInfo.rb2 = rb2;
-		contactCacheInfo.hitPointCount = collision.getHitPointsCount();
-		for (int i = 0; i < contactCacheInfo.hitPointCount; i++) {
-			contactCacheInfo.hitPoints[i].set(collision.getHitPointAt(i));
-			contactCacheInfo.lamdas[i] = lamdaValues[i];
-		}
-
-		// generate key
-		Key key = keyPool[keyPoolIdx++];
-		key.reset();
-		key.append(rb1.id);
-		key.append(",");
-		key.append(rb2.id);
-
-		// construct
-		ContactCacheInfo oldContactCacheInfo = contactCache.put(key, contactCacheInfo);
-	}
-
-	/**
-	 * Retrieve contact cache info
-	 * @param rigid body1
-	 * @param rigid body2
-	 * @param collision response
-	 * @return contact cache info
-	 */
-	protected ContactCacheInfo get(RigidBody rb1, RigidBody rb2, CollisionResponse collision) {
-		// generate key
-		key.reset();
-		key.append(rb1.id);
-		key.append(",");
-		key.append(rb2.id);
-
-		// retrieve
-		ContactCacheInfo contactCacheInfo = contactCache.get(key);
-		if (contactCacheInfo != null) {
-			// validate
-			//	hit point count
-			if (collision.getHitPointsCount() != contactCacheInfo.hitPointCount) return null;
-
-			// hit points
-			for (int i = 0; i < contactCacheInfo.hitPointCount; i++) {
-				tmpVector3.set(
-					collision.getHitPointAt(i)
-				).sub(
-					contactCacheInfo.hitPoints[i]
-				);
-				if (tmpVector3.computeLength() > 0.1f) return null;
+	 */
+	private void matchPoints(ContactManifold manifold, RigidBody rb1, RigidBody rb2, CollisionResponse collision) {
+		int hitPointCount = collision.getHitPointsCount();
+		for (int j = 0; j < manifold.pointCount; j++) {
+			computeWorldPoint(rb1, manifold.points1, j, point1);
+			computeWorldPoint(rb2, manifold.points2, j, point2);
+			manifold.pointsValid[j] = point1.sub(point2).computeLengthSquared() <= POINT_DISTANCE_MAX * POINT_DISTANCE_MAX;
+			manifold.pointsMatched[j] = false;
+		}
+		for (int i = 0; i < hitPointCount; i++) {
+			hitPointsMatch[i] = -1;
+		}
+
+		// match by feature
+		for (int i = 0; i < hitPointCount; i++) {
+			int feature = collision.getHitPointFeatureAt(i);
+			if (feature == CollisionResponse.FEATURE_NONE) continue;
+			for (int j = 0; j < manifold.pointCount; j++) {
+				if (manifold.pointsValid[j] == false ||
+					manifold.pointsMatched[j] == true ||
+					manifold.pointsFeature[j] != feature) {
+					continue;
+				}
+				manifold.pointsMatched[j] = true;
+				hitPointsMatch[i] = j;
+				break;
 			}
+		}
 
-			// valid
-			return contactCacheInfo;
+		// match remaining hit points with nearest manifold points
+		for (int i = 0; i < hitPointCount; i++) {
+			if (hitPointsMatch[i] != -1) continue;
+			float[] hitPointXYZ = computeBodyPoint(rb1, collision.getHitPointAt(i), point1).getArray();
+			int nearestPoint = -1;
+			float nearestDistanceSquared = POINT_DISTANCE_MAX * POINT_DISTANCE_MAX;
+			for (int j = 0; j < manifold.pointCount; j++) {
+				if (manifold.pointsValid[j] == false || manifold.pointsMatched[j] == true) continue;
+				float dx = manifold.points1[j * 3 + 0] - hitPointXYZ[0];
+				float dy = manifold.points1[j * 3 + 1] - hitPointXYZ[1];
+				float dz = manifold.points1[j * 3 + 2] - hitPointXYZ[2];
+				float distanceSquared = dx * dx + dy * dy + dz * dz;
+				if (distanceSquared <= nearestDistanceSquared) {
+					nearestPoint = j;
+					nearestDistanceSquared = distanceSquared;
+				}
+			}
+			if (nearestPoint == -1) continue;
+			manifold.pointsMatched[nearestPoint] = true;
+			hitPointsMatch[i] = nearestPoint;
+		}
+	}
+
+	/**
+	 * Set up initial lamda values of given collision from contact manifold of given rigid bodies,
+	 * 	values of hit points without a matching manifold point are set to zero
+	 * @param rb1
+	 * @param rb2
+	 * @param collision
+	 * @param lamda values
+	 * @param lamda values offset
+	 * @return if a contact manifold with matching normal was found
+	 */
+	protected boolean warmStart(RigidBody rb1, RigidBody rb2, CollisionResponse collision, float[] lamdaValues, int lamdaValuesOffset) {
+		int hitPointCount = collision.getHitPointsCount();
+		for (int i = 0; i < hitPointCount * 3; i++) {
+			lamdaValues[lamdaValuesOffset + i] = 0f;
 		}
 
-		//
-		return null;
+		// check manifold
+		ContactManifold manifold = get(rb1, rb2);
+		if (manifold == null) return false;
+		if (Vector3.computeDotProduct(manifold.normal, collision.getNormal()) < NORMAL_DOT_MIN) return false;
+
+		// use impulses of matching manifold points
+		matchPoints(manifold, rb1, rb2, collision);
+		for (int i = 0; i < hitPointCount; i++) {
+			int j = hitPointsMatch[i];
+			if (j == -1) continue;
+			lamdaValues[lamdaValuesOffset + i * 3 + 0] = manifold.impulses[j * 3 + 0];
+			lamdaValues[lamdaValuesOffset + i * 3 + 1] = manifold.impulses[j * 3 + 1];
+			lamdaValues[lamdaValuesOffset + i * 3 + 2] = manifold.impulses[j * 3 + 2];
+		}
+		return true;
+	}
+
+	/**
+	 * Merge hit points of given collision and their solved lamda values into contact manifold of given rigid bodies,
+	 * 	matching manifold points get replaced, other hit points get added or replace the oldest manifold points not updated in this frame,
+	 * 	manifold points not updated in this frame which drifted apart get removed
+	 * @param rb1
+	 * @param rb2
+	 * @param collision
+	 * @param lamda values
+	 * @param lamda values offset
+	 */
+	protected void update(RigidBody rb1, RigidBody rb2, CollisionResponse collision, float[] lamdaValues, int lamdaValuesOffset) {
+		// get or create manifold, a manifold with another normal starts over
+		long key = LongHashSet.pack(rb1.idx, rb2.idx);
+		ContactManifold manifold;
+		if (manifoldKeys.add(key) == true) {
+			manifold = manifoldsPool.isEmpty() == true?new ContactManifold():manifoldsPool.remove(manifoldsPool.size() - 1);
+			manifold.pointCount = 0;
+			manifolds.add(manifold);
+		} else {
+			manifold = manifolds.get(manifoldKeys.indexOf(key));
+			if (Vector3.computeDotProduct(manifold.normal, collision.getNormal()) < NORMAL_DOT_MIN) manifold.pointCount = 0;
+		}
+		manifold.frame = frame;
+		manifold.normal.set(collision.getNormal());
+
+		// merge hit points
+		matchPoints(manifold, rb1, rb2, collision);
+		for (int i = 0; i < collision.getHitPointsCount(); i++) {
+			int j = hitPointsMatch[i];
+			if (j == -1) j = allocatePoint(manifold);
+			if (j == -1) break;
+			Vector3 hitPoint = collision.getHitPointAt(i);
+			setPoint(manifold.points1, j, computeBodyPoint(rb1, hitPoint, point1));
+			setPoint(manifold.points2, j, computeBodyPoint(rb2, hitPoint, point2));
+			manifold.pointsFeature[j] = collision.getHitPointFeatureAt(i);
+			manifold.pointsFrame[j] = frame;
+			manifold.pointsValid[j] = true;
+			manifold.impulses[j * 3 + 0] = lamdaValues[lamdaValuesOffset + i * 3 + 0];
+			manifold.impulses[j * 3 + 1] = lamdaValues[lamdaValuesOffset + i * 3 + 1];
+			manifold.impulses[j * 3 + 2] = lamdaValues[lamdaValuesOffset + i * 3 + 2];
+		}
+
+		// remove points which drifted apart
+		int pointCount = 0;
+		for (int j = 0; j < manifold.pointCount; j++) {
+			if (manifold.pointsValid[j] == false) continue;
+			if (pointCount != j) copyPoint(manifold, j, pointCount);
+			pointCount++;
+		}
+		manifold.pointCount = pointCount;
+	}
+
+	/**
+	 * Allocate manifold point, if manifold is full the oldest point neither updated in this frame nor matched gets replaced
+	 * @param manifold
+	 * @return manifold point idx or -1 if all points have been updated in this frame
+	 */
+	private int allocatePoint(ContactManifold manifold) {
+		if (manifold.pointCount < MANIFOLD_POINTS_MAX) {
+			manifold.pointsMatched[manifold.pointCount] = false;
+			return manifold.pointCount++;
+		}
+		int oldestPoint = -1;
+		for (int j = 0; j < manifold.pointCount; j++) {
+			if (manifold.pointsFrame[j] == frame || manifold.pointsMatched[j] == true) continue;
+			if (oldestPoint == -1 || manifold.pointsFrame[j] < manifold.pointsFrame[oldestPoint]) oldestPoint = j;
+		}
+		return oldestPoint;
+	}
+
+	/**
+	 * Set manifold point
+	 * @param manifold points
+	 * @param manifold point idx
+	 * @param point
+	 */
+	private static void setPoint(float[] points, int pointIdx, Vector3 point) {
+		float[] pointXYZ = point.getArray();
+		points[pointIdx * 3 + 0] = pointXYZ[0];
+		points[pointIdx * 3 + 1] = pointXYZ[1];
+		points[pointIdx * 3 + 2] = pointXYZ[2];
+	}
+
+	/**
+	 * Copy manifold point
+	 * @param manifold
+	 * @param source manifold point idx
+	 * @param destination manifold point idx
+	 */
+	private static void copyPoint(ContactManifold manifold, int srcIdx, int dstIdx) {
+		System.arraycopy(manifold.points1, srcIdx * 3, manifold.points1, dstIdx * 3, 3);
+		System.arraycopy(manifold.points2, srcIdx * 3, manifold.points2, dstIdx * 3, 3);
+		System.arraycopy(manifold.impulses, srcIdx * 3, manifold.impulses, dstIdx * 3, 3);
+		manifold.pointsFeature[dstIdx] = manifold.pointsFeature[srcIdx];
+		manifold.pointsFrame[dstIdx] = manifold.pointsFrame[srcIdx];
+		manifold.pointsValid[dstIdx] = manifold.pointsValid[srcIdx];
+	}
+
+	/**
+	 * @return state size in bytes
+	 */
+	protected int computeStateSize() {
+		int stateSize = 2 * 4;
+		for (int i = 0; i < manifolds.size(); i++) {
+			stateSize+= 8 + 2 * 4 + 3 * 4 + manifolds.get(i).pointCount * (9 * 4 + 2 * 4);
+		}
+		return stateSize;
+	}
+
+	/**
+	 * Save state into given buffer at its position
+	 * @param buffer
+	 */
+	protected void saveState(ByteBuffer buffer) {
+		buffer.putInt(frame);
+		buffer.putInt(manifolds.size());
+		for (int i = 0; i < manifolds.size(); i++) {
+			ContactManifold manifold = manifolds.get(i);
+			float[] normalXYZ = manifold.normal.getArray();
+			buffer.putLong(manifoldKeys.get(i));
+			buffer.putInt(manifold.frame);
+			buffer.putInt(manifold.pointCount);
+			buffer.putFloat(normalXYZ[0]);
+			buffer.putFloat(normalXYZ[1]);
+			buffer.putFloat(normalXYZ[2]);
+			for (int j = 0; j < manifold.pointCount; j++) {
+				for (int k = 0; k < 3; k++) {
+					buffer.putFloat(manifold.points1[j * 3 + k]);
+					buffer.putFloat(manifold.points2[j * 3 + k]);
+					buffer.putFloat(manifold.impulses[j * 3 + k]);
+				}
+				buffer.putInt(manifold.pointsFeature[j]);
+				buffer.putInt(manifold.pointsFrame[j]);
+			}
+		}
+	}
+
+	/**
+	 * Restore state from given buffer at its position
+	 * @param buffer
+	 */
+	protected void restoreState(ByteBuffer buffer) {
+		clear();
+		frame = buffer.getInt();
+		int manifoldCount = buffer.getInt();
+		for (int i = 0; i < manifoldCount; i++) {
+			ContactManifold manifold = manifoldsPool.isEmpty() == true?new ContactManifold():manifoldsPool.remove(manifoldsPool.size() - 1);
+			manifoldKeys.add(buffer.getLong());
+			manifolds.add(manifold);
+			manifold.frame = buffer.getInt();
+			manifold.pointCount = buffer.getInt();
+			manifold.normal.set(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+			for (int j = 0; j < manifold.pointCount; j++) {
+				for (int k = 0; k < 3; k++) {
+					manifold.points1[j * 3 + k] = buffer.getFloat();
+					manifold.points2[j * 3 + k] = buffer.getFloat();
+					manifold.impulses[j * 3 + k] = buffer.getFloat();
+				}
+				manifold.pointsFeature[j] = buffer.getInt();
+				manifold.pointsFrame[j] = buffer.getInt();
+			}
+		}
+	}
+
+	/**
+	 * Remove contact manifolds of given rigid body index,
+	 * 	contact manifolds of given moved rigid body index get moved to rigid body index
+	 * @param rigid body index
+	 * @param moved rigid body index or -1
+	 */
+	protected void removeRigidBody(int idx, int idxMoved) {
+		// remove contact manifolds of rigid body,
+		//	iterate backwards as removing a key moves the last key into its index
+		for (int i = manifoldKeys.size() - 1; i >= 0; i--) {
+			long key = manifoldKeys.get(i);
+			if (LongHashSet.unpackFirst(key) != idx &&
+				LongHashSet.unpackSecond(key) != idx) {
+				continue;
+			}
+			manifoldsPool.add(removeManifold(i));
+		}
+
+		// re key contact manifolds of moved rigid body
+		if (idxMoved == -1) return;
+		for (int i = manifoldKeys.size() - 1; i >= 0; i--) {
+			long key = manifoldKeys.get(i);
+			int idx1 = LongHashSet.unpackFirst(key);
+			int idx2 = LongHashSet.unpackSecond(key);
+			if (idx1 != idxMoved && idx2 != idxMoved) continue;
+			ContactManifold manifold = removeManifold(i);
+			manifoldKeys.add(LongHashSet.pack(idx1 == idxMoved?idx:idx1, idx2 == idxMoved?idx:idx2));
+			manifolds.add(manifold);
+		}
+	}
+
+	/**
+	 * Remove contact manifold at given index,
+	 * 	the last contact manifold will take over the index of the removed contact manifold
+	 * @param contact manifold index
+	 * @return removed contact manifold
+	 */
+	private ContactManifold removeManifold(int manifoldIdx) {
+		ContactManifold manifold = manifolds.get(manifoldIdx);
+		manifoldKeys.remove(manifoldKeys.get(manifoldIdx));
+		ContactManifold lastManifold = manifolds.remove(manifolds.size() - 1);
+		if (manifoldIdx < manifolds.size()) manifolds.set(manifoldIdx, lastManifold);
+		return manifold;
+	}
+
+	/**
+	 * Remove contact manifolds which have not been updated in current frame and start a new frame
+	 */
+	protected void removeStale() {
+		// iterate backwards as removing a key moves the last key into its index
+		for (int i = manifoldKeys.size() - 1; i >= 0; i--) {
+			ContactManifold manifold = manifolds.get(i);
+			if (manifold.frame == frame) continue;
+			manifoldsPool.add(removeManifold(i));
+		}
+		frame++;
 	}
 
 }
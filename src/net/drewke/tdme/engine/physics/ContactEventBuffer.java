@@ -0,0 +1,252 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.math.Vector3;
+
+/**
+ * Contact events of a world update, see World.getContactEvents() and ContactEventListener
+ * 	Events are stored in flat arrays which only grow, so events can be buffered without allocating
+ * 	Rigid body 1 is the rigid body the event belongs to, normal and penetration are of the selected collision response entity
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class ContactEventBuffer {
+
+	public final static int EVENT_COLLISION_BEGIN = 0;
+	public final static int EVENT_COLLISION = 1;
+	public final static int EVENT_COLLISION_END = 2;
+
+	private int eventCount;
+	private int[] types;
+	private RigidBody[] rigidBodies1;
+	private RigidBody[] rigidBodies2;
+	private float[] normals;
+	private float[] penetrations;
+
+	// hit points x, y, z, events store offset into hit points and count
+	private int hitPointCount;
+	private float[] hitPoints;
+	private int[] hitPointsOffsets;
+	private int[] hitPointsCounts;
+
+	/**
+	 * Public constructor
+	 */
+	public ContactEventBuffer() {
+		eventCount = 0;
+		types = new int[0];
+		rigidBodies1 = new RigidBody[0];
+		rigidBodies2 = new RigidBody[0];
+		normals = new float[0];
+		penetrations = new float[0];
+		hitPointCount = 0;
+		hitPoints = new float[0];
+		hitPointsOffsets = new int[0];
+		hitPointsCounts = new int[0];
+		ensureCapacity(64, 256);
+	}
+
+	/**
+	 * Ensure capacity for given number of events and hit points
+	 * @param event capacity
+	 * @param hit point capacity
+	 */
+	private void ensureCapacity(int eventCapacity, int hitPointCapacity) {
+		if (eventCapacity > types.length) {
+			int newCapacity = types.length < 1?1:types.length;
+			while (newCapacity < eventCapacity) newCapacity*= 2;
+			int[] newTypes = new int[newCapacity];
+			RigidBody[] newRigidBodies1 = new RigidBody[newCapacity];
+			RigidBody[] newRigidBodies2 = new RigidBody[newCapacity];
+			float[] newNormals = new float[newCapacity * 3];
+			float[] newPenetrations = new float[newCapacity];
+			int[] newHitPointsOffsets = new int[newCapacity];
+			int[] newHitPointsCounts = new int[newCapacity];
+			System.arraycopy(types, 0, newTypes, 0, eventCount);
+			System.arraycopy(rigidBodies1, 0, newRigidBodies1, 0, eventCount);
+			System.arraycopy(rigidBodies2, 0, newRigidBodies2, 0, eventCount);
+			System.arraycopy(normals, 0, newNormals, 0, eventCount * 3);
+			System.arraycopy(penetrations, 0, newPenetrations, 0, eventCount);
+			System.arraycopy(hitPointsOffsets, 0, newHitPointsOffsets, 0, eventCount);
+			System.arraycopy(hitPointsCounts, 0, newHitPointsCounts, 0, eventCount);
+			types = newTypes;
+			rigidBodies1 = newRigidBodies1;
+			rigidBodies2 = newRigidBodies2;
+			normals = newNormals;
+			penetrations = newPenetrations;
+			hitPointsOffsets = newHitPointsOffsets;
+			hitPointsCounts = newHitPointsCounts;
+		}
+		if (hitPointCapacity * 3 > hitPoints.length) {
+			int newCapacity = hitPoints.length < 3?1:hitPoints.length / 3;
+			while (newCapacity < hitPointCapacity) newCapacity*= 2;
+			float[] newHitPoints = new float[newCapacity * 3];
+			System.arraycopy(hitPoints, 0, newHitPoints, 0, hitPointCount * 3);
+			hitPoints = newHitPoints;
+		}
+	}
+
+	/**
+	 * Clear events, rigid body references are released
+	 */
+	public void clear() {
+		for (int i = 0; i < eventCount; i++) {
+			rigidBodies1[i] = null;
+			rigidBodies2[i] = null;
+		}
+		eventCount = 0;
+		hitPointCount = 0;
+	}
+
+	/**
+	 * Add event
+	 * @param type
+	 * @param rigid body 1
+	 * @param rigid body 2
+	 * @param collision or null for collision end
+	 * @return event index
+	 */
+	protected int addEvent(int type, RigidBody rigidBody1, RigidBody rigidBody2, CollisionResponse collision) {
+		CollisionResponse.Entity entity = collision != null?collision.getSelectedEntity():null;
+		int entityHitPointsCount = entity != null?entity.hitPointsCount:0;
+		ensureCapacity(eventCount + 1, hitPointCount + entityHitPointsCount);
+		types[eventCount] = type;
+		rigidBodies1[eventCount] = rigidBody1;
+		rigidBodies2[eventCount] = rigidBody2;
+		hitPointsOffsets[eventCount] = hitPointCount;
+		hitPointsCounts[eventCount] = entityHitPointsCount;
+		int offset = eventCount * 3;
+		if (entity != null) {
+			float[] normalXYZ = entity.normal.getArray();
+			normals[offset + 0] = normalXYZ[0];
+			normals[offset + 1] = normalXYZ[1];
+			normals[offset + 2] = normalXYZ[2];
+			penetrations[eventCount] = -entity.distance;
+			for (int i = 0; i < entityHitPointsCount; i++) {
+				float[] hitPointXYZ = entity.hitPoints.get(i).getArray();
+				hitPoints[hitPointCount * 3 + 0] = hitPointXYZ[0];
+				hitPoints[hitPointCount * 3 + 1] = hitPointXYZ[1];
+				hitPoints[hitPointCount * 3 + 2] = hitPointXYZ[2];
+				hitPointCount++;
+			}
+		} else {
+			normals[offset + 0] = 0f;
+			normals[offset + 1] = 0f;
+			normals[offset + 2] = 0f;
+			penetrations[eventCount] = 0f;
+		}
+		return eventCount++;
+	}
+
+	/**
+	 * Copy events from given buffer, e.g. to process them in another thread while the world updates
+	 * @param events
+	 * @return this buffer
+	 */
+	public ContactEventBuffer fromEvents(ContactEventBuffer events) {
+		clear();
+		ensureCapacity(events.eventCount, events.hitPointCount);
+		System.arraycopy(events.types, 0, types, 0, events.eventCount);
+		System.arraycopy(events.rigidBodies1, 0, rigidBodies1, 0, events.eventCount);
+		System.arraycopy(events.rigidBodies2, 0, rigidBodies2, 0, events.eventCount);
+		System.arraycopy(events.normals, 0, normals, 0, events.eventCount * 3);
+		System.arraycopy(events.penetrations, 0, penetrations, 0, events.eventCount);
+		System.arraycopy(events.hitPointsOffsets, 0, hitPointsOffsets, 0, events.eventCount);
+		System.arraycopy(events.hitPointsCounts, 0, hitPointsCounts, 0, events.eventCount);
+		System.arraycopy(events.hitPoints, 0, hitPoints, 0, events.hitPointCount * 3);
+		eventCount = events.eventCount;
+		hitPointCount = events.hitPointCount;
+		return this;
+	}
+
+	/**
+	 * @return event count
+	 */
+	public int getEventCount() {
+		return eventCount;
+	}
+
+	/**
+	 * @param event idx
+	 * @return event type, see EVENT_COLLISION_BEGIN, EVENT_COLLISION, EVENT_COLLISION_END
+	 */
+	public int getType(int idx) {
+		return types[idx];
+	}
+
+	/**
+	 * @param event idx
+	 * @return rigid body 1
+	 */
+	public RigidBody getRigidBody1(int idx) {
+		return rigidBodies1[idx];
+	}
+
+	/**
+	 * @param event idx
+	 * @return rigid body 2
+	 */
+	public RigidBody getRigidBody2(int idx) {
+		return rigidBodies2[idx];
+	}
+
+	/**
+	 * Get normal
+	 * @param event idx
+	 * @param normal
+	 * @return normal, zero for collision end
+	 */
+	public Vector3 getNormal(int idx, Vector3 normal) {
+		int offset = idx * 3;
+		return normal.set(normals[offset + 0], normals[offset + 1], normals[offset + 2]);
+	}
+
+	/**
+	 * @param event idx
+	 * @return penetration, zero for collision end
+	 */
+	public float getPenetration(int idx) {
+		return penetrations[idx];
+	}
+
+	/**
+	 * @param event idx
+	 * @return hit points count, zero for collision end
+	 */
+	public int getHitPointsCount(int idx) {
+		return hitPointsCounts[idx];
+	}
+
+	/**
+	 * Get hit point
+	 * @param event idx
+	 * @param hit point idx
+	 * @param hit point
+	 * @return hit point
+	 */
+	public Vector3 getHitPointAt(int idx, int hitPointIdx, Vector3 hitPoint) {
+		int offset = (hitPointsOffsets[idx] + hitPointIdx) * 3;
+		return hitPoint.set(hitPoints[offset + 0], hitPoints[offset + 1], hitPoints[offset + 2]);
+	}
+
+	/**
+	 * Set up collision response from event, it contains the selected entity of the original collision response only
+	 * @param event idx
+	 * @param collision
+	 * @return collision
+	 */
+	public CollisionResponse getCollision(int idx, CollisionResponse collision) {
+		collision.reset();
+		if (types[idx] == EVENT_COLLISION_END) return collision;
+		CollisionResponse.Entity entity = collision.addResponse(-penetrations[idx]);
+		getNormal(idx, entity.normal);
+		int offset = hitPointsOffsets[idx] * 3;
+		for (int i = 0; i < hitPointsCounts[idx]; i++) {
+			entity.hitPoints.get(i).set(hitPoints[offset + 0], hitPoints[offset + 1], hitPoints[offset + 2]);
+			entity.hitPointFeatures[i] = CollisionResponse.FEATURE_NONE;
+			offset+= 3;
+		}
+		entity.hitPointsCount = hitPointsCounts[idx];
+		return collision;
+	}
+
+}
@@ -0,0 +1,21 @@
+package net.drewke.tdme.engine.physics;
+
+/**
+ * World contact event listener, gets all contact events of a world update at once after solving
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public interface ContactEventListener {
+
+	/**
+	 * On contact events
+	 *
+	 * 	Note:
+	 * 		The events will only live until the next world update.
+	 * 		If you need them somewhere else, e.g. in another thread, you need to copy them with ContactEventBuffer::fromEvents()
+	 *
+	 * @param events
+	 */
+	public void onContactEvents(ContactEventBuffer events);
+
+}
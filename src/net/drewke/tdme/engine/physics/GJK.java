@@ -0,0 +1,846 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.engine.primitives.Capsule;
+import net.drewke.tdme.engine.primitives.Sphere;
+import net.drewke.tdme.math.MathTools;
+import net.drewke.tdme.math.Vector3;
+
+/**
+ * Gilbert-Johnson-Keerthi distance algorithm with expanding polytope algorithm for penetration depth,
+ * 	works on support points of convex bounding volumes, see BoundingVolume::computeSupportPoint()
+ * 	Spheres and capsules are handled as point and line segment with their radius as margin,
+ * 	so that shallow contacts of those are resolved by GJK exactly and EPA is only used if their cores overlap
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class GJK {
+
+	protected enum Result {SEPARATED, PENETRATING, DEGENERATE};
+
+	private final static int GJK_ITERATIONS_MAX = 64;
+	private final static float GJK_TOLERANCE = 0.000001f;
+	private final static int EPA_ITERATIONS_MAX = 64;
+	private final static int EPA_VERTICES_MAX = EPA_ITERATIONS_MAX + 4;
+	private final static int EPA_FACES_MAX = EPA_VERTICES_MAX * 2;
+	private final static float EPA_TOLERANCE = 0.0001f;
+
+	private static Vector3[] expansionDirections = {
+		new Vector3(1f, 0f, 0f),
+		new Vector3(-1f, 0f, 0f),
+		new Vector3(0f, 1f, 0f),
+		new Vector3(0f, -1f, 0f),
+		new Vector3(0f, 0f, 1f),
+		new Vector3(0f, 0f, -1f)
+	};
+
+	// bounding volumes and margins of current test
+	private BoundingVolume bv1;
+	private BoundingVolume bv2;
+	private float margin1;
+	private float margin2;
+	private boolean separated;
+
+	// simplex, minkowski difference points and support points of both bounding volumes
+	private int simplexCount;
+	private Vector3[] simplexW;
+	private Vector3[] simplex1;
+	private Vector3[] simplex2;
+	private float[] simplexLambdas;
+
+	// closest point of simplex to origin
+	private Vector3 v = new Vector3();
+	private int closestCount;
+	private int[] closestIndices = new int[4];
+	private float[] closestLambdas = new float[4];
+	private int faceClosestCount;
+	private int[] faceClosestIndices = new int[4];
+	private float[] faceClosestLambdas = new float[4];
+
+	// polytope
+	private int epaVertexCount;
+	private Vector3[] epaW;
+	private Vector3[] epa1;
+	private Vector3[] epa2;
+	private int epaFaceCount;
+	private int[] epaFaceVertices;
+	private Vector3[] epaFaceNormals;
+	private float[] epaFaceDistances;
+	private int epaEdgeCount;
+	private int[] epaEdges;
+
+	// result
+	private Vector3 normal = new Vector3();
+	private float penetration;
+	private Vector3 point1 = new Vector3();
+	private Vector3 point2 = new Vector3();
+
+	private Vector3 direction = new Vector3();
+	private Vector3 w = new Vector3();
+	private Vector3 support1 = new Vector3();
+	private Vector3 support2 = new Vector3();
+	private Vector3 edge1 = new Vector3();
+	private Vector3 edge2 = new Vector3();
+	private Vector3 tmp = new Vector3();
+
+	/**
+	 * Protected constructor
+	 */
+	protected GJK() {
+		simplexW = createVectors(4);
+		simplex1 = createVectors(4);
+		simplex2 = createVectors(4);
+		simplexLambdas = new float[4];
+		epaW = createVectors(EPA_VERTICES_MAX);
+		epa1 = createVectors(EPA_VERTICES_MAX);
+		epa2 = createVectors(EPA_VERTICES_MAX);
+		epaFaceVertices = new int[EPA_FACES_MAX * 3];
+		epaFaceNormals = createVectors(EPA_FACES_MAX);
+		epaFaceDistances = new float[EPA_FACES_MAX];
+		epaEdges = new int[EPA_FACES_MAX * 3 * 2];
+	}
+
+	/**
+	 * Create vectors
+	 * @param count
+	 * @return vectors
+	 */
+	private static Vector3[] createVectors(int count) {
+		Vector3[] vectors = new Vector3[count];
+		for (int i = 0; i < count; i++) vectors[i] = new Vector3();
+		return vectors;
+	}
+
+	/**
+	 * @return normal pointing from bounding volume 1 to bounding volume 2
+	 */
+	protected Vector3 getNormal() {
+		return normal;
+	}
+
+	/**
+	 * @return penetration
+	 */
+	protected float getPenetration() {
+		return penetration;
+	}
+
+	/**
+	 * @return deepest point of bounding volume 1 in bounding volume 2, closest point of bounding volume 1 if separated
+	 */
+	protected Vector3 getPoint1() {
+		return point1;
+	}
+
+	/**
+	 * @return deepest point of bounding volume 2 in bounding volume 1, closest point of bounding volume 2 if separated
+	 */
+	protected Vector3 getPoint2() {
+		return point2;
+	}
+
+	/**
+	 * Compute penetration of given convex bounding volumes
+	 * @param bounding volume 1
+	 * @param bounding volume 2
+	 * @return result, normal, penetration and points are only valid if penetrating
+	 */
+	protected Result computePenetration(BoundingVolume bv1, BoundingVolume bv2) {
+		this.bv1 = bv1;
+		this.bv2 = bv2;
+		this.margin1 = getMargin(bv1);
+		this.margin2 = getMargin(bv2);
+		float margin = margin1 + margin2;
+
+		// distance of cores
+		boolean coresOverlap = doGJK(true, margin);
+		if (coresOverlap == false) {
+			if (separated == true) return Result.SEPARATED;
+			float distance = v.computeLength();
+			if (distance >= margin) return Result.SEPARATED;
+
+			// cores are separated, but margins overlap
+			computeSimplexPoints(point1, point2);
+			normal.set(v).scale(-1f / distance);
+			penetration = margin - distance;
+			point1.add(tmp.set(normal).scale(margin1));
+			point2.sub(tmp.set(normal).scale(margin2));
+			return Result.PENETRATING;
+		}
+
+		// cores overlap, so do EPA on whole bounding volumes
+		if (margin > 0f && doGJK(false, 0f) == false) return Result.SEPARATED;
+		return doEPA();
+	}
+
+	/**
+	 * Check if given convex bounding volumes are separated, cheaper than computing penetration as EPA is not done
+	 * @param bounding volume 1
+	 * @param bounding volume 2
+	 * @return if separated, touching bounding volumes are not separated
+	 */
+	protected boolean isSeparated(BoundingVolume bv1, BoundingVolume bv2) {
+		this.bv1 = bv1;
+		this.bv2 = bv2;
+		this.margin1 = getMargin(bv1);
+		this.margin2 = getMargin(bv2);
+		if (doGJK(true, margin1 + margin2) == true) return false;
+		if (separated == true) return true;
+		float distance = (float)Math.sqrt(v.computeLengthSquared());
+		return distance - margin1 - margin2 > MathTools.EPSILON;
+	}
+
+	/**
+	 * Compute distance of given convex bounding volumes
+	 * @param bounding volume 1
+	 * @param bounding volume 2
+	 * @return distance, zero or less if touching or overlapping, normal and closest points are only valid if distance is greater than zero
+	 */
+	protected float computeDistance(BoundingVolume bv1, BoundingVolume bv2) {
+		this.bv1 = bv1;
+		this.bv2 = bv2;
+		this.margin1 = getMargin(bv1);
+		this.margin2 = getMargin(bv2);
+		if (doGJK(true, Float.MAX_VALUE) == true) return 0f;
+		float coreDistance = v.computeLength();
+		if (coreDistance < MathTools.EPSILON) return 0f;
+
+		// closest points on surfaces
+		computeSimplexPoints(point1, point2);
+		normal.set(v).scale(-1f / coreDistance);
+		point1.add(tmp.set(normal).scale(margin1));
+		point2.sub(tmp.set(normal).scale(margin2));
+		return coreDistance - margin1 - margin2;
+	}
+
+	/**
+	 * Determine margin of given bounding volume
+	 * @param bounding volume
+	 * @return margin
+	 */
+	private static float getMargin(BoundingVolume bv) {
+		if (bv instanceof Sphere) {
+			return ((Sphere)bv).getRadius();
+		} else
+		if (bv instanceof Capsule) {
+			return ((Capsule)bv).getRadius();
+		} else {
+			return 0f;
+		}
+	}
+
+	/**
+	 * Compute support point of given bounding volume
+	 * @param bounding volume
+	 * @param core, if to compute support point of core without margin
+	 * @param direction
+	 * @param support point
+	 */
+	private static void computeSupportPoint(BoundingVolume bv, boolean core, Vector3 direction, Vector3 supportPoint) {
+		if (core == true) {
+			if (bv instanceof Sphere) {
+				supportPoint.set(((Sphere)bv).getCenter());
+				return;
+			} else
+			if (bv instanceof Capsule) {
+				Capsule capsule = (Capsule)bv;
+				supportPoint.set(
+					Vector3.computeDotProduct(capsule.getA(), direction) >= Vector3.computeDotProduct(capsule.getB(), direction)?
+						capsule.getA():
+						capsule.getB()
+				);
+				return;
+			}
+		}
+		bv.computeSupportPoint(direction, supportPoint);
+	}
+
+	/**
+	 * Compute support point of minkowski difference of bounding volume 1 and 2
+	 * @param core
+	 * @param direction
+	 * @param minkowski difference support point
+	 * @param support point of bounding volume 1
+	 * @param support point of bounding volume 2
+	 */
+	private void computeSupportPoint(boolean core, Vector3 direction, Vector3 w, Vector3 support1, Vector3 support2) {
+		computeSupportPoint(bv1, core, direction, support1);
+		computeSupportPoint(bv2, core, tmp.set(direction).scale(-1f), support2);
+		w.set(support1).sub(support2);
+	}
+
+	/**
+	 * Do GJK, computes closest point v of minkowski difference to origin
+	 * @param core, if to use cores of bounding volumes
+	 * @param margin, stop early if distance is greater than margin, see separated
+	 * @return if origin is contained in minkowski difference, simplex will then contain origin
+	 */
+	private boolean doGJK(boolean core, float margin) {
+		simplexCount = 0;
+		separated = false;
+		v.set(bv1.getCenter()).sub(bv2.getCenter());
+		if (v.computeLengthSquared() < MathTools.EPSILON * MathTools.EPSILON) v.set(1f, 0f, 0f);
+		for (int i = 0; i < GJK_ITERATIONS_MAX; i++) {
+			// next support point
+			direction.set(v).scale(-1f);
+			computeSupportPoint(core, direction, w, support1, support2);
+
+			// separating axis found
+			float vDotW = Vector3.computeDotProduct(v, w);
+			float vLengthSquared = v.computeLengthSquared();
+			if (vDotW > 0f && vDotW * vDotW > vLengthSquared * margin * margin) {
+				separated = true;
+				return false;
+			}
+
+			// no progress, v is closest point
+			if (simplexCount > 0 && vLengthSquared - vDotW <= GJK_TOLERANCE * vLengthSquared) return false;
+			boolean haveW = false;
+			for (int j = 0; j < simplexCount; j++) {
+				if (simplexW[j].equals(w) == true) haveW = true;
+			}
+			if (haveW == true) return false;
+
+			// add support point to simplex and reduce simplex to closest feature
+			simplexW[simplexCount].set(w);
+			simplex1[simplexCount].set(support1);
+			simplex2[simplexCount].set(support2);
+			simplexCount++;
+			if (computeClosestPoint() == false) return true;
+			if (v.computeLengthSquared() < GJK_TOLERANCE) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Compute closest point v of simplex to origin and reduce simplex to vertices which support it
+	 * @return if origin is outside of simplex
+	 */
+	private boolean computeClosestPoint() {
+		switch (simplexCount) {
+			case 1:
+				closestCount = 1;
+				closestIndices[0] = 0;
+				closestLambdas[0] = 1f;
+				break;
+			case 2:
+				computeClosestPointOnSegment(0, 1);
+				break;
+			case 3:
+				computeClosestPointOnTriangle(0, 1, 2);
+				break;
+			case 4:
+				if (computeClosestPointOnTetrahedron() == false) return false;
+				break;
+		}
+
+		// reduce simplex, indices are ascending
+		for (int i = 0; i < closestCount; i++) {
+			int j = closestIndices[i];
+			if (j != i) {
+				swap(simplexW, i, j);
+				swap(simplex1, i, j);
+				swap(simplex2, i, j);
+			}
+			simplexLambdas[i] = closestLambdas[i];
+		}
+		simplexCount = closestCount;
+
+		// compute closest point
+		v.set(0f, 0f, 0f);
+		for (int i = 0; i < simplexCount; i++) {
+			v.add(tmp.set(simplexW[i]).scale(simplexLambdas[i]));
+		}
+		return true;
+	}
+
+	/**
+	 * Swap vectors
+	 * @param vectors
+	 * @param i
+	 * @param j
+	 */
+	private static void swap(Vector3[] vectors, int i, int j) {
+		Vector3 vector = vectors[i];
+		vectors[i] = vectors[j];
+		vectors[j] = vector;
+	}
+
+	/**
+	 * Compute closest point of segment of simplex to origin
+	 * @param index a
+	 * @param index b
+	 */
+	private void computeClosestPointOnSegment(int a, int b) {
+		edge1.set(simplexW[b]).sub(simplexW[a]);
+		float edgeLengthSquared = edge1.computeLengthSquared();
+		float t = edgeLengthSquared < MathTools.EPSILON * MathTools.EPSILON?0f:-Vector3.computeDotProduct(simplexW[a], edge1) / edgeLengthSquared;
+		if (t <= 0f) {
+			closestCount = 1;
+			closestIndices[0] = a;
+			closestLambdas[0] = 1f;
+		} else
+		if (t >= 1f) {
+			closestCount = 1;
+			closestIndices[0] = b;
+			closestLambdas[0] = 1f;
+		} else {
+			closestCount = 2;
+			closestIndices[0] = a;
+			closestIndices[1] = b;
+			closestLambdas[0] = 1f - t;
+			closestLambdas[1] = t;
+		}
+	}
+
+	/**
+	 * Compute closest point of triangle of simplex to origin
+	 * 	based on "real-time collision detection/christer ericson"
+	 * @param index a
+	 * @param index b
+	 * @param index c
+	 */
+	private void computeClosestPointOnTriangle(int a, int b, int c) {
+		Vector3 wA = simplexW[a];
+		Vector3 wB = simplexW[b];
+		Vector3 wC = simplexW[c];
+		edge1.set(wB).sub(wA);
+		edge2.set(wC).sub(wA);
+
+		// vertex region a
+		float d1 = -Vector3.computeDotProduct(edge1, wA);
+		float d2 = -Vector3.computeDotProduct(edge2, wA);
+		if (d1 <= 0f && d2 <= 0f) {
+			setClosest(a, 1f);
+			return;
+		}
+
+		// vertex region b
+		float d3 = -Vector3.computeDotProduct(edge1, wB);
+		float d4 = -Vector3.computeDotProduct(edge2, wB);
+		if (d3 >= 0f && d4 <= d3) {
+			setClosest(b, 1f);
+			return;
+		}
+
+		// edge region ab
+		float vc = d1 * d4 - d3 * d2;
+		if (vc <= 0f && d1 >= 0f && d3 <= 0f) {
+			float t = d1 / (d1 - d3);
+			setClosest(a, 1f - t, b, t);
+			return;
+		}
+
+		// vertex region c
+		float d5 = -Vector3.computeDotProduct(edge1, wC);
+		float d6 = -Vector3.computeDotProduct(edge2, wC);
+		if (d6 >= 0f && d5 <= d6) {
+			setClosest(c, 1f);
+			return;
+		}
+
+		// edge region ac
+		float vb = d5 * d2 - d1 * d6;
+		if (vb <= 0f && d2 >= 0f && d6 <= 0f) {
+			float t = d2 / (d2 - d6);
+			setClosest(a, 1f - t, c, t);
+			return;
+		}
+
+		// edge region bc
+		float va = d3 * d6 - d5 * d4;
+		if (va <= 0f && (d4 - d3) >= 0f && (d5 - d6) >= 0f) {
+			float t = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+			setClosest(b, 1f - t, c, t);
+			return;
+		}
+
+		// face region
+		float denominator = va + vb + vc;
+		if (Math.abs(denominator) < MathTools.EPSILON * MathTools.EPSILON) {
+			// degenerated triangle
+			computeClosestPointOnSegment(a, b);
+			return;
+		}
+		float lambdaB = vb / denominator;
+		float lambdaC = vc / denominator;
+		closestCount = 3;
+		closestIndices[0] = a;
+		closestIndices[1] = b;
+		closestIndices[2] = c;
+		closestLambdas[0] = 1f - lambdaB - lambdaC;
+		closestLambdas[1] = lambdaB;
+		closestLambdas[2] = lambdaC;
+	}
+
+	/**
+	 * Set closest point to single vertex
+	 * @param index a
+	 * @param lambda a
+	 */
+	private void setClosest(int a, float lambdaA) {
+		closestCount = 1;
+		closestIndices[0] = a;
+		closestLambdas[0] = lambdaA;
+	}
+
+	/**
+	 * Set closest point to edge
+	 * @param index a
+	 * @param lambda a
+	 * @param index b
+	 * @param lambda b
+	 */
+	private void setClosest(int a, float lambdaA, int b, float lambdaB) {
+		closestCount = 2;
+		closestIndices[0] = a;
+		closestIndices[1] = b;
+		closestLambdas[0] = lambdaA;
+		closestLambdas[1] = lambdaB;
+	}
+
+	/**
+	 * Compute closest point of tetrahedron simplex to origin
+	 * @return if origin is outside of tetrahedron
+	 */
+	private boolean computeClosestPointOnTetrahedron() {
+		float closestDistanceSquared = Float.MAX_VALUE;
+		faceClosestCount = 0;
+		for (int i = 0; i < 4; i++) {
+			// face i, j, k with opposite vertex l, indices are ascending
+			int faceI = i == 0?1:0;
+			int faceJ = i <= 1?2:1;
+			int faceK = i <= 2?3:2;
+			if (isOriginOutsideOfFace(faceI, faceJ, faceK, i) == false) continue;
+			computeClosestPointOnTriangle(faceI, faceJ, faceK);
+			tmp.set(0f, 0f, 0f);
+			for (int j = 0; j < closestCount; j++) {
+				tmp.add(edge1.set(simplexW[closestIndices[j]]).scale(closestLambdas[j]));
+			}
+			float distanceSquared = tmp.computeLengthSquared();
+			if (distanceSquared < closestDistanceSquared) {
+				closestDistanceSquared = distanceSquared;
+				faceClosestCount = closestCount;
+				System.arraycopy(closestIndices, 0, faceClosestIndices, 0, closestCount);
+				System.arraycopy(closestLambdas, 0, faceClosestLambdas, 0, closestCount);
+			}
+		}
+
+		// origin is inside
+		if (faceClosestCount == 0) return false;
+
+		// closest face feature
+		closestCount = faceClosestCount;
+		System.arraycopy(faceClosestIndices, 0, closestIndices, 0, faceClosestCount);
+		System.arraycopy(faceClosestLambdas, 0, closestLambdas, 0, faceClosestCount);
+		return true;
+	}
+
+	/**
+	 * Check if origin is on other side of face than given opposite vertex,
+	 * 	if tetrahedron is degenerated the origin is regarded outside
+	 * @param index a
+	 * @param index b
+	 * @param index c
+	 * @param index d, opposite vertex
+	 * @return if origin is outside of face
+	 */
+	private boolean isOriginOutsideOfFace(int a, int b, int c, int d) {
+		edge1.set(simplexW[b]).sub(simplexW[a]);
+		edge2.set(simplexW[c]).sub(simplexW[a]);
+		Vector3.computeCrossProduct(edge1, edge2, direction);
+		float signOrigin = -Vector3.computeDotProduct(simplexW[a], direction);
+		float signD = Vector3.computeDotProduct(tmp.set(simplexW[d]).sub(simplexW[a]), direction);
+		if (signD * signD < GJK_TOLERANCE * GJK_TOLERANCE) return true;
+		return signOrigin * signD < 0f;
+	}
+
+	/**
+	 * Compute points of bounding volume 1 and 2 from current simplex
+	 * @param point 1
+	 * @param point 2
+	 */
+	private void computeSimplexPoints(Vector3 point1, Vector3 point2) {
+		point1.set(0f, 0f, 0f);
+		point2.set(0f, 0f, 0f);
+		for (int i = 0; i < simplexCount; i++) {
+			point1.add(tmp.set(simplex1[i]).scale(simplexLambdas[i]));
+			point2.add(tmp.set(simplex2[i]).scale(simplexLambdas[i]));
+		}
+	}
+
+	/**
+	 * Compute vector which is orthogonal to given vector
+	 * @param vector
+	 * @param orthogonal vector
+	 */
+	protected static void computeOrthogonalVector(Vector3 vector, Vector3 orthogonalVector) {
+		float[] vectorXYZ = vector.getArray();
+		float x = Math.abs(vectorXYZ[0]);
+		float y = Math.abs(vectorXYZ[1]);
+		float z = Math.abs(vectorXYZ[2]);
+		if (x <= y && x <= z) {
+			orthogonalVector.set(0f, vectorXYZ[2], -vectorXYZ[1]);
+		} else
+		if (y <= z) {
+			orthogonalVector.set(-vectorXYZ[2], 0f, vectorXYZ[0]);
+		} else {
+			orthogonalVector.set(vectorXYZ[1], -vectorXYZ[0], 0f);
+		}
+	}
+
+	/**
+	 * Add support point of given direction to polytope if not yet contained
+	 * @param direction
+	 * @return if vertex has been added
+	 */
+	private boolean addEPAVertex(Vector3 direction) {
+		computeSupportPoint(false, direction, w, support1, support2);
+		for (int i = 0; i < epaVertexCount; i++) {
+			if (epaW[i].equals(w, MathTools.EPSILON) == true) return false;
+		}
+		epaW[epaVertexCount].set(w);
+		epa1[epaVertexCount].set(support1);
+		epa2[epaVertexCount].set(support2);
+		epaVertexCount++;
+		return true;
+	}
+
+	/**
+	 * Create initial polytope from GJK simplex, expanding it to a tetrahedron if required
+	 * @return success
+	 */
+	private boolean createEPATetrahedron() {
+		epaVertexCount = 0;
+		for (int i = 0; i < simplexCount; i++) {
+			epaW[i].set(simplexW[i]);
+			epa1[i].set(simplex1[i]);
+			epa2[i].set(simplex2[i]);
+			epaVertexCount++;
+		}
+
+		// point
+		for (int i = 0; epaVertexCount == 1 && i < expansionDirections.length; i++) {
+			addEPAVertex(expansionDirections[i]);
+		}
+
+		// line segment
+		if (epaVertexCount == 2) {
+			edge1.set(epaW[1]).sub(epaW[0]);
+			computeOrthogonalVector(edge1, edge2);
+			for (int i = 0; epaVertexCount == 2 && i < 6; i++) {
+				// rotate orthogonal vector around segment by 60 degrees
+				if (addEPAVertex(edge2) == true) {
+					tmp.set(epaW[2]).sub(epaW[0]);
+					if (Vector3.computeCrossProduct(edge1, tmp, direction).computeLengthSquared() < GJK_TOLERANCE) epaVertexCount--;
+				}
+				Vector3.computeCrossProduct(edge1, edge2, direction).normalize().scale(0.8660254f * edge2.computeLength());
+				edge2.scale(0.5f).add(direction);
+			}
+		}
+
+		// triangle
+		if (epaVertexCount == 3) {
+			edge1.set(epaW[1]).sub(epaW[0]);
+			edge2.set(epaW[2]).sub(epaW[0]);
+			Vector3.computeCrossProduct(edge1, edge2, normal);
+			if (addEPAVertex(normal) == false || isEPAVertexOnTrianglePlane() == true) {
+				if (epaVertexCount == 4) epaVertexCount--;
+				if (addEPAVertex(normal.scale(-1f)) == false || isEPAVertexOnTrianglePlane() == true) return false;
+			}
+		}
+		if (epaVertexCount != 4) return false;
+
+		// faces, oriented outwards
+		epaFaceCount = 0;
+		if (addEPAFace(0, 1, 2, 3) == false) return false;
+		if (addEPAFace(0, 1, 3, 2) == false) return false;
+		if (addEPAFace(0, 2, 3, 1) == false) return false;
+		if (addEPAFace(1, 2, 3, 0) == false) return false;
+
+		// note: GJK reports overlap if closest point is within tolerance, so origin can be slightly outside,
+		//	EPA then ends on a face with negative distance which means touching
+		return true;
+	}
+
+	/**
+	 * @return if last polytope vertex is on plane of triangle of first 3 vertices
+	 */
+	private boolean isEPAVertexOnTrianglePlane() {
+		tmp.set(epaW[3]).sub(epaW[0]);
+		return Math.abs(Vector3.computeDotProduct(tmp, normal)) < MathTools.EPSILON * normal.computeLength();
+	}
+
+	/**
+	 * Add face of tetrahedron to polytope, face is oriented away from given opposite vertex
+	 * @param index a
+	 * @param index b
+	 * @param index c
+	 * @param index of opposite vertex
+	 * @return success
+	 */
+	private boolean addEPAFace(int a, int b, int c, int opposite) {
+		edge1.set(epaW[b]).sub(epaW[a]);
+		edge2.set(epaW[c]).sub(epaW[a]);
+		Vector3.computeCrossProduct(edge1, edge2, direction);
+		tmp.set(epaW[opposite]).sub(epaW[a]);
+		if (Vector3.computeDotProduct(direction, tmp) > 0f) {
+			return addEPAFace(a, c, b);
+		} else {
+			return addEPAFace(a, b, c);
+		}
+	}
+
+	/**
+	 * Add face to polytope, vertices are counter clockwise if seen from outside
+	 * @param index a
+	 * @param index b
+	 * @param index c
+	 * @return success
+	 */
+	private boolean addEPAFace(int a, int b, int c) {
+		if (epaFaceCount == EPA_FACES_MAX) return false;
+		edge1.set(epaW[b]).sub(epaW[a]);
+		edge2.set(epaW[c]).sub(epaW[a]);
+		Vector3 faceNormal = epaFaceNormals[epaFaceCount];
+		Vector3.computeCrossProduct(edge1, edge2, faceNormal);
+		float faceNormalLength = faceNormal.computeLength();
+		if (faceNormalLength < MathTools.EPSILON * MathTools.EPSILON) return false;
+		faceNormal.scale(1f / faceNormalLength);
+		epaFaceVertices[epaFaceCount * 3 + 0] = a;
+		epaFaceVertices[epaFaceCount * 3 + 1] = b;
+		epaFaceVertices[epaFaceCount * 3 + 2] = c;
+		epaFaceDistances[epaFaceCount] = Vector3.computeDotProduct(faceNormal, epaW[a]);
+		epaFaceCount++;
+		return true;
+	}
+
+	/**
+	 * Remove face from polytope
+	 * @param face index
+	 */
+	private void removeEPAFace(int faceIdx) {
+		int lastFaceIdx = --epaFaceCount;
+		if (faceIdx == lastFaceIdx) return;
+		System.arraycopy(epaFaceVertices, lastFaceIdx * 3, epaFaceVertices, faceIdx * 3, 3);
+		swap(epaFaceNormals, faceIdx, lastFaceIdx);
+		epaFaceDistances[faceIdx] = epaFaceDistances[lastFaceIdx];
+	}
+
+	/**
+	 * Add horizon edge, an edge which is shared with an already added face cancels out
+	 * @param index a
+	 * @param index b
+	 */
+	private void addEPAEdge(int a, int b) {
+		for (int i = 0; i < epaEdgeCount; i++) {
+			if (epaEdges[i * 2 + 0] == b && epaEdges[i * 2 + 1] == a) {
+				epaEdgeCount--;
+				epaEdges[i * 2 + 0] = epaEdges[epaEdgeCount * 2 + 0];
+				epaEdges[i * 2 + 1] = epaEdges[epaEdgeCount * 2 + 1];
+				return;
+			}
+		}
+		epaEdges[epaEdgeCount * 2 + 0] = a;
+		epaEdges[epaEdgeCount * 2 + 1] = b;
+		epaEdgeCount++;
+	}
+
+	/**
+	 * Do EPA, expands polytope from GJK simplex until face closest to origin is on boundary of minkowski difference
+	 * @return result
+	 */
+	private Result doEPA() {
+		if (createEPATetrahedron() == false) return Result.DEGENERATE;
+		int closestFaceIdx = -1;
+		for (int i = 0; i < EPA_ITERATIONS_MAX; i++) {
+			// determine face closest to origin
+			closestFaceIdx = 0;
+			for (int j = 1; j < epaFaceCount; j++) {
+				if (epaFaceDistances[j] < epaFaceDistances[closestFaceIdx]) closestFaceIdx = j;
+			}
+
+			// check if polytope can be expanded further in direction of closest face
+			Vector3 closestFaceNormal = epaFaceNormals[closestFaceIdx];
+			computeSupportPoint(false, closestFaceNormal, w, support1, support2);
+			if (Vector3.computeDotProduct(w, closestFaceNormal) - epaFaceDistances[closestFaceIdx] < EPA_TOLERANCE ||
+				epaVertexCount == EPA_VERTICES_MAX) {
+				break;
+			}
+
+			// add vertex
+			int vertexIdx = epaVertexCount++;
+			epaW[vertexIdx].set(w);
+			epa1[vertexIdx].set(support1);
+			epa2[vertexIdx].set(support2);
+
+			// remove faces which can be seen from new vertex and determine horizon
+			epaEdgeCount = 0;
+			for (int j = epaFaceCount - 1; j >= 0; j--) {
+				int a = epaFaceVertices[j * 3 + 0];
+				int b = epaFaceVertices[j * 3 + 1];
+				int c = epaFaceVertices[j * 3 + 2];
+				if (Vector3.computeDotProduct(epaFaceNormals[j], tmp.set(w).sub(epaW[a])) > 0f) {
+					addEPAEdge(a, b);
+					addEPAEdge(b, c);
+					addEPAEdge(c, a);
+					removeEPAFace(j);
+				}
+			}
+
+			// close polytope with faces from horizon to new vertex
+			for (int j = 0; j < epaEdgeCount; j++) {
+				if (addEPAFace(epaEdges[j * 2 + 0], epaEdges[j * 2 + 1], vertexIdx) == false) return Result.DEGENERATE;
+			}
+			closestFaceIdx = -1;
+		}
+
+		// determine closest face if not yet known
+		if (closestFaceIdx == -1) {
+			closestFaceIdx = 0;
+			for (int j = 1; j < epaFaceCount; j++) {
+				if (epaFaceDistances[j] < epaFaceDistances[closestFaceIdx]) closestFaceIdx = j;
+			}
+		}
+
+		// result
+		normal.set(epaFaceNormals[closestFaceIdx]);
+		penetration = epaFaceDistances[closestFaceIdx];
+		if (penetration <= 0f) return Result.SEPARATED;
+		computeEPAFacePoints(closestFaceIdx);
+		return Result.PENETRATING;
+	}
+
+	/**
+	 * Compute points of bounding volume 1 and 2 from projection of origin onto given face
+	 * @param face index
+	 */
+	private void computeEPAFacePoints(int faceIdx) {
+		int a = epaFaceVertices[faceIdx * 3 + 0];
+		int b = epaFaceVertices[faceIdx * 3 + 1];
+		int c = epaFaceVertices[faceIdx * 3 + 2];
+
+		// barycentric coordinates of projected origin
+		direction.set(epaFaceNormals[faceIdx]).scale(epaFaceDistances[faceIdx]).sub(epaW[a]);
+		edge1.set(epaW[b]).sub(epaW[a]);
+		edge2.set(epaW[c]).sub(epaW[a]);
+		float d00 = Vector3.computeDotProduct(edge1, edge1);
+		float d01 = Vector3.computeDotProduct(edge1, edge2);
+		float d11 = Vector3.computeDotProduct(edge2, edge2);
+		float d20 = Vector3.computeDotProduct(direction, edge1);
+		float d21 = Vector3.computeDotProduct(direction, edge2);
+		float denominator = d00 * d11 - d01 * d01;
+		float lambdaB = 1f / 3f;
+		float lambdaC = 1f / 3f;
+		if (Math.abs(denominator) > MathTools.EPSILON * MathTools.EPSILON) {
+			lambdaB = (d11 * d20 - d01 * d21) / denominator;
+			lambdaC = (d00 * d21 - d01 * d20) / denominator;
+		}
+		float lambdaA = 1f - lambdaB - lambdaC;
+
+		//
+		point1.set(epa1[a]).scale(lambdaA).add(tmp.set(epa1[b]).scale(lambdaB)).add(tmp.set(epa1[c]).scale(lambdaC));
+		point2.set(epa2[a]).scale(lambdaA).add(tmp.set(epa2[b]).scale(lambdaB)).add(tmp.set(epa2[c]).scale(lambdaC));
+	}
+
+}
@@ -1,8 +1,10 @@
 package net.drewke.tdme.engine.physics;
 
+import net.drewke.tdme.engine.primitives.BoundingBox;
 import net.drewke.tdme.engine.primitives.BoundingVolume;
 import net.drewke.tdme.math.Vector3;
 import net.drewke.tdme.utils.ArrayListIteratorMultiple;
+import net.drewke.tdme.utils.LongHashSet;
 
 /**
  * Physics partition interface
@@ -11,6 +13,8 @@ import net.drewke.tdme.utils.ArrayListIteratorMultiple;
  */
 abstract public class Partition {
 
+	private BoundingBox segmentBoundingBox = new BoundingBox();
+
 	/**
 	 * Reset
 	 */
@@ -34,6 +38,16 @@ abstract public class Partition {
 	 */
 	abstract protected void removeRigidBody(RigidBody rigidBody);
 
+	/**
+	 * Get overlapping pairs if supported by partition algorithm,
+	 * 	pairs are packed rigid body indices with lower index first, see LongHashSet.pack(),
+	 * 	each overlapping pair is contained once
+	 * @return overlapping pairs or null if not supported
+	 */
+	protected LongHashSet getOverlappingPairs() {
+		return null;
+	}
+
 	/**
 	 * Get objects near to
 	 * @param cbv
@@ -48,4 +62,20 @@ abstract public class Partition {
 	 */
 	abstract public ArrayListIteratorMultiple<RigidBody> getObjectsNearTo(Vector3 center);
 
+	/**
+	 * Get objects near to line segment from p to q,
+	 * 	partition algorithms which support ray queries return only objects which bounds are hit by line segment
+	 * @param p
+	 * @param q
+	 * @return objects near to line segment
+	 */
+	public ArrayListIteratorMultiple<RigidBody> getObjectsOnSegment(Vector3 p, Vector3 q) {
+		float[] pXYZ = p.getArray();
+		float[] qXYZ = q.getArray();
+		segmentBoundingBox.getMin().set(Math.min(pXYZ[0], qXYZ[0]), Math.min(pXYZ[1], qXYZ[1]), Math.min(pXYZ[2], qXYZ[2]));
+		segmentBoundingBox.getMax().set(Math.max(pXYZ[0], qXYZ[0]), Math.max(pXYZ[1], qXYZ[1]), Math.max(pXYZ[2], qXYZ[2]));
+		segmentBoundingBox.update();
+		return getObjectsNearTo(segmentBoundingBox);
+	}
+
 }
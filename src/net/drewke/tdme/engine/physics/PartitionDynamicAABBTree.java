@@ -0,0 +1,196 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.engine.primitives.DynamicAABBTree;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.utils.ArrayList;
+import net.drewke.tdme.utils.ArrayListIteratorMultiple;
+
+/**
+ * Dynamic AABB tree partition implementation
+ * 	Rigid bodies are stored with fat bounds, moving rigid bodies only update the tree when leaving their fat bounds
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class PartitionDynamicAABBTree extends Partition {
+
+	private final static float BOUNDS_PADDING = 0.2f;
+	private final static float FAT_MARGIN = 0.1f;
+
+	private DynamicAABBTree tree;
+
+	// proxies, indexed by rigid body idx
+	private RigidBody[] proxyRigidBodies;
+	private int[] proxies;
+
+	// near to queries
+	private ArrayList<RigidBody> nearRigidBodies;
+	private ArrayListIteratorMultiple<RigidBody> rigidBodyIterator;
+	private float[] bounds;
+
+	private Vector3 halfExtension;
+	private Vector3 sideVector;
+	private Vector3 upVector;
+	private Vector3 forwardVector;
+
+	/**
+	 * Public constructor
+	 */
+	public PartitionDynamicAABBTree() {
+		this.tree = new DynamicAABBTree(FAT_MARGIN);
+		this.nearRigidBodies = new ArrayList<RigidBody>();
+		this.rigidBodyIterator = new ArrayListIteratorMultiple<RigidBody>();
+		this.bounds = new float[6];
+		this.halfExtension = new Vector3();
+		this.sideVector = new Vector3(1f,0f,0f);
+		this.upVector = new Vector3(0f,1f,0f);
+		this.forwardVector = new Vector3(0f,0f,1f);
+		reset();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#reset()
+	 */
+	protected void reset() {
+		tree.clear();
+		proxyRigidBodies = new RigidBody[0];
+		proxies = new int[0];
+		ensureProxyCapacity(256);
+	}
+
+	/**
+	 * Ensure that proxies can be indexed up to given capacity
+	 * @param capacity
+	 */
+	private void ensureProxyCapacity(int capacity) {
+		if (capacity <= proxies.length) return;
+		int newCapacity = proxies.length < 1?1:proxies.length;
+		while (newCapacity < capacity) newCapacity*= 2;
+		RigidBody[] newProxyRigidBodies = new RigidBody[newCapacity];
+		int[] newProxies = new int[newCapacity];
+		System.arraycopy(proxyRigidBodies, 0, newProxyRigidBodies, 0, proxyRigidBodies.length);
+		System.arraycopy(proxies, 0, newProxies, 0, proxies.length);
+		for (int i = proxies.length; i < newCapacity; i++) newProxies[i] = DynamicAABBTree.NULL_NODE;
+		proxyRigidBodies = newProxyRigidBodies;
+		proxies = newProxies;
+	}
+
+	/**
+	 * Compute axis aligned bounds of given bounding volume including padding into bounds array
+	 * @param cbv
+	 */
+	private void computeBounds(BoundingVolume cbv) {
+		float[] centerXYZ = cbv.getCenter().getArray();
+		halfExtension.set(
+			cbv.computeDimensionOnAxis(sideVector) + BOUNDS_PADDING,
+			cbv.computeDimensionOnAxis(upVector) + BOUNDS_PADDING,
+			cbv.computeDimensionOnAxis(forwardVector) + BOUNDS_PADDING
+		).scale(0.5f);
+		float[] halfExtensionXYZ = halfExtension.getArray();
+		for (int axis = 0; axis < 3; axis++) {
+			bounds[axis] = centerXYZ[axis] - halfExtensionXYZ[axis];
+			bounds[3 + axis] = centerXYZ[axis] + halfExtensionXYZ[axis];
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#addRigidBody(net.drewke.tdme.engine.physics.RigidBody)
+	 */
+	protected void addRigidBody(RigidBody rigidBody) {
+		ensureProxyCapacity(rigidBody.idx + 1);
+		if (proxies[rigidBody.idx] != DynamicAABBTree.NULL_NODE) {
+			updateRigidBody(rigidBody);
+			return;
+		}
+		computeBounds(rigidBody.cbv);
+		proxyRigidBodies[rigidBody.idx] = rigidBody;
+		proxies[rigidBody.idx] = tree.createProxy(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5], rigidBody.idx);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#updateRigidBody(net.drewke.tdme.engine.physics.RigidBody)
+	 */
+	protected void updateRigidBody(RigidBody rigidBody) {
+		if (rigidBody.idx >= proxies.length || proxies[rigidBody.idx] == DynamicAABBTree.NULL_NODE) {
+			addRigidBody(rigidBody);
+			return;
+		}
+		computeBounds(rigidBody.cbv);
+		tree.moveProxy(proxies[rigidBody.idx], bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#removeRigidBody(net.drewke.tdme.engine.physics.RigidBody)
+	 */
+	protected void removeRigidBody(RigidBody rigidBody) {
+		if (rigidBody.idx >= proxies.length || proxies[rigidBody.idx] == DynamicAABBTree.NULL_NODE) return;
+		tree.destroyProxy(proxies[rigidBody.idx]);
+		proxies[rigidBody.idx] = DynamicAABBTree.NULL_NODE;
+		proxyRigidBodies[rigidBody.idx] = null;
+	}
+
+	/**
+	 * Collect rigid bodies of last tree query
+	 * @return rigid body iterator
+	 */
+	private ArrayListIteratorMultiple<RigidBody> getQueryResult() {
+		nearRigidBodies.clear();
+		for (int i = 0; i < tree.getResultCount(); i++) {
+			nearRigidBodies.add(proxyRigidBodies[tree.getData(tree.getResult(i))]);
+		}
+		rigidBodyIterator.clear();
+		rigidBodyIterator.addArrayList(nearRigidBodies);
+		return rigidBodyIterator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#getObjectsNearTo(net.drewke.tdme.engine.primitives.BoundingVolume)
+	 */
+	public ArrayListIteratorMultiple<RigidBody> getObjectsNearTo(BoundingVolume cbv) {
+		computeBounds(cbv);
+		tree.queryAABB(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+		return getQueryResult();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#getObjectsNearTo(net.drewke.tdme.math.Vector3)
+	 */
+	public ArrayListIteratorMultiple<RigidBody> getObjectsNearTo(Vector3 center) {
+		float[] centerXYZ = center.getArray();
+		tree.queryAABB(
+			centerXYZ[0] - BOUNDS_PADDING / 2f,
+			centerXYZ[1] - BOUNDS_PADDING / 2f,
+			centerXYZ[2] - BOUNDS_PADDING / 2f,
+			centerXYZ[0] + BOUNDS_PADDING / 2f,
+			centerXYZ[1] + BOUNDS_PADDING / 2f,
+			centerXYZ[2] + BOUNDS_PADDING / 2f
+		);
+		return getQueryResult();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#getObjectsOnSegment(net.drewke.tdme.math.Vector3, net.drewke.tdme.math.Vector3)
+	 */
+	public ArrayListIteratorMultiple<RigidBody> getObjectsOnSegment(Vector3 p, Vector3 q) {
+		float[] pXYZ = p.getArray();
+		float[] qXYZ = q.getArray();
+		tree.queryRay(pXYZ[0], pXYZ[1], pXYZ[2], qXYZ[0], qXYZ[1], qXYZ[2]);
+		return getQueryResult();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return "PartitionDynamicAABBTree [tree=" + tree + "]";
+	}
+
+}
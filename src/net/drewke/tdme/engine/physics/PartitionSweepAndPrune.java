@@ -0,0 +1,541 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.utils.ArrayList;
+import net.drewke.tdme.utils.ArrayListIteratorMultiple;
+import net.drewke.tdme.utils.Console;
+import net.drewke.tdme.utils.LongHashSet;
+
+/**
+ * Sweep and prune partition implementation
+ * 	Keeps sorted min / max endpoint arrays for each axis, which are updated by insertion sort when rigid bodies move.
+ * 	As rigid bodies move only a bit from frame to frame there are only few swaps per update.
+ * 	Overlapping pairs are maintained incrementally while swapping and reported once per pair.
+ * 	Proxies larger than OVERSIZED_EXTENT on any axis, like terrain or arena bodies, are tested directly by near to queries
+ * 	so that they do not widen the search window of all other queries.
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class PartitionSweepAndPrune extends Partition {
+
+	private final static int AXES = 3;
+	private final static float BOUNDS_PADDING = 0.2f;
+	private final static float OVERSIZED_EXTENT = 32f;
+
+	// proxies, indexed by rigid body idx
+	private int proxyCapacity;
+	private RigidBody[] proxyRigidBodies;
+	//	min x, y, z, max x, y, z
+	private float[] proxyBounds;
+	//	endpoint index for min, max for x, y, z
+	private int[] proxyEndpoints;
+
+	// endpoints per axis, data is proxy idx << 1 | 1 if max endpoint
+	private int endpointCount;
+	private float[][] endpointValues;
+	private int[][] endpointData;
+
+	// max extent on x axis of not oversized proxies, used to start near to queries, recomputed lazily if it might have shrunk
+	private float extentMax;
+	private boolean extentMaxDirty;
+
+	// oversized proxies, tested directly by near to queries
+	private boolean[] proxyOversized;
+	private int[] oversizedProxies;
+	private int oversizedProxyCount;
+
+	// overlapping pairs
+	private LongHashSet overlappingPairs;
+
+	// near to queries
+	private ArrayList<RigidBody> nearRigidBodies;
+	private ArrayListIteratorMultiple<RigidBody> rigidBodyIterator;
+	private float[] queryBounds;
+
+	private Vector3 halfExtension;
+	private Vector3 sideVector;
+	private Vector3 upVector;
+	private Vector3 forwardVector;
+
+	/**
+	 * Public constructor
+	 */
+	public PartitionSweepAndPrune() {
+		this.overlappingPairs = new LongHashSet();
+		this.nearRigidBodies = new ArrayList<RigidBody>();
+		this.rigidBodyIterator = new ArrayListIteratorMultiple<RigidBody>();
+		this.queryBounds = new float[AXES * 2];
+		this.halfExtension = new Vector3();
+		this.sideVector = new Vector3(1f,0f,0f);
+		this.upVector = new Vector3(0f,1f,0f);
+		this.forwardVector = new Vector3(0f,0f,1f);
+		reset();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#reset()
+	 */
+	protected void reset() {
+		proxyCapacity = 0;
+		proxyRigidBodies = new RigidBody[0];
+		proxyBounds = new float[0];
+		proxyEndpoints = new int[0];
+		proxyOversized = new boolean[0];
+		endpointCount = 0;
+		endpointValues = new float[AXES][0];
+		endpointData = new int[AXES][0];
+		extentMax = 0f;
+		extentMaxDirty = false;
+		oversizedProxies = new int[16];
+		oversizedProxyCount = 0;
+		overlappingPairs.clear();
+		ensureProxyCapacity(256);
+	}
+
+	/**
+	 * Ensure that proxies can be indexed up to given capacity
+	 * @param capacity
+	 */
+	private void ensureProxyCapacity(int capacity) {
+		if (capacity <= proxyCapacity) return;
+		int newCapacity = proxyCapacity < 1?1:proxyCapacity;
+		while (newCapacity < capacity) newCapacity*= 2;
+
+		//
+		RigidBody[] newProxyRigidBodies = new RigidBody[newCapacity];
+		float[] newProxyBounds = new float[newCapacity * AXES * 2];
+		int[] newProxyEndpoints = new int[newCapacity * AXES * 2];
+		boolean[] newProxyOversized = new boolean[newCapacity];
+		System.arraycopy(proxyRigidBodies, 0, newProxyRigidBodies, 0, proxyRigidBodies.length);
+		System.arraycopy(proxyBounds, 0, newProxyBounds, 0, proxyBounds.length);
+		System.arraycopy(proxyEndpoints, 0, newProxyEndpoints, 0, proxyEndpoints.length);
+		System.arraycopy(proxyOversized, 0, newProxyOversized, 0, proxyOversized.length);
+		proxyRigidBodies = newProxyRigidBodies;
+		proxyBounds = newProxyBounds;
+		proxyEndpoints = newProxyEndpoints;
+		proxyOversized = newProxyOversized;
+
+		// endpoints, 2 per proxy
+		for (int axis = 0; axis < AXES; axis++) {
+			float[] newEndpointValues = new float[newCapacity * 2];
+			int[] newEndpointData = new int[newCapacity * 2];
+			System.arraycopy(endpointValues[axis], 0, newEndpointValues, 0, endpointCount);
+			System.arraycopy(endpointData[axis], 0, newEndpointData, 0, endpointCount);
+			endpointValues[axis] = newEndpointValues;
+			endpointData[axis] = newEndpointData;
+		}
+
+		//
+		proxyCapacity = newCapacity;
+	}
+
+	/**
+	 * Compute axis aligned bounds of given bounding volume including padding into bounds array
+	 * @param cbv
+	 * @param bounds
+	 * @param bounds offset
+	 */
+	private void computeBounds(BoundingVolume cbv, float[] bounds, int boundsOffset) {
+		float[] centerXYZ = cbv.getCenter().getArray();
+		halfExtension.set(
+			cbv.computeDimensionOnAxis(sideVector) + BOUNDS_PADDING,
+			cbv.computeDimensionOnAxis(upVector) + BOUNDS_PADDING,
+			cbv.computeDimensionOnAxis(forwardVector) + BOUNDS_PADDING
+		).scale(0.5f);
+		float[] halfExtensionXYZ = halfExtension.getArray();
+		for (int axis = 0; axis < AXES; axis++) {
+			bounds[boundsOffset + axis] = centerXYZ[axis] - halfExtensionXYZ[axis];
+			bounds[boundsOffset + AXES + axis] = centerXYZ[axis] + halfExtensionXYZ[axis];
+		}
+	}
+
+	/**
+	 * Compute proxy bounds from rigid body bounding volume and update oversized proxies and max extent
+	 * @param proxy
+	 * @param proxy is new
+	 */
+	private void computeProxyBounds(int proxy, boolean isNew) {
+		int boundsOffset = proxy * AXES * 2;
+
+		// max extent might shrink if proxy had max extent
+		if (isNew == false) releaseProxyExtent(proxy);
+
+		//
+		computeBounds(proxyRigidBodies[proxy].cbv, proxyBounds, boundsOffset);
+
+		// oversized?
+		boolean oversized = false;
+		for (int axis = 0; axis < AXES; axis++) {
+			if (proxyBounds[boundsOffset + AXES + axis] - proxyBounds[boundsOffset + axis] > OVERSIZED_EXTENT) {
+				oversized = true;
+				break;
+			}
+		}
+		if (oversized != proxyOversized[proxy]) {
+			if (oversized == true) {
+				addOversizedProxy(proxy);
+			} else {
+				removeOversizedProxy(proxy);
+			}
+		}
+
+		// update max extent
+		if (oversized == false) {
+			extentMax = Math.max(extentMax, proxyBounds[boundsOffset + AXES] - proxyBounds[boundsOffset]);
+		}
+	}
+
+	/**
+	 * Mark max extent dirty if given proxy could have defined it
+	 * @param proxy
+	 */
+	private void releaseProxyExtent(int proxy) {
+		if (proxyOversized[proxy] == true) return;
+		int boundsOffset = proxy * AXES * 2;
+		if (proxyBounds[boundsOffset + AXES] - proxyBounds[boundsOffset] >= extentMax) extentMaxDirty = true;
+	}
+
+	/**
+	 * Add oversized proxy
+	 * @param proxy
+	 */
+	private void addOversizedProxy(int proxy) {
+		if (oversizedProxyCount == oversizedProxies.length) {
+			int[] newOversizedProxies = new int[oversizedProxies.length * 2];
+			System.arraycopy(oversizedProxies, 0, newOversizedProxies, 0, oversizedProxyCount);
+			oversizedProxies = newOversizedProxies;
+		}
+		oversizedProxies[oversizedProxyCount++] = proxy;
+		proxyOversized[proxy] = true;
+	}
+
+	/**
+	 * Remove oversized proxy
+	 * @param proxy
+	 */
+	private void removeOversizedProxy(int proxy) {
+		for (int i = 0; i < oversizedProxyCount; i++) {
+			if (oversizedProxies[i] != proxy) continue;
+			oversizedProxies[i] = oversizedProxies[--oversizedProxyCount];
+			break;
+		}
+		proxyOversized[proxy] = false;
+	}
+
+	/**
+	 * Recompute max extent on x axis of not oversized proxies
+	 */
+	private void computeExtentMax() {
+		float[] values = endpointValues[0];
+		int[] data = endpointData[0];
+		extentMax = 0f;
+		for (int i = 0; i < endpointCount; i++) {
+			if ((data[i] & 1) == 1) continue;
+			int proxy = data[i] >> 1;
+			if (proxyOversized[proxy] == true) continue;
+			int boundsOffset = proxy * AXES * 2;
+			extentMax = Math.max(extentMax, proxyBounds[boundsOffset + AXES] - values[i]);
+		}
+		extentMaxDirty = false;
+	}
+
+	/**
+	 * Check if proxies overlap on all axes
+	 * @param proxy 1
+	 * @param proxy 2
+	 * @return if proxies overlap
+	 */
+	private boolean doProxiesOverlap(int proxy1, int proxy2) {
+		int bounds1Offset = proxy1 * AXES * 2;
+		int bounds2Offset = proxy2 * AXES * 2;
+		for (int axis = 0; axis < AXES; axis++) {
+			if (proxyBounds[bounds1Offset + axis] >= proxyBounds[bounds2Offset + AXES + axis] ||
+				proxyBounds[bounds2Offset + axis] >= proxyBounds[bounds1Offset + AXES + axis]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compute pair key for given proxies, lower proxy idx first
+	 * @param proxy 1
+	 * @param proxy 2
+	 * @return pair key
+	 */
+	private static long computePairKey(int proxy1, int proxy2) {
+		return proxy1 < proxy2?LongHashSet.pack(proxy1, proxy2):LongHashSet.pack(proxy2, proxy1);
+	}
+
+	/**
+	 * Set endpoint at given index and register it in its proxy
+	 * @param axis
+	 * @param endpoint idx
+	 * @param value
+	 * @param data
+	 */
+	private void setEndpoint(int axis, int endpointIdx, float value, int data) {
+		endpointValues[axis][endpointIdx] = value;
+		endpointData[axis][endpointIdx] = data;
+		proxyEndpoints[(data >> 1) * AXES * 2 + axis * 2 + (data & 1)] = endpointIdx;
+	}
+
+	/**
+	 * Move endpoint at given index to its sorted position using insertion sort and update overlapping pairs
+	 * @param axis
+	 * @param endpoint idx
+	 */
+	private void sortEndpoint(int axis, int endpointIdx) {
+		float[] values = endpointValues[axis];
+		int[] data = endpointData[axis];
+		float value = values[endpointIdx];
+		int endpoint = data[endpointIdx];
+		int proxy = endpoint >> 1;
+		boolean isMax = (endpoint & 1) == 1;
+		int idx = endpointIdx;
+
+		// move down, on equal values max endpoints are sorted before min endpoints as touching proxies do not overlap
+		while (idx > 0) {
+			int otherEndpoint = data[idx - 1];
+			int otherProxy = otherEndpoint >> 1;
+			boolean otherIsMax = (otherEndpoint & 1) == 1;
+			if (values[idx - 1] < value ||
+				(values[idx - 1] == value && (otherIsMax == true || isMax == false))) break;
+			if (otherProxy != proxy) {
+				if (isMax == false && otherIsMax == true) {
+					// min passes a max to the left, proxies might overlap now
+					if (doProxiesOverlap(proxy, otherProxy) == true) {
+						overlappingPairs.add(computePairKey(proxy, otherProxy));
+					}
+				} else
+				if (isMax == true && otherIsMax == false) {
+					// max passes a min to the left, proxies do not overlap anymore
+					overlappingPairs.remove(computePairKey(proxy, otherProxy));
+				}
+			}
+			setEndpoint(axis, idx, values[idx - 1], otherEndpoint);
+			idx--;
+		}
+
+		// move up
+		while (idx < endpointCount - 1) {
+			int otherEndpoint = data[idx + 1];
+			int otherProxy = otherEndpoint >> 1;
+			boolean otherIsMax = (otherEndpoint & 1) == 1;
+			if (values[idx + 1] > value ||
+				(values[idx + 1] == value && (otherIsMax == false || isMax == true))) break;
+			if (otherProxy != proxy) {
+				if (isMax == true && otherIsMax == false) {
+					// max passes a min to the right, proxies might overlap now
+					if (doProxiesOverlap(proxy, otherProxy) == true) {
+						overlappingPairs.add(computePairKey(proxy, otherProxy));
+					}
+				} else
+				if (isMax == false && otherIsMax == true) {
+					// min passes a max to the right, proxies do not overlap anymore
+					overlappingPairs.remove(computePairKey(proxy, otherProxy));
+				}
+			}
+			setEndpoint(axis, idx, values[idx + 1], otherEndpoint);
+			idx++;
+		}
+
+		//
+		setEndpoint(axis, idx, value, endpoint);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#addRigidBody(net.drewke.tdme.engine.physics.RigidBody)
+	 */
+	protected void addRigidBody(RigidBody rigidBody) {
+		int proxy = rigidBody.idx;
+		ensureProxyCapacity(proxy + 1);
+
+		// update if already exists
+		if (proxyRigidBodies[proxy] != null) {
+			updateRigidBody(rigidBody);
+			return;
+		}
+
+		//
+		proxyRigidBodies[proxy] = rigidBody;
+		computeProxyBounds(proxy, true);
+
+		// append min and max endpoint for each axis and sort them in
+		int boundsOffset = proxy * AXES * 2;
+		endpointCount+= 2;
+		for (int axis = 0; axis < AXES; axis++) {
+			setEndpoint(axis, endpointCount - 2, proxyBounds[boundsOffset + axis], proxy << 1);
+			setEndpoint(axis, endpointCount - 1, proxyBounds[boundsOffset + AXES + axis], (proxy << 1) | 1);
+			sortEndpoint(axis, endpointCount - 2);
+			sortEndpoint(axis, endpointCount - 1);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#updateRigidBody(net.drewke.tdme.engine.physics.RigidBody)
+	 */
+	protected void updateRigidBody(RigidBody rigidBody) {
+		int proxy = rigidBody.idx;
+		if (proxy >= proxyCapacity || proxyRigidBodies[proxy] == null) {
+			addRigidBody(rigidBody);
+			return;
+		}
+
+		//
+		int boundsOffset = proxy * AXES * 2;
+		computeProxyBounds(proxy, false);
+
+		// update endpoints
+		for (int axis = 0; axis < AXES; axis++) {
+			int minEndpointIdx = proxyEndpoints[boundsOffset + axis * 2 + 0];
+			endpointValues[axis][minEndpointIdx] = proxyBounds[boundsOffset + axis];
+			sortEndpoint(axis, minEndpointIdx);
+			int maxEndpointIdx = proxyEndpoints[boundsOffset + axis * 2 + 1];
+			endpointValues[axis][maxEndpointIdx] = proxyBounds[boundsOffset + AXES + axis];
+			sortEndpoint(axis, maxEndpointIdx);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#removeRigidBody(net.drewke.tdme.engine.physics.RigidBody)
+	 */
+	protected void removeRigidBody(RigidBody rigidBody) {
+		int proxy = rigidBody.idx;
+		if (proxy >= proxyCapacity || proxyRigidBodies[proxy] == null) {
+			Console.println("PartitionSweepAndPrune::removeRigidBody(): '" + rigidBody.getId() + "' not registered");
+			return;
+		}
+
+		// remove endpoints of proxy, compact endpoint arrays
+		for (int axis = 0; axis < AXES; axis++) {
+			float[] values = endpointValues[axis];
+			int[] data = endpointData[axis];
+			int newEndpointCount = 0;
+			for (int i = 0; i < endpointCount; i++) {
+				if ((data[i] >> 1) == proxy) continue;
+				setEndpoint(axis, newEndpointCount++, values[i], data[i]);
+			}
+		}
+		endpointCount-= 2;
+
+		// remove overlapping pairs of proxy
+		for (int i = overlappingPairs.size() - 1; i >= 0; i--) {
+			long pairKey = overlappingPairs.get(i);
+			if (LongHashSet.unpackFirst(pairKey) == proxy ||
+				LongHashSet.unpackSecond(pairKey) == proxy) {
+				overlappingPairs.remove(pairKey);
+			}
+		}
+
+		// oversized proxies and max extent
+		releaseProxyExtent(proxy);
+		if (proxyOversized[proxy] == true) removeOversizedProxy(proxy);
+
+		//
+		proxyRigidBodies[proxy] = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#getOverlappingPairs()
+	 */
+	protected LongHashSet getOverlappingPairs() {
+		return overlappingPairs;
+	}
+
+	/**
+	 * Check if proxy overlaps query bounds
+	 * @param proxy
+	 * @return if proxy overlaps query bounds
+	 */
+	private boolean doesProxyOverlapQueryBounds(int proxy) {
+		int boundsOffset = proxy * AXES * 2;
+		for (int axis = 0; axis < AXES; axis++) {
+			if (proxyBounds[boundsOffset + axis] >= queryBounds[AXES + axis] ||
+				queryBounds[axis] >= proxyBounds[boundsOffset + AXES + axis]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Get objects near to query bounds
+	 * @return objects near to query bounds
+	 */
+	private ArrayListIteratorMultiple<RigidBody> getObjectsNearToQueryBounds() {
+		nearRigidBodies.clear();
+
+		// oversized proxies
+		for (int i = 0; i < oversizedProxyCount; i++) {
+			int proxy = oversizedProxies[i];
+			if (doesProxyOverlapQueryBounds(proxy) == true) nearRigidBodies.add(proxyRigidBodies[proxy]);
+		}
+
+		// find first endpoint on x axis that could belong to a overlapping proxy
+		if (extentMaxDirty == true) computeExtentMax();
+		float[] values = endpointValues[0];
+		int[] data = endpointData[0];
+		float start = queryBounds[0] - extentMax;
+		int low = 0;
+		int high = endpointCount;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (values[middle] < start) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		// check proxies by min endpoints until we pass query max on x axis
+		for (int i = low; i < endpointCount && values[i] < queryBounds[AXES]; i++) {
+			if ((data[i] & 1) == 1) continue;
+			int proxy = data[i] >> 1;
+			if (proxyOversized[proxy] == true) continue;
+			if (doesProxyOverlapQueryBounds(proxy) == true) nearRigidBodies.add(proxyRigidBodies[proxy]);
+		}
+
+		//
+		rigidBodyIterator.clear();
+		rigidBodyIterator.addArrayList(nearRigidBodies);
+		return rigidBodyIterator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#getObjectsNearTo(net.drewke.tdme.engine.primitives.BoundingVolume)
+	 */
+	public ArrayListIteratorMultiple<RigidBody> getObjectsNearTo(BoundingVolume cbv) {
+		computeBounds(cbv, queryBounds, 0);
+		return getObjectsNearToQueryBounds();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.physics.Partition#getObjectsNearTo(net.drewke.tdme.math.Vector3)
+	 */
+	public ArrayListIteratorMultiple<RigidBody> getObjectsNearTo(Vector3 center) {
+		float[] centerXYZ = center.getArray();
+		for (int axis = 0; axis < AXES; axis++) {
+			queryBounds[axis] = centerXYZ[axis] - BOUNDS_PADDING / 2f;
+			queryBounds[AXES + axis] = centerXYZ[axis] + BOUNDS_PADDING / 2f;
+		}
+		return getObjectsNearToQueryBounds();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return "PartitionSweepAndPrune [proxies=" + (endpointCount / 2) + ", overlapping pairs=" + overlappingPairs.size() + "]";
+	}
+
+}
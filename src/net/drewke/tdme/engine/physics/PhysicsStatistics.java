@@ -0,0 +1,470 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.engine.primitives.BoundingBox;
+import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.engine.primitives.Capsule;
+import net.drewke.tdme.engine.primitives.ConvexMesh;
+import net.drewke.tdme.engine.primitives.HeightField;
+import net.drewke.tdme.engine.primitives.OrientedBoundingBox;
+import net.drewke.tdme.engine.primitives.Sphere;
+import net.drewke.tdme.engine.primitives.Triangle;
+import net.drewke.tdme.engine.primitives.TriangleMesh;
+
+/**
+ * Physics statistics of world updates, see World.getStatistics()
+ * 	Counters and phase timers are of last update, phase timers are also accumulated since last reset
+ * 	CHEAP mode only takes counters and a few time stamps per update and is meant to be always on,
+ * 	FULL mode additionally counts collision tests per shape pair and keeps rolling histograms of phase times
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class PhysicsStatistics {
+
+	public enum Mode {OFF, CHEAP, FULL};
+
+	public final static int PHASE_GRAVITY = 0;
+	public final static int PHASE_BROADPHASE = 1;
+	public final static int PHASE_NARROWPHASE = 2;
+	public final static int PHASE_SOLVE = 3;
+	public final static int PHASE_INTEGRATE = 4;
+	public final static int PHASE_PARTITION_UPDATE = 5;
+	public final static int PHASE_CONTACT_EVENTS = 6;
+	public final static int PHASE_TOTAL = 7;
+	public final static int PHASE_COUNT = 8;
+
+	public final static int SHAPE_BOUNDINGBOX = 0;
+	public final static int SHAPE_SPHERE = 1;
+	public final static int SHAPE_CAPSULE = 2;
+	public final static int SHAPE_ORIENTEDBOUNDINGBOX = 3;
+	public final static int SHAPE_TRIANGLE = 4;
+	public final static int SHAPE_CONVEXMESH = 5;
+	public final static int SHAPE_HEIGHTFIELD = 6;
+	public final static int SHAPE_TRIANGLEMESH = 7;
+	public final static int SHAPE_OTHER = 8;
+	public final static int SHAPE_COUNT = 9;
+
+	public final static int HISTOGRAM_FRAMES = 256;
+	public final static int HISTOGRAM_BUCKETS = 24;
+
+	private final static String[] PHASE_NAMES = {
+		"gravity", "broadphase", "narrowphase", "solve", "integrate", "partition update", "contact events", "total"
+	};
+	private final static String[] SHAPE_NAMES = {
+		"aabb", "sphere", "capsule", "obb", "triangle", "convexmesh", "heightfield", "trianglemesh", "other"
+	};
+
+	private Mode mode = Mode.CHEAP;
+
+	// phase timers in nano seconds
+	private long frameCount;
+	private long frameStart;
+	private long phaseStart;
+	private long[] phaseTimes = new long[PHASE_COUNT];
+	private long[] phaseTimesTotal = new long[PHASE_COUNT];
+
+	// counters of last update
+	protected int rigidBodyCount;
+	protected int rigidBodyDynamicCount;
+	protected int rigidBodySleepingCount;
+	protected int broadphasePairCount;
+	protected int narrowphaseTestCount;
+	protected int contactCount;
+	protected int constraintsEntityCount;
+	protected int constraintCount;
+	protected int islandCount;
+	protected int solverIterationCount;
+	protected int contactCacheLookupCount;
+	protected int contactCacheHitCount;
+	protected int contactEventCount;
+	private int[] shapePairTestCounts = new int[SHAPE_COUNT * SHAPE_COUNT];
+
+	// rolling histograms, phase times of last HISTOGRAM_FRAMES updates and their log2 micro seconds buckets
+	private long[] histogramPhaseTimes = new long[PHASE_COUNT * HISTOGRAM_FRAMES];
+	private int histogramFrame;
+	private int histogramFrameCount;
+	private int[] histogramBuckets = new int[PHASE_COUNT * HISTOGRAM_BUCKETS];
+
+	/**
+	 * Public constructor
+	 */
+	public PhysicsStatistics() {
+		reset();
+	}
+
+	/**
+	 * @return mode
+	 */
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Set mode, statistics get reset
+	 * @param mode
+	 */
+	public void setMode(Mode mode) {
+		this.mode = mode;
+		reset();
+	}
+
+	/**
+	 * @return if enabled
+	 */
+	public boolean isEnabled() {
+		return mode != Mode.OFF;
+	}
+
+	/**
+	 * Reset statistics
+	 */
+	public void reset() {
+		frameCount = 0;
+		for (int i = 0; i < PHASE_COUNT; i++) {
+			phaseTimes[i] = 0L;
+			phaseTimesTotal[i] = 0L;
+		}
+		resetCounters();
+		histogramFrame = 0;
+		histogramFrameCount = 0;
+		for (int i = 0; i < histogramBuckets.length; i++) histogramBuckets[i] = 0;
+	}
+
+	/**
+	 * Reset counters of last update
+	 */
+	private void resetCounters() {
+		rigidBodyCount = 0;
+		rigidBodyDynamicCount = 0;
+		rigidBodySleepingCount = 0;
+		broadphasePairCount = 0;
+		narrowphaseTestCount = 0;
+		contactCount = 0;
+		constraintsEntityCount = 0;
+		constraintCount = 0;
+		islandCount = 0;
+		solverIterationCount = 0;
+		contactCacheLookupCount = 0;
+		contactCacheHitCount = 0;
+		contactEventCount = 0;
+		for (int i = 0; i < shapePairTestCounts.length; i++) shapePairTestCounts[i] = 0;
+	}
+
+	/**
+	 * Begin update
+	 */
+	protected void beginFrame() {
+		resetCounters();
+		if (mode == Mode.OFF) return;
+		for (int i = 0; i < PHASE_COUNT; i++) phaseTimes[i] = 0L;
+		frameStart = System.nanoTime();
+		phaseStart = frameStart;
+	}
+
+	/**
+	 * Begin phase, only required if time since last phase end should not be taken into account
+	 */
+	protected void beginPhase() {
+		if (mode == Mode.OFF) return;
+		phaseStart = System.nanoTime();
+	}
+
+	/**
+	 * End phase, next phase begins
+	 * @param phase
+	 */
+	protected void endPhase(int phase) {
+		if (mode == Mode.OFF) return;
+		long time = System.nanoTime();
+		phaseTimes[phase]+= time - phaseStart;
+		phaseStart = time;
+	}
+
+	/**
+	 * End update
+	 */
+	protected void endFrame() {
+		if (mode == Mode.OFF) return;
+		phaseTimes[PHASE_TOTAL] = System.nanoTime() - frameStart;
+		for (int i = 0; i < PHASE_COUNT; i++) {
+			phaseTimesTotal[i]+= phaseTimes[i];
+		}
+		frameCount++;
+
+		// rolling histograms
+		if (mode != Mode.FULL) return;
+		for (int i = 0; i < PHASE_COUNT; i++) {
+			int sampleIdx = i * HISTOGRAM_FRAMES + histogramFrame;
+			if (histogramFrameCount == HISTOGRAM_FRAMES) {
+				histogramBuckets[i * HISTOGRAM_BUCKETS + computeHistogramBucket(histogramPhaseTimes[sampleIdx])]--;
+			}
+			histogramPhaseTimes[sampleIdx] = phaseTimes[i];
+			histogramBuckets[i * HISTOGRAM_BUCKETS + computeHistogramBucket(phaseTimes[i])]++;
+		}
+		histogramFrame = (histogramFrame + 1) % HISTOGRAM_FRAMES;
+		if (histogramFrameCount < HISTOGRAM_FRAMES) histogramFrameCount++;
+	}
+
+	/**
+	 * Count collision test of given bounding volumes, only done in FULL mode
+	 * @param bounding volume 1
+	 * @param bounding volume 2
+	 */
+	protected void addShapePairTest(BoundingVolume bv1, BoundingVolume bv2) {
+		if (mode != Mode.FULL) return;
+		shapePairTestCounts[getShape(bv1) * SHAPE_COUNT + getShape(bv2)]++;
+	}
+
+	/**
+	 * Compute histogram bucket of given time
+	 * @param time in nano seconds
+	 * @return histogram bucket
+	 */
+	private static int computeHistogramBucket(long time) {
+		long microSeconds = time / 1000L;
+		if (microSeconds <= 0L) return 0;
+		return Math.min(64 - Long.numberOfLeadingZeros(microSeconds), HISTOGRAM_BUCKETS - 1);
+	}
+
+	/**
+	 * Get shape of given bounding volume
+	 * @param bounding volume
+	 * @return shape, see SHAPE_*
+	 */
+	public static int getShape(BoundingVolume bv) {
+		if (bv instanceof BoundingBox) return SHAPE_BOUNDINGBOX;
+		if (bv instanceof Sphere) return SHAPE_SPHERE;
+		if (bv instanceof Capsule) return SHAPE_CAPSULE;
+		if (bv instanceof OrientedBoundingBox) return SHAPE_ORIENTEDBOUNDINGBOX;
+		if (bv instanceof Triangle) return SHAPE_TRIANGLE;
+		if (bv instanceof ConvexMesh) return SHAPE_CONVEXMESH;
+		if (bv instanceof HeightField) return SHAPE_HEIGHTFIELD;
+		if (bv instanceof TriangleMesh) return SHAPE_TRIANGLEMESH;
+		return SHAPE_OTHER;
+	}
+
+	/**
+	 * @param shape
+	 * @return shape name
+	 */
+	public static String getShapeName(int shape) {
+		return SHAPE_NAMES[shape];
+	}
+
+	/**
+	 * @param phase
+	 * @return phase name
+	 */
+	public static String getPhaseName(int phase) {
+		return PHASE_NAMES[phase];
+	}
+
+	/**
+	 * @return number of updates since reset
+	 */
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * @param phase
+	 * @return time of phase in last update in nano seconds
+	 */
+	public long getPhaseTime(int phase) {
+		return phaseTimes[phase];
+	}
+
+	/**
+	 * @param phase
+	 * @return time of phase in all updates since reset in nano seconds
+	 */
+	public long getPhaseTimeTotal(int phase) {
+		return phaseTimesTotal[phase];
+	}
+
+	/**
+	 * @return rigid body count
+	 */
+	public int getRigidBodyCount() {
+		return rigidBodyCount;
+	}
+
+	/**
+	 * @return enabled non static rigid body count
+	 */
+	public int getRigidBodyDynamicCount() {
+		return rigidBodyDynamicCount;
+	}
+
+	/**
+	 * @return sleeping rigid body count
+	 */
+	public int getRigidBodySleepingCount() {
+		return rigidBodySleepingCount;
+	}
+
+	/**
+	 * @return rigid body pairs reported by partition
+	 */
+	public int getBroadphasePairCount() {
+		return broadphasePairCount;
+	}
+
+	/**
+	 * @return narrow phase collision tests
+	 */
+	public int getNarrowphaseTestCount() {
+		return narrowphaseTestCount;
+	}
+
+	/**
+	 * @return collision tests resulting in a contact
+	 */
+	public int getContactCount() {
+		return contactCount;
+	}
+
+	/**
+	 * @return constraints entities given to solver
+	 */
+	public int getConstraintsEntityCount() {
+		return constraintsEntityCount;
+	}
+
+	/**
+	 * @return constraints solved
+	 */
+	public int getConstraintCount() {
+		return constraintCount;
+	}
+
+	/**
+	 * @return islands solved
+	 */
+	public int getIslandCount() {
+		return islandCount;
+	}
+
+	/**
+	 * @return solver iterations done over all islands
+	 */
+	public int getSolverIterationCount() {
+		return solverIterationCount;
+	}
+
+	/**
+	 * @return contact cache lookups
+	 */
+	public int getContactCacheLookupCount() {
+		return contactCacheLookupCount;
+	}
+
+	/**
+	 * @return contact cache lookups which warm started a contact
+	 */
+	public int getContactCacheHitCount() {
+		return contactCacheHitCount;
+	}
+
+	/**
+	 * @return contact cache hit rate between 0 and 1
+	 */
+	public float getContactCacheHitRate() {
+		return contactCacheLookupCount == 0?0f:(float)contactCacheHitCount / (float)contactCacheLookupCount;
+	}
+
+	/**
+	 * @return contact events
+	 */
+	public int getContactEventCount() {
+		return contactEventCount;
+	}
+
+	/**
+	 * Get collision test count of given shape pair, only counted in FULL mode
+	 * @param shape 1
+	 * @param shape 2
+	 * @return collision test count
+	 */
+	public int getShapePairTestCount(int shape1, int shape2) {
+		return shapePairTestCounts[shape1 * SHAPE_COUNT + shape2];
+	}
+
+	/**
+	 * @return updates in rolling histograms
+	 */
+	public int getHistogramFrameCount() {
+		return histogramFrameCount;
+	}
+
+	/**
+	 * Get rolling histogram bucket of given phase, only collected in FULL mode
+	 * @param phase
+	 * @param bucket
+	 * @return number of updates of last HISTOGRAM_FRAMES updates with phase time in bucket
+	 */
+	public int getHistogramBucket(int phase, int bucket) {
+		return histogramBuckets[phase * HISTOGRAM_BUCKETS + bucket];
+	}
+
+	/**
+	 * Get upper limit of histogram bucket, bucket 0 holds times below 1 micro second, bucket n below 2^n micro seconds
+	 * @param bucket
+	 * @return upper limit in nano seconds, last bucket has no limit
+	 */
+	public static long getHistogramBucketLimit(int bucket) {
+		return bucket == HISTOGRAM_BUCKETS - 1?Long.MAX_VALUE:(1L << bucket) * 1000L;
+	}
+
+	/**
+	 * Compute percentile of phase time from rolling histogram, this is the upper limit of the bucket the percentile falls into
+	 * @param phase
+	 * @param percentile between 0 and 1
+	 * @return phase time in nano seconds
+	 */
+	public long computeHistogramPercentile(int phase, float percentile) {
+		if (histogramFrameCount == 0) return 0L;
+		int frames = (int)Math.ceil(percentile * histogramFrameCount);
+		int bucketFrames = 0;
+		for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+			bucketFrames+= histogramBuckets[phase * HISTOGRAM_BUCKETS + i];
+			if (bucketFrames >= frames) return getHistogramBucketLimit(i);
+		}
+		return getHistogramBucketLimit(HISTOGRAM_BUCKETS - 1);
+	}
+
+	/**
+	 * @return string representation
+	 */
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		result.append("PhysicsStatistics [mode=" + mode + ", frames=" + frameCount);
+		for (int i = 0; i < PHASE_COUNT; i++) {
+			result.append(", " + PHASE_NAMES[i] + "=" + (phaseTimes[i] / 1000L) + "us");
+		}
+		result.append(
+			", rigid bodies=" + rigidBodyCount +
+			", dynamic=" + rigidBodyDynamicCount +
+			", sleeping=" + rigidBodySleepingCount +
+			", broadphase pairs=" + broadphasePairCount +
+			", narrowphase tests=" + narrowphaseTestCount +
+			", contacts=" + contactCount +
+			", constraints entities=" + constraintsEntityCount +
+			", constraints=" + constraintCount +
+			", islands=" + islandCount +
+			", solver iterations=" + solverIterationCount +
+			", contact cache hit rate=" + getContactCacheHitRate() +
+			", contact events=" + contactEventCount
+		);
+		if (mode == Mode.FULL) {
+			for (int i = 0; i < SHAPE_COUNT; i++)
+			for (int j = 0; j < SHAPE_COUNT; j++) {
+				int shapePairTestCount = shapePairTestCounts[i * SHAPE_COUNT + j];
+				if (shapePairTestCount == 0) continue;
+				result.append(", " + SHAPE_NAMES[i] + "/" + SHAPE_NAMES[j] + "=" + shapePairTestCount);
+			}
+		}
+		result.append("]");
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,198 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.math.Vector3;
+
+/**
+ * Batch of ray casts or sphere casts, see World.castRays()
+ * 	Rays and results are stored in flat arrays which only grow, so a batch can be reused without allocating
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class RayCastBatch {
+
+	private float radius;
+
+	// rays, from x, y, z, to x, y, z
+	private int rayCount;
+	private float[] rays;
+
+	// results
+	private RigidBody[] hitRigidBodies;
+	private float[] hitFractions;
+	private float[] hitPoints;
+	private float[] hitNormals;
+
+	/**
+	 * Public constructor
+	 */
+	public RayCastBatch() {
+		radius = 0f;
+		rayCount = 0;
+		rays = new float[0];
+		hitRigidBodies = new RigidBody[0];
+		hitFractions = new float[0];
+		hitPoints = new float[0];
+		hitNormals = new float[0];
+		ensureCapacity(64);
+	}
+
+	/**
+	 * Ensure capacity for given number of rays
+	 * @param capacity
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity <= hitFractions.length) return;
+		int newCapacity = hitFractions.length < 1?1:hitFractions.length;
+		while (newCapacity < capacity) newCapacity*= 2;
+		float[] newRays = new float[newCapacity * 6];
+		System.arraycopy(rays, 0, newRays, 0, rays.length);
+		rays = newRays;
+		hitRigidBodies = new RigidBody[newCapacity];
+		hitFractions = new float[newCapacity];
+		hitPoints = new float[newCapacity * 3];
+		hitNormals = new float[newCapacity * 3];
+	}
+
+	/**
+	 * @return radius, rays are cast as spheres with this radius if greater than zero
+	 */
+	public float getRadius() {
+		return radius;
+	}
+
+	/**
+	 * Set radius, rays are cast as spheres with this radius if greater than zero
+	 * @param radius
+	 */
+	public void setRadius(float radius) {
+		this.radius = radius;
+	}
+
+	/**
+	 * Clear rays
+	 */
+	public void clear() {
+		rayCount = 0;
+	}
+
+	/**
+	 * Add ray
+	 * @param from
+	 * @param to
+	 * @return ray index
+	 */
+	public int addRay(Vector3 from, Vector3 to) {
+		float[] fromXYZ = from.getArray();
+		float[] toXYZ = to.getArray();
+		return addRay(fromXYZ[0], fromXYZ[1], fromXYZ[2], toXYZ[0], toXYZ[1], toXYZ[2]);
+	}
+
+	/**
+	 * Add ray
+	 * @param from x
+	 * @param from y
+	 * @param from z
+	 * @param to x
+	 * @param to y
+	 * @param to z
+	 * @return ray index
+	 */
+	public int addRay(float fromX, float fromY, float fromZ, float toX, float toY, float toZ) {
+		ensureCapacity(rayCount + 1);
+		int offset = rayCount * 6;
+		rays[offset + 0] = fromX;
+		rays[offset + 1] = fromY;
+		rays[offset + 2] = fromZ;
+		rays[offset + 3] = toX;
+		rays[offset + 4] = toY;
+		rays[offset + 5] = toZ;
+		hitRigidBodies[rayCount] = null;
+		return rayCount++;
+	}
+
+	/**
+	 * @return ray count
+	 */
+	public int getRayCount() {
+		return rayCount;
+	}
+
+	/**
+	 * Get ray start
+	 * @param ray index
+	 * @param from
+	 */
+	protected void getFrom(int rayIdx, Vector3 from) {
+		int offset = rayIdx * 6;
+		from.set(rays[offset + 0], rays[offset + 1], rays[offset + 2]);
+	}
+
+	/**
+	 * Get ray end
+	 * @param ray index
+	 * @param to
+	 */
+	protected void getTo(int rayIdx, Vector3 to) {
+		int offset = rayIdx * 6;
+		to.set(rays[offset + 3], rays[offset + 4], rays[offset + 5]);
+	}
+
+	/**
+	 * Store result of given ray
+	 * @param ray index
+	 * @param hit
+	 */
+	protected void setResult(int rayIdx, RayCastHit hit) {
+		hitRigidBodies[rayIdx] = hit.rigidBody;
+		hitFractions[rayIdx] = hit.fraction;
+		System.arraycopy(hit.point.getArray(), 0, hitPoints, rayIdx * 3, 3);
+		System.arraycopy(hit.normal.getArray(), 0, hitNormals, rayIdx * 3, 3);
+	}
+
+	/**
+	 * @param ray index
+	 * @return if ray hit a rigid body
+	 */
+	public boolean hasHit(int rayIdx) {
+		return hitRigidBodies[rayIdx] != null;
+	}
+
+	/**
+	 * @param ray index
+	 * @return rigid body hit by ray or null
+	 */
+	public RigidBody getHitRigidBody(int rayIdx) {
+		return hitRigidBodies[rayIdx];
+	}
+
+	/**
+	 * @param ray index
+	 * @return fraction of ray where hit occurred
+	 */
+	public float getHitFraction(int rayIdx) {
+		return hitFractions[rayIdx];
+	}
+
+	/**
+	 * Get hit point
+	 * @param ray index
+	 * @param hit point
+	 * @return hit point
+	 */
+	public Vector3 getHitPoint(int rayIdx, Vector3 hitPoint) {
+		int offset = rayIdx * 3;
+		return hitPoint.set(hitPoints[offset + 0], hitPoints[offset + 1], hitPoints[offset + 2]);
+	}
+
+	/**
+	 * Get hit normal
+	 * @param ray index
+	 * @param hit normal
+	 * @return hit normal
+	 */
+	public Vector3 getHitNormal(int rayIdx, Vector3 hitNormal) {
+		int offset = rayIdx * 3;
+		return hitNormal.set(hitNormals[offset + 0], hitNormals[offset + 1], hitNormals[offset + 2]);
+	}
+
+}
@@ -0,0 +1,90 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.math.Vector3;
+
+/**
+ * Ray cast and shape cast hit
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class RayCastHit {
+
+	protected RigidBody rigidBody;
+	protected float fraction;
+	protected Vector3 point;
+	protected Vector3 normal;
+
+	/**
+	 * Public constructor
+	 */
+	public RayCastHit() {
+		rigidBody = null;
+		fraction = 1f;
+		point = new Vector3();
+		normal = new Vector3();
+	}
+
+	/**
+	 * Reset
+	 * @param max fraction to accept hits for
+	 */
+	protected void reset(float fraction) {
+		this.rigidBody = null;
+		this.fraction = fraction;
+		this.point.set(0f, 0f, 0f);
+		this.normal.set(0f, 0f, 0f);
+	}
+
+	/**
+	 * Set up this hit from given hit
+	 * @param hit
+	 */
+	protected void set(RayCastHit hit) {
+		this.rigidBody = hit.rigidBody;
+		this.fraction = hit.fraction;
+		this.point.set(hit.point);
+		this.normal.set(hit.normal);
+	}
+
+	/**
+	 * @return hit rigid body or null
+	 */
+	public RigidBody getRigidBody() {
+		return rigidBody;
+	}
+
+	/**
+	 * @return fraction of cast from start to end where hit occurred, 0 if cast started in overlap
+	 */
+	public float getFraction() {
+		return fraction;
+	}
+
+	/**
+	 * @return hit point
+	 */
+	public Vector3 getPoint() {
+		return point;
+	}
+
+	/**
+	 * @return hit normal, pointing from hit rigid body to cast
+	 */
+	public Vector3 getNormal() {
+		return normal;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return
+			"RayCastHit [rigidBody=" + (rigidBody == null?null:rigidBody.id) +
+			", fraction=" + fraction +
+			", point=" + point +
+			", normal=" + normal +
+			"]";
+	}
+
+}
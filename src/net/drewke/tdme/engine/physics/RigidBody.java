@@ -26,6 +26,8 @@
 
 package net.drewke.tdme.engine.physics;
 
+import java.nio.ByteBuffer;
+
 import net.drewke.tdme.engine.Rotation;
 import net.drewke.tdme.engine.Transformations;
 import net.drewke.tdme.engine.primitives.BoundingVolume;
@@ -50,6 +52,9 @@ public final class RigidBody {
 	private final static float VELOCITY_SLEEPTOLERANCE = 1.0f;
 	private final static int SLEEPING_FRAMES = 5 * 60;
 
+	// state size in bytes, flags and sleeping frame count, positions, orientations, velocities, force, torque and movement
+	protected final static int STATE_SIZE = 2 * 4 + (3 + 3 + 4 + 4 + 3 + 3 + 3 + 3 + 3 + 3 + 3) * 4;
+
 	protected World world;
 
 	protected int idx;
@@ -64,6 +69,7 @@ public final class RigidBody {
 	protected boolean isStatic;
 	protected boolean isSleeping;
 	private int sleepingFrameCount;
+	protected int islandIdx;
 
 	protected Transformations transformations;
 	protected BoundingVolume obv;
@@ -82,14 +88,20 @@ public final class RigidBody {
 	// rigid body movement
 	protected Vector3 movement = new Vector3();
 
+	// continuous collision detection
+	protected boolean ccdEnabled;
+	protected float ccdMotionThreshold;
+
 	// rigid body linear
 	protected Vector3 position = new Vector3();
+	protected Vector3 positionLast = new Vector3();
 	protected Vector3 linearVelocity = new Vector3();
 	protected Vector3 linearVelocityLast = new Vector3();
 	protected Vector3 force = new Vector3();
 
 	// rigid body angular
 	protected Quaternion orientation = new Quaternion();
+	protected Quaternion orientationLast = new Quaternion();
 	protected Vector3 angularVelocity = new Vector3();
 	protected Vector3 angularVelocityLast = new Vector3();
 	protected Vector3 torque = new Vector3();
@@ -192,6 +204,9 @@ public final class RigidBody {
 		this.friction = friction;
 		this.isSleeping = false;
 		this.sleepingFrameCount = 0;
+		this.islandIdx = -1;
+		this.ccdEnabled = false;
+		this.ccdMotionThreshold = 0f;
 		setBoundingVolume(obv);
 		setMass(mass);
 		synch(transformations);
@@ -268,6 +283,38 @@ public final class RigidBody {
 		this.enabled = enabled;
 	}
 
+	/**
+	 * @return if continuous collision detection against static rigid bodies is enabled
+	 */
+	public boolean isCCDEnabled() {
+		return ccdEnabled;
+	}
+
+	/**
+	 * Set up if continuous collision detection against static rigid bodies is enabled,
+	 * 	meant for small or fast moving rigid bodies like projectiles which would otherwise pass through thin static rigid bodies
+	 * @param ccd enabled
+	 */
+	public void setCCDEnabled(boolean ccdEnabled) {
+		this.ccdEnabled = ccdEnabled;
+	}
+
+	/**
+	 * @return movement per update from which on continuous collision detection is done, 0 for swept sphere radius
+	 */
+	public float getCCDMotionThreshold() {
+		return ccdMotionThreshold;
+	}
+
+	/**
+	 * Set up movement per update from which on continuous collision detection is done,
+	 * 	0 uses radius of swept sphere, see World::computeCCDRadius()
+	 * @param ccd motion threshold
+	 */
+	public void setCCDMotionThreshold(float ccdMotionThreshold) {
+		this.ccdMotionThreshold = ccdMotionThreshold;
+	}
+
 	/**
 	 * @return object is static
 	 */
@@ -415,6 +462,22 @@ public final class RigidBody {
 		sleepingFrameCount = 0;
 	}
 
+	/**
+	 * @return if rigid body has been at rest long enough to sleep
+	 */
+	protected boolean isAtRest() {
+		return sleepingFrameCount >= SLEEPING_FRAMES;
+	}
+
+	/**
+	 * Put rigid body to sleep as its island is at rest
+	 */
+	protected void sleepAtRest() {
+		sleep();
+		linearVelocity.set(0f,0f,0f);
+		angularVelocity.set(0f,0f,0f);
+	}
+
 	/**
 	 * Compute world inverse inertia
 	 */
@@ -442,6 +505,8 @@ public final class RigidBody {
 		}
 		this.orientation.getArray()[1]*=-1f;
 		this.orientation.normalize();
+		this.positionLast.set(this.position);
+		this.orientationLast.set(this.orientation);
 		this.awake(true);
 	}
 
@@ -479,11 +544,11 @@ public final class RigidBody {
 	protected void update(float deltaTime) {
 		if (isSleeping == true) return;
 
-		// check if to put object into sleep
+		// check if to put object into sleep, rigid bodies in a island are put to sleep with their island
 		if (linearVelocity.computeLength() < VELOCITY_SLEEPTOLERANCE &&
 			angularVelocity.computeLength() < VELOCITY_SLEEPTOLERANCE) {
 			sleepingFrameCount++;
-			if (sleepingFrameCount >= SLEEPING_FRAMES) {
+			if (sleepingFrameCount >= SLEEPING_FRAMES && islandIdx == -1) {
 				sleep();
 			}
 		} else {
@@ -527,6 +592,82 @@ public final class RigidBody {
 		computeWorldInverseInertiaMatrix();
 	}
 
+	/**
+	 * Save state into given buffer at its position, see STATE_SIZE
+	 * @param buffer
+	 */
+	protected void saveState(ByteBuffer buffer) {
+		buffer.putInt((enabled == true?1:0) | (isSleeping == true?2:0));
+		buffer.putInt(sleepingFrameCount);
+		putFloats(buffer, position.getArray());
+		putFloats(buffer, positionLast.getArray());
+		putFloats(buffer, orientation.getArray());
+		putFloats(buffer, orientationLast.getArray());
+		putFloats(buffer, linearVelocity.getArray());
+		putFloats(buffer, linearVelocityLast.getArray());
+		putFloats(buffer, angularVelocity.getArray());
+		putFloats(buffer, angularVelocityLast.getArray());
+		putFloats(buffer, force.getArray());
+		putFloats(buffer, torque.getArray());
+		putFloats(buffer, movement.getArray());
+	}
+
+	/**
+	 * Restore state from given buffer at its position,
+	 * 	enabled state is restored without updating partition, transformations and bounding volumes are not updated
+	 * @param buffer
+	 * @return if position or orientation has been changed
+	 */
+	protected boolean restoreState(ByteBuffer buffer) {
+		int flags = buffer.getInt();
+		enabled = (flags & 1) != 0;
+		isSleeping = (flags & 2) != 0;
+		sleepingFrameCount = buffer.getInt();
+		boolean moved = false;
+		if (getFloats(buffer, position.getArray()) == true) moved = true;
+		getFloats(buffer, positionLast.getArray());
+		if (getFloats(buffer, orientation.getArray()) == true) moved = true;
+		getFloats(buffer, orientationLast.getArray());
+		getFloats(buffer, linearVelocity.getArray());
+		getFloats(buffer, linearVelocityLast.getArray());
+		getFloats(buffer, angularVelocity.getArray());
+		getFloats(buffer, angularVelocityLast.getArray());
+		getFloats(buffer, force.getArray());
+		getFloats(buffer, torque.getArray());
+		getFloats(buffer, movement.getArray());
+		if (moved == true) computeWorldInverseInertiaMatrix();
+		return moved;
+	}
+
+	/**
+	 * Put given values into buffer
+	 * @param buffer
+	 * @param values
+	 */
+	private static void putFloats(ByteBuffer buffer, float[] values) {
+		for (int i = 0; i < values.length; i++) {
+			buffer.putFloat(values[i]);
+		}
+	}
+
+	/**
+	 * Get values from buffer
+	 * @param buffer
+	 * @param values
+	 * @return if values have been changed
+	 */
+	private static boolean getFloats(ByteBuffer buffer, float[] values) {
+		boolean changed = false;
+		for (int i = 0; i < values.length; i++) {
+			float value = buffer.getFloat();
+			if (value != values[i]) {
+				values[i] = value;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
 	/**
 	 * @return if velocity has been changed
 	 */
@@ -552,6 +693,13 @@ public final class RigidBody {
 		collisionListener.remove(listener);
 	}
 
+	/**
+	 * @return if rigid body has collision listeners
+	 */
+	protected boolean hasCollisionListener() {
+		return collisionListener.isEmpty() == false;
+	}
+
 	/**
 	 * Fire on collision 
 	 * @param other
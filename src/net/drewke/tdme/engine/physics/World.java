@@ -26,6 +26,15 @@
 
 package net.drewke.tdme.engine.physics;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
 import net.drewke.tdme.engine.Engine;
 import net.drewke.tdme.engine.Entity;
 import net.drewke.tdme.engine.Rotation;
@@ -33,16 +42,22 @@ import net.drewke.tdme.engine.Rotations;
 import net.drewke.tdme.engine.Transformations;
 import net.drewke.tdme.engine.primitives.BoundingBox;
 import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.engine.primitives.Capsule;
+import net.drewke.tdme.engine.primitives.ConvexMesh;
+import net.drewke.tdme.engine.primitives.HeightField;
 import net.drewke.tdme.engine.primitives.LineSegment;
 import net.drewke.tdme.engine.primitives.OrientedBoundingBox;
+import net.drewke.tdme.engine.primitives.Sphere;
+import net.drewke.tdme.engine.primitives.TriangleMesh;
 import net.drewke.tdme.math.MathTools;
 import net.drewke.tdme.math.Matrix4x4;
+import net.drewke.tdme.math.Quaternion;
 import net.drewke.tdme.math.Vector3;
 import net.drewke.tdme.utils.ArrayList;
+import net.drewke.tdme.utils.ArrayListIteratorMultiple;
 import net.drewke.tdme.utils.Console;
 import net.drewke.tdme.utils.HashMap;
-import net.drewke.tdme.utils.Key;
-import net.drewke.tdme.utils.Pool;
+import net.drewke.tdme.utils.LongHashSet;
 
 /**
  * Physics
@@ -51,6 +66,157 @@ import net.drewke.tdme.utils.Pool;
  */
 public final class World {
 
+	private final static float CCD_PENETRATION = 0.1f;
+
+	/**
+	 * Narrow phase used for convex meshes colliding with convex bounding volumes,
+	 * 	SAT uses dedicated tests per bounding volume pair, which test separating axes per convex mesh triangle,
+	 * 	GJK_EPA uses GJK and EPA on support points, see CollisionDetection::doCollideGJKEPA()
+	 */
+	public enum NarrowPhase {SAT, GJK_EPA};
+
+	/**
+	 * Bounding volume copies of rigid bodies for worker threads,
+	 * 	bounding volumes use temporary variables internally so they can not be shared between threads
+	 * @author Andreas Drewke
+	 * @version $Id$
+	 */
+	private final class BoundingVolumeCopies {
+
+		private BoundingVolume[] cbvs = new BoundingVolume[0];
+		private RigidBody[] cbvsRigidBodies = new RigidBody[0];
+		private int[] cbvsFrame = new int[0];
+
+		/**
+		 * Get bounding volume copy of given rigid body for current frame
+		 * @param rigid body
+		 * @return bounding volume
+		 */
+		private BoundingVolume getBoundingVolume(RigidBody rigidBody) {
+			if (rigidBody.idx >= cbvs.length) {
+				int newCapacity = cbvs.length < 16?16:cbvs.length;
+				while (newCapacity <= rigidBody.idx) newCapacity*= 2;
+				BoundingVolume[] newCbvs = new BoundingVolume[newCapacity];
+				RigidBody[] newCbvsRigidBodies = new RigidBody[newCapacity];
+				int[] newCbvsFrame = new int[newCapacity];
+				System.arraycopy(cbvs, 0, newCbvs, 0, cbvs.length);
+				System.arraycopy(cbvsRigidBodies, 0, newCbvsRigidBodies, 0, cbvsRigidBodies.length);
+				System.arraycopy(cbvsFrame, 0, newCbvsFrame, 0, cbvsFrame.length);
+				cbvs = newCbvs;
+				cbvsRigidBodies = newCbvsRigidBodies;
+				cbvsFrame = newCbvsFrame;
+			}
+			// rigid body indices get reused if rigid bodies are removed, so copy must belong to given rigid body
+			BoundingVolume cbv = cbvs[rigidBody.idx];
+			if (cbv == null || cbvsRigidBodies[rigidBody.idx] != rigidBody || cbv.getClass() != rigidBody.cbv.getClass()) {
+				cbv = rigidBody.cbv.clone();
+				cbvs[rigidBody.idx] = cbv;
+				cbvsRigidBodies[rigidBody.idx] = rigidBody;
+			} else
+			if (cbvsFrame[rigidBody.idx] != frame) {
+				cbv.fromBoundingVolume(rigidBody.cbv);
+			}
+			cbvsFrame[rigidBody.idx] = frame;
+			return cbv;
+		}
+
+	}
+
+	/**
+	 * Collision test worker,
+	 * 	tests every n-th collision test of current frame using own bounding volume copies and collision responses
+	 * @author Andreas Drewke
+	 * @version $Id$
+	 */
+	private final class CollisionTestWorker implements Callable<Void> {
+
+		private int workerIdx;
+		private Vector3 collisionMovement = new Vector3();
+		private ArrayList<CollisionResponse> collisionResponses = new ArrayList<CollisionResponse>();
+		private BoundingVolumeCopies boundingVolumeCopies = new BoundingVolumeCopies();
+
+		/**
+		 * Public constructor
+		 * @param worker idx
+		 */
+		private CollisionTestWorker(int workerIdx) {
+			this.workerIdx = workerIdx;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		public Void call() {
+			int collisionResponseIdx = 0;
+			for (int i = workerIdx; i < collisionTestCount; i+= workerThreads) {
+				long rigidBodyKey = collisionTests[i];
+				RigidBody rigidBody1 = rigidBodies.get(LongHashSet.unpackFirst(rigidBodyKey));
+				RigidBody rigidBody2 = rigidBodies.get(LongHashSet.unpackSecond(rigidBodyKey));
+
+				// determine collision movement
+				collisionMovement.set(rigidBody1.movement);
+				if (collisionMovement.computeLength() < MathTools.EPSILON) {
+					collisionMovement.set(rigidBody2.movement);
+					collisionMovement.scale(-1f);
+				}
+
+				// use next collision response
+				if (collisionResponseIdx == collisionResponses.size()) {
+					collisionResponses.add(new CollisionResponse());
+				}
+				CollisionResponse collision = collisionResponses.get(collisionResponseIdx);
+
+				// do collision test, keep collision response on hit
+				if (doesCollideWith(boundingVolumeCopies.getBoundingVolume(rigidBody1), boundingVolumeCopies.getBoundingVolume(rigidBody2), collisionMovement, collision) == true &&
+					collision.hasPenetration() == true &&
+					collision.getHitPointsCount() > 0) {
+					collisionTestResponses[i] = collision;
+					collisionResponseIdx++;
+				} else {
+					collisionTestResponses[i] = null;
+				}
+			}
+			return null;
+		}
+
+	}
+
+	/**
+	 * Ray cast worker,
+	 * 	casts every n-th ray of current ray cast batch against its candidates using own bounding volume copies
+	 * @author Andreas Drewke
+	 * @version $Id$
+	 */
+	private final class RayCastWorker implements Callable<Void> {
+
+		private int workerIdx;
+		private BoundingVolumeCopies boundingVolumeCopies = new BoundingVolumeCopies();
+		private RayCastHit hit = new RayCastHit();
+		private Vector3 from = new Vector3();
+		private Vector3 to = new Vector3();
+
+		/**
+		 * Public constructor
+		 * @param worker idx
+		 */
+		private RayCastWorker(int workerIdx) {
+			this.workerIdx = workerIdx;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		public Void call() {
+			for (int i = workerIdx; i < rayCastBatch.getRayCount(); i+= workerThreads) {
+				castBatchRay(i, from, to, hit, boundingVolumeCopies);
+			}
+			return null;
+		}
+
+	}
+
 	// partition
 	protected Partition partition = new PartitionOctTree();
 
@@ -58,25 +224,18 @@ public final class World {
 	private ArrayList<RigidBody> rigidBodies = new ArrayList<RigidBody>();
 	private ArrayList<RigidBody> rigidBodiesDynamic = new ArrayList<RigidBody>();
 	private HashMap<String, RigidBody> rigidBodiesById = new HashMap<String, RigidBody>();
+	private boolean rigidBodiesLocked = false;
+	private ArrayList<RigidBody> rigidBodiesRemoved = new ArrayList<RigidBody>();
 
-	private HashMap<Key, Key> rigidBodyTestedCollisions = new HashMap<Key, Key>();
-
-	private Pool<Key> rigidBodyCollisionsKeyPoolCurrentFrame = new Pool<Key>() {
-		protected Key instantiate() {
-			return new Key();
-		}
-	};
-	private HashMap<Key, Key> rigidBodyCollisionsCurrentFrame = new HashMap<Key, Key>();
-
-	private Pool<Key> rigidBodyCollisionsKeyPoolLastFrame = new Pool<Key>() {
-		protected Key instantiate() {
-			return new Key();
-		}
-	};
-	private HashMap<Key, Key> rigidBodyCollisionsLastFrame = new HashMap<Key, Key>();
+	private LongHashSet rigidBodyTestedCollisions = new LongHashSet();
+	private int collisionTestCount = 0;
+	private long[] collisionTests = new long[0];
+	private LongHashSet rigidBodyCollisionsCurrentFrame = new LongHashSet();
+	private LongHashSet rigidBodyCollisionsLastFrame = new LongHashSet();
 
 	//
 	private Vector3 collisionMovement = new Vector3();
+	private Vector3 tmpVector3 = new Vector3();
 	private Vector3 worldPosForce = new Vector3();
 	private Vector3 gravityForce = new Vector3();
 
@@ -97,6 +256,63 @@ public final class World {
 
 	private ArrayList<RigidBody> collidedRigidBodies = new ArrayList<RigidBody>();
 
+	// contact events, collision end events of rigid bodies removed outside of updates get appended
+	private ContactEventBuffer contactEvents = new ContactEventBuffer();
+	private ContactEventBuffer contactEventsRemoved = new ContactEventBuffer();
+	private ArrayList<ContactEventListener> contactEventListeners = new ArrayList<ContactEventListener>();
+	private CollisionResponse contactEventCollision = new CollisionResponse();
+
+	// statistics
+	private PhysicsStatistics statistics = new PhysicsStatistics();
+
+	// casts
+	private BoundingBox castBoundingBox = new BoundingBox();
+	private Vector3 castFrom = new Vector3();
+	private Vector3 castTo = new Vector3();
+	private RayCastHit castHit = new RayCastHit();
+	private int castQuery = 0;
+	private int[] castQueries = new int[0];
+	private int castCandidateCount = 0;
+	private RigidBody[] castCandidateRigidBodies = new RigidBody[0];
+	private float[] castCandidateFractions = new float[0];
+	private int[] castCandidateOffsets = new int[0];
+	private RayCastBatch rayCastBatch = null;
+
+	// continuous collision detection
+	private RayCastHit ccdHit = new RayCastHit();
+	private RayCastHit ccdCandidateHit = new RayCastHit();
+	private Vector3 ccdFrom = new Vector3();
+	private Vector3 ccdTo = new Vector3();
+	private Vector3 ccdAxis = new Vector3();
+
+	// narrow phase
+	private NarrowPhase narrowPhase = NarrowPhase.SAT;
+
+	// deterministic mode
+	private boolean deterministic = false;
+
+	// solver
+	private int solverIterations = ConstraintsSolver.ITERATIONS_DEFAULT;
+	private float solverLambdaTolerance = 0f;
+
+	// fixed time step
+	private float fixedTimeStep = 1f / 60f;
+	private int maxSubSteps = 5;
+	private float timeAccumulator = 0f;
+	private float interpolationAlpha = 1f;
+	private Transformations interpolatedTransformations = new Transformations();
+	private Vector3 interpolatedPosition = new Vector3();
+	private Quaternion interpolatedOrientation = new Quaternion();
+
+	// worker threads
+	private int frame = 0;
+	private int workerThreads = 1;
+	private ExecutorService workerThreadPool = null;
+	private ArrayList<CollisionTestWorker> collisionTestWorkers = new ArrayList<CollisionTestWorker>();
+	private ArrayList<Future<Void>> collisionTestWorkerFutures = new ArrayList<Future<Void>>();
+	private ArrayList<RayCastWorker> rayCastWorkers = new ArrayList<RayCastWorker>();
+	private CollisionResponse[] collisionTestResponses = new CollisionResponse[0];
+
 	/**
 	 * Constructor
 	 */
@@ -108,7 +324,15 @@ public final class World {
 	 */
 	public void reset() {
 		rigidBodies.clear();
+		rigidBodiesDynamic.clear();
+		rigidBodiesById.clear();
+		rigidBodiesRemoved.clear();
+		rigidBodyCollisionsCurrentFrame.clear();
+		rigidBodyCollisionsLastFrame.clear();
+		contactEvents.clear();
+		contactEventsRemoved.clear();
 		partition.reset();
+		constraintsSolver = null;
 	}
 
 	/**
@@ -119,11 +343,164 @@ public final class World {
 	}
 
 	/**
-	 * Set partition algorithm
+	 * Set partition algorithm, enabled rigid bodies will be added to given partition
 	 * @param partition
 	 */
 	public void setPartition(Partition partition) {
 		this.partition = partition;
+		this.partition.reset();
+		for (int i = 0; i < rigidBodies.size(); i++) {
+			RigidBody rigidBody = rigidBodies.get(i);
+			if (rigidBody.enabled == true) this.partition.addRigidBody(rigidBody);
+		}
+	}
+
+	/**
+	 * @return number of solver iterations
+	 */
+	public int getSolverIterations() {
+		return solverIterations;
+	}
+
+	/**
+	 * Set number of solver iterations
+	 * @param solver iterations
+	 */
+	public void setSolverIterations(int solverIterations) {
+		this.solverIterations = solverIterations;
+		if (constraintsSolver != null) constraintsSolver.setIterations(solverIterations);
+	}
+
+	/**
+	 * @return solver lambda tolerance
+	 */
+	public float getSolverLambdaTolerance() {
+		return solverLambdaTolerance;
+	}
+
+	/**
+	 * Set solver lambda tolerance, solver iterations stop early if the largest lambda change of a iteration is below tolerance,
+	 * 	0 disables early exit
+	 * @param solver lambda tolerance
+	 */
+	public void setSolverLambdaTolerance(float solverLambdaTolerance) {
+		this.solverLambdaTolerance = solverLambdaTolerance;
+		if (constraintsSolver != null) constraintsSolver.setLambdaTolerance(solverLambdaTolerance);
+	}
+
+	/**
+	 * @return narrow phase used for convex meshes
+	 */
+	public NarrowPhase getNarrowPhase() {
+		return narrowPhase;
+	}
+
+	/**
+	 * Set narrow phase used for convex meshes colliding with convex bounding volumes,
+	 * 	height fields and triangle meshes are always tested per triangle
+	 * @param narrow phase
+	 */
+	public void setNarrowPhase(NarrowPhase narrowPhase) {
+		this.narrowPhase = narrowPhase;
+	}
+
+	/**
+	 * @return if deterministic mode is enabled
+	 */
+	public boolean isDeterministic() {
+		return deterministic;
+	}
+
+	/**
+	 * Set deterministic mode, collision tests are done ordered by rigid body indices independent of partition algorithm,
+	 * 	so same rigid bodies and inputs reproduce bit identical states, see WorldReplay
+	 * @param deterministic
+	 */
+	public void setDeterministic(boolean deterministic) {
+		this.deterministic = deterministic;
+	}
+
+	/**
+	 * @return fixed time step used by step()
+	 */
+	public float getFixedTimeStep() {
+		return fixedTimeStep;
+	}
+
+	/**
+	 * Set fixed time step used by step()
+	 * @param fixed time step
+	 */
+	public void setFixedTimeStep(float fixedTimeStep) {
+		this.fixedTimeStep = fixedTimeStep;
+	}
+
+	/**
+	 * @return max sub steps per step()
+	 */
+	public int getMaxSubSteps() {
+		return maxSubSteps;
+	}
+
+	/**
+	 * Set max sub steps per step(), time exceeding max sub steps gets dropped
+	 * @param max sub steps
+	 */
+	public void setMaxSubSteps(int maxSubSteps) {
+		this.maxSubSteps = maxSubSteps;
+	}
+
+	/**
+	 * @return interpolation alpha between last and current state of rigid bodies, used by synch()
+	 */
+	public float getInterpolationAlpha() {
+		return interpolationAlpha;
+	}
+
+	/**
+	 * @return number of worker threads used for collision tests, solving islands and ray cast batches
+	 */
+	public int getWorkerThreads() {
+		return workerThreads;
+	}
+
+	/**
+	 * Set number of worker threads used for collision tests, solving islands and ray cast batches,
+	 * 	with more than 1 worker thread collision tests are done in parallel after collecting all collision tests of a frame,
+	 * 	results are processed in collision test order, so simulation stays reproducible,
+	 * 	independent islands are solved in parallel
+	 * @param worker threads
+	 */
+	public void setWorkerThreads(int workerThreads) {
+		if (workerThreads < 1) workerThreads = 1;
+		if (workerThreads == this.workerThreads) return;
+
+		// shut down current worker threads
+		if (workerThreadPool != null) {
+			workerThreadPool.shutdown();
+			workerThreadPool = null;
+		}
+		collisionTestWorkers.clear();
+		rayCastWorkers.clear();
+		if (constraintsSolver != null) constraintsSolver.setWorkerThreadPool(null, 1);
+
+		//
+		this.workerThreads = workerThreads;
+		if (workerThreads == 1) return;
+
+		// create worker threads
+		workerThreadPool = Executors.newFixedThreadPool(workerThreads, new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "tdme-physics-worker");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		for (int i = 0; i < workerThreads; i++) {
+			collisionTestWorkers.add(new CollisionTestWorker(i));
+			rayCastWorkers.add(new RayCastWorker(i));
+		}
+		if (constraintsSolver != null) constraintsSolver.setWorkerThreadPool(workerThreadPool, workerThreads);
 	}
 
 	/**
@@ -164,6 +541,94 @@ public final class World {
 		return rigidBody;
 	}
 
+	/**
+	 * Removes rigid body identified by id,
+	 * 	ongoing collisions of rigid body will fire on collision end,
+	 * 	if called while updating or dispatching contact events e.g. from a collision listener the rigid body gets removed afterwards
+	 * 	Note: the last rigid body takes over the index of the removed rigid body, removed rigid body must not be used anymore
+	 * @param id
+	 */
+	public void removeRigidBody(String id) {
+		RigidBody rigidBody = rigidBodiesById.remove(id);
+		if (rigidBody == null) return;
+		rigidBodiesRemoved.add(rigidBody);
+		if (rigidBodiesLocked == false) {
+			removeRigidBodies();
+			dispatchContactEvents(contactEventsRemoved);
+		}
+	}
+
+	/**
+	 * Removes rigid bodies marked for removal,
+	 * 	the last rigid body takes over the index of a removed rigid body to keep rigid bodies and indices dense,
+	 * 	collision end events get appended to contact events and are stored in removed contact events for dispatching them
+	 */
+	private void removeRigidBodies() {
+		rigidBodiesLocked = true;
+		contactEventsRemoved.clear();
+		for (int i = 0; i < rigidBodiesRemoved.size(); i++) {
+			RigidBody rigidBody = rigidBodiesRemoved.get(i);
+			int idx = rigidBody.idx;
+			int idxMoved = rigidBodies.size() - 1;
+			RigidBody rigidBodyMoved = null;
+			if (idxMoved != idx) {
+				rigidBodyMoved = rigidBodies.get(idxMoved);
+			} else {
+				idxMoved = -1;
+			}
+
+			// wake up rigid bodies near to rigid body as they might rest on it
+			if (rigidBody.enabled == true) {
+				for (RigidBody nearRigidBody: partition.getObjectsNearTo(rigidBody.cbv)) {
+					if (nearRigidBody == rigidBody || nearRigidBody.isStatic == true) continue;
+					nearRigidBody.awake(true);
+				}
+			}
+
+			// remove from partition, moved rigid body gets added again with its new index
+			if (rigidBody.enabled == true) partition.removeRigidBody(rigidBody);
+			if (rigidBodyMoved != null && rigidBodyMoved.enabled == true) partition.removeRigidBody(rigidBodyMoved);
+
+			// remove collisions of rigid body, they will fire on collision end,
+			//	iterate backwards as removing a key moves the last key into its index
+			for (int j = rigidBodyCollisionsLastFrame.size() - 1; j >= 0; j--) {
+				long rigidBodyCollisionKey = rigidBodyCollisionsLastFrame.get(j);
+				int idx1 = LongHashSet.unpackFirst(rigidBodyCollisionKey);
+				int idx2 = LongHashSet.unpackSecond(rigidBodyCollisionKey);
+				if (idx1 != idx && idx2 != idx) continue;
+				rigidBodyCollisionsLastFrame.remove(rigidBodyCollisionKey);
+				contactEvents.addEvent(ContactEventBuffer.EVENT_COLLISION_END, rigidBodies.get(idx1), rigidBodies.get(idx2), null);
+				contactEventsRemoved.addEvent(ContactEventBuffer.EVENT_COLLISION_END, rigidBodies.get(idx1), rigidBodies.get(idx2), null);
+			}
+
+			// re key collisions of moved rigid body
+			if (rigidBodyMoved != null) {
+				for (int j = rigidBodyCollisionsLastFrame.size() - 1; j >= 0; j--) {
+					long rigidBodyCollisionKey = rigidBodyCollisionsLastFrame.get(j);
+					int idx1 = LongHashSet.unpackFirst(rigidBodyCollisionKey);
+					int idx2 = LongHashSet.unpackSecond(rigidBodyCollisionKey);
+					if (idx1 != idxMoved && idx2 != idxMoved) continue;
+					rigidBodyCollisionsLastFrame.remove(rigidBodyCollisionKey);
+					rigidBodyCollisionsLastFrame.add(LongHashSet.pack(idx1 == idxMoved?idx:idx1, idx2 == idxMoved?idx:idx2));
+				}
+			}
+
+			// remove from contact cache
+			if (constraintsSolver != null) constraintsSolver.removeRigidBody(idx, idxMoved);
+
+			// compact rigid bodies
+			rigidBodies.remove(rigidBodies.size() - 1);
+			if (rigidBodyMoved != null) {
+				rigidBodies.set(idx, rigidBodyMoved);
+				rigidBodyMoved.idx = idx;
+				if (rigidBodyMoved.enabled == true) partition.addRigidBody(rigidBodyMoved);
+			}
+			rigidBodiesDynamic.remove(rigidBody);
+		}
+		rigidBodiesRemoved.clear();
+		rigidBodiesLocked = false;
+	}
+
 	/**
 	 * Returns rigid body identified by id 
 	 * @param id
@@ -173,17 +638,63 @@ public final class World {
 		return rigidBodiesById.get(id);
 	}
 
+	/**
+	 * Step world using fixed time steps,
+	 * 	delta time gets accumulated and world gets updated with fixed time step until accumulated time is consumed or max sub steps have been done,
+	 * 	remaining time is used as interpolation alpha for synch()
+	 * @param delta time
+	 * @return number of sub steps done
+	 */
+	public int step(float deltaTime) {
+		timeAccumulator+= deltaTime;
+		int subSteps = 0;
+		while (timeAccumulator >= fixedTimeStep && subSteps < maxSubSteps) {
+			// store last state for interpolation
+			for (int i = 0; i < rigidBodies.size(); i++) {
+				RigidBody rigidBody = rigidBodies.get(i);
+				rigidBody.positionLast.set(rigidBody.position);
+				rigidBody.orientationLast.set(rigidBody.orientation);
+			}
+
+			//
+			update(fixedTimeStep);
+			timeAccumulator-= fixedTimeStep;
+			subSteps++;
+		}
+
+		// drop time we could not simulate in max sub steps
+		if (timeAccumulator >= fixedTimeStep) {
+			timeAccumulator = timeAccumulator % fixedTimeStep;
+		}
+
+		//
+		interpolationAlpha = timeAccumulator / fixedTimeStep;
+		return subSteps;
+	}
+
 	/**
 	 * Update world
 	 * @param delta time
 	 */
 	public void update(float deltaTime) {
+		// rigid bodies to remove while updating get removed after update
+		rigidBodiesLocked = true;
+
+		// contact events of this update
+		contactEvents.clear();
+
+		// statistics of this update
+		statistics.beginFrame();
+		statistics.rigidBodyCount = rigidBodies.size();
+
 		// lazy initiate constraints solver
-		if (constraintsSolver == null) {
-			constraintsSolver = new ConstraintsSolver(rigidBodies);
-		}
+		initializeConstraintsSolver();
+
+		// no interpolation if updated directly
+		interpolationAlpha = 1f;
 
 		// apply gravity
+		statistics.beginPhase();
 		for (int i = 0; i < rigidBodies.size(); i++) {
 			// update rigid body
 			RigidBody rigidBody = rigidBodies.get(i);
@@ -203,7 +714,9 @@ public final class World {
 			}
 
 			// skip on sleeping
+			statistics.rigidBodyDynamicCount++;
 			if (rigidBody.isSleeping == true) {
+				statistics.rigidBodySleepingCount++;
 				continue;
 			}
 
@@ -216,179 +729,157 @@ public final class World {
 
 		// do the collision tests,
 		// take every rigid body with every other rigid body into account
+		// with worker threads, in deterministic mode or with statistics collision tests are only collected here and done afterwards
+		statistics.endPhase(PhysicsStatistics.PHASE_GRAVITY);
+		frame++;
 		int collisionsTests = 0;
+		int broadphasePairs = 0;
+		boolean collectCollisionTests = workerThreadPool != null || deterministic == true || statistics.isEnabled() == true;
 		rigidBodyTestedCollisions.clear();
-		for (int i = 0; i < rigidBodies.size(); i++) {
-			RigidBody rigidBody1 = rigidBodies.get(i);
-
-			// skip on disabled
-			if (rigidBody1.enabled == false) {
-				continue;
-			}
+		collisionTestCount = 0;
+		LongHashSet overlappingPairs = partition.getOverlappingPairs();
+		if (overlappingPairs != null) {
+			// partition reports each overlapping pair once, so no need for tested collisions
+			broadphasePairs = overlappingPairs.size();
+			for (int i = 0; i < overlappingPairs.size(); i++) {
+				long overlappingPair = overlappingPairs.get(i);
+				RigidBody rigidBody1 = rigidBodies.get(LongHashSet.unpackFirst(overlappingPair));
+				RigidBody rigidBody2 = rigidBodies.get(LongHashSet.unpackSecond(overlappingPair));
 
-			/**
-			for (int j = 0; j < rigidBodies.size(); j++) {
-				RigidBody rigidBody2 = rigidBodies.get(j);
-			*/
-
-			int nearObjects = 0;
-
-			// get objects near to can return a rigid body multiple times
-			// dont test test which had been done in reverse order
-			for (RigidBody rigidBody2: partition.getObjectsNearTo(rigidBody1.cbv)) {
 				// skip on disabled
-				if (rigidBody2.enabled == false) {
-					continue;
-				}
-
-				// skip if both are static
-				if (rigidBody1.isStatic == true &&
-					rigidBody2.isStatic == true) continue;
-
-				// skip on same rigid body
-				if (rigidBody1 == rigidBody2) continue;
-
-				// skip on rigid body 1 static, 2 non static and sleeping
-				if (rigidBody1.isStatic == true &&
-					rigidBody2.isStatic == false &&
-					rigidBody2.isSleeping == true) {
+				if (rigidBody1.enabled == false) {
 					continue;
 				}
 
-				// skip on rigid body 2 static, 1 non static and sleeping
-				if (rigidBody2.isStatic == true &&
-					rigidBody1.isStatic == false &&
-					rigidBody1.isSleeping == true) {
+				// check if we need to test collision
+				if (isCollisionTestRequired(rigidBody1, rigidBody2) == false) {
 					continue;
 				}
 
-				// check if rigid body 2 want to have collision with rigid body 1
-				if (((rigidBody1.typeId & rigidBody2.collisionTypeIds) == rigidBody1.typeId) == false) {
-					continue;
-				}
-
-				// check if rigid body 1 want to have collision with rigid body 2
-				if (((rigidBody2.typeId & rigidBody1.collisionTypeIds) == rigidBody2.typeId) == false) {
-					continue;
+				// test in both directions as done with objects near to rigid bodies
+				collisionsTests+= 2;
+				if (collectCollisionTests == true) {
+					addCollisionTest(overlappingPair);
+					addCollisionTest(LongHashSet.pack(rigidBody2.idx, rigidBody1.idx));
+				} else {
+					doCollisionTest(rigidBody1, rigidBody2, overlappingPair);
+					doCollisionTest(rigidBody2, rigidBody1, LongHashSet.pack(rigidBody2.idx, rigidBody1.idx));
 				}
-
-				//
-				nearObjects++;
-
-				// create rigidBody12 key
-				Key rigidBodyKey = constraintsSolver.allocateKey();
-				rigidBodyKey.reset();
-				rigidBodyKey.append(rigidBody1.idx);
-				rigidBodyKey.append(",");
-				rigidBodyKey.append(rigidBody2.idx);
-
-				// check if collision has been tested already
-				if (rigidBodyTestedCollisions.get(rigidBodyKey) != null) {
-					constraintsSolver.releaseKey();
-					continue;
-				}
-
-				/*
-				// create rigidbody21 key
-				rigidBodyKey.reset();
-				rigidBodyKey.append(rigidBody2.idx);
-				rigidBodyKey.append(",");
-				rigidBodyKey.append(rigidBody1.idx);
-
-				if (rigidBodyTestedCollisions.get(rigidBodyKey) != null) {
-					constraintsSolver.releaseKey();
+			}
+		} else {
+			for (int i = 0; i < rigidBodies.size(); i++) {
+				RigidBody rigidBody1 = rigidBodies.get(i);
+	
+				// skip on disabled
+				if (rigidBody1.enabled == false) {
 					continue;
 				}
-				*/
 	
-				// nope, add 12 key
-				rigidBodyTestedCollisions.put(rigidBodyKey, rigidBodyKey);
-
-				//
-				collisionsTests++;
-
-				// determine collision movement
-				collisionMovement.set(rigidBody1.movement);
-				if (collisionMovement.computeLength() < MathTools.EPSILON) {
-					collisionMovement.set(rigidBody2.movement);
-					collisionMovement.scale(-1f);
-				}
-
-				// do collision test
-				if (rigidBody1.cbv.doesCollideWith(rigidBody2.cbv, collisionMovement, collision) == true &&
-					collision.hasPenetration() == true) {
-
-					// check for hit point count
-					if (collision.getHitPointsCount() == 0) continue;
-
-					// we have a collision, so register it
-					Key rigidBodyCollisionKey = rigidBodyCollisionsKeyPoolCurrentFrame.allocate();
-					rigidBodyCollisionKey.reset();
-					rigidBodyCollisionKey.append(rigidBody1.idx);
-					rigidBodyCollisionKey.append(",");
-					rigidBodyCollisionKey.append(rigidBody2.idx);
-					rigidBodyCollisionsCurrentFrame.put(rigidBodyCollisionKey, rigidBodyCollisionKey);
-
-					// fire collision events
-					// 	on collision begin
-					if (rigidBodyCollisionsLastFrame.get(rigidBodyCollisionKey) == null) {
-						rigidBody1.fireOnCollisionBegin(rigidBody2, collision);
+				// get objects near to can return a rigid body multiple times
+				// dont test test which had been done in reverse order
+				for (RigidBody rigidBody2: partition.getObjectsNearTo(rigidBody1.cbv)) {
+					broadphasePairs++;
+
+					// check if we need to test collision
+					if (isCollisionTestRequired(rigidBody1, rigidBody2) == false) {
+						continue;
 					}
-					// 	on collision
-					rigidBody1.fireOnCollision(rigidBody2, collision);
-
-					// unset sleeping if both non static and colliding
-					if (rigidBody1.isStatic == false &&
-						rigidBody2.isStatic == false) {
-						rigidBody1.awake(true);
-						rigidBody2.awake(true);
+	
+					// check if collision has been tested already, if not mark as tested
+					long rigidBodyKey = LongHashSet.pack(rigidBody1.idx, rigidBody2.idx);
+					if (rigidBodyTestedCollisions.add(rigidBodyKey) == false) {
+						continue;
+					}
+	
+					//
+					collisionsTests++;
+					if (collectCollisionTests == true) {
+						addCollisionTest(rigidBodyKey);
+					} else {
+						doCollisionTest(rigidBody1, rigidBody2, rigidBodyKey);
 					}
-
-					// add constraint entity
-					constraintsSolver.allocateConstraintsEntity().set(rigidBody1, rigidBody2, constraintsSolver.allocateCollision().fromResponse(collision));
 				}
 			}
 		}
 
-		// fire on collision end
+		// in deterministic mode do collected collision tests ordered by rigid body indices,
+		//	packed keys sort by first and then second rigid body index
+		if (deterministic == true) {
+			Arrays.sort(collisionTests, 0, collisionTestCount);
+		}
+		statistics.broadphasePairCount = broadphasePairs;
+		statistics.narrowphaseTestCount = collisionsTests;
+		if (statistics.getMode() == PhysicsStatistics.Mode.FULL) {
+			for (int i = 0; i < collisionTestCount; i++) {
+				long rigidBodyKey = collisionTests[i];
+				statistics.addShapePairTest(
+					rigidBodies.get(LongHashSet.unpackFirst(rigidBodyKey)).cbv,
+					rigidBodies.get(LongHashSet.unpackSecond(rigidBodyKey)).cbv
+				);
+			}
+		}
+		statistics.endPhase(PhysicsStatistics.PHASE_BROADPHASE);
+
+		// do collected collision tests, in parallel if having worker threads
+		if (workerThreadPool != null) {
+			doCollisionTestsParallel();
+		} else
+		if (collectCollisionTests == true) {
+			for (int i = 0; i < collisionTestCount; i++) {
+				long rigidBodyKey = collisionTests[i];
+				doCollisionTest(
+					rigidBodies.get(LongHashSet.unpackFirst(rigidBodyKey)),
+					rigidBodies.get(LongHashSet.unpackSecond(rigidBodyKey)),
+					rigidBodyKey
+				);
+			}
+		}
+
+		// on collision end
 		//	check each collision last frame that disappeared in current frame
-		for (Key key: rigidBodyCollisionsLastFrame.getKeysIterator()) {
-			Key rigidBodyCollisionKey = rigidBodyCollisionsCurrentFrame.get(key);
-			if (rigidBodyCollisionKey == null) {
-				char[] keyData = key.getData();
-				int rigidBodyIdx1 = 0;
-				int rigidBodyIdx2 = 0;
-				rigidBodyIdx1+= (int)keyData[0] << 0;
-				rigidBodyIdx1+= (int)keyData[1] << 8;
-				rigidBodyIdx1+= (int)keyData[2] << 16;
-				rigidBodyIdx1+= (int)keyData[3] << 24;
-				rigidBodyIdx2+= (int)keyData[5] << 0;
-				rigidBodyIdx2+= (int)keyData[6] << 8;
-				rigidBodyIdx2+= (int)keyData[7] << 16;
-				rigidBodyIdx2+= (int)keyData[8] << 24;
-				RigidBody rigidBody1 = rigidBodies.get(rigidBodyIdx1);
-				RigidBody rigidBody2 = rigidBodies.get(rigidBodyIdx2);
-				rigidBody1.fireOnCollisionEnd(rigidBody2);
+		for (int i = 0; i < rigidBodyCollisionsLastFrame.size(); i++) {
+			long rigidBodyCollisionKey = rigidBodyCollisionsLastFrame.get(i);
+			if (rigidBodyCollisionsCurrentFrame.contains(rigidBodyCollisionKey) == false) {
+				RigidBody rigidBody1 = rigidBodies.get(LongHashSet.unpackFirst(rigidBodyCollisionKey));
+				RigidBody rigidBody2 = rigidBodies.get(LongHashSet.unpackSecond(rigidBodyCollisionKey));
+				contactEvents.addEvent(ContactEventBuffer.EVENT_COLLISION_END, rigidBody1, rigidBody2, null);
 			}
 		}
 
 		// swap rigid body collisions current and last frame
-		Pool<Key> rigidBodyCollisionsKeyPoolTmp = rigidBodyCollisionsKeyPoolLastFrame;
-		HashMap<Key, Key> rigidBodyCollisionsTmp = rigidBodyCollisionsLastFrame;
+		LongHashSet rigidBodyCollisionsTmp = rigidBodyCollisionsLastFrame;
 		rigidBodyCollisionsLastFrame = rigidBodyCollisionsCurrentFrame;
-		rigidBodyCollisionsKeyPoolLastFrame = rigidBodyCollisionsKeyPoolCurrentFrame;
 		rigidBodyCollisionsCurrentFrame = rigidBodyCollisionsTmp;
-		rigidBodyCollisionsKeyPoolCurrentFrame = rigidBodyCollisionsKeyPoolTmp;
 
 		// reset current frame
 		rigidBodyCollisionsCurrentFrame.clear();
-		rigidBodyCollisionsKeyPoolCurrentFrame.reset();
+		statistics.endPhase(PhysicsStatistics.PHASE_NARROWPHASE);
 
 		// do the solving
 		constraintsSolver.compute(deltaTime);
+		statistics.endPhase(PhysicsStatistics.PHASE_SOLVE);
 		constraintsSolver.updateAllBodies(deltaTime);
+		statistics.constraintsEntityCount = constraintsSolver.getConstraintsEntityCount();
+		statistics.constraintCount = constraintsSolver.getConstraintsCount();
+		statistics.islandCount = constraintsSolver.getIslandCount();
+		statistics.solverIterationCount = constraintsSolver.getIterationCount();
+		statistics.contactCacheLookupCount = constraintsSolver.getWarmStartCount();
+		statistics.contactCacheHitCount = constraintsSolver.getWarmStartHitCount();
 		constraintsSolver.reset();
 
+		// continuous collision detection of fast moving rigid bodies against static rigid bodies
+		for (int i = 0; i < rigidBodiesDynamic.size(); i++) {
+			RigidBody rigidBody = rigidBodiesDynamic.get(i);
+			if (rigidBody.ccdEnabled == false ||
+				rigidBody.enabled == false ||
+				rigidBody.isStatic == true ||
+				rigidBody.isSleeping == true) {
+				continue;
+			}
+			doContinuousCollisionDetection(rigidBody);
+		}
+		statistics.endPhase(PhysicsStatistics.PHASE_INTEGRATE);
+
 		// update transformations for rigid body 
 		for (int i = 0; i < rigidBodies.size(); i++) {
 			RigidBody rigidBody = rigidBodies.get(i);
@@ -404,25 +895,9 @@ public final class World {
 				continue;
 			}
 
-			// set up transformations, keep care that only 3 rotations exists (x, y, z axis)
-			Rotations rotations = rigidBody.transformations.getRotations();
-			while (rotations.size() > 1) {
-				rotations.remove(rotations.size() - 1);
-			}
-			while (rotations.size() < 1) {
-				rotations.add(new Rotation());
-			}
-	
-			// set up orientation
-			rotations.get(0).fromQuaternion(rigidBody.orientation);
-			rotations.get(0).getAxix().getArray()[1]*=-1f;
-
-			//	second set up position
+			// set up transformations
 			Transformations transformations = rigidBody.transformations;
-			transformations.getTranslation().set(rigidBody.position);
-
-			// update
-			transformations.update();
+			computeTransformations(rigidBody.position, rigidBody.orientation, transformations);
 
 			// update bounding volume
 			rigidBody.cbv.fromBoundingVolumeWithTransformations(rigidBody.obv, transformations);
@@ -430,6 +905,408 @@ public final class World {
 			// update partition
 			partition.updateRigidBody(rigidBody);
 		}
+		statistics.endPhase(PhysicsStatistics.PHASE_PARTITION_UPDATE);
+
+		// remove rigid bodies which have been removed while updating
+		rigidBodiesLocked = false;
+		if (rigidBodiesRemoved.isEmpty() == false) removeRigidBodies();
+
+		// fire contact events
+		statistics.contactEventCount = contactEvents.getEventCount();
+		statistics.beginPhase();
+		dispatchContactEvents(contactEvents);
+		statistics.endPhase(PhysicsStatistics.PHASE_CONTACT_EVENTS);
+
+		//
+		statistics.endFrame();
+	}
+
+	/**
+	 * @return statistics of world updates, see PhysicsStatistics::setMode()
+	 */
+	public PhysicsStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * @return contact events of last update followed by collision end events of rigid bodies removed since, valid until next update
+	 */
+	public ContactEventBuffer getContactEvents() {
+		return contactEvents;
+	}
+
+	/**
+	 * Add a contact event listener
+	 * @param listener
+	 */
+	public void addContactEventListener(ContactEventListener listener) {
+		contactEventListeners.add(listener);
+	}
+
+	/**
+	 * Remove a contact event listener
+	 * @param listener
+	 */
+	public void removeContactEventListener(ContactEventListener listener) {
+		contactEventListeners.remove(listener);
+	}
+
+	/**
+	 * Dispatch contact events to contact event listeners and rigid body collision listeners,
+	 * 	rigid bodies removed by listeners get removed afterwards and their collision end events get dispatched as well
+	 * @param events
+	 */
+	private void dispatchContactEvents(ContactEventBuffer events) {
+		while (true) {
+			rigidBodiesLocked = true;
+
+			// contact event listeners
+			for (int i = 0; i < contactEventListeners.size(); i++) {
+				contactEventListeners.get(i).onContactEvents(events);
+			}
+
+			// rigid body collision listeners
+			for (int i = 0; i < events.getEventCount(); i++) {
+				RigidBody rigidBody1 = events.getRigidBody1(i);
+				if (rigidBody1.hasCollisionListener() == false) continue;
+				RigidBody rigidBody2 = events.getRigidBody2(i);
+				switch (events.getType(i)) {
+					case ContactEventBuffer.EVENT_COLLISION_BEGIN:
+						rigidBody1.fireOnCollisionBegin(rigidBody2, events.getCollision(i, contactEventCollision));
+						break;
+					case ContactEventBuffer.EVENT_COLLISION:
+						rigidBody1.fireOnCollision(rigidBody2, events.getCollision(i, contactEventCollision));
+						break;
+					case ContactEventBuffer.EVENT_COLLISION_END:
+						rigidBody1.fireOnCollisionEnd(rigidBody2);
+						break;
+				}
+			}
+
+			//
+			rigidBodiesLocked = false;
+			if (rigidBodiesRemoved.isEmpty() == true) break;
+
+			// remove rigid bodies which have been removed by listeners and dispatch their collision end events
+			removeRigidBodies();
+			events = contactEventsRemoved;
+		}
+	}
+
+	/**
+	 * Lazy initiate constraints solver
+	 */
+	private void initializeConstraintsSolver() {
+		if (constraintsSolver != null) return;
+		constraintsSolver = new ConstraintsSolver(rigidBodies);
+		constraintsSolver.setWorkerThreadPool(workerThreadPool, workerThreads);
+		constraintsSolver.setIterations(solverIterations);
+		constraintsSolver.setLambdaTolerance(solverLambdaTolerance);
+	}
+
+	/**
+	 * Set up transformations from given position and orientation
+	 * @param position
+	 * @param orientation
+	 * @param transformations
+	 */
+	private void computeTransformations(Vector3 position, Quaternion orientation, Transformations transformations) {
+		// set up transformations, keep care that only 3 rotations exists (x, y, z axis)
+		Rotations rotations = transformations.getRotations();
+		while (rotations.size() > 1) {
+			rotations.remove(rotations.size() - 1);
+		}
+		while (rotations.size() < 1) {
+			rotations.add(new Rotation());
+		}
+
+		// set up orientation
+		rotations.get(0).fromQuaternion(orientation);
+		rotations.get(0).getAxix().getArray()[1]*=-1f;
+
+		//	second set up position
+		transformations.getTranslation().set(position);
+
+		// update
+		transformations.update();
+	}
+
+	/**
+	 * Check if collision test of given rigid bodies is required
+	 * @param rigid body 1
+	 * @param rigid body 2
+	 * @return if collision test is required
+	 */
+	private boolean isCollisionTestRequired(RigidBody rigidBody1, RigidBody rigidBody2) {
+		// skip on disabled
+		if (rigidBody2.enabled == false) {
+			return false;
+		}
+
+		// skip if both are static
+		if (rigidBody1.isStatic == true &&
+			rigidBody2.isStatic == true) return false;
+
+		// skip on same rigid body
+		if (rigidBody1 == rigidBody2) return false;
+
+		// skip on rigid body 1 static, 2 non static and sleeping
+		if (rigidBody1.isStatic == true &&
+			rigidBody2.isStatic == false &&
+			rigidBody2.isSleeping == true) {
+			return false;
+		}
+
+		// skip on rigid body 2 static, 1 non static and sleeping
+		if (rigidBody2.isStatic == true &&
+			rigidBody1.isStatic == false &&
+			rigidBody1.isSleeping == true) {
+			return false;
+		}
+
+		// check if rigid body 2 want to have collision with rigid body 1
+		if (((rigidBody1.typeId & rigidBody2.collisionTypeIds) == rigidBody1.typeId) == false) {
+			return false;
+		}
+
+		// check if rigid body 1 want to have collision with rigid body 2
+		if (((rigidBody2.typeId & rigidBody1.collisionTypeIds) == rigidBody2.typeId) == false) {
+			return false;
+		}
+
+		//
+		return true;
+	}
+
+	/**
+	 * Compute radius of sphere which is swept for continuous collision detection of given bounding volume,
+	 * 	capsules are swept as capsules, boxes and convex meshes by their inscribed sphere,
+	 * 	other bounding volumes by a sphere of their smallest half dimension along world axes
+	 * @param bounding volume
+	 * @return radius
+	 */
+	private float computeCCDRadius(BoundingVolume cbv) {
+		if (cbv instanceof Sphere) {
+			return ((Sphere)cbv).getRadius();
+		} else
+		if (cbv instanceof Capsule) {
+			return ((Capsule)cbv).getRadius();
+		} else
+		if (cbv instanceof OrientedBoundingBox) {
+			float[] halfExtensionXYZ = ((OrientedBoundingBox)cbv).getHalfExtension().getArray();
+			return Math.min(halfExtensionXYZ[0], Math.min(halfExtensionXYZ[1], halfExtensionXYZ[2]));
+		} else
+		if (cbv instanceof BoundingBox) {
+			float[] minXYZ = ((BoundingBox)cbv).getMin().getArray();
+			float[] maxXYZ = ((BoundingBox)cbv).getMax().getArray();
+			return Math.min(maxXYZ[0] - minXYZ[0], Math.min(maxXYZ[1] - minXYZ[1], maxXYZ[2] - minXYZ[2])) / 2f;
+		} else
+		if (cbv instanceof ConvexMesh) {
+			return ((ConvexMesh)cbv).computeInscribedRadius();
+		} else {
+			return Math.min(
+				cbv.computeDimensionOnAxis(ccdAxis.set(1f, 0f, 0f)),
+				Math.min(
+					cbv.computeDimensionOnAxis(ccdAxis.set(0f, 1f, 0f)),
+					cbv.computeDimensionOnAxis(ccdAxis.set(0f, 0f, 1f))
+				)
+			) / 2f;
+		}
+	}
+
+	/**
+	 * Do continuous collision detection of given rigid body against static rigid bodies,
+	 * 	sweeps rigid body bounding volume of last update along its movement and rewinds rigid body to time of impact,
+	 * 	the contact is then resolved by the following update
+	 * 	Static rigid bodies which rigid body already touches at start of movement are left to discrete collision detection
+	 * @param rigid body
+	 */
+	private void doContinuousCollisionDetection(RigidBody rigidBody) {
+		// rigid body bounding volume has not been updated yet, so it is still at start of movement
+		BoundingVolume cbv = rigidBody.cbv;
+		float radius = computeCCDRadius(cbv);
+		float movementLength = rigidBody.movement.computeLength();
+		if (movementLength < MathTools.EPSILON) return;
+		if (movementLength <= (rigidBody.ccdMotionThreshold > 0f?rigidBody.ccdMotionThreshold:radius)) return;
+
+		// determine static candidates along movement
+		float castRadius = cbv instanceof Capsule?cbv.getSphereRadius():radius;
+		ccdFrom.set(cbv.getCenter());
+		ccdTo.set(cbv.getCenter()).add(rigidBody.movement);
+		castCandidateCount = 0;
+		beginCastQuery();
+		for (RigidBody staticRigidBody: partition.getObjectsNearTo(computeCastBoundingBox(ccdFrom, ccdTo, cbv.getSphereRadius()))) {
+			if (staticRigidBody.isStatic == false) continue;
+			if (isCollisionTestRequired(rigidBody, staticRigidBody) == false) continue;
+			if (castQueries[staticRigidBody.idx] == castQuery) continue;
+			castQueries[staticRigidBody.idx] = castQuery;
+			addCastCandidate(staticRigidBody);
+		}
+		int candidates = sortCastCandidates(0, castCandidateCount, castRadius, ccdFrom, ccdTo, null);
+
+		// determine time of impact
+		CollisionDetection collisionDetection = CollisionDetection.getInstance();
+		ccdHit.reset(1f);
+		for (int i = 0; i < candidates; i++) {
+			if (castCandidateFractions[i] > ccdHit.fraction) break;
+			RigidBody staticRigidBody = castCandidateRigidBodies[i];
+			ccdCandidateHit.reset(ccdHit.fraction);
+			boolean hitUpdated;
+			if (cbv instanceof Capsule) {
+				hitUpdated = collisionDetection.doCapsuleCast(staticRigidBody.cbv, (Capsule)cbv, rigidBody.movement, ccdCandidateHit);
+			} else
+			if (radius > 0f) {
+				hitUpdated = collisionDetection.doSphereCast(staticRigidBody.cbv, radius, ccdFrom, ccdTo, ccdCandidateHit);
+			} else {
+				hitUpdated = collisionDetection.doRayCast(staticRigidBody.cbv, ccdFrom, ccdTo, ccdCandidateHit);
+			}
+
+			// take only hits into account which did not touch at start of movement
+			if (hitUpdated == true && ccdCandidateHit.fraction > 0f) {
+				ccdHit.set(ccdCandidateHit);
+				ccdHit.rigidBody = staticRigidBody;
+			}
+		}
+		if (ccdHit.rigidBody == null) return;
+
+		// rewind rigid body to time of impact, let it penetrate slightly, so the contact is picked up by next update
+		float fraction = Math.min(1f, ccdHit.fraction + CCD_PENETRATION * radius / movementLength);
+		rigidBody.position.sub(rigidBody.movement);
+		rigidBody.movement.scale(fraction);
+		rigidBody.position.add(rigidBody.movement);
+	}
+
+	/**
+	 * Check if bounding volume 1 collides with bounding volume 2 using narrow phase of this world
+	 * @param bounding volume 1
+	 * @param bounding volume 2
+	 * @param movement
+	 * @param collision response
+	 * @return if collided
+	 */
+	private boolean doesCollideWith(BoundingVolume bv1, BoundingVolume bv2, Vector3 movement, CollisionResponse collision) {
+		if (narrowPhase == NarrowPhase.GJK_EPA &&
+			(bv1 instanceof ConvexMesh || bv2 instanceof ConvexMesh) &&
+			CollisionDetection.isConvex(bv1) == true &&
+			CollisionDetection.isConvex(bv2) == true) {
+			return CollisionDetection.getInstance().doCollideGJKEPA(bv1, bv2, movement, collision);
+		}
+		return bv1.doesCollideWith(bv2, movement, collision);
+	}
+
+	/**
+	 * Do collision test of given rigid bodies, fire collision events and add constraints entity on collision
+	 * @param rigid body 1
+	 * @param rigid body 2
+	 * @param rigid body key, see LongHashSet.pack()
+	 */
+	private void doCollisionTest(RigidBody rigidBody1, RigidBody rigidBody2, long rigidBodyKey) {
+		// determine collision movement
+		collisionMovement.set(rigidBody1.movement);
+		if (collisionMovement.computeLength() < MathTools.EPSILON) {
+			collisionMovement.set(rigidBody2.movement);
+			collisionMovement.scale(-1f);
+		}
+
+		// do collision test
+		if (doesCollideWith(rigidBody1.cbv, rigidBody2.cbv, collisionMovement, collision) == true &&
+			collision.hasPenetration() == true) {
+
+			// check for hit point count
+			if (collision.getHitPointsCount() == 0) return;
+
+			//
+			doCollision(rigidBody1, rigidBody2, rigidBodyKey, collision);
+		}
+	}
+
+	/**
+	 * Add collision test to be done after collecting collision tests
+	 * @param rigid body key, see LongHashSet.pack()
+	 */
+	private void addCollisionTest(long rigidBodyKey) {
+		if (collisionTestCount == collisionTests.length) {
+			long[] newCollisionTests = new long[collisionTests.length < 16?16:collisionTests.length * 2];
+			System.arraycopy(collisionTests, 0, newCollisionTests, 0, collisionTestCount);
+			collisionTests = newCollisionTests;
+		}
+		collisionTests[collisionTestCount++] = rigidBodyKey;
+	}
+
+	/**
+	 * Do collision tests collected in collision tests in parallel using worker threads,
+	 * 	afterwards process collisions in collision test order
+	 */
+	private void doCollisionTestsParallel() {
+		// collision test responses
+		if (collisionTestResponses.length < collisionTestCount) {
+			collisionTestResponses = new CollisionResponse[collisionTestCount * 2];
+		}
+
+		// do the collision tests
+		collisionTestWorkerFutures.clear();
+		for (int i = 0; i < collisionTestWorkers.size(); i++) {
+			collisionTestWorkerFutures.add(workerThreadPool.submit(collisionTestWorkers.get(i)));
+		}
+
+		// wait until done
+		try {
+			for (int i = 0; i < collisionTestWorkerFutures.size(); i++) {
+				collisionTestWorkerFutures.get(i).get();
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("World::doCollisionTestsParallel(): interrupted", ie);
+		} catch (ExecutionException ee) {
+			throw new RuntimeException("World::doCollisionTestsParallel(): collision test failed", ee.getCause());
+		}
+
+		// process collisions
+		for (int i = 0; i < collisionTestCount; i++) {
+			CollisionResponse collision = collisionTestResponses[i];
+			if (collision == null) continue;
+			collisionTestResponses[i] = null;
+			long rigidBodyKey = collisionTests[i];
+			doCollision(
+				rigidBodies.get(LongHashSet.unpackFirst(rigidBodyKey)),
+				rigidBodies.get(LongHashSet.unpackSecond(rigidBodyKey)),
+				rigidBodyKey,
+				collision
+			);
+		}
+	}
+
+	/**
+	 * Register collision of given rigid bodies, buffer collision events and add constraints entity
+	 * @param rigid body 1
+	 * @param rigid body 2
+	 * @param rigid body key, see LongHashSet.pack()
+	 * @param collision
+	 */
+	private void doCollision(RigidBody rigidBody1, RigidBody rigidBody2, long rigidBodyKey, CollisionResponse collision) {
+		// we have a collision, so register it
+		rigidBodyCollisionsCurrentFrame.add(rigidBodyKey);
+		statistics.contactCount++;
+
+		// collision events
+		// 	on collision begin
+		if (rigidBodyCollisionsLastFrame.contains(rigidBodyKey) == false) {
+			contactEvents.addEvent(ContactEventBuffer.EVENT_COLLISION_BEGIN, rigidBody1, rigidBody2, collision);
+		}
+		// 	on collision
+		contactEvents.addEvent(ContactEventBuffer.EVENT_COLLISION, rigidBody1, rigidBody2, collision);
+
+		// unset sleeping if both non static and colliding and one of them is awake,
+		//	awake rigid bodies colliding with each other keep their frame count, so their island can go to sleep
+		if (rigidBody1.isStatic == false &&
+			rigidBody2.isStatic == false &&
+			rigidBody1.isSleeping != rigidBody2.isSleeping) {
+			rigidBody1.awake(true);
+			rigidBody2.awake(true);
+		}
+
+		// add constraint entity
+		constraintsSolver.allocateConstraintsEntity().set(rigidBody1, rigidBody2, constraintsSolver.allocateCollision().fromResponse(collision));
 	}
 
 	/**
@@ -451,8 +1328,35 @@ public final class World {
 				continue;
 			}
 			engineEntity.setEnabled(rigidBody.enabled);
-			if (rigidBody.enabled == true) {
+			if (rigidBody.enabled == false) continue;
+
+			// use current transformations or interpolate between last and current state
+			if (interpolationAlpha >= 1f) {
 				engineEntity.fromTransformations(rigidBody.transformations);
+			} else {
+				// position
+				interpolatedPosition.set(rigidBody.positionLast).scale(1f - interpolationAlpha);
+				interpolatedPosition.add(tmpVector3.set(rigidBody.position).scale(interpolationAlpha));
+
+				// orientation, normalized linear interpolation along shortest path
+				float[] orientationLastXYZW = rigidBody.orientationLast.getArray();
+				float[] orientationXYZW = rigidBody.orientation.getArray();
+				float dot =
+					orientationLastXYZW[0] * orientationXYZW[0] +
+					orientationLastXYZW[1] * orientationXYZW[1] +
+					orientationLastXYZW[2] * orientationXYZW[2] +
+					orientationLastXYZW[3] * orientationXYZW[3];
+				float alpha = dot < 0f?-interpolationAlpha:interpolationAlpha;
+				interpolatedOrientation.set(
+					orientationLastXYZW[0] * (1f - interpolationAlpha) + orientationXYZW[0] * alpha,
+					orientationLastXYZW[1] * (1f - interpolationAlpha) + orientationXYZW[1] * alpha,
+					orientationLastXYZW[2] * (1f - interpolationAlpha) + orientationXYZW[2] * alpha,
+					orientationLastXYZW[3] * (1f - interpolationAlpha) + orientationXYZW[3] * alpha
+				).normalize();
+
+				//
+				computeTransformations(interpolatedPosition, interpolatedOrientation, interpolatedTransformations);
+				engineEntity.fromTransformations(interpolatedTransformations);
 			}
 		}
 	}
@@ -497,6 +1401,27 @@ public final class World {
 		for (RigidBody rigidBody: partition.getObjectsNearTo(heightBoundingBox)) {
 			if (((rigidBody.typeId & typeIds) == rigidBody.typeId) == false) continue;
 			BoundingVolume cbv = rigidBody.cbv;
+			if (cbv instanceof HeightField) {
+				// height fields answer by lookup on cell triangle
+				float heightOnPoint = ((HeightField)cbv).computeHeight(pointXYZ[0], pointXYZ[2]);
+				if (Float.isNaN(heightOnPoint) == false &&
+					heightOnPoint >= height &&
+					heightOnPoint < pointXYZ[1] + Math.max(0.1f, stepUpMax)) {
+					//
+					height = heightOnPoint;
+					heightRigidBody = rigidBody;
+				}
+			} else
+			if (cbv instanceof TriangleMesh) {
+				// triangle meshes answer by hierarchy lookup
+				float heightOnPoint = ((TriangleMesh)cbv).computeHeight(pointXYZ[0], pointXYZ[2], pointXYZ[1] + Math.max(0.1f, stepUpMax));
+				if (Float.isNaN(heightOnPoint) == false &&
+					heightOnPoint >= height) {
+					//
+					height = heightOnPoint;
+					heightRigidBody = rigidBody;
+				}
+			} else
 			if (cbv instanceof BoundingBox) {
 				if (heightOnPointLineSegment.doesBoundingBoxCollideWithLineSegment(
 					(BoundingBox)cbv,
@@ -662,18 +1587,303 @@ public final class World {
 	 * @return collided rigid bodies
 	 */
 	public ArrayList<RigidBody> doesCollideWith(int typeIds, BoundingVolume boundingVolume) {
-		collidedRigidBodies.clear();
-		// 
+		overlap(typeIds, boundingVolume, collidedRigidBodies);
+		return collidedRigidBodies;
+	}
+
+	/**
+	 * Determine rigid bodies which overlap given bounding volume
+	 * @param type ids
+	 * @param bounding volume
+	 * @param overlapping rigid bodies, will be cleared before
+	 * @return number of overlapping rigid bodies
+	 */
+	public int overlap(int typeIds, BoundingVolume boundingVolume, ArrayList<RigidBody> overlappingRigidBodies) {
+		overlappingRigidBodies.clear();
+		beginCastQuery();
 		for (RigidBody rigidBody: partition.getObjectsNearTo(boundingVolume)) {
-			if (((rigidBody.typeId & typeIds) == rigidBody.typeId) == false) continue;
+			if (isCastCandidate(typeIds, rigidBody) == false) continue;
 
-			// check if rigid body collides with 
-			if (rigidBody.cbv.doesCollideWith(boundingVolume, null, collision) == true &&
+			// check if rigid body collides with bounding volume
+			if (doesCollideWith(rigidBody.cbv, boundingVolume, null, collision) == true &&
 				collision.hasPenetration() == true) {
-				collidedRigidBodies.add(rigidBody);
+				overlappingRigidBodies.add(rigidBody);
 			}
 		}
-		return collidedRigidBodies;
+		return overlappingRigidBodies.size();
+	}
+
+	/**
+	 * Cast ray from given start to given end, rigid bodies are tested front to back and testing stops behind first hit
+	 * @param type ids
+	 * @param from
+	 * @param to
+	 * @param hit
+	 * @return if a rigid body was hit
+	 */
+	public boolean rayCast(int typeIds, Vector3 from, Vector3 to, RayCastHit hit) {
+		hit.reset(1f);
+		castCandidateCount = 0;
+		addCastCandidates(typeIds, partition.getObjectsOnSegment(from, to));
+		castCandidates(0, sortCastCandidates(0, castCandidateCount, 0f, from, to, null), 0f, from, to, hit, null);
+		return hit.rigidBody != null;
+	}
+
+	/**
+	 * Cast sphere with given radius from given start to given end,
+	 * 	rigid bodies are tested front to back and testing stops behind first hit
+	 * @param type ids
+	 * @param radius
+	 * @param from
+	 * @param to
+	 * @param hit
+	 * @return if a rigid body was hit
+	 */
+	public boolean sphereCast(int typeIds, float radius, Vector3 from, Vector3 to, RayCastHit hit) {
+		hit.reset(1f);
+		castCandidateCount = 0;
+		addCastCandidates(typeIds, partition.getObjectsNearTo(computeCastBoundingBox(from, to, radius)));
+		castCandidates(0, sortCastCandidates(0, castCandidateCount, radius, from, to, null), radius, from, to, hit, null);
+		return hit.rigidBody != null;
+	}
+
+	/**
+	 * Cast capsule along given movement, rigid bodies are tested front to back and testing stops behind first hit
+	 * @param type ids
+	 * @param capsule
+	 * @param movement
+	 * @param hit
+	 * @return if a rigid body was hit
+	 */
+	public boolean capsuleCast(int typeIds, Capsule capsule, Vector3 movement, RayCastHit hit) {
+		hit.reset(1f);
+
+		// determine candidates using capsule bounding sphere
+		castFrom.set(capsule.getCenter());
+		castTo.set(capsule.getCenter()).add(movement);
+		castCandidateCount = 0;
+		addCastCandidates(typeIds, partition.getObjectsNearTo(computeCastBoundingBox(castFrom, castTo, capsule.getSphereRadius())));
+		int candidates = sortCastCandidates(0, castCandidateCount, capsule.getSphereRadius(), castFrom, castTo, null);
+
+		// cast
+		CollisionDetection collisionDetection = CollisionDetection.getInstance();
+		for (int i = 0; i < candidates; i++) {
+			if (castCandidateFractions[i] > hit.fraction) break;
+			RigidBody rigidBody = castCandidateRigidBodies[i];
+			if (collisionDetection.doCapsuleCast(rigidBody.cbv, capsule, movement, hit) == true) {
+				hit.rigidBody = rigidBody;
+			}
+		}
+		return hit.rigidBody != null;
+	}
+
+	/**
+	 * Cast rays of given batch, sphere casts if batch radius is greater than zero, results are stored in batch
+	 * 	Candidates of all rays are determined first, afterwards rays are cast in parallel if world uses more than 1 worker thread
+	 * 	Results do not depend on number of worker threads
+	 * @param type ids
+	 * @param ray cast batch
+	 */
+	public void castRays(int typeIds, RayCastBatch batch) {
+		int rayCount = batch.getRayCount();
+		float radius = batch.getRadius();
+
+		// bounding volume copies of workers need to be updated
+		frame++;
+
+		// determine candidates of each ray, partitions can only be queried by one thread
+		if (castCandidateOffsets.length < rayCount + 1) {
+			castCandidateOffsets = new int[(rayCount + 1) * 2];
+		}
+		castCandidateCount = 0;
+		for (int i = 0; i < rayCount; i++) {
+			batch.getFrom(i, castFrom);
+			batch.getTo(i, castTo);
+			castCandidateOffsets[i] = castCandidateCount;
+			addCastCandidates(
+				typeIds,
+				radius > 0f?partition.getObjectsNearTo(computeCastBoundingBox(castFrom, castTo, radius)):partition.getObjectsOnSegment(castFrom, castTo)
+			);
+		}
+		castCandidateOffsets[rayCount] = castCandidateCount;
+
+		// cast rays
+		rayCastBatch = batch;
+		if (workerThreads == 1) {
+			for (int i = 0; i < rayCount; i++) {
+				castBatchRay(i, castFrom, castTo, castHit, null);
+			}
+		} else {
+			collisionTestWorkerFutures.clear();
+			for (int i = 0; i < rayCastWorkers.size(); i++) {
+				collisionTestWorkerFutures.add(workerThreadPool.submit(rayCastWorkers.get(i)));
+			}
+			try {
+				for (int i = 0; i < collisionTestWorkerFutures.size(); i++) {
+					collisionTestWorkerFutures.get(i).get();
+				}
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("World::castRays(): interrupted", ie);
+			} catch (ExecutionException ee) {
+				throw new RuntimeException("World::castRays(): ray cast failed", ee.getCause());
+			}
+		}
+		rayCastBatch = null;
+	}
+
+	/**
+	 * Cast ray of current ray cast batch against its candidates front to back and store result in batch
+	 * @param ray index
+	 * @param from
+	 * @param to
+	 * @param hit
+	 * @param bounding volume copies or null if rigid body bounding volumes can be used
+	 */
+	private void castBatchRay(int rayIdx, Vector3 from, Vector3 to, RayCastHit hit, BoundingVolumeCopies boundingVolumeCopies) {
+		rayCastBatch.getFrom(rayIdx, from);
+		rayCastBatch.getTo(rayIdx, to);
+		hit.reset(1f);
+		float radius = rayCastBatch.getRadius();
+		int start = castCandidateOffsets[rayIdx];
+		int end = sortCastCandidates(start, castCandidateOffsets[rayIdx + 1], radius, from, to, boundingVolumeCopies);
+		castCandidates(start, end, radius, from, to, hit, boundingVolumeCopies);
+		rayCastBatch.setResult(rayIdx, hit);
+	}
+
+	/**
+	 * Cast ray or sphere against sorted candidates front to back until candidates start behind hit
+	 * @param candidates start
+	 * @param candidates end
+	 * @param radius, 0 for ray
+	 * @param from
+	 * @param to
+	 * @param hit
+	 * @param bounding volume copies or null if rigid body bounding volumes can be used
+	 */
+	private void castCandidates(int start, int end, float radius, Vector3 from, Vector3 to, RayCastHit hit, BoundingVolumeCopies boundingVolumeCopies) {
+		CollisionDetection collisionDetection = CollisionDetection.getInstance();
+		for (int i = start; i < end; i++) {
+			if (castCandidateFractions[i] > hit.fraction) break;
+			RigidBody rigidBody = castCandidateRigidBodies[i];
+			BoundingVolume cbv = boundingVolumeCopies == null?rigidBody.cbv:boundingVolumeCopies.getBoundingVolume(rigidBody);
+			boolean hitUpdated = radius > 0f?
+				collisionDetection.doSphereCast(cbv, radius, from, to, hit):
+				collisionDetection.doRayCast(cbv, from, to, hit);
+			if (hitUpdated == true) hit.rigidBody = rigidBody;
+		}
+	}
+
+	/**
+	 * Begin a cast query, rigid bodies are taken into account once per query
+	 */
+	private void beginCastQuery() {
+		if (castQueries.length < rigidBodies.size()) {
+			int[] newCastQueries = new int[rigidBodies.size() * 2];
+			System.arraycopy(castQueries, 0, newCastQueries, 0, castQueries.length);
+			castQueries = newCastQueries;
+		}
+		castQuery++;
+	}
+
+	/**
+	 * Check if rigid body is a candidate of current cast query
+	 * @param type ids
+	 * @param rigid body
+	 * @return if rigid body has not been taken into account in current query and matches type ids
+	 */
+	private boolean isCastCandidate(int typeIds, RigidBody rigidBody) {
+		if (((rigidBody.typeId & typeIds) == rigidBody.typeId) == false) return false;
+		if (castQueries[rigidBody.idx] == castQuery) return false;
+		castQueries[rigidBody.idx] = castQuery;
+		return true;
+	}
+
+	/**
+	 * Add rigid bodies matching type ids to cast candidates
+	 * @param type ids
+	 * @param rigid bodies near to cast
+	 */
+	private void addCastCandidates(int typeIds, ArrayListIteratorMultiple<RigidBody> rigidBodiesNearTo) {
+		beginCastQuery();
+		for (RigidBody rigidBody: rigidBodiesNearTo) {
+			if (isCastCandidate(typeIds, rigidBody) == false) continue;
+			addCastCandidate(rigidBody);
+		}
+	}
+
+	/**
+	 * Add rigid body to cast candidates
+	 * @param rigid body
+	 */
+	private void addCastCandidate(RigidBody rigidBody) {
+		if (castCandidateCount == castCandidateRigidBodies.length) {
+			int newCapacity = castCandidateCount < 16?32:castCandidateCount * 2;
+			RigidBody[] newCastCandidateRigidBodies = new RigidBody[newCapacity];
+			System.arraycopy(castCandidateRigidBodies, 0, newCastCandidateRigidBodies, 0, castCandidateCount);
+			castCandidateRigidBodies = newCastCandidateRigidBodies;
+			castCandidateFractions = new float[newCapacity];
+		}
+		castCandidateRigidBodies[castCandidateCount++] = rigidBody;
+	}
+
+	/**
+	 * Determine entry fractions of cast into candidate bounds extended by radius,
+	 * 	removes candidates which bounds are missed and sorts remaining candidates by entry fraction and rigid body index
+	 * @param candidates start
+	 * @param candidates end
+	 * @param radius
+	 * @param from
+	 * @param to
+	 * @param bounding volume copies or null if rigid body bounding volumes can be used
+	 * @return candidates end
+	 */
+	private int sortCastCandidates(int start, int end, float radius, Vector3 from, Vector3 to, BoundingVolumeCopies boundingVolumeCopies) {
+		CollisionDetection collisionDetection = CollisionDetection.getInstance();
+		int count = start;
+		for (int i = start; i < end; i++) {
+			RigidBody rigidBody = castCandidateRigidBodies[i];
+			BoundingVolume cbv = boundingVolumeCopies == null?rigidBody.cbv:boundingVolumeCopies.getBoundingVolume(rigidBody);
+			float fraction = collisionDetection.computeSegmentEntryFraction(cbv, radius, from, to);
+			if (fraction == Float.MAX_VALUE) continue;
+
+			// insert sorted
+			int j = count++;
+			while (j > start &&
+				(castCandidateFractions[j - 1] > fraction ||
+				(castCandidateFractions[j - 1] == fraction && castCandidateRigidBodies[j - 1].idx > rigidBody.idx))) {
+				castCandidateRigidBodies[j] = castCandidateRigidBodies[j - 1];
+				castCandidateFractions[j] = castCandidateFractions[j - 1];
+				j--;
+			}
+			castCandidateRigidBodies[j] = rigidBody;
+			castCandidateFractions[j] = fraction;
+		}
+		return count;
+	}
+
+	/**
+	 * Compute cast bounding box containing segment from given start to given end extended by radius
+	 * @param from
+	 * @param to
+	 * @param radius
+	 * @return cast bounding box
+	 */
+	private BoundingBox computeCastBoundingBox(Vector3 from, Vector3 to, float radius) {
+		float[] fromXYZ = from.getArray();
+		float[] toXYZ = to.getArray();
+		castBoundingBox.getMin().set(
+			Math.min(fromXYZ[0], toXYZ[0]) - radius,
+			Math.min(fromXYZ[1], toXYZ[1]) - radius,
+			Math.min(fromXYZ[2], toXYZ[2]) - radius
+		);
+		castBoundingBox.getMax().set(
+			Math.max(fromXYZ[0], toXYZ[0]) + radius,
+			Math.max(fromXYZ[1], toXYZ[1]) + radius,
+			Math.max(fromXYZ[2], toXYZ[2]) + radius
+		);
+		castBoundingBox.update();
+		return castBoundingBox;
 	}
 
 	/**
@@ -781,6 +1991,112 @@ public final class World {
 		}
 	}
 
+	/**
+	 * @return size in bytes of current state, see saveState()
+	 */
+	public int computeStateSize() {
+		return
+			4 + rigidBodies.size() * RigidBody.STATE_SIZE +
+			2 * 4 +
+			4 + rigidBodyCollisionsLastFrame.size() * 8 +
+			(constraintsSolver == null?2 * 4:constraintsSolver.getContactCache().computeStateSize());
+	}
+
+	/**
+	 * Save state of rigid bodies, time step, collisions and contact cache into given buffer at its position,
+	 * 	the state can be restored into this world as long as no rigid bodies have been added or removed
+	 * @param buffer
+	 */
+	public void saveState(ByteBuffer buffer) {
+		// rigid bodies
+		buffer.putInt(rigidBodies.size());
+		for (int i = 0; i < rigidBodies.size(); i++) {
+			rigidBodies.get(i).saveState(buffer);
+		}
+
+		// time step
+		buffer.putFloat(timeAccumulator);
+		buffer.putFloat(interpolationAlpha);
+
+		// collisions
+		buffer.putInt(rigidBodyCollisionsLastFrame.size());
+		for (int i = 0; i < rigidBodyCollisionsLastFrame.size(); i++) {
+			buffer.putLong(rigidBodyCollisionsLastFrame.get(i));
+		}
+
+		// contact cache
+		if (constraintsSolver == null) {
+			buffer.putInt(0);
+			buffer.putInt(0);
+		} else {
+			constraintsSolver.getContactCache().saveState(buffer);
+		}
+	}
+
+	/**
+	 * Restore state saved with saveState() from given buffer at its position,
+	 * 	transformations, bounding volumes and partition get updated for moved rigid bodies only
+	 * @param buffer
+	 * @return success
+	 */
+	public boolean restoreState(ByteBuffer buffer) {
+		// rigid bodies
+		int rigidBodyCount = buffer.getInt();
+		if (rigidBodyCount != rigidBodies.size()) {
+			Console.println("World::restoreState(): rigid body count mismatch: " + rigidBodyCount + " != " + rigidBodies.size());
+			return false;
+		}
+		for (int i = 0; i < rigidBodies.size(); i++) {
+			restoreRigidBodyState(i, buffer);
+		}
+
+		// time step
+		timeAccumulator = buffer.getFloat();
+		interpolationAlpha = buffer.getFloat();
+
+		// collisions
+		rigidBodyCollisionsLastFrame.clear();
+		int rigidBodyCollisionCount = buffer.getInt();
+		for (int i = 0; i < rigidBodyCollisionCount; i++) {
+			rigidBodyCollisionsLastFrame.add(buffer.getLong());
+		}
+
+		// contact cache
+		initializeConstraintsSolver();
+		constraintsSolver.getContactCache().restoreState(buffer);
+		return true;
+	}
+
+	/**
+	 * Restore rigid body state from given buffer at its position, see RigidBody.STATE_SIZE,
+	 * 	transformations, bounding volume and partition get updated if rigid body moved
+	 * @param rigid body index
+	 * @param buffer
+	 */
+	protected void restoreRigidBodyState(int idx, ByteBuffer buffer) {
+		RigidBody rigidBody = rigidBodies.get(idx);
+		boolean enabledLast = rigidBody.enabled;
+		boolean moved = rigidBody.restoreState(buffer);
+
+		// update transformations and bounding volume
+		if (moved == true) {
+			computeTransformations(rigidBody.position, rigidBody.orientation, rigidBody.transformations);
+			rigidBody.cbv.fromBoundingVolumeWithTransformations(rigidBody.obv, rigidBody.transformations);
+		}
+
+		// update partition
+		if (rigidBody.enabled != enabledLast) {
+			if (rigidBody.enabled == true) {
+				partition.addRigidBody(rigidBody);
+			} else {
+				partition.removeRigidBody(rigidBody);
+			}
+		} else
+		if (rigidBody.enabled == true && moved == true) {
+			partition.updateRigidBody(rigidBody);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.Object#toString()
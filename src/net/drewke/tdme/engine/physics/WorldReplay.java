@@ -0,0 +1,207 @@
+package net.drewke.tdme.engine.physics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Records world updates and replays them verifying state checksums every tick
+ * 	Inputs are recorded as states of rigid bodies which have been changed between updates, e.g. by forces or synch,
+ * 	the world should be in deterministic mode and rigid bodies must not be added or removed while recording
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class WorldReplay {
+
+	private World world;
+
+	// initial state and states before and after current update
+	private ByteBuffer initialState;
+	private ByteBuffer stateBefore;
+	private ByteBuffer stateAfter;
+
+	// ticks, delta time, changed rigid body indices and states per tick
+	private int ticks;
+	private int[] tickInputOffsets;
+	private long[] tickChecksums;
+	private ByteBuffer inputs;
+
+	/**
+	 * Public constructor
+	 * @param world
+	 */
+	public WorldReplay(World world) {
+		this.world = world;
+		this.initialState = allocate(1024);
+		this.stateBefore = allocate(1024);
+		this.stateAfter = allocate(1024);
+		this.ticks = 0;
+		this.tickInputOffsets = new int[64];
+		this.tickChecksums = new long[64];
+		this.inputs = allocate(64 * 1024);
+	}
+
+	/**
+	 * Allocate direct byte buffer
+	 * @param capacity
+	 * @return byte buffer
+	 */
+	private static ByteBuffer allocate(int capacity) {
+		return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Ensure given buffer can hold given number of bytes additionally, content up to position is kept
+	 * @param buffer
+	 * @param bytes
+	 * @return buffer or grown buffer
+	 */
+	private static ByteBuffer ensureRemaining(ByteBuffer buffer, int bytes) {
+		if (buffer.remaining() >= bytes) return buffer;
+		int capacity = buffer.capacity();
+		while (capacity - buffer.position() < bytes) capacity*= 2;
+		ByteBuffer newBuffer = allocate(capacity);
+		buffer.flip();
+		newBuffer.put(buffer);
+		return newBuffer;
+	}
+
+	/**
+	 * Save world state into given buffer
+	 * @param buffer
+	 * @return buffer or grown buffer
+	 */
+	private ByteBuffer saveState(ByteBuffer buffer) {
+		buffer.clear();
+		buffer = ensureRemaining(buffer, world.computeStateSize());
+		world.saveState(buffer);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Compute checksum of given buffer from position to limit
+	 * 	FNV-1a over 32 bit words
+	 * @param buffer
+	 * @return checksum
+	 */
+	private static long computeChecksum(ByteBuffer buffer) {
+		long checksum = 0xcbf29ce484222325L;
+		int i = buffer.position();
+		for (; i + 4 <= buffer.limit(); i+= 4) {
+			checksum^= buffer.getInt(i) & 0xFFFFFFFFL;
+			checksum*= 0x100000001b3L;
+		}
+		for (; i < buffer.limit(); i++) {
+			checksum^= buffer.get(i) & 0xFFL;
+			checksum*= 0x100000001b3L;
+		}
+		return checksum;
+	}
+
+	/**
+	 * Check if rigid body state of given index differs in states before and after update
+	 * @param rigid body index
+	 * @return if rigid body state has been changed
+	 */
+	private boolean isRigidBodyStateChanged(int idx) {
+		int offset = 4 + idx * RigidBody.STATE_SIZE;
+		for (int i = 0; i < RigidBody.STATE_SIZE; i+= 4) {
+			if (stateBefore.getInt(offset + i) != stateAfter.getInt(offset + i)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return number of recorded ticks
+	 */
+	public int getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @param tick
+	 * @return state checksum after given tick
+	 */
+	public long getChecksum(int tick) {
+		return tickChecksums[tick];
+	}
+
+	/**
+	 * Start recording, current world state is used as initial state
+	 */
+	public void startRecording() {
+		ticks = 0;
+		inputs.clear();
+		initialState = saveState(initialState);
+		stateAfter = saveState(stateAfter);
+	}
+
+	/**
+	 * Record inputs since last update, update world with given delta time and record state checksum
+	 * @param delta time
+	 */
+	public void update(float deltaTime) {
+		// grow ticks
+		if (ticks == tickChecksums.length) {
+			int[] newTickInputOffsets = new int[ticks * 2];
+			long[] newTickChecksums = new long[ticks * 2];
+			System.arraycopy(tickInputOffsets, 0, newTickInputOffsets, 0, ticks);
+			System.arraycopy(tickChecksums, 0, newTickChecksums, 0, ticks);
+			tickInputOffsets = newTickInputOffsets;
+			tickChecksums = newTickChecksums;
+		}
+
+		// record delta time and states of rigid bodies changed since last update
+		stateBefore = saveState(stateBefore);
+		int rigidBodyCount = stateBefore.getInt(0);
+		tickInputOffsets[ticks] = inputs.position();
+		inputs = ensureRemaining(inputs, 2 * 4);
+		inputs.putFloat(deltaTime);
+		int changedCountOffset = inputs.position();
+		inputs.putInt(0);
+		int changedCount = 0;
+		for (int i = 0; i < rigidBodyCount; i++) {
+			if (isRigidBodyStateChanged(i) == false) continue;
+			inputs = ensureRemaining(inputs, 4 + RigidBody.STATE_SIZE);
+			inputs.putInt(i);
+			int offset = 4 + i * RigidBody.STATE_SIZE;
+			for (int j = 0; j < RigidBody.STATE_SIZE; j++) {
+				inputs.put(stateBefore.get(offset + j));
+			}
+			changedCount++;
+		}
+		inputs.putInt(changedCountOffset, changedCount);
+
+		// update and record checksum
+		world.update(deltaTime);
+		stateAfter = saveState(stateAfter);
+		tickChecksums[ticks] = computeChecksum(stateAfter);
+		ticks++;
+	}
+
+	/**
+	 * Replay recorded ticks starting from initial state, verifying state checksum after each tick
+	 * @return first tick which state checksum does not match recorded checksum or -1 if all ticks match
+	 */
+	public int replay() {
+		initialState.rewind();
+		if (world.restoreState(initialState) == false) return 0;
+		ByteBuffer replayInputs = inputs.duplicate().order(ByteOrder.nativeOrder());
+		for (int tick = 0; tick < ticks; tick++) {
+			// restore inputs
+			replayInputs.position(tickInputOffsets[tick]);
+			float deltaTime = replayInputs.getFloat();
+			int changedCount = replayInputs.getInt();
+			for (int i = 0; i < changedCount; i++) {
+				world.restoreRigidBodyState(replayInputs.getInt(), replayInputs);
+			}
+
+			// update and verify checksum
+			world.update(deltaTime);
+			stateAfter = saveState(stateAfter);
+			if (computeChecksum(stateAfter) != tickChecksums[tick]) return tick;
+		}
+		return -1;
+	}
+
+}
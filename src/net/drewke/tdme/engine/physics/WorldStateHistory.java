@@ -0,0 +1,87 @@
+package net.drewke.tdme.engine.physics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Ring buffer of world states of the last n ticks, see World.saveState()
+ * 	Used for rollback and lag compensated queries: restore a past tick, query or re simulate, restore present tick
+ * 	State buffers only grow, so saving and restoring does not allocate once the world size is stable
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class WorldStateHistory {
+
+	private World world;
+	private ByteBuffer[] states;
+	private int[] stateTicks;
+
+	/**
+	 * Public constructor
+	 * @param world
+	 * @param number of ticks to keep
+	 */
+	public WorldStateHistory(World world, int ticks) {
+		this.world = world;
+		this.states = new ByteBuffer[ticks];
+		this.stateTicks = new int[ticks];
+		clear();
+	}
+
+	/**
+	 * @return number of ticks to keep
+	 */
+	public int getTicks() {
+		return states.length;
+	}
+
+	/**
+	 * Clear saved states
+	 */
+	public void clear() {
+		for (int i = 0; i < stateTicks.length; i++) {
+			stateTicks[i] = -1;
+		}
+	}
+
+	/**
+	 * Save world state of given tick, replaces the state saved n ticks ago
+	 * @param tick, must be positive
+	 */
+	public void save(int tick) {
+		int stateIdx = tick % states.length;
+		int stateSize = world.computeStateSize();
+		ByteBuffer state = states[stateIdx];
+		if (state == null || state.capacity() < stateSize) {
+			int capacity = state == null?1024:state.capacity();
+			while (capacity < stateSize) capacity*= 2;
+			state = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+			states[stateIdx] = state;
+		}
+		state.clear();
+		world.saveState(state);
+		state.flip();
+		stateTicks[stateIdx] = tick;
+	}
+
+	/**
+	 * @param tick
+	 * @return if state of given tick is available
+	 */
+	public boolean hasState(int tick) {
+		return tick >= 0 && stateTicks[tick % states.length] == tick;
+	}
+
+	/**
+	 * Restore world state of given tick
+	 * @param tick
+	 * @return success
+	 */
+	public boolean restore(int tick) {
+		if (hasState(tick) == false) return false;
+		ByteBuffer state = states[tick % states.length];
+		state.rewind();
+		return world.restoreState(state);
+	}
+
+}
@@ -241,6 +241,12 @@ public final class BoundingBox implements BoundingVolume {
 		} else
 		if (bv2 instanceof ConvexMesh) {
 			return CollisionDetection.getInstance().doCollide(this, (ConvexMesh)bv2, movement, collision);
+		} else
+		if (bv2 instanceof HeightField) {
+			return CollisionDetection.getInstance().doCollide(this, (HeightField)bv2, movement, collision);
+		} else
+		if (bv2 instanceof TriangleMesh) {
+			return CollisionDetection.getInstance().doCollide(this, (TriangleMesh)bv2, movement, collision);
 		} else {
 			Console.println("BoundingBox::doesCollideWith(): unsupported bounding volume 2: " + bv2);
 			return false;
@@ -279,6 +285,21 @@ public final class BoundingBox implements BoundingVolume {
 		return Math.abs(max-min);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeSupportPoint(net.drewke.tdme.math.Vector3, net.drewke.tdme.math.Vector3)
+	 */
+	public void computeSupportPoint(Vector3 direction, Vector3 supportPoint) {
+		float[] directionXYZ = direction.getArray();
+		float[] minXYZ = min.getArray();
+		float[] maxXYZ = max.getArray();
+		supportPoint.set(
+			directionXYZ[0] >= 0f?maxXYZ[0]:minXYZ[0],
+			directionXYZ[1] >= 0f?maxXYZ[1]:minXYZ[1],
+			directionXYZ[2] >= 0f?maxXYZ[2]:minXYZ[2]
+		);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#update()
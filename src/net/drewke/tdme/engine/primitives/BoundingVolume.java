@@ -64,6 +64,14 @@ public interface BoundingVolume {
 	 */
 	public float computeDimensionOnAxis(Vector3 axis);
 
+	/**
+	 * Computes support point, the point of bounding volume which is farthest in given direction,
+	 * 	for bounding volumes which are not convex this is the support point of their convex hull
+	 * @param direction
+	 * @param support point
+	 */
+	public void computeSupportPoint(Vector3 direction, Vector3 supportPoint);
+
 	/**
 	 * Updates the bounding volume
 	 */
@@ -4,6 +4,7 @@ import net.drewke.tdme.engine.Transformations;
 import net.drewke.tdme.engine.physics.CollisionDetection;
 import net.drewke.tdme.engine.physics.CollisionResponse;
 import net.drewke.tdme.math.Matrix4x4;
+import net.drewke.tdme.math.MathTools;
 import net.drewke.tdme.math.Vector3;
 import net.drewke.tdme.utils.Console;
 
@@ -104,6 +105,7 @@ public final class Capsule implements BoundingVolume {
 		b.set(capsule.b);
 		center.set(capsule.center);
 		radius = capsule.radius;
+		sphereRadius = capsule.sphereRadius;
 	}
 
 	/*
@@ -219,6 +221,12 @@ public final class Capsule implements BoundingVolume {
 		} else
 		if (bv2 instanceof ConvexMesh) {
 			return CollisionDetection.getInstance().doCollide(this, (ConvexMesh)bv2, movement, collision);
+		} else
+		if (bv2 instanceof HeightField) {
+			return CollisionDetection.getInstance().doCollide(this, (HeightField)bv2, movement, collision);
+		} else
+		if (bv2 instanceof TriangleMesh) {
+			return CollisionDetection.getInstance().doCollide(this, (TriangleMesh)bv2, movement, collision);
 		} else {
 			Console.println("Capsule::doesCollideWith(): unsupported bounding volume 2: " + bv2);
 			return false;
@@ -233,6 +241,17 @@ public final class Capsule implements BoundingVolume {
 		return Math.abs(Vector3.computeDotProduct(baSub.set(b).sub(a), axis)) + (radius * 2f);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeSupportPoint(net.drewke.tdme.math.Vector3, net.drewke.tdme.math.Vector3)
+	 */
+	public void computeSupportPoint(Vector3 direction, Vector3 supportPoint) {
+		supportPoint.set(Vector3.computeDotProduct(a, direction) >= Vector3.computeDotProduct(b, direction)?a:b);
+		float directionLength = direction.computeLength();
+		if (directionLength < MathTools.EPSILON) return;
+		supportPoint.add(baSub.set(direction).scale(radius / directionLength));
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.Object#clone()
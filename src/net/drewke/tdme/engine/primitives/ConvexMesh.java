@@ -6,6 +6,7 @@ import net.drewke.tdme.engine.Object3DModel;
 import net.drewke.tdme.engine.Transformations;
 import net.drewke.tdme.engine.physics.CollisionDetection;
 import net.drewke.tdme.engine.physics.CollisionResponse;
+import net.drewke.tdme.math.MathTools;
 import net.drewke.tdme.math.SeparatingAxisTheorem;
 import net.drewke.tdme.math.Vector3;
 import net.drewke.tdme.utils.ArrayList;
@@ -18,6 +19,8 @@ import net.drewke.tdme.utils.Console;
  */
 public final class ConvexMesh implements BoundingVolume {
 
+	private final static float DIRECTION_TOLERANCE = 0.01f;
+
 	private SeparatingAxisTheorem sat;
 	private Triangle[] triangles;
 	private Vector3 triangleEdge1;
@@ -26,6 +29,8 @@ public final class ConvexMesh implements BoundingVolume {
 	private Vector3 triangleNormal;
 
 	protected Vector3[] vertices;
+	protected int[] faceNormalTriangles;
+	protected int[] edgeTriangleEdges;
 	protected Vector3 center;
 	protected Vector3 distanceVector;
 	protected Vector3 closestsPoint;
@@ -33,6 +38,7 @@ public final class ConvexMesh implements BoundingVolume {
 
 	/**
 	 * Create convex meshes from terrain model
+	 * 	creates one convex mesh per terrain triangle, use HeightField.createTerrainHeightField() for large terrains
 	 * @param model
 	 * @param convex meshes
 	 */
@@ -55,6 +61,48 @@ public final class ConvexMesh implements BoundingVolume {
 		}
 	}
 
+	/**
+	 * Create convex hull mesh of model vertices, see createConvexHull(Vector3[], int)
+	 * @param model
+	 * @return convex mesh
+	 */
+	public static ConvexMesh createConvexHull(Object3DModel model) {
+		return createConvexHull(model, -1);
+	}
+
+	/**
+	 * Create convex hull mesh of model vertices, see createConvexHull(Vector3[], int)
+	 * @param model
+	 * @param vertices max or -1 for exact hull
+	 * @return convex mesh
+	 */
+	public static ConvexMesh createConvexHull(Object3DModel model, int verticesMax) {
+		Triangle[] triangles = model.getFaceTriangles();
+		Vector3[] points = new Vector3[triangles.length * 3];
+		for (int i = 0; i < triangles.length; i++)
+		for (int j = 0; j < 3; j++) {
+			points[i * 3 + j] = triangles[i].vertices[j];
+		}
+		ConvexMesh convexMesh = createConvexHull(points, verticesMax);
+		return convexMesh != null?convexMesh:new ConvexMesh(triangles);
+	}
+
+	/**
+	 * Create convex hull mesh of given points using quickhull,
+	 * 	points get welded and inner and redundant points are dropped, so the mesh has far less triangles than a model usually has
+	 * @param points
+	 * @param vertices max or -1 for exact hull, hull simplified to vertices max might not contain all points
+	 * @return convex mesh or null if points are coplanar
+	 */
+	public static ConvexMesh createConvexHull(Vector3[] points, int verticesMax) {
+		Triangle[] triangles = new QuickHull().computeConvexHull(points, points.length, verticesMax);
+		if (triangles == null) {
+			Console.println("ConvexMesh::createConvexHull(): points are coplanar or less than 4 points given");
+			return null;
+		}
+		return new ConvexMesh(triangles);
+	}
+
 	/**
 	 * Public constructor
 	 * @param model
@@ -92,26 +140,138 @@ public final class ConvexMesh implements BoundingVolume {
 	}
 
 	/**
-	 * Create vertices
+	 * Create vertices, welds equal vertices of triangles,
+	 * 	also determines unique face normals and edge directions
 	 */
 	private void createVertices() {
-		ArrayList<Vector3> vertices = new ArrayList<Vector3>();
-		// iterate triangles
+		// weld vertices
+		VertexWelder vertexWelder = new VertexWelder(MathTools.EPSILON);
+		vertexWelder.reset(triangles.length * 3);
+		for (int i = 0; i < triangles.length; i++)
+		for (int j = 0; j < triangles[i].vertices.length; j++) {
+			vertexWelder.add(triangles[i].vertices[j]);
+		}
+		this.vertices = new Vector3[vertexWelder.size()];
+		for (int i = 0; i < vertices.length; i++) {
+			vertices[i] = vertexWelder.get(i);
+		}
+
+		// unique face normals and edge directions, parallel and anti parallel ones give same separating axis
+		//	directions are welded like vertices, so a direction is unique if neither it nor its negation has been welded yet
+		VertexWelder faceNormals = new VertexWelder(DIRECTION_TOLERANCE);
+		VertexWelder edges = new VertexWelder(DIRECTION_TOLERANCE);
+		faceNormals.reset(triangles.length);
+		edges.reset(triangles.length * 3);
+		int[] faceNormalTriangles = new int[triangles.length];
+		int[] edgeTriangleEdges = new int[triangles.length * 3];
 		for (int i = 0; i < triangles.length; i++) {
-			// iterate triangle vertices
-			for (int j = 0; j < triangles[i].vertices.length; j++) {
-				// check if we already have this vertex
-				boolean haveVertex = false;
-				for (int k = 0; k < vertices.size(); k++) {
-					if (vertices.get(k).equals(triangles[i].vertices[j]) == true) {
-						haveVertex = true;
-					}
+			Vector3 faceNormal = computeTriangleNormal(i, new Vector3());
+			if (isUniqueDirection(faceNormals, faceNormal) == true) {
+				faceNormalTriangles[faceNormals.size()] = i;
+				faceNormals.add(faceNormal);
+			}
+			for (int j = 0; j < 3; j++) {
+				Vector3 edge = computeTriangleEdge(i * 3 + j, new Vector3());
+				if (isUniqueDirection(edges, edge) == true) {
+					edgeTriangleEdges[edges.size()] = i * 3 + j;
+					edges.add(edge);
 				}
-				if (haveVertex == false) vertices.add(triangles[i].vertices[j]);
 			}
 		}
-		this.vertices = new Vector3[vertices.size()];
-		vertices.toArray(this.vertices);
+		this.faceNormalTriangles = Arrays.copyOf(faceNormalTriangles, faceNormals.size());
+		this.edgeTriangleEdges = Arrays.copyOf(edgeTriangleEdges, edges.size());
+	}
+
+	/**
+	 * Check if given direction is valid and neither it nor its negation has been welded by given directions welder
+	 * @param directions
+	 * @param direction
+	 * @return if unique
+	 */
+	private static boolean isUniqueDirection(VertexWelder directions, Vector3 direction) {
+		if (direction.computeLength() < 0.5f) return false;
+		if (directions.find(direction) != -1) return false;
+		direction.scale(-1f);
+		boolean unique = directions.find(direction) == -1;
+		direction.scale(-1f);
+		return unique;
+	}
+
+	/**
+	 * Compute normalized face normal of given triangle
+	 * @param triangle idx
+	 * @param face normal
+	 * @return face normal
+	 */
+	private Vector3 computeTriangleNormal(int triangleIdx, Vector3 faceNormal) {
+		Vector3[] triangleVertices = triangles[triangleIdx].vertices;
+		triangleEdge1.set(triangleVertices[1]).sub(triangleVertices[0]);
+		triangleEdge2.set(triangleVertices[2]).sub(triangleVertices[0]);
+		Vector3.computeCrossProduct(triangleEdge1, triangleEdge2, faceNormal);
+		float length = faceNormal.computeLength();
+		return length < MathTools.EPSILON?faceNormal.set(0f, 0f, 0f):faceNormal.scale(1f / length);
+	}
+
+	/**
+	 * Compute normalized edge direction of given triangle edge
+	 * @param triangle edge, triangle idx * 3 + edge idx
+	 * @param edge
+	 * @return edge
+	 */
+	private Vector3 computeTriangleEdge(int triangleEdge, Vector3 edge) {
+		Vector3[] triangleVertices = triangles[triangleEdge / 3].vertices;
+		edge.set(triangleVertices[(triangleEdge + 1) % 3]).sub(triangleVertices[triangleEdge % 3]);
+		float length = edge.computeLength();
+		return length < MathTools.EPSILON?edge.set(0f, 0f, 0f):edge.scale(1f / length);
+	}
+
+	/**
+	 * @return number of unique face normals
+	 */
+	public int getFaceNormalCount() {
+		return faceNormalTriangles.length;
+	}
+
+	/**
+	 * Compute unique face normal
+	 * @param face normal idx
+	 * @param face normal
+	 * @return face normal
+	 */
+	public Vector3 computeFaceNormal(int idx, Vector3 faceNormal) {
+		return computeTriangleNormal(faceNormalTriangles[idx], faceNormal);
+	}
+
+	/**
+	 * @return number of unique edge directions
+	 */
+	public int getEdgeCount() {
+		return edgeTriangleEdges.length;
+	}
+
+	/**
+	 * Compute unique edge direction
+	 * @param edge idx
+	 * @param edge
+	 * @return edge
+	 */
+	public Vector3 computeEdge(int idx, Vector3 edge) {
+		return computeTriangleEdge(edgeTriangleEdges[idx], edge);
+	}
+
+	/**
+	 * Computes radius of largest sphere around center which fits into mesh, this is the smallest distance of center to a face plane
+	 * @return inscribed radius
+	 */
+	public float computeInscribedRadius() {
+		float inscribedRadius = Float.MAX_VALUE;
+		for (int i = 0; i < triangles.length; i++) {
+			computeTriangleNormal(i, triangleNormal);
+			if (triangleNormal.computeLengthSquared() < MathTools.EPSILON) continue;
+			float distance = Math.abs(Vector3.computeDotProduct(triangleNormal, distanceVector.set(center).sub(triangles[i].vertices[0])));
+			if (distance < inscribedRadius) inscribedRadius = distance;
+		}
+		return inscribedRadius == Float.MAX_VALUE?0f:inscribedRadius;
 	}
 
 	/**
@@ -260,6 +420,12 @@ public final class ConvexMesh implements BoundingVolume {
 		} else
 		if (bv2 instanceof ConvexMesh) {
 			return CollisionDetection.getInstance().doCollide(this, (ConvexMesh)bv2, movement, collision);
+		} else
+		if (bv2 instanceof HeightField) {
+			return CollisionDetection.getInstance().doCollide(this, (HeightField)bv2, movement, collision);
+		} else
+		if (bv2 instanceof TriangleMesh) {
+			return CollisionDetection.getInstance().doCollide(this, (TriangleMesh)bv2, movement, collision);
 		} else {
 			Console.println("Capsule::doesCollideWith(): unsupported bounding volume 2: " + bv2);
 			return false;
@@ -295,6 +461,23 @@ public final class ConvexMesh implements BoundingVolume {
 		return dimensionOnAxis;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeSupportPoint(net.drewke.tdme.math.Vector3, net.drewke.tdme.math.Vector3)
+	 */
+	public void computeSupportPoint(Vector3 direction, Vector3 supportPoint) {
+		Vector3 vertexMax = vertices[0];
+		float vertexOnDirectionMax = Vector3.computeDotProduct(vertices[0], direction);
+		for (int i = 1; i < vertices.length; i++) {
+			float vertexOnDirection = Vector3.computeDotProduct(vertices[i], direction);
+			if (vertexOnDirection > vertexOnDirectionMax) {
+				vertexOnDirectionMax = vertexOnDirection;
+				vertexMax = vertices[i];
+			}
+		}
+		supportPoint.set(vertexMax);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#update()
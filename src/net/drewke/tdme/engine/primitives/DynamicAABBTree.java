@@ -0,0 +1,684 @@
+package net.drewke.tdme.engine.primitives;
+
+/**
+ * Dynamic axis aligned bounding box tree
+ * 	Leafs store fat AABBs which are enlarged by a margin, so proxies that move only a bit do not need to touch the tree.
+ * 	Inner nodes are inserted by surface area heuristic and the tree is kept balanced by rotations.
+ * 	Nodes are stored in flat arrays, proxy ids are leaf node indices and stay valid until the proxy gets destroyed.
+ * 	Queries store proxy ids of matching leafs into a internal result array, see getResult() and getData()
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class DynamicAABBTree {
+
+	public final static int NULL_NODE = -1;
+
+	private final static int BOUNDS_SIZE = 6;
+
+	private float fatMargin;
+
+	// nodes
+	private int nodeCapacity;
+	private int nodeCount;
+	private int root;
+	private int freeList;
+	//	min x, y, z, max x, y, z
+	private float[] nodeBounds;
+	//	parent node or next free node if node is free
+	private int[] nodeParent;
+	private int[] nodeChild1;
+	private int[] nodeChild2;
+	//	height, 0 for leafs, -1 for free nodes
+	private int[] nodeHeight;
+	private int[] nodeData;
+
+	// query
+	private int[] stack;
+	private int resultCount;
+	private int[] results;
+
+	/**
+	 * Public constructor
+	 * @param fat margin
+	 */
+	public DynamicAABBTree(float fatMargin) {
+		this.fatMargin = fatMargin;
+		this.stack = new int[64];
+		this.results = new int[64];
+		clear();
+	}
+
+	/**
+	 * @return fat margin
+	 */
+	public float getFatMargin() {
+		return fatMargin;
+	}
+
+	/**
+	 * Clears this tree
+	 */
+	public void clear() {
+		nodeCapacity = 0;
+		nodeCount = 0;
+		root = NULL_NODE;
+		freeList = NULL_NODE;
+		nodeBounds = new float[0];
+		nodeParent = new int[0];
+		nodeChild1 = new int[0];
+		nodeChild2 = new int[0];
+		nodeHeight = new int[0];
+		nodeData = new int[0];
+		resultCount = 0;
+		ensureNodeCapacity(64);
+	}
+
+	/**
+	 * Ensure node capacity, grows node arrays and adds new nodes to free list
+	 * @param capacity
+	 */
+	private void ensureNodeCapacity(int capacity) {
+		if (capacity <= nodeCapacity) return;
+		int newCapacity = nodeCapacity < 1?1:nodeCapacity;
+		while (newCapacity < capacity) newCapacity*= 2;
+
+		//
+		float[] newNodeBounds = new float[newCapacity * BOUNDS_SIZE];
+		int[] newNodeParent = new int[newCapacity];
+		int[] newNodeChild1 = new int[newCapacity];
+		int[] newNodeChild2 = new int[newCapacity];
+		int[] newNodeHeight = new int[newCapacity];
+		int[] newNodeData = new int[newCapacity];
+		System.arraycopy(nodeBounds, 0, newNodeBounds, 0, nodeBounds.length);
+		System.arraycopy(nodeParent, 0, newNodeParent, 0, nodeParent.length);
+		System.arraycopy(nodeChild1, 0, newNodeChild1, 0, nodeChild1.length);
+		System.arraycopy(nodeChild2, 0, newNodeChild2, 0, nodeChild2.length);
+		System.arraycopy(nodeHeight, 0, newNodeHeight, 0, nodeHeight.length);
+		System.arraycopy(nodeData, 0, newNodeData, 0, nodeData.length);
+		nodeBounds = newNodeBounds;
+		nodeParent = newNodeParent;
+		nodeChild1 = newNodeChild1;
+		nodeChild2 = newNodeChild2;
+		nodeHeight = newNodeHeight;
+		nodeData = newNodeData;
+
+		// link new nodes into free list
+		for (int i = newCapacity - 1; i >= nodeCapacity; i--) {
+			nodeParent[i] = freeList;
+			nodeHeight[i] = -1;
+			freeList = i;
+		}
+		nodeCapacity = newCapacity;
+	}
+
+	/**
+	 * Allocate a node
+	 * @return node
+	 */
+	private int allocateNode() {
+		if (freeList == NULL_NODE) ensureNodeCapacity(nodeCapacity * 2);
+		int node = freeList;
+		freeList = nodeParent[node];
+		nodeParent[node] = NULL_NODE;
+		nodeChild1[node] = NULL_NODE;
+		nodeChild2[node] = NULL_NODE;
+		nodeHeight[node] = 0;
+		nodeData[node] = -1;
+		nodeCount++;
+		return node;
+	}
+
+	/**
+	 * Release a node
+	 * @param node
+	 */
+	private void releaseNode(int node) {
+		nodeParent[node] = freeList;
+		nodeHeight[node] = -1;
+		freeList = node;
+		nodeCount--;
+	}
+
+	/**
+	 * @param node
+	 * @return if node is a leaf
+	 */
+	private boolean isLeaf(int node) {
+		return nodeChild1[node] == NULL_NODE;
+	}
+
+	/**
+	 * Compute surface area of node bounds
+	 * @param node
+	 * @return surface area
+	 */
+	private float computeArea(int node) {
+		int offset = node * BOUNDS_SIZE;
+		float dx = nodeBounds[offset + 3] - nodeBounds[offset + 0];
+		float dy = nodeBounds[offset + 4] - nodeBounds[offset + 1];
+		float dz = nodeBounds[offset + 5] - nodeBounds[offset + 2];
+		return 2f * (dx * dy + dy * dz + dz * dx);
+	}
+
+	/**
+	 * Compute surface area of combined bounds of given nodes
+	 * @param node 1
+	 * @param node 2
+	 * @return surface area
+	 */
+	private float computeCombinedArea(int node1, int node2) {
+		int offset1 = node1 * BOUNDS_SIZE;
+		int offset2 = node2 * BOUNDS_SIZE;
+		float dx = Math.max(nodeBounds[offset1 + 3], nodeBounds[offset2 + 3]) - Math.min(nodeBounds[offset1 + 0], nodeBounds[offset2 + 0]);
+		float dy = Math.max(nodeBounds[offset1 + 4], nodeBounds[offset2 + 4]) - Math.min(nodeBounds[offset1 + 1], nodeBounds[offset2 + 1]);
+		float dz = Math.max(nodeBounds[offset1 + 5], nodeBounds[offset2 + 5]) - Math.min(nodeBounds[offset1 + 2], nodeBounds[offset2 + 2]);
+		return 2f * (dx * dy + dy * dz + dz * dx);
+	}
+
+	/**
+	 * Set node bounds to combined bounds of given nodes
+	 * @param node
+	 * @param node 1
+	 * @param node 2
+	 */
+	private void combineBounds(int node, int node1, int node2) {
+		int offset = node * BOUNDS_SIZE;
+		int offset1 = node1 * BOUNDS_SIZE;
+		int offset2 = node2 * BOUNDS_SIZE;
+		for (int i = 0; i < 3; i++) {
+			nodeBounds[offset + i] = Math.min(nodeBounds[offset1 + i], nodeBounds[offset2 + i]);
+			nodeBounds[offset + 3 + i] = Math.max(nodeBounds[offset1 + 3 + i], nodeBounds[offset2 + 3 + i]);
+		}
+	}
+
+	/**
+	 * Set leaf node bounds from given bounds enlarged by fat margin
+	 * @param node
+	 * @param min x
+	 * @param min y
+	 * @param min z
+	 * @param max x
+	 * @param max y
+	 * @param max z
+	 */
+	private void setFatBounds(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int offset = node * BOUNDS_SIZE;
+		nodeBounds[offset + 0] = minX - fatMargin;
+		nodeBounds[offset + 1] = minY - fatMargin;
+		nodeBounds[offset + 2] = minZ - fatMargin;
+		nodeBounds[offset + 3] = maxX + fatMargin;
+		nodeBounds[offset + 4] = maxY + fatMargin;
+		nodeBounds[offset + 5] = maxZ + fatMargin;
+	}
+
+	/**
+	 * Creates a proxy
+	 * @param min x
+	 * @param min y
+	 * @param min z
+	 * @param max x
+	 * @param max y
+	 * @param max z
+	 * @param user data
+	 * @return proxy id
+	 */
+	public int createProxy(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int data) {
+		int proxy = allocateNode();
+		setFatBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		nodeData[proxy] = data;
+		insertLeaf(proxy);
+		return proxy;
+	}
+
+	/**
+	 * Destroys a proxy
+	 * @param proxy id
+	 */
+	public void destroyProxy(int proxy) {
+		removeLeaf(proxy);
+		releaseNode(proxy);
+	}
+
+	/**
+	 * Moves a proxy, the tree is only touched if the given bounds leave the fat bounds of the proxy
+	 * @param proxy id
+	 * @param min x
+	 * @param min y
+	 * @param min z
+	 * @param max x
+	 * @param max y
+	 * @param max z
+	 * @return if proxy has been reinserted
+	 */
+	public boolean moveProxy(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int offset = proxy * BOUNDS_SIZE;
+		if (nodeBounds[offset + 0] <= minX &&
+			nodeBounds[offset + 1] <= minY &&
+			nodeBounds[offset + 2] <= minZ &&
+			nodeBounds[offset + 3] >= maxX &&
+			nodeBounds[offset + 4] >= maxY &&
+			nodeBounds[offset + 5] >= maxZ) {
+			return false;
+		}
+		removeLeaf(proxy);
+		setFatBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		insertLeaf(proxy);
+		return true;
+	}
+
+	/**
+	 * @param proxy id
+	 * @return user data of proxy
+	 */
+	public int getData(int proxy) {
+		return nodeData[proxy];
+	}
+
+	/**
+	 * @return number of proxies and inner nodes
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * @return tree height
+	 */
+	public int getHeight() {
+		return root == NULL_NODE?0:nodeHeight[root];
+	}
+
+	/**
+	 * Insert leaf into tree
+	 * @param leaf
+	 */
+	private void insertLeaf(int leaf) {
+		if (root == NULL_NODE) {
+			root = leaf;
+			nodeParent[root] = NULL_NODE;
+			return;
+		}
+
+		// find best sibling by surface area heuristic
+		int node = root;
+		while (isLeaf(node) == false) {
+			int child1 = nodeChild1[node];
+			int child2 = nodeChild2[node];
+			float area = computeArea(node);
+			float combinedArea = computeCombinedArea(node, leaf);
+
+			// cost of creating a new parent for this node and the new leaf
+			float cost = 2f * combinedArea;
+
+			// minimum cost of pushing the leaf further down the tree
+			float inheritanceCost = 2f * (combinedArea - area);
+
+			// cost of descending into child 1 and 2
+			float cost1 = computeCombinedArea(child1, leaf) + inheritanceCost;
+			if (isLeaf(child1) == false) cost1-= computeArea(child1);
+			float cost2 = computeCombinedArea(child2, leaf) + inheritanceCost;
+			if (isLeaf(child2) == false) cost2-= computeArea(child2);
+
+			// descend according to the minimum cost
+			if (cost < cost1 && cost < cost2) break;
+			node = cost1 < cost2?child1:child2;
+		}
+		int sibling = node;
+
+		// create a new parent
+		int oldParent = nodeParent[sibling];
+		int newParent = allocateNode();
+		nodeParent[newParent] = oldParent;
+		combineBounds(newParent, leaf, sibling);
+		nodeHeight[newParent] = nodeHeight[sibling] + 1;
+		nodeChild1[newParent] = sibling;
+		nodeChild2[newParent] = leaf;
+		nodeParent[sibling] = newParent;
+		nodeParent[leaf] = newParent;
+		if (oldParent != NULL_NODE) {
+			if (nodeChild1[oldParent] == sibling) {
+				nodeChild1[oldParent] = newParent;
+			} else {
+				nodeChild2[oldParent] = newParent;
+			}
+		} else {
+			root = newParent;
+		}
+
+		// walk back up the tree fixing heights and bounds
+		refit(nodeParent[leaf]);
+	}
+
+	/**
+	 * Remove leaf from tree
+	 * @param leaf
+	 */
+	private void removeLeaf(int leaf) {
+		if (leaf == root) {
+			root = NULL_NODE;
+			return;
+		}
+		int parent = nodeParent[leaf];
+		int grandParent = nodeParent[parent];
+		int sibling = nodeChild1[parent] == leaf?nodeChild2[parent]:nodeChild1[parent];
+		if (grandParent != NULL_NODE) {
+			// destroy parent and connect sibling to grand parent
+			if (nodeChild1[grandParent] == parent) {
+				nodeChild1[grandParent] = sibling;
+			} else {
+				nodeChild2[grandParent] = sibling;
+			}
+			nodeParent[sibling] = grandParent;
+			releaseNode(parent);
+			refit(grandParent);
+		} else {
+			root = sibling;
+			nodeParent[sibling] = NULL_NODE;
+			releaseNode(parent);
+		}
+		nodeParent[leaf] = NULL_NODE;
+	}
+
+	/**
+	 * Balance and refit nodes from given node up to root
+	 * @param node
+	 */
+	private void refit(int node) {
+		while (node != NULL_NODE) {
+			node = balance(node);
+			int child1 = nodeChild1[node];
+			int child2 = nodeChild2[node];
+			nodeHeight[node] = 1 + Math.max(nodeHeight[child1], nodeHeight[child2]);
+			combineBounds(node, child1, child2);
+			node = nodeParent[node];
+		}
+	}
+
+	/**
+	 * Perform a left or right rotation if node A is imbalanced
+	 * @param node A
+	 * @return new root of sub tree
+	 */
+	private int balance(int a) {
+		if (isLeaf(a) == true || nodeHeight[a] < 2) return a;
+		int b = nodeChild1[a];
+		int c = nodeChild2[a];
+		int balance = nodeHeight[c] - nodeHeight[b];
+
+		// rotate c up
+		if (balance > 1) {
+			int f = nodeChild1[c];
+			int g = nodeChild2[c];
+
+			// swap a and c
+			nodeChild1[c] = a;
+			nodeParent[c] = nodeParent[a];
+			nodeParent[a] = c;
+
+			// a's old parent should point to c
+			if (nodeParent[c] != NULL_NODE) {
+				if (nodeChild1[nodeParent[c]] == a) {
+					nodeChild1[nodeParent[c]] = c;
+				} else {
+					nodeChild2[nodeParent[c]] = c;
+				}
+			} else {
+				root = c;
+			}
+
+			// rotate
+			if (nodeHeight[f] > nodeHeight[g]) {
+				nodeChild2[c] = f;
+				nodeChild2[a] = g;
+				nodeParent[g] = a;
+				combineBounds(a, b, g);
+				combineBounds(c, a, f);
+				nodeHeight[a] = 1 + Math.max(nodeHeight[b], nodeHeight[g]);
+				nodeHeight[c] = 1 + Math.max(nodeHeight[a], nodeHeight[f]);
+			} else {
+				nodeChild2[c] = g;
+				nodeChild2[a] = f;
+				nodeParent[f] = a;
+				combineBounds(a, b, f);
+				combineBounds(c, a, g);
+				nodeHeight[a] = 1 + Math.max(nodeHeight[b], nodeHeight[f]);
+				nodeHeight[c] = 1 + Math.max(nodeHeight[a], nodeHeight[g]);
+			}
+			return c;
+		}
+
+		// rotate b up
+		if (balance < -1) {
+			int d = nodeChild1[b];
+			int e = nodeChild2[b];
+
+			// swap a and b
+			nodeChild1[b] = a;
+			nodeParent[b] = nodeParent[a];
+			nodeParent[a] = b;
+
+			// a's old parent should point to b
+			if (nodeParent[b] != NULL_NODE) {
+				if (nodeChild1[nodeParent[b]] == a) {
+					nodeChild1[nodeParent[b]] = b;
+				} else {
+					nodeChild2[nodeParent[b]] = b;
+				}
+			} else {
+				root = b;
+			}
+
+			// rotate
+			if (nodeHeight[d] > nodeHeight[e]) {
+				nodeChild2[b] = d;
+				nodeChild1[a] = e;
+				nodeParent[e] = a;
+				combineBounds(a, c, e);
+				combineBounds(b, a, d);
+				nodeHeight[a] = 1 + Math.max(nodeHeight[c], nodeHeight[e]);
+				nodeHeight[b] = 1 + Math.max(nodeHeight[a], nodeHeight[d]);
+			} else {
+				nodeChild2[b] = e;
+				nodeChild1[a] = d;
+				nodeParent[d] = a;
+				combineBounds(a, c, d);
+				combineBounds(b, a, e);
+				nodeHeight[a] = 1 + Math.max(nodeHeight[c], nodeHeight[d]);
+				nodeHeight[b] = 1 + Math.max(nodeHeight[a], nodeHeight[e]);
+			}
+			return b;
+		}
+
+		//
+		return a;
+	}
+
+	/**
+	 * Push node onto query stack
+	 * @param stack size
+	 * @param node
+	 * @return new stack size
+	 */
+	private int push(int stackSize, int node) {
+		if (stackSize == stack.length) {
+			int[] newStack = new int[stack.length * 2];
+			System.arraycopy(stack, 0, newStack, 0, stack.length);
+			stack = newStack;
+		}
+		stack[stackSize] = node;
+		return stackSize + 1;
+	}
+
+	/**
+	 * Add given leaf to query results
+	 * @param leaf
+	 */
+	private void addResult(int leaf) {
+		if (resultCount == results.length) {
+			int[] newResults = new int[results.length * 2];
+			System.arraycopy(results, 0, newResults, 0, results.length);
+			results = newResults;
+		}
+		results[resultCount++] = leaf;
+	}
+
+	/**
+	 * @return number of results of last query
+	 */
+	public int getResultCount() {
+		return resultCount;
+	}
+
+	/**
+	 * @param idx
+	 * @return proxy id of result at given index of last query
+	 */
+	public int getResult(int idx) {
+		return results[idx];
+	}
+
+	/**
+	 * Query proxies which fat bounds overlap given bounds
+	 * @param min x
+	 * @param min y
+	 * @param min z
+	 * @param max x
+	 * @param max y
+	 * @param max z
+	 * @return number of results
+	 */
+	public int queryAABB(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		resultCount = 0;
+		if (root == NULL_NODE) return 0;
+		int stackSize = push(0, root);
+		while (stackSize > 0) {
+			int node = stack[--stackSize];
+			int offset = node * BOUNDS_SIZE;
+			if (nodeBounds[offset + 0] > maxX || minX > nodeBounds[offset + 3] ||
+				nodeBounds[offset + 1] > maxY || minY > nodeBounds[offset + 4] ||
+				nodeBounds[offset + 2] > maxZ || minZ > nodeBounds[offset + 5]) {
+				continue;
+			}
+			if (isLeaf(node) == true) {
+				addResult(node);
+			} else {
+				stackSize = push(stackSize, nodeChild1[node]);
+				stackSize = push(stackSize, nodeChild2[node]);
+			}
+		}
+		return resultCount;
+	}
+
+	/**
+	 * Query proxies which fat bounds are on positive side of all given planes, e.g. frustum planes
+	 * @param planes
+	 * @return number of results
+	 */
+	public int queryPlanes(Plane[] planes) {
+		resultCount = 0;
+		if (root == NULL_NODE) return 0;
+		int stackSize = push(0, root);
+		while (stackSize > 0) {
+			int node = stack[--stackSize];
+			int offset = node * BOUNDS_SIZE;
+			boolean visible = true;
+			for (int i = 0; i < planes.length; i++) {
+				// test the box corner that is farthest along plane normal
+				float[] normal = planes[i].getNormal().getArray();
+				if (normal[0] * nodeBounds[offset + (normal[0] >= 0f?3:0)] +
+					normal[1] * nodeBounds[offset + (normal[1] >= 0f?4:1)] +
+					normal[2] * nodeBounds[offset + (normal[2] >= 0f?5:2)] +
+					planes[i].getDistance() <= 0f) {
+					visible = false;
+					break;
+				}
+			}
+			if (visible == false) continue;
+			if (isLeaf(node) == true) {
+				addResult(node);
+			} else {
+				stackSize = push(stackSize, nodeChild1[node]);
+				stackSize = push(stackSize, nodeChild2[node]);
+			}
+		}
+		return resultCount;
+	}
+
+	/**
+	 * Query proxies which fat bounds are hit by line segment from p to q
+	 * @param p x
+	 * @param p y
+	 * @param p z
+	 * @param q x
+	 * @param q y
+	 * @param q z
+	 * @return number of results
+	 */
+	public int queryRay(float pX, float pY, float pZ, float qX, float qY, float qZ) {
+		resultCount = 0;
+		if (root == NULL_NODE) return 0;
+		float dX = qX - pX;
+		float dY = qY - pY;
+		float dZ = qZ - pZ;
+		int stackSize = push(0, root);
+		while (stackSize > 0) {
+			int node = stack[--stackSize];
+			int offset = node * BOUNDS_SIZE;
+			if (doesSegmentHitBounds(offset, pX, pY, pZ, dX, dY, dZ) == false) continue;
+			if (isLeaf(node) == true) {
+				addResult(node);
+			} else {
+				stackSize = push(stackSize, nodeChild1[node]);
+				stackSize = push(stackSize, nodeChild2[node]);
+			}
+		}
+		return resultCount;
+	}
+
+	/**
+	 * Slab test of segment against node bounds
+	 * @param bounds offset
+	 * @param p x
+	 * @param p y
+	 * @param p z
+	 * @param d x
+	 * @param d y
+	 * @param d z
+	 * @return if segment hits bounds
+	 */
+	private boolean doesSegmentHitBounds(int offset, float pX, float pY, float pZ, float dX, float dY, float dZ) {
+		float tMin = 0f;
+		float tMax = 1f;
+		for (int axis = 0; axis < 3; axis++) {
+			float p = axis == 0?pX:(axis == 1?pY:pZ);
+			float d = axis == 0?dX:(axis == 1?dY:dZ);
+			float min = nodeBounds[offset + axis];
+			float max = nodeBounds[offset + 3 + axis];
+			if (Math.abs(d) < 1e-9f) {
+				if (p < min || p > max) return false;
+			} else {
+				float inverseD = 1f / d;
+				float t1 = (min - p) * inverseD;
+				float t2 = (max - p) * inverseD;
+				if (t1 > t2) {
+					float t = t1;
+					t1 = t2;
+					t2 = t;
+				}
+				if (t1 > tMin) tMin = t1;
+				if (t2 < tMax) tMax = t2;
+				if (tMin > tMax) return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return "DynamicAABBTree [nodes=" + nodeCount + ", height=" + getHeight() + ", fat margin=" + fatMargin + "]";
+	}
+
+}
@@ -0,0 +1,668 @@
+package net.drewke.tdme.engine.primitives;
+
+import net.drewke.tdme.engine.Object3DModel;
+import net.drewke.tdme.engine.Transformations;
+import net.drewke.tdme.engine.physics.CollisionDetection;
+import net.drewke.tdme.engine.physics.CollisionResponse;
+import net.drewke.tdme.math.Matrix4x4;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.utils.Console;
+
+/**
+ * Height field terrain collision object
+ * 	Heights are stored in a row major grid of columns * rows vertices, each grid cell is made of 2 triangles
+ * 	Height fields can be translated and scaled but not rotated, height data is shared between clones
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class HeightField implements BoundingVolume {
+
+	protected float[] heights;
+	protected int columns;
+	protected int rows;
+	protected float heightMin;
+	protected float heightMax;
+
+	// min and max heights of blocks of 2^level * 2^level grid vertices, level 0 are the grid vertices
+	protected int[] blockColumns;
+	protected int[] blockRows;
+	protected float[][] blockHeightsMin;
+	protected float[][] blockHeightsMax;
+
+	protected Vector3 origin;
+	protected float spacingX;
+	protected float spacingZ;
+	protected float scaleY;
+
+	protected Vector3 center;
+	protected float sphereRadius;
+
+	private Triangle cellTriangle;
+	private Vector3 closestPoint;
+	private Vector3 distanceVector;
+	private Vector3 axis;
+	private int[] supportStack;
+	private float[] supportStackBounds;
+
+	/**
+	 * Creates a height field bounding volume
+	 * @param origin, position of grid vertex 0, 0
+	 * @param columns, vertex count on x axis
+	 * @param rows, vertex count on z axis
+	 * @param spacing, distance between grid vertices
+	 * @param heights, row major heights of columns * rows grid vertices
+	 * @return bounding volume
+	 */
+	public static BoundingVolume createBoundingVolume(Vector3 origin, int columns, int rows, float spacing, float[] heights) {
+		return new HeightField(origin, columns, rows, spacing, heights);
+	}
+
+	/**
+	 * Create height field from terrain model
+	 * 	Samples the highest terrain triangle at each grid vertex, grid vertices not covered by terrain get the lowest terrain height
+	 * @param model
+	 * @param spacing, distance between grid vertices
+	 * @return height field
+	 */
+	public static HeightField createTerrainHeightField(Object3DModel model, float spacing) {
+		Triangle[] triangles = model.getFaceTriangles();
+		if (triangles.length == 0) {
+			return new HeightField(new Vector3(), 2, 2, spacing, new float[4]);
+		}
+
+		// determine terrain dimension
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+		for (int i = 0; i < triangles.length; i++)
+		for (int j = 0; j < 3; j++) {
+			float[] vertexXYZ = triangles[i].vertices[j].getArray();
+			if (vertexXYZ[0] < minX) minX = vertexXYZ[0];
+			if (vertexXYZ[1] < minY) minY = vertexXYZ[1];
+			if (vertexXYZ[2] < minZ) minZ = vertexXYZ[2];
+			if (vertexXYZ[0] > maxX) maxX = vertexXYZ[0];
+			if (vertexXYZ[2] > maxZ) maxZ = vertexXYZ[2];
+		}
+		int columns = Math.max(2, (int)Math.ceil((maxX - minX) / spacing) + 1);
+		int rows = Math.max(2, (int)Math.ceil((maxZ - minZ) / spacing) + 1);
+		float[] heights = new float[columns * rows];
+		boolean[] heightsSampled = new boolean[columns * rows];
+		for (int i = 0; i < heights.length; i++) heights[i] = minY;
+
+		// rasterize triangles into grid
+		for (int i = 0; i < triangles.length; i++) {
+			float[] v0 = triangles[i].vertices[0].getArray();
+			float[] v1 = triangles[i].vertices[1].getArray();
+			float[] v2 = triangles[i].vertices[2].getArray();
+			float det = (v1[2] - v2[2]) * (v0[0] - v2[0]) + (v2[0] - v1[0]) * (v0[2] - v2[2]);
+			if (Math.abs(det) < 1e-9f) continue;
+			int x0 = Math.max(0, (int)Math.ceil((Math.min(v0[0], Math.min(v1[0], v2[0])) - minX) / spacing));
+			int x1 = Math.min(columns - 1, (int)Math.floor((Math.max(v0[0], Math.max(v1[0], v2[0])) - minX) / spacing));
+			int z0 = Math.max(0, (int)Math.ceil((Math.min(v0[2], Math.min(v1[2], v2[2])) - minZ) / spacing));
+			int z1 = Math.min(rows - 1, (int)Math.floor((Math.max(v0[2], Math.max(v1[2], v2[2])) - minZ) / spacing));
+			for (int z = z0; z <= z1; z++)
+			for (int x = x0; x <= x1; x++) {
+				float px = minX + x * spacing;
+				float pz = minZ + z * spacing;
+				float b0 = ((v1[2] - v2[2]) * (px - v2[0]) + (v2[0] - v1[0]) * (pz - v2[2])) / det;
+				float b1 = ((v2[2] - v0[2]) * (px - v2[0]) + (v0[0] - v2[0]) * (pz - v2[2])) / det;
+				float b2 = 1f - b0 - b1;
+				if (b0 < -1e-5f || b1 < -1e-5f || b2 < -1e-5f) continue;
+				float height = b0 * v0[1] + b1 * v1[1] + b2 * v2[1];
+				int idx = z * columns + x;
+				if (heightsSampled[idx] == false || height > heights[idx]) {
+					heights[idx] = height;
+					heightsSampled[idx] = true;
+				}
+			}
+		}
+
+		//
+		return new HeightField(new Vector3(minX, 0f, minZ), columns, rows, spacing, heights);
+	}
+
+	/**
+	 * Public constructor
+	 * @param origin, position of grid vertex 0, 0
+	 * @param columns, vertex count on x axis
+	 * @param rows, vertex count on z axis
+	 * @param spacing, distance between grid vertices
+	 * @param heights, row major heights of columns * rows grid vertices
+	 */
+	public HeightField(Vector3 origin, int columns, int rows, float spacing, float[] heights) {
+		this(origin, columns, rows, spacing, spacing, 1f, heights, null, null, null, null);
+		if (columns < 2 || rows < 2 || heights.length < columns * rows) {
+			Console.println("HeightField::HeightField(): invalid grid dimension: " + columns + " x " + rows + ", heights: " + heights.length);
+		}
+	}
+
+	/**
+	 * Private constructor
+	 * @param origin
+	 * @param columns
+	 * @param rows
+	 * @param spacing x
+	 * @param spacing z
+	 * @param scale y
+	 * @param heights
+	 * @param block columns or null to compute blocks
+	 * @param block rows
+	 * @param block heights min
+	 * @param block heights max
+	 */
+	private HeightField(Vector3 origin, int columns, int rows, float spacingX, float spacingZ, float scaleY, float[] heights, int[] blockColumns, int[] blockRows, float[][] blockHeightsMin, float[][] blockHeightsMax) {
+		this.heights = heights;
+		this.columns = columns;
+		this.rows = rows;
+		this.origin = origin;
+		this.spacingX = spacingX;
+		this.spacingZ = spacingZ;
+		this.scaleY = scaleY;
+		this.center = new Vector3();
+		this.cellTriangle = new Triangle(new Vector3(), new Vector3(), new Vector3());
+		this.closestPoint = new Vector3();
+		this.distanceVector = new Vector3();
+		this.axis = new Vector3();
+		this.heightMin = heights.length > 0?heights[0]:0f;
+		this.heightMax = heightMin;
+		for (int i = 1; i < heights.length; i++) {
+			if (heights[i] < heightMin) heightMin = heights[i];
+			if (heights[i] > heightMax) heightMax = heights[i];
+		}
+		if (blockColumns == null) {
+			computeBlocks();
+		} else {
+			this.blockColumns = blockColumns;
+			this.blockRows = blockRows;
+			this.blockHeightsMin = blockHeightsMin;
+			this.blockHeightsMax = blockHeightsMax;
+		}
+		this.supportStack = new int[(this.blockColumns.length * 4 + 4) * 3];
+		this.supportStackBounds = new float[this.blockColumns.length * 4 + 4];
+		update();
+	}
+
+	/**
+	 * Computes min and max heights of grid vertex blocks, each level halves the blocks on x and z axis until 1 block is left
+	 */
+	private void computeBlocks() {
+		// determine levels
+		int levels = 1;
+		for (int levelColumns = columns, levelRows = rows; levelColumns > 1 || levelRows > 1; levels++) {
+			levelColumns = (levelColumns + 1) / 2;
+			levelRows = (levelRows + 1) / 2;
+		}
+		blockColumns = new int[levels];
+		blockRows = new int[levels];
+		blockHeightsMin = new float[levels][];
+		blockHeightsMax = new float[levels][];
+
+		// level 0 are grid vertices
+		blockColumns[0] = columns;
+		blockRows[0] = rows;
+		blockHeightsMin[0] = heights;
+		blockHeightsMax[0] = heights;
+
+		// combine 2 * 2 blocks of previous level
+		for (int level = 1; level < levels; level++) {
+			int previousColumns = blockColumns[level - 1];
+			int previousRows = blockRows[level - 1];
+			float[] previousMin = blockHeightsMin[level - 1];
+			float[] previousMax = blockHeightsMax[level - 1];
+			int levelColumns = (previousColumns + 1) / 2;
+			int levelRows = (previousRows + 1) / 2;
+			float[] levelMin = new float[levelColumns * levelRows];
+			float[] levelMax = new float[levelColumns * levelRows];
+			for (int z = 0; z < levelRows; z++)
+			for (int x = 0; x < levelColumns; x++) {
+				float min = Float.POSITIVE_INFINITY;
+				float max = Float.NEGATIVE_INFINITY;
+				for (int previousZ = z * 2; previousZ < Math.min(z * 2 + 2, previousRows); previousZ++)
+				for (int previousX = x * 2; previousX < Math.min(x * 2 + 2, previousColumns); previousX++) {
+					int previousIdx = previousZ * previousColumns + previousX;
+					if (previousMin[previousIdx] < min) min = previousMin[previousIdx];
+					if (previousMax[previousIdx] > max) max = previousMax[previousIdx];
+				}
+				levelMin[z * levelColumns + x] = min;
+				levelMax[z * levelColumns + x] = max;
+			}
+			blockColumns[level] = levelColumns;
+			blockRows[level] = levelRows;
+			blockHeightsMin[level] = levelMin;
+			blockHeightsMax[level] = levelMax;
+		}
+	}
+
+	/**
+	 * @return vertex count on x axis
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * @return vertex count on z axis
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return position of grid vertex 0, 0
+	 */
+	public Vector3 getOrigin() {
+		return origin;
+	}
+
+	/**
+	 * @return distance between grid vertices on x axis
+	 */
+	public float getSpacingX() {
+		return spacingX;
+	}
+
+	/**
+	 * @return distance between grid vertices on z axis
+	 */
+	public float getSpacingZ() {
+		return spacingZ;
+	}
+
+	/**
+	 * Returns height of grid vertex
+	 * @param x
+	 * @param z
+	 * @return height
+	 */
+	public float getHeight(int x, int z) {
+		return origin.getY() + heights[z * columns + x] * scaleY;
+	}
+
+	/**
+	 * Returns cell on x axis which contains given x position, clamped to grid
+	 * @param x
+	 * @return cell x
+	 */
+	public int getCellX(float x) {
+		int cellX = (int)Math.floor((x - origin.getX()) / spacingX);
+		return cellX < 0?0:(cellX > columns - 2?columns - 2:cellX);
+	}
+
+	/**
+	 * Returns cell on z axis which contains given z position, clamped to grid
+	 * @param z
+	 * @return cell z
+	 */
+	public int getCellZ(float z) {
+		int cellZ = (int)Math.floor((z - origin.getZ()) / spacingZ);
+		return cellZ < 0?0:(cellZ > rows - 2?rows - 2:cellZ);
+	}
+
+	/**
+	 * Returns max height of given cell
+	 * @param cell x
+	 * @param cell z
+	 * @return max height
+	 */
+	public float getCellHeightMax(int x, int z) {
+		return Math.max(
+			Math.max(getHeight(x, z), getHeight(x + 1, z)),
+			Math.max(getHeight(x, z + 1), getHeight(x + 1, z + 1))
+		);
+	}
+
+	/**
+	 * Set up triangle of given cell
+	 * @param cell x
+	 * @param cell z
+	 * @param triangle index, 0 or 1
+	 * @param triangle
+	 */
+	public void computeCellTriangle(int x, int z, int triangleIdx, Triangle triangle) {
+		float x0 = origin.getX() + x * spacingX;
+		float x1 = x0 + spacingX;
+		float z0 = origin.getZ() + z * spacingZ;
+		float z1 = z0 + spacingZ;
+		if (triangleIdx == 0) {
+			triangle.vertices[0].set(x0, getHeight(x, z), z0);
+			triangle.vertices[1].set(x0, getHeight(x, z + 1), z1);
+			triangle.vertices[2].set(x1, getHeight(x + 1, z), z0);
+		} else {
+			triangle.vertices[0].set(x1, getHeight(x + 1, z), z0);
+			triangle.vertices[1].set(x0, getHeight(x, z + 1), z1);
+			triangle.vertices[2].set(x1, getHeight(x + 1, z + 1), z1);
+		}
+		triangle.update();
+	}
+
+	/**
+	 * Computes height on given x, z position on the cell triangle containing it, see computeCellTriangle()
+	 * @param x
+	 * @param z
+	 * @return height or NaN if x, z is not on height field
+	 */
+	public float computeHeight(float x, float z) {
+		float gridX = (x - origin.getX()) / spacingX;
+		float gridZ = (z - origin.getZ()) / spacingZ;
+		if (gridX < 0f || gridX > columns - 1 || gridZ < 0f || gridZ > rows - 1) return Float.NaN;
+		int cellX = Math.min((int)gridX, columns - 2);
+		int cellZ = Math.min((int)gridZ, rows - 2);
+		float tX = gridX - cellX;
+		float tZ = gridZ - cellZ;
+
+		// cells are split on diagonal from x + 1, z to x, z + 1
+		if (tX + tZ <= 1f) {
+			// triangle 0: x, z / x, z + 1 / x + 1, z
+			float height = getHeight(cellX, cellZ);
+			return height + (getHeight(cellX + 1, cellZ) - height) * tX + (getHeight(cellX, cellZ + 1) - height) * tZ;
+		} else {
+			// triangle 1: x + 1, z / x, z + 1 / x + 1, z + 1
+			float height = getHeight(cellX + 1, cellZ + 1);
+			return height + (getHeight(cellX, cellZ + 1) - height) * (1f - tX) + (getHeight(cellX + 1, cellZ) - height) * (1f - tZ);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#fromBoundingVolume(net.drewke.tdme.engine.primitives.BoundingVolume)
+	 */
+	public void fromBoundingVolume(BoundingVolume original) {
+		// check for same type of original
+		if (original instanceof HeightField == false) {
+			Console.println("HeightField::fromBoundingVolume(): original is not of same type");
+			return;
+		}
+
+		//
+		HeightField heightField = (HeightField)original;
+		heights = heightField.heights;
+		columns = heightField.columns;
+		rows = heightField.rows;
+		heightMin = heightField.heightMin;
+		heightMax = heightField.heightMax;
+		blockColumns = heightField.blockColumns;
+		blockRows = heightField.blockRows;
+		blockHeightsMin = heightField.blockHeightsMin;
+		blockHeightsMax = heightField.blockHeightsMax;
+		if (supportStackBounds.length < heightField.supportStackBounds.length) {
+			supportStack = new int[heightField.supportStack.length];
+			supportStackBounds = new float[heightField.supportStackBounds.length];
+		}
+		origin.set(heightField.origin);
+		spacingX = heightField.spacingX;
+		spacingZ = heightField.spacingZ;
+		scaleY = heightField.scaleY;
+		center.set(heightField.center);
+		sphereRadius = heightField.sphereRadius;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#fromBoundingVolumeWithTransformations(net.drewke.tdme.engine.primitives.BoundingVolume, net.drewke.tdme.engine.Transformations)
+	 */
+	public void fromBoundingVolumeWithTransformations(BoundingVolume original, Transformations transformations) {
+		// check for same type of original
+		if (original instanceof HeightField == false) {
+			Console.println("HeightField::fromBoundingVolumeWithTransformations(): original is not of same type");
+			return;
+		}
+
+		//
+		HeightField heightField = (HeightField)original;
+		heights = heightField.heights;
+		columns = heightField.columns;
+		rows = heightField.rows;
+		heightMin = heightField.heightMin;
+		heightMax = heightField.heightMax;
+		blockColumns = heightField.blockColumns;
+		blockRows = heightField.blockRows;
+		blockHeightsMin = heightField.blockHeightsMin;
+		blockHeightsMax = heightField.blockHeightsMax;
+		if (supportStackBounds.length < heightField.supportStackBounds.length) {
+			supportStack = new int[heightField.supportStack.length];
+			supportStackBounds = new float[heightField.supportStackBounds.length];
+		}
+
+		// translate origin
+		Matrix4x4 transformationsMatrix = transformations.getTransformationsMatrix();
+		transformationsMatrix.multiply(heightField.origin, origin);
+
+		// note:
+		//	rotations are not supported, only scale along axes is taken into account
+		transformationsMatrix.multiply(axis.set(heightField.origin).addX(1f), axis);
+		spacingX = heightField.spacingX * axis.sub(origin).computeLength();
+		transformationsMatrix.multiply(axis.set(heightField.origin).addY(1f), axis);
+		scaleY = heightField.scaleY * axis.sub(origin).computeLength();
+		transformationsMatrix.multiply(axis.set(heightField.origin).addZ(1f), axis);
+		spacingZ = heightField.spacingZ * axis.sub(origin).computeLength();
+
+		//
+		update();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeClosestPointOnBoundingVolume(net.drewke.tdme.math.Vector3, net.drewke.tdme.math.Vector3)
+	 */
+	public void computeClosestPointOnBoundingVolume(Vector3 point, Vector3 closestPoint) {
+		// check if height field contains point
+		if (containsPoint(point) == true) {
+			closestPoint.set(point);
+			return;
+		}
+
+		// distance to surface below clamped point is upper bound of distance to closest point
+		float[] pointXYZ = point.getArray();
+		float x = Math.max(origin.getX(), Math.min(origin.getX() + (columns - 1) * spacingX, pointXYZ[0]));
+		float z = Math.max(origin.getZ(), Math.min(origin.getZ() + (rows - 1) * spacingZ, pointXYZ[2]));
+		closestPoint.set(x, computeHeight(x, z), z);
+		float distance = distanceVector.set(point).sub(closestPoint).computeLength();
+
+		// find closest point on triangles of cells within this distance
+		int cellX0 = getCellX(pointXYZ[0] - distance);
+		int cellX1 = getCellX(pointXYZ[0] + distance);
+		int cellZ0 = getCellZ(pointXYZ[2] - distance);
+		int cellZ1 = getCellZ(pointXYZ[2] + distance);
+		for (int cellZ = cellZ0; cellZ <= cellZ1; cellZ++)
+		for (int cellX = cellX0; cellX <= cellX1; cellX++)
+		for (int triangleIdx = 0; triangleIdx < 2; triangleIdx++) {
+			computeCellTriangle(cellX, cellZ, triangleIdx, cellTriangle);
+			cellTriangle.computeClosestPointOnBoundingVolume(point, this.closestPoint);
+			float _distance = distanceVector.set(point).sub(this.closestPoint).computeLength();
+			if (_distance < distance) {
+				distance = _distance;
+				closestPoint.set(this.closestPoint);
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#containsPoint(net.drewke.tdme.math.Vector3)
+	 */
+	public boolean containsPoint(Vector3 point) {
+		float height = computeHeight(point.getX(), point.getZ());
+		return Float.isNaN(height) == false && point.getY() <= height;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#doesCollideWith(net.drewke.tdme.engine.primitives.BoundingVolume, net.drewke.tdme.math.Vector3, net.drewke.tdme.engine.physics.CollisionResponse)
+	 */
+	public boolean doesCollideWith(BoundingVolume bv2, Vector3 movement, CollisionResponse collision) {
+		if (bv2 instanceof BoundingBox) {
+			return CollisionDetection.getInstance().doCollide(this, (BoundingBox)bv2, movement, collision);
+		} else
+		if (bv2 instanceof OrientedBoundingBox) {
+			return CollisionDetection.getInstance().doCollide(this, (OrientedBoundingBox)bv2, movement, collision);
+		} else
+		if (bv2 instanceof Sphere) {
+			return CollisionDetection.getInstance().doCollide(this, (Sphere)bv2, movement, collision);
+		} else
+		if (bv2 instanceof Capsule) {
+			return CollisionDetection.getInstance().doCollide(this, (Capsule)bv2, movement, collision);
+		} else
+		if (bv2 instanceof Triangle) {
+			return CollisionDetection.getInstance().doCollide(this, (Triangle)bv2, movement, collision);
+		} else
+		if (bv2 instanceof ConvexMesh) {
+			return CollisionDetection.getInstance().doCollide(this, (ConvexMesh)bv2, movement, collision);
+		} else {
+			Console.println("HeightField::doesCollideWith(): unsupported bounding volume 2: " + bv2);
+			return false;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#getCenter()
+	 */
+	public Vector3 getCenter() {
+		return center;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#getSphereRadius()
+	 */
+	public float getSphereRadius() {
+		return sphereRadius;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeDimensionOnAxis(net.drewke.tdme.math.Vector3)
+	 */
+	public float computeDimensionOnAxis(Vector3 axis) {
+		float[] axisXYZ = axis.getArray();
+		return
+			Math.abs(axisXYZ[0]) * (columns - 1) * spacingX +
+			Math.abs(axisXYZ[1]) * (heightMax - heightMin) * Math.abs(scaleY) +
+			Math.abs(axisXYZ[2]) * (rows - 1) * spacingZ;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeSupportPoint(net.drewke.tdme.math.Vector3, net.drewke.tdme.math.Vector3)
+	 */
+	public void computeSupportPoint(Vector3 direction, Vector3 supportPoint) {
+		// support point is the grid vertex with max x * a + height * b + z * c, translation does not change it
+		float[] directionXYZ = direction.getArray();
+		float a = directionXYZ[0] * spacingX;
+		float b = directionXYZ[1] * scaleY;
+		float c = directionXYZ[2] * spacingZ;
+
+		// branch and bound on blocks, blocks which can not exceed best vertex found yet are skipped
+		int xMax = 0;
+		int zMax = 0;
+		float vertexOnDirectionMax = Float.NEGATIVE_INFINITY;
+		int stackSize = 0;
+		int topLevel = blockColumns.length - 1;
+		supportStack[0] = topLevel;
+		supportStack[1] = 0;
+		supportStack[2] = 0;
+		supportStackBounds[0] = computeBlockBound(topLevel, 0, 0, a, b, c);
+		stackSize++;
+		while (stackSize > 0) {
+			stackSize--;
+			int level = supportStack[stackSize * 3 + 0];
+			int blockX = supportStack[stackSize * 3 + 1];
+			int blockZ = supportStack[stackSize * 3 + 2];
+			if (supportStackBounds[stackSize] <= vertexOnDirectionMax) continue;
+
+			// grid vertex, bound is exact
+			if (level == 0) {
+				vertexOnDirectionMax = supportStackBounds[stackSize];
+				xMax = blockX;
+				zMax = blockZ;
+				continue;
+			}
+
+			// push child blocks with ascending bounds, so the most promising block is processed first
+			int childLevel = level - 1;
+			int stackBegin = stackSize;
+			for (int childZ = blockZ * 2; childZ < Math.min(blockZ * 2 + 2, blockRows[childLevel]); childZ++)
+			for (int childX = blockX * 2; childX < Math.min(blockX * 2 + 2, blockColumns[childLevel]); childX++) {
+				float bound = computeBlockBound(childLevel, childX, childZ, a, b, c);
+				if (bound <= vertexOnDirectionMax) continue;
+				int idx = stackSize;
+				while (idx > stackBegin && supportStackBounds[idx - 1] > bound) {
+					supportStack[idx * 3 + 0] = supportStack[(idx - 1) * 3 + 0];
+					supportStack[idx * 3 + 1] = supportStack[(idx - 1) * 3 + 1];
+					supportStack[idx * 3 + 2] = supportStack[(idx - 1) * 3 + 2];
+					supportStackBounds[idx] = supportStackBounds[idx - 1];
+					idx--;
+				}
+				supportStack[idx * 3 + 0] = childLevel;
+				supportStack[idx * 3 + 1] = childX;
+				supportStack[idx * 3 + 2] = childZ;
+				supportStackBounds[idx] = bound;
+				stackSize++;
+			}
+		}
+		supportPoint.set(origin.getX() + xMax * spacingX, getHeight(xMax, zMax), origin.getZ() + zMax * spacingZ);
+	}
+
+	/**
+	 * Computes upper bound of x * a + height * b + z * c of grid vertices in given block
+	 * @param level
+	 * @param block x
+	 * @param block z
+	 * @param a
+	 * @param b
+	 * @param c
+	 * @return bound
+	 */
+	private float computeBlockBound(int level, int blockX, int blockZ, float a, float b, float c) {
+		int x0 = blockX << level;
+		int x1 = Math.min(((blockX + 1) << level) - 1, columns - 1);
+		int z0 = blockZ << level;
+		int z1 = Math.min(((blockZ + 1) << level) - 1, rows - 1);
+		int idx = blockZ * blockColumns[level] + blockX;
+		return
+			Math.max(x0 * a, x1 * a) +
+			Math.max(blockHeightsMin[level][idx] * b, blockHeightsMax[level][idx] * b) +
+			Math.max(z0 * c, z1 * c);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#update()
+	 */
+	public void update() {
+		float halfWidth = (columns - 1) * spacingX / 2f;
+		float halfHeight = (heightMax - heightMin) * Math.abs(scaleY) / 2f;
+		float halfDepth = (rows - 1) * spacingZ / 2f;
+		center.set(
+			origin.getX() + halfWidth,
+			origin.getY() + (heightMin + heightMax) * scaleY / 2f,
+			origin.getZ() + halfDepth
+		);
+		sphereRadius = (float)Math.sqrt(halfWidth * halfWidth + halfHeight * halfHeight + halfDepth * halfDepth);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#clone()
+	 */
+	public BoundingVolume clone() {
+		return new HeightField(origin.clone(), columns, rows, spacingX, spacingZ, scaleY, heights, blockColumns, blockRows, blockHeightsMin, blockHeightsMax);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return
+			"HeightField [origin=" + origin +
+			", columns=" + columns +
+			", rows=" + rows +
+			", spacingX=" + spacingX +
+			", spacingZ=" + spacingZ +
+			", scaleY=" + scaleY +
+			", heightMin=" + heightMin +
+			", heightMax=" + heightMax +
+			"]";
+	}
+
+}
@@ -65,8 +65,8 @@ public final class LineSegment {
 		if (a <= MathTools.EPSILON && e <= MathTools.EPSILON) {
 			s = 0.0f;
 			t = 0.0f;
-			c1 = p1;
-			c2 = p2;
+			c1.set(p1);
+			c2.set(p2);
 			return;
 		}
 		// first line segment degenerates into point?
@@ -193,7 +193,8 @@ public final class OrientedBoundingBox implements BoundingVolume {
 		center.set(obb.center);
 		for (int i = 0; i < axes.length; i++) axes[i].set(obb.axes[i]);
 		halfExtension.set(obb.halfExtension);
-		for (int i = 0; i < vertices.length; i++) vertices[i].set(obb.vertices[i]);		
+		for (int i = 0; i < vertices.length; i++) vertices[i].set(obb.vertices[i]);
+		sphereRadius = obb.sphereRadius;
 	}
 
 	/*
@@ -510,6 +511,12 @@ public final class OrientedBoundingBox implements BoundingVolume {
 		} else
 		if (bv2 instanceof ConvexMesh) {
 			return CollisionDetection.getInstance().doCollide(this, (ConvexMesh)bv2, movement, collision);
+		} else
+		if (bv2 instanceof HeightField) {
+			return CollisionDetection.getInstance().doCollide(this, (HeightField)bv2, movement, collision);
+		} else
+		if (bv2 instanceof TriangleMesh) {
+			return CollisionDetection.getInstance().doCollide(this, (TriangleMesh)bv2, movement, collision);
 		} else {
 			Console.println("OrientedBoundingBox::doesCollideWith(): unsupported bounding volume 2: " + bv2);
 			return false;
@@ -532,6 +539,23 @@ public final class OrientedBoundingBox implements BoundingVolume {
 		return Math.abs(max-min);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeSupportPoint(net.drewke.tdme.math.Vector3, net.drewke.tdme.math.Vector3)
+	 */
+	public void computeSupportPoint(Vector3 direction, Vector3 supportPoint) {
+		supportPoint.set(center);
+		float[] supportPointXYZ = supportPoint.getArray();
+		float[] halfExtensionXYZ = halfExtension.getArray();
+		for (int i = 0; i < axes.length; i++) {
+			float[] axisXYZ = axes[i].getArray();
+			float halfExtensionOnDirection = Vector3.computeDotProduct(axes[i], direction) >= 0f?halfExtensionXYZ[i]:-halfExtensionXYZ[i];
+			supportPointXYZ[0]+= axisXYZ[0] * halfExtensionOnDirection;
+			supportPointXYZ[1]+= axisXYZ[1] * halfExtensionOnDirection;
+			supportPointXYZ[2]+= axisXYZ[2] * halfExtensionOnDirection;
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.Object#clone()
@@ -0,0 +1,338 @@
+package net.drewke.tdme.engine.primitives;
+
+import java.util.ArrayList;
+
+import net.drewke.tdme.math.MathTools;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.utils.LongHashSet;
+
+/**
+ * Quickhull convex hull builder
+ * 	Input points are welded first, hull is grown from initial tetrahedron by adding the furthest outside point
+ * 	of any face until no outside points are left or max vertices are reached
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class QuickHull {
+
+	/**
+	 * Hull face with outward normal and its outside points
+	 */
+	private final static class Face {
+		private int[] vertices = new int[3];
+		private float[] normal = new float[3];
+		private float distance;
+		private boolean removed;
+		private int[] outsidePoints = new int[4];
+		private int outsidePointCount;
+		private int furthestPoint;
+		private float furthestPointDistance;
+
+		/**
+		 * Set up face from given points, normal points to side where v0, v1, v2 are counter clockwise
+		 * @param points
+		 * @param v0
+		 * @param v1
+		 * @param v2
+		 */
+		private void set(float[] points, int v0, int v1, int v2) {
+			vertices[0] = v0;
+			vertices[1] = v1;
+			vertices[2] = v2;
+			float e1x = points[v1 * 3 + 0] - points[v0 * 3 + 0];
+			float e1y = points[v1 * 3 + 1] - points[v0 * 3 + 1];
+			float e1z = points[v1 * 3 + 2] - points[v0 * 3 + 2];
+			float e2x = points[v2 * 3 + 0] - points[v0 * 3 + 0];
+			float e2y = points[v2 * 3 + 1] - points[v0 * 3 + 1];
+			float e2z = points[v2 * 3 + 2] - points[v0 * 3 + 2];
+			float nx = e1y * e2z - e1z * e2y;
+			float ny = e1z * e2x - e1x * e2z;
+			float nz = e1x * e2y - e1y * e2x;
+			float length = (float)Math.sqrt(nx * nx + ny * ny + nz * nz);
+			if (length > 0f) {
+				nx/= length;
+				ny/= length;
+				nz/= length;
+			}
+			normal[0] = nx;
+			normal[1] = ny;
+			normal[2] = nz;
+			distance = nx * points[v0 * 3 + 0] + ny * points[v0 * 3 + 1] + nz * points[v0 * 3 + 2];
+			removed = false;
+			outsidePointCount = 0;
+			furthestPoint = -1;
+			furthestPointDistance = 0f;
+		}
+
+		/**
+		 * Compute signed distance of given point to face plane
+		 * @param points
+		 * @param point
+		 * @return signed distance, positive if outside
+		 */
+		private float computeDistance(float[] points, int point) {
+			return
+				normal[0] * points[point * 3 + 0] +
+				normal[1] * points[point * 3 + 1] +
+				normal[2] * points[point * 3 + 2] -
+				distance;
+		}
+
+		/**
+		 * Add outside point
+		 * @param point
+		 * @param point distance
+		 */
+		private void addOutsidePoint(int point, float pointDistance) {
+			if (outsidePointCount == outsidePoints.length) {
+				int[] outsidePoints = new int[this.outsidePoints.length * 2];
+				System.arraycopy(this.outsidePoints, 0, outsidePoints, 0, outsidePointCount);
+				this.outsidePoints = outsidePoints;
+			}
+			outsidePoints[outsidePointCount++] = point;
+			if (furthestPoint == -1 || pointDistance > furthestPointDistance) {
+				furthestPoint = point;
+				furthestPointDistance = pointDistance;
+			}
+		}
+	}
+
+	private VertexWelder vertexWelder = new VertexWelder(MathTools.EPSILON);
+	private float[] points = new float[0];
+	private int pointCount;
+	private float epsilon;
+	private ArrayList<Face> faces = new ArrayList<Face>();
+	private int faceCount;
+	private ArrayList<Face> facesVisible = new ArrayList<Face>();
+	private ArrayList<Face> facesNew = new ArrayList<Face>();
+	private LongHashSet edgesVisible = new LongHashSet();
+
+	/**
+	 * Compute convex hull of given points
+	 * @param points
+	 * @param point count
+	 * @param vertices max or -1 for exact hull, a simplified hull might not contain all points
+	 * @return hull triangles with counter clockwise vertices seen from outside or null if points are coplanar or less than 4
+	 */
+	public Triangle[] computeConvexHull(Vector3[] points, int pointCount, int verticesMax) {
+		// weld points
+		vertexWelder.reset(pointCount);
+		for (int i = 0; i < pointCount; i++) vertexWelder.add(points[i]);
+		this.pointCount = vertexWelder.size();
+		if (this.pointCount < 4) return null;
+		if (this.points.length < this.pointCount * 3) this.points = new float[this.pointCount * 3];
+		float extent = 0f;
+		for (int i = 0; i < this.pointCount; i++) {
+			float[] pointXYZ = vertexWelder.get(i).getArray();
+			this.points[i * 3 + 0] = pointXYZ[0];
+			this.points[i * 3 + 1] = pointXYZ[1];
+			this.points[i * 3 + 2] = pointXYZ[2];
+			extent = Math.max(extent, Math.abs(pointXYZ[0]) + Math.abs(pointXYZ[1]) + Math.abs(pointXYZ[2]));
+		}
+		epsilon = Math.max(extent * 1e-6f, MathTools.EPSILON);
+
+		// initial tetrahedron
+		faces.clear();
+		if (createTetrahedron() == false) return null;
+		int hullVertexCount = 4;
+
+		// add furthest outside point of any face until there are none
+		while (verticesMax == -1 || hullVertexCount < verticesMax) {
+			Face face = null;
+			for (int i = 0; i < faces.size(); i++) {
+				Face _face = faces.get(i);
+				if (_face.removed == true || _face.furthestPoint == -1) continue;
+				if (face == null || _face.furthestPointDistance > face.furthestPointDistance) face = _face;
+			}
+			if (face == null) break;
+			addPoint(face.furthestPoint);
+			hullVertexCount++;
+		}
+
+		// create triangles of remaining faces
+		int triangleCount = 0;
+		for (int i = 0; i < faces.size(); i++) {
+			if (faces.get(i).removed == false) triangleCount++;
+		}
+		Triangle[] triangles = new Triangle[triangleCount];
+		triangleCount = 0;
+		for (int i = 0; i < faces.size(); i++) {
+			Face face = faces.get(i);
+			if (face.removed == true) continue;
+			triangles[triangleCount++] = new Triangle(
+				vertexWelder.get(face.vertices[0]).clone(),
+				vertexWelder.get(face.vertices[1]).clone(),
+				vertexWelder.get(face.vertices[2]).clone()
+			);
+		}
+		faces.clear();
+		return triangles;
+	}
+
+	/**
+	 * Create initial tetrahedron from extreme points and assign other points to its faces
+	 * @return success, false if points are coplanar
+	 */
+	private boolean createTetrahedron() {
+		// most distant extreme points on an axis
+		int v0 = 0;
+		int v1 = 0;
+		float extentMax = -1f;
+		for (int axis = 0; axis < 3; axis++) {
+			int min = 0;
+			int max = 0;
+			for (int i = 1; i < pointCount; i++) {
+				if (points[i * 3 + axis] < points[min * 3 + axis]) min = i;
+				if (points[i * 3 + axis] > points[max * 3 + axis]) max = i;
+			}
+			float extent = points[max * 3 + axis] - points[min * 3 + axis];
+			if (extent > extentMax) {
+				extentMax = extent;
+				v0 = min;
+				v1 = max;
+			}
+		}
+		if (extentMax < epsilon) return false;
+
+		// point most distant to line v0, v1
+		float dx = points[v1 * 3 + 0] - points[v0 * 3 + 0];
+		float dy = points[v1 * 3 + 1] - points[v0 * 3 + 1];
+		float dz = points[v1 * 3 + 2] - points[v0 * 3 + 2];
+		int v2 = -1;
+		float distanceMax = 0f;
+		for (int i = 0; i < pointCount; i++) {
+			float px = points[i * 3 + 0] - points[v0 * 3 + 0];
+			float py = points[i * 3 + 1] - points[v0 * 3 + 1];
+			float pz = points[i * 3 + 2] - points[v0 * 3 + 2];
+			float cx = py * dz - pz * dy;
+			float cy = pz * dx - px * dz;
+			float cz = px * dy - py * dx;
+			float distance = cx * cx + cy * cy + cz * cz;
+			if (distance > distanceMax) {
+				distanceMax = distance;
+				v2 = i;
+			}
+		}
+		if (v2 == -1 || Math.sqrt(distanceMax) / extentMax < epsilon) return false;
+
+		// point most distant to plane v0, v1, v2
+		Face face = new Face();
+		face.set(points, v0, v1, v2);
+		int v3 = -1;
+		distanceMax = 0f;
+		for (int i = 0; i < pointCount; i++) {
+			float distance = Math.abs(face.computeDistance(points, i));
+			if (distance > distanceMax) {
+				distanceMax = distance;
+				v3 = i;
+			}
+		}
+		if (v3 == -1 || distanceMax < epsilon) return false;
+
+		// create faces with normals pointing away from v3
+		if (face.computeDistance(points, v3) > 0f) {
+			int tmp = v1;
+			v1 = v2;
+			v2 = tmp;
+		}
+		createFace(v0, v1, v2);
+		createFace(v0, v3, v1);
+		createFace(v1, v3, v2);
+		createFace(v2, v3, v0);
+		faceCount = 4;
+
+		// assign outside points
+		for (int i = 0; i < pointCount; i++) {
+			if (i == v0 || i == v1 || i == v2 || i == v3) continue;
+			assignOutsidePoint(faces, i);
+		}
+		return true;
+	}
+
+	/**
+	 * Create face
+	 * @param v0
+	 * @param v1
+	 * @param v2
+	 * @return face
+	 */
+	private Face createFace(int v0, int v1, int v2) {
+		Face face = new Face();
+		face.set(points, v0, v1, v2);
+		faces.add(face);
+		return face;
+	}
+
+	/**
+	 * Assign point to first face in given faces it is outside of
+	 * @param faces
+	 * @param point
+	 */
+	private void assignOutsidePoint(ArrayList<Face> faces, int point) {
+		for (int i = 0; i < faces.size(); i++) {
+			Face face = faces.get(i);
+			float distance = face.computeDistance(points, point);
+			if (distance > epsilon) {
+				face.addOutsidePoint(point, distance);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Add point to hull, faces visible from point are replaced by faces from horizon edges to point
+	 * @param point
+	 */
+	private void addPoint(int point) {
+		// visible faces and their edges
+		facesVisible.clear();
+		edgesVisible.clear();
+		for (int i = 0; i < faces.size(); i++) {
+			Face face = faces.get(i);
+			if (face.removed == true) continue;
+			if (face.computeDistance(points, point) > epsilon) {
+				face.removed = true;
+				facesVisible.add(face);
+				for (int j = 0; j < 3; j++) {
+					edgesVisible.add(LongHashSet.pack(face.vertices[j], face.vertices[(j + 1) % 3]));
+				}
+			}
+		}
+
+		// create faces from horizon edges, which are edges of visible faces with invisible neighbour face
+		facesNew.clear();
+		for (int i = 0; i < facesVisible.size(); i++) {
+			Face face = facesVisible.get(i);
+			for (int j = 0; j < 3; j++) {
+				int edgeV0 = face.vertices[j];
+				int edgeV1 = face.vertices[(j + 1) % 3];
+				if (edgesVisible.contains(LongHashSet.pack(edgeV1, edgeV0)) == true) continue;
+				facesNew.add(createFace(edgeV0, edgeV1, point));
+			}
+		}
+
+		// reassign outside points of visible faces, points inside of new hull are dropped
+		for (int i = 0; i < facesVisible.size(); i++) {
+			Face face = facesVisible.get(i);
+			for (int j = 0; j < face.outsidePointCount; j++) {
+				int outsidePoint = face.outsidePoints[j];
+				if (outsidePoint == point) continue;
+				assignOutsidePoint(facesNew, outsidePoint);
+			}
+			face.outsidePointCount = 0;
+			face.furthestPoint = -1;
+		}
+
+		// compact faces if most of them have been removed
+		faceCount+= facesNew.size() - facesVisible.size();
+		if (faces.size() > 64 && faces.size() > faceCount * 2) {
+			int faceIdx = 0;
+			for (int i = 0; i < faces.size(); i++) {
+				Face face = faces.get(i);
+				if (face.removed == false) faces.set(faceIdx++, face);
+			}
+			while (faces.size() > faceIdx) faces.remove(faces.size() - 1);
+		}
+	}
+
+}
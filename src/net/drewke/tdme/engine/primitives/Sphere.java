@@ -4,6 +4,7 @@ import net.drewke.tdme.engine.Transformations;
 import net.drewke.tdme.engine.physics.CollisionDetection;
 import net.drewke.tdme.engine.physics.CollisionResponse;
 import net.drewke.tdme.math.Matrix4x4;
+import net.drewke.tdme.math.MathTools;
 import net.drewke.tdme.math.Vector3;
 import net.drewke.tdme.utils.Console;
 
@@ -189,6 +190,12 @@ public final class Sphere implements BoundingVolume {
 		} else
 		if (bv2 instanceof ConvexMesh) {
 			return CollisionDetection.getInstance().doCollide(this, (ConvexMesh)bv2, movement, collision);
+		} else
+		if (bv2 instanceof HeightField) {
+			return CollisionDetection.getInstance().doCollide(this, (HeightField)bv2, movement, collision);
+		} else
+		if (bv2 instanceof TriangleMesh) {
+			return CollisionDetection.getInstance().doCollide(this, (TriangleMesh)bv2, movement, collision);
 		} else {
 			Console.println("Sphere::doesCollideWith(): unsupported bounding volume 2: " + bv2);
 			return false;
@@ -203,6 +210,19 @@ public final class Sphere implements BoundingVolume {
 		return radius * 2f;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeSupportPoint(net.drewke.tdme.math.Vector3, net.drewke.tdme.math.Vector3)
+	 */
+	public void computeSupportPoint(Vector3 direction, Vector3 supportPoint) {
+		float directionLength = direction.computeLength();
+		if (directionLength < MathTools.EPSILON) {
+			supportPoint.set(center);
+			return;
+		}
+		supportPoint.set(direction).scale(radius / directionLength).add(center);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#update()
@@ -170,7 +170,7 @@ public final class Triangle implements BoundingVolume {
 					s = MathTools.clamp(numer / denom, 0.0f, 1.f);
 					t = 1 - s;
 				} else {
-					s = MathTools.clamp(-e / c, 0.0f, 1.0f);
+					s = MathTools.clamp(-d / a, 0.0f, 1.0f);
 					t = 0.f;
 				}
 			} else {
@@ -217,6 +217,12 @@ public final class Triangle implements BoundingVolume {
 		} else
 		if (bv2 instanceof ConvexMesh) {
 			return CollisionDetection.getInstance().doCollide(this, (ConvexMesh)bv2, movement, collision);
+		} else
+		if (bv2 instanceof HeightField) {
+			return CollisionDetection.getInstance().doCollide(this, (HeightField)bv2, movement, collision);
+		} else
+		if (bv2 instanceof TriangleMesh) {
+			return CollisionDetection.getInstance().doCollide(this, (TriangleMesh)bv2, movement, collision);
 		} else {
 			Console.println("Triangle::doesCollideWith(): unsupported bounding volume 2: " + bv2);
 			return false;
@@ -255,6 +261,23 @@ public final class Triangle implements BoundingVolume {
 		return Math.abs(max-min);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeSupportPoint(net.drewke.tdme.math.Vector3, net.drewke.tdme.math.Vector3)
+	 */
+	public void computeSupportPoint(Vector3 direction, Vector3 supportPoint) {
+		Vector3 vertexMax = vertices[0];
+		float vertexOnDirectionMax = Vector3.computeDotProduct(vertices[0], direction);
+		for (int i = 1; i < vertices.length; i++) {
+			float vertexOnDirection = Vector3.computeDotProduct(vertices[i], direction);
+			if (vertexOnDirection > vertexOnDirectionMax) {
+				vertexOnDirectionMax = vertexOnDirection;
+				vertexMax = vertices[i];
+			}
+		}
+		supportPoint.set(vertexMax);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#update()
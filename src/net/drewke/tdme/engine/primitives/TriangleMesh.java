@@ -0,0 +1,728 @@
+package net.drewke.tdme.engine.primitives;
+
+import net.drewke.tdme.engine.Object3DModel;
+import net.drewke.tdme.engine.Transformations;
+import net.drewke.tdme.engine.physics.CollisionDetection;
+import net.drewke.tdme.engine.physics.CollisionResponse;
+import net.drewke.tdme.math.MathTools;
+import net.drewke.tdme.math.Matrix4x4;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.utils.Console;
+
+/**
+ * Concave triangle mesh collision object, meant for static level geometry
+ * 	Triangles are stored in a flat vertex array ordered by a precomputed bounding volume hierarchy,
+ * 	narrow phase tests only visit triangles whose bounds overlap the other bounding volume.
+ * 	The hierarchy is built once, transformations only refit node bounds.
+ * 	Copies made by fromBoundingVolume() share the geometry of their original and are meant to be read only
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class TriangleMesh implements BoundingVolume {
+
+	private final static int BOUNDS_SIZE = 6;
+	private final static int LEAF_TRIANGLES_MAX = 4;
+
+	// triangles, 9 floats per triangle
+	protected float[] vertices;
+	protected int triangleCount;
+
+	// hierarchy
+	//	min x, y, z, max x, y, z
+	protected float[] nodeBounds;
+	//	first child for inner nodes, children are stored consecutive, first triangle for leafs
+	protected int[] nodeFirst;
+	//	triangle count for leafs, 0 for inner nodes
+	protected int[] nodeTriangleCount;
+	protected int nodeCount;
+	protected boolean geometryShared;
+
+	protected Vector3 center;
+	protected float sphereRadius;
+
+	// queries
+	private int[] stack;
+	private int resultCount;
+	private int[] results;
+	private float[] segmentStart;
+	private float[] segmentDelta;
+
+	private Triangle triangle;
+	private Vector3 vertex;
+	private Vector3 closestPoint;
+	private Vector3 distanceVector;
+
+	/**
+	 * Public constructor
+	 * @param triangles
+	 */
+	public TriangleMesh(Triangle[] triangles) {
+		init();
+		triangleCount = triangles.length;
+		vertices = new float[triangleCount * 9];
+		for (int i = 0; i < triangleCount; i++)
+		for (int j = 0; j < 3; j++) {
+			System.arraycopy(triangles[i].vertices[j].getArray(), 0, vertices, i * 9 + j * 3, 3);
+		}
+		buildHierarchy();
+		update();
+	}
+
+	/**
+	 * Public constructor
+	 * @param model
+	 */
+	public TriangleMesh(Object3DModel model) {
+		this(model.getFaceTriangles());
+	}
+
+	/**
+	 * Private constructor, sets up a copy of given triangle mesh
+	 * @param triangle mesh
+	 */
+	private TriangleMesh(TriangleMesh triangleMesh) {
+		init();
+		triangleCount = triangleMesh.triangleCount;
+		vertices = triangleMesh.vertices.clone();
+		nodeBounds = triangleMesh.nodeBounds.clone();
+		nodeFirst = triangleMesh.nodeFirst;
+		nodeTriangleCount = triangleMesh.nodeTriangleCount;
+		nodeCount = triangleMesh.nodeCount;
+		center.set(triangleMesh.center);
+		sphereRadius = triangleMesh.sphereRadius;
+	}
+
+	/**
+	 * Init
+	 */
+	private void init() {
+		center = new Vector3();
+		stack = new int[64];
+		results = new int[64];
+		segmentStart = new float[3];
+		segmentDelta = new float[3];
+		triangle = new Triangle(new Vector3(), new Vector3(), new Vector3());
+		vertex = new Vector3();
+		closestPoint = new Vector3();
+		distanceVector = new Vector3();
+	}
+
+	/**
+	 * Build bounding volume hierarchy, reorders triangles
+	 */
+	private void buildHierarchy() {
+		// triangle centroids
+		int[] triangleIndices = new int[triangleCount];
+		float[] centroids = new float[triangleCount * 3];
+		for (int i = 0; i < triangleCount; i++) {
+			triangleIndices[i] = i;
+			for (int axis = 0; axis < 3; axis++) {
+				centroids[i * 3 + axis] = (vertices[i * 9 + axis] + vertices[i * 9 + 3 + axis] + vertices[i * 9 + 6 + axis]) / 3f;
+			}
+		}
+
+		// build nodes
+		int nodeCapacity = Math.max(1, 2 * triangleCount);
+		nodeBounds = new float[nodeCapacity * BOUNDS_SIZE];
+		nodeFirst = new int[nodeCapacity];
+		nodeTriangleCount = new int[nodeCapacity];
+		nodeCount = 1;
+		buildNode(0, 0, triangleCount, triangleIndices, centroids);
+
+		// reorder triangles
+		float[] orderedVertices = new float[vertices.length];
+		for (int i = 0; i < triangleCount; i++) {
+			System.arraycopy(vertices, triangleIndices[i] * 9, orderedVertices, i * 9, 9);
+		}
+		vertices = orderedVertices;
+
+		// trim
+		float[] newNodeBounds = new float[nodeCount * BOUNDS_SIZE];
+		int[] newNodeFirst = new int[nodeCount];
+		int[] newNodeTriangleCount = new int[nodeCount];
+		System.arraycopy(nodeBounds, 0, newNodeBounds, 0, newNodeBounds.length);
+		System.arraycopy(nodeFirst, 0, newNodeFirst, 0, nodeCount);
+		System.arraycopy(nodeTriangleCount, 0, newNodeTriangleCount, 0, nodeCount);
+		nodeBounds = newNodeBounds;
+		nodeFirst = newNodeFirst;
+		nodeTriangleCount = newNodeTriangleCount;
+
+		//
+		refit();
+	}
+
+	/**
+	 * Build node for given triangle range, splits at median of centroids on longest axis
+	 * @param node
+	 * @param start
+	 * @param end
+	 * @param triangle indices
+	 * @param centroids
+	 */
+	private void buildNode(int node, int start, int end, int[] triangleIndices, float[] centroids) {
+		// leaf
+		if (end - start <= LEAF_TRIANGLES_MAX) {
+			nodeFirst[node] = start;
+			nodeTriangleCount[node] = end - start;
+			return;
+		}
+
+		// determine longest axis of centroid bounds
+		float[] centroidMin = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+		float[] centroidMax = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+		for (int i = start; i < end; i++)
+		for (int axis = 0; axis < 3; axis++) {
+			float centroid = centroids[triangleIndices[i] * 3 + axis];
+			if (centroid < centroidMin[axis]) centroidMin[axis] = centroid;
+			if (centroid > centroidMax[axis]) centroidMax[axis] = centroid;
+		}
+		int splitAxis = 0;
+		for (int axis = 1; axis < 3; axis++) {
+			if (centroidMax[axis] - centroidMin[axis] > centroidMax[splitAxis] - centroidMin[splitAxis]) splitAxis = axis;
+		}
+
+		// split at median
+		int mid = (start + end) / 2;
+		selectNth(triangleIndices, centroids, splitAxis, start, end - 1, mid);
+
+		// children
+		int child = nodeCount;
+		nodeCount+= 2;
+		nodeFirst[node] = child;
+		nodeTriangleCount[node] = 0;
+		buildNode(child, start, mid, triangleIndices, centroids);
+		buildNode(child + 1, mid, end, triangleIndices, centroids);
+	}
+
+	/**
+	 * Partially sort triangle indices, so that index n holds the triangle which centroid would be at n if sorted on given axis
+	 * @param triangle indices
+	 * @param centroids
+	 * @param axis
+	 * @param left
+	 * @param right
+	 * @param n
+	 */
+	private static void selectNth(int[] triangleIndices, float[] centroids, int axis, int left, int right, int n) {
+		while (left < right) {
+			float pivot = centroids[triangleIndices[(left + right) >>> 1] * 3 + axis];
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (centroids[triangleIndices[i] * 3 + axis] < pivot) i++;
+				while (centroids[triangleIndices[j] * 3 + axis] > pivot) j--;
+				if (i <= j) {
+					int tmp = triangleIndices[i];
+					triangleIndices[i] = triangleIndices[j];
+					triangleIndices[j] = tmp;
+					i++;
+					j--;
+				}
+			}
+			if (n <= j) {
+				right = j;
+			} else
+			if (n >= i) {
+				left = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Refit node bounds to triangles, children are always stored after their parent
+	 */
+	private void refit() {
+		for (int node = nodeCount - 1; node >= 0; node--) {
+			int offset = node * BOUNDS_SIZE;
+			if (nodeTriangleCount[node] > 0 || nodeFirst[node] == 0) {
+				// leaf
+				for (int axis = 0; axis < 3; axis++) {
+					nodeBounds[offset + axis] = Float.MAX_VALUE;
+					nodeBounds[offset + 3 + axis] = -Float.MAX_VALUE;
+				}
+				int vertexOffset = nodeFirst[node] * 9;
+				int vertexEnd = vertexOffset + nodeTriangleCount[node] * 9;
+				for (; vertexOffset < vertexEnd; vertexOffset+= 3)
+				for (int axis = 0; axis < 3; axis++) {
+					float value = vertices[vertexOffset + axis];
+					if (value < nodeBounds[offset + axis]) nodeBounds[offset + axis] = value;
+					if (value > nodeBounds[offset + 3 + axis]) nodeBounds[offset + 3 + axis] = value;
+				}
+			} else {
+				// inner node
+				int child1Offset = nodeFirst[node] * BOUNDS_SIZE;
+				int child2Offset = child1Offset + BOUNDS_SIZE;
+				for (int axis = 0; axis < 3; axis++) {
+					nodeBounds[offset + axis] = Math.min(nodeBounds[child1Offset + axis], nodeBounds[child2Offset + axis]);
+					nodeBounds[offset + 3 + axis] = Math.max(nodeBounds[child1Offset + 3 + axis], nodeBounds[child2Offset + 3 + axis]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return triangle count
+	 */
+	public int getTriangleCount() {
+		return triangleCount;
+	}
+
+	/**
+	 * @return hierarchy node count
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Set up given triangle from triangle with given index
+	 * @param triangle index
+	 * @param triangle
+	 */
+	public void computeTriangle(int triangleIdx, Triangle triangle) {
+		int offset = triangleIdx * 9;
+		triangle.vertices[0].set(vertices[offset + 0], vertices[offset + 1], vertices[offset + 2]);
+		triangle.vertices[1].set(vertices[offset + 3], vertices[offset + 4], vertices[offset + 5]);
+		triangle.vertices[2].set(vertices[offset + 6], vertices[offset + 7], vertices[offset + 8]);
+		triangle.update();
+	}
+
+	/**
+	 * Query triangles which bounds overlap given bounds
+	 * @param min x
+	 * @param min y
+	 * @param min z
+	 * @param max x
+	 * @param max y
+	 * @param max z
+	 * @return number of results
+	 */
+	public int queryAABB(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		resultCount = 0;
+		if (triangleCount == 0) return 0;
+		int stackSize = push(0, 0);
+		while (stackSize > 0) {
+			int node = stack[--stackSize];
+			int offset = node * BOUNDS_SIZE;
+			if (nodeBounds[offset + 0] > maxX || minX > nodeBounds[offset + 3] ||
+				nodeBounds[offset + 1] > maxY || minY > nodeBounds[offset + 4] ||
+				nodeBounds[offset + 2] > maxZ || minZ > nodeBounds[offset + 5]) {
+				continue;
+			}
+			if (nodeTriangleCount[node] > 0) {
+				for (int i = 0; i < nodeTriangleCount[node]; i++) {
+					int triangleIdx = nodeFirst[node] + i;
+					int vertexOffset = triangleIdx * 9;
+					// test triangle bounds
+					if (Math.min(vertices[vertexOffset + 0], Math.min(vertices[vertexOffset + 3], vertices[vertexOffset + 6])) > maxX ||
+						Math.max(vertices[vertexOffset + 0], Math.max(vertices[vertexOffset + 3], vertices[vertexOffset + 6])) < minX ||
+						Math.min(vertices[vertexOffset + 1], Math.min(vertices[vertexOffset + 4], vertices[vertexOffset + 7])) > maxY ||
+						Math.max(vertices[vertexOffset + 1], Math.max(vertices[vertexOffset + 4], vertices[vertexOffset + 7])) < minY ||
+						Math.min(vertices[vertexOffset + 2], Math.min(vertices[vertexOffset + 5], vertices[vertexOffset + 8])) > maxZ ||
+						Math.max(vertices[vertexOffset + 2], Math.max(vertices[vertexOffset + 5], vertices[vertexOffset + 8])) < minZ) {
+						continue;
+					}
+					addResult(triangleIdx);
+				}
+			} else
+			if (nodeFirst[node] != 0) {
+				stackSize = push(stackSize, nodeFirst[node]);
+				stackSize = push(stackSize, nodeFirst[node] + 1);
+			}
+		}
+		return resultCount;
+	}
+
+	/**
+	 * Query triangles which are in nodes hit by line segment from p to q
+	 * @param p x
+	 * @param p y
+	 * @param p z
+	 * @param q x
+	 * @param q y
+	 * @param q z
+	 * @param max fraction of segment to take into account
+	 * @return number of results
+	 */
+	public int queryRay(float pX, float pY, float pZ, float qX, float qY, float qZ, float fractionMax) {
+		resultCount = 0;
+		if (triangleCount == 0) return 0;
+		segmentStart[0] = pX;
+		segmentStart[1] = pY;
+		segmentStart[2] = pZ;
+		segmentDelta[0] = qX - pX;
+		segmentDelta[1] = qY - pY;
+		segmentDelta[2] = qZ - pZ;
+		int stackSize = push(0, 0);
+		while (stackSize > 0) {
+			int node = stack[--stackSize];
+			if (doesSegmentHitNode(node, fractionMax) == false) continue;
+			if (nodeTriangleCount[node] > 0) {
+				for (int i = 0; i < nodeTriangleCount[node]; i++) {
+					addResult(nodeFirst[node] + i);
+				}
+			} else
+			if (nodeFirst[node] != 0) {
+				stackSize = push(stackSize, nodeFirst[node]);
+				stackSize = push(stackSize, nodeFirst[node] + 1);
+			}
+		}
+		return resultCount;
+	}
+
+	/**
+	 * Slab test of current query segment against node bounds
+	 * @param node
+	 * @param max fraction of segment to take into account
+	 * @return if segment hits node bounds
+	 */
+	private boolean doesSegmentHitNode(int node, float fractionMax) {
+		int offset = node * BOUNDS_SIZE;
+		float fractionMin = 0f;
+		for (int axis = 0; axis < 3; axis++) {
+			float min = nodeBounds[offset + axis];
+			float max = nodeBounds[offset + axis + 3];
+			float start = segmentStart[axis];
+			float delta = segmentDelta[axis];
+			if (Math.abs(delta) < MathTools.EPSILON) {
+				if (start < min || start > max) return false;
+				continue;
+			}
+			float fraction1 = (min - start) / delta;
+			float fraction2 = (max - start) / delta;
+			if (fraction1 > fraction2) {
+				float tmp = fraction1;
+				fraction1 = fraction2;
+				fraction2 = tmp;
+			}
+			if (fraction1 > fractionMin) fractionMin = fraction1;
+			if (fraction2 < fractionMax) fractionMax = fraction2;
+			if (fractionMin > fractionMax) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Push node onto query stack
+	 * @param stack size
+	 * @param node
+	 * @return new stack size
+	 */
+	private int push(int stackSize, int node) {
+		if (stackSize == stack.length) {
+			int[] newStack = new int[stack.length * 2];
+			System.arraycopy(stack, 0, newStack, 0, stack.length);
+			stack = newStack;
+		}
+		stack[stackSize] = node;
+		return stackSize + 1;
+	}
+
+	/**
+	 * Add given triangle to query results
+	 * @param triangle index
+	 */
+	private void addResult(int triangleIdx) {
+		if (resultCount == results.length) {
+			int[] newResults = new int[results.length * 2];
+			System.arraycopy(results, 0, newResults, 0, results.length);
+			results = newResults;
+		}
+		results[resultCount++] = triangleIdx;
+	}
+
+	/**
+	 * @return number of results of last query
+	 */
+	public int getResultCount() {
+		return resultCount;
+	}
+
+	/**
+	 * @param idx
+	 * @return triangle index of result at given index of last query
+	 */
+	public int getResult(int idx) {
+		return results[idx];
+	}
+
+	/**
+	 * Computes height of highest triangle on given x, z position which is below given max height
+	 * @param x
+	 * @param z
+	 * @param height max
+	 * @return height or NaN if there is no triangle below height max on x, z
+	 */
+	public float computeHeight(float x, float z, float heightMax) {
+		float height = Float.NaN;
+		int count = queryAABB(x, -Float.MAX_VALUE, z, x, heightMax, z);
+		for (int i = 0; i < count; i++) {
+			int offset = results[i] * 9;
+			float x0 = vertices[offset + 0], y0 = vertices[offset + 1], z0 = vertices[offset + 2];
+			float x1 = vertices[offset + 3], y1 = vertices[offset + 4], z1 = vertices[offset + 5];
+			float x2 = vertices[offset + 6], y2 = vertices[offset + 7], z2 = vertices[offset + 8];
+			// barycentric coordinates on x, z plane
+			float det = (z1 - z2) * (x0 - x2) + (x2 - x1) * (z0 - z2);
+			if (Math.abs(det) < 1e-9f) continue;
+			float b0 = ((z1 - z2) * (x - x2) + (x2 - x1) * (z - z2)) / det;
+			float b1 = ((z2 - z0) * (x - x2) + (x0 - x2) * (z - z2)) / det;
+			float b2 = 1f - b0 - b1;
+			if (b0 < -1e-5f || b1 < -1e-5f || b2 < -1e-5f) continue;
+			float triangleHeight = b0 * y0 + b1 * y1 + b2 * y2;
+			if (triangleHeight < heightMax && (Float.isNaN(height) == true || triangleHeight > height)) {
+				height = triangleHeight;
+			}
+		}
+		return height;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#fromBoundingVolume(net.drewke.tdme.engine.primitives.BoundingVolume)
+	 */
+	public void fromBoundingVolume(BoundingVolume original) {
+		// check for same type of original
+		if (original instanceof TriangleMesh == false) {
+			Console.println("TriangleMesh::fromBoundingVolume(): original is not of same type");
+			return;
+		}
+
+		// share geometry
+		TriangleMesh triangleMesh = (TriangleMesh)original;
+		triangleCount = triangleMesh.triangleCount;
+		vertices = triangleMesh.vertices;
+		nodeBounds = triangleMesh.nodeBounds;
+		nodeFirst = triangleMesh.nodeFirst;
+		nodeTriangleCount = triangleMesh.nodeTriangleCount;
+		nodeCount = triangleMesh.nodeCount;
+		geometryShared = true;
+		center.set(triangleMesh.center);
+		sphereRadius = triangleMesh.sphereRadius;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#fromBoundingVolumeWithTransformations(net.drewke.tdme.engine.primitives.BoundingVolume, net.drewke.tdme.engine.Transformations)
+	 */
+	public void fromBoundingVolumeWithTransformations(BoundingVolume original, Transformations transformations) {
+		// check for same type of original
+		if (original instanceof TriangleMesh == false) {
+			Console.println("TriangleMesh::fromBoundingVolumeWithTransformations(): original is not of same type");
+			return;
+		}
+
+		// own geometry if shared or not matching
+		TriangleMesh triangleMesh = (TriangleMesh)original;
+		if (geometryShared == true || vertices == triangleMesh.vertices || vertices.length != triangleMesh.vertices.length) {
+			vertices = new float[triangleMesh.vertices.length];
+			nodeBounds = new float[triangleMesh.nodeBounds.length];
+			geometryShared = false;
+		}
+		triangleCount = triangleMesh.triangleCount;
+		nodeFirst = triangleMesh.nodeFirst;
+		nodeTriangleCount = triangleMesh.nodeTriangleCount;
+		nodeCount = triangleMesh.nodeCount;
+
+		// transform vertices
+		Matrix4x4 transformationsMatrix = transformations.getTransformationsMatrix();
+		float[] vertexXYZ = vertex.getArray();
+		for (int offset = 0; offset < vertices.length; offset+= 3) {
+			vertex.set(triangleMesh.vertices[offset + 0], triangleMesh.vertices[offset + 1], triangleMesh.vertices[offset + 2]);
+			transformationsMatrix.multiply(vertex, vertex);
+			vertices[offset + 0] = vertexXYZ[0];
+			vertices[offset + 1] = vertexXYZ[1];
+			vertices[offset + 2] = vertexXYZ[2];
+		}
+
+		// refit hierarchy
+		refit();
+		update();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeClosestPointOnBoundingVolume(net.drewke.tdme.math.Vector3, net.drewke.tdme.math.Vector3)
+	 */
+	public void computeClosestPointOnBoundingVolume(Vector3 point, Vector3 closestPoint) {
+		if (triangleCount == 0) return;
+		float[] pointXYZ = point.getArray();
+		float distanceSquared = Float.MAX_VALUE;
+		int stackSize = push(0, 0);
+		while (stackSize > 0) {
+			int node = stack[--stackSize];
+
+			// skip nodes which are farther away than closest point found so far
+			int offset = node * BOUNDS_SIZE;
+			float nodeDistanceSquared = 0f;
+			for (int axis = 0; axis < 3; axis++) {
+				float distance = Math.max(0f, Math.max(nodeBounds[offset + axis] - pointXYZ[axis], pointXYZ[axis] - nodeBounds[offset + 3 + axis]));
+				nodeDistanceSquared+= distance * distance;
+			}
+			if (nodeDistanceSquared > distanceSquared) continue;
+
+			//
+			if (nodeTriangleCount[node] > 0) {
+				for (int i = 0; i < nodeTriangleCount[node]; i++) {
+					computeTriangle(nodeFirst[node] + i, triangle);
+					triangle.computeClosestPointOnBoundingVolume(point, this.closestPoint);
+					float _distanceSquared = distanceVector.set(point).sub(this.closestPoint).computeLengthSquared();
+					if (_distanceSquared < distanceSquared) {
+						distanceSquared = _distanceSquared;
+						closestPoint.set(this.closestPoint);
+					}
+				}
+			} else
+			if (nodeFirst[node] != 0) {
+				stackSize = push(stackSize, nodeFirst[node]);
+				stackSize = push(stackSize, nodeFirst[node] + 1);
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#containsPoint(net.drewke.tdme.math.Vector3)
+	 */
+	public boolean containsPoint(Vector3 point) {
+		// triangle meshes do not enclose a volume, so only points on triangles are contained
+		computeClosestPointOnBoundingVolume(point, closestPoint);
+		return closestPoint.equals(point);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#doesCollideWith(net.drewke.tdme.engine.primitives.BoundingVolume, net.drewke.tdme.math.Vector3, net.drewke.tdme.engine.physics.CollisionResponse)
+	 */
+	public boolean doesCollideWith(BoundingVolume bv2, Vector3 movement, CollisionResponse collision) {
+		if (bv2 instanceof BoundingBox) {
+			return CollisionDetection.getInstance().doCollide(this, (BoundingBox)bv2, movement, collision);
+		} else
+		if (bv2 instanceof OrientedBoundingBox) {
+			return CollisionDetection.getInstance().doCollide(this, (OrientedBoundingBox)bv2, movement, collision);
+		} else
+		if (bv2 instanceof Sphere) {
+			return CollisionDetection.getInstance().doCollide(this, (Sphere)bv2, movement, collision);
+		} else
+		if (bv2 instanceof Capsule) {
+			return CollisionDetection.getInstance().doCollide(this, (Capsule)bv2, movement, collision);
+		} else
+		if (bv2 instanceof Triangle) {
+			return CollisionDetection.getInstance().doCollide(this, (Triangle)bv2, movement, collision);
+		} else
+		if (bv2 instanceof ConvexMesh) {
+			return CollisionDetection.getInstance().doCollide(this, (ConvexMesh)bv2, movement, collision);
+		} else {
+			Console.println("TriangleMesh::doesCollideWith(): unsupported bounding volume 2: " + bv2);
+			return false;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#getCenter()
+	 */
+	public Vector3 getCenter() {
+		return center;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#getSphereRadius()
+	 */
+	public float getSphereRadius() {
+		return sphereRadius;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeDimensionOnAxis(net.drewke.tdme.math.Vector3)
+	 */
+	public float computeDimensionOnAxis(Vector3 axis) {
+		if (triangleCount == 0) return 0f;
+		float[] axisXYZ = axis.getArray();
+		return
+			Math.abs(axisXYZ[0]) * (nodeBounds[3] - nodeBounds[0]) +
+			Math.abs(axisXYZ[1]) * (nodeBounds[4] - nodeBounds[1]) +
+			Math.abs(axisXYZ[2]) * (nodeBounds[5] - nodeBounds[2]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#computeSupportPoint(net.drewke.tdme.math.Vector3, net.drewke.tdme.math.Vector3)
+	 */
+	public void computeSupportPoint(Vector3 direction, Vector3 supportPoint) {
+		float[] directionXYZ = direction.getArray();
+		int offsetMax = 0;
+		float vertexOnDirectionMax = Float.NEGATIVE_INFINITY;
+		for (int offset = 0; offset < vertices.length; offset+= 3) {
+			float vertexOnDirection =
+				vertices[offset + 0] * directionXYZ[0] +
+				vertices[offset + 1] * directionXYZ[1] +
+				vertices[offset + 2] * directionXYZ[2];
+			if (vertexOnDirection > vertexOnDirectionMax) {
+				vertexOnDirectionMax = vertexOnDirection;
+				offsetMax = offset;
+			}
+		}
+		if (vertices.length == 0) {
+			supportPoint.set(center);
+			return;
+		}
+		supportPoint.set(vertices[offsetMax + 0], vertices[offsetMax + 1], vertices[offsetMax + 2]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.primitives.BoundingVolume#update()
+	 */
+	public void update() {
+		if (triangleCount == 0) {
+			center.set(0f, 0f, 0f);
+			sphereRadius = 0f;
+			return;
+		}
+
+		// center of root bounds
+		center.set(
+			(nodeBounds[0] + nodeBounds[3]) / 2f,
+			(nodeBounds[1] + nodeBounds[4]) / 2f,
+			(nodeBounds[2] + nodeBounds[5]) / 2f
+		);
+
+		// sphere radius
+		float[] centerXYZ = center.getArray();
+		float sphereRadiusSquared = 0f;
+		for (int offset = 0; offset < vertices.length; offset+= 3) {
+			float x = vertices[offset + 0] - centerXYZ[0];
+			float y = vertices[offset + 1] - centerXYZ[1];
+			float z = vertices[offset + 2] - centerXYZ[2];
+			float _sphereRadiusSquared = x * x + y * y + z * z;
+			if (_sphereRadiusSquared > sphereRadiusSquared) sphereRadiusSquared = _sphereRadiusSquared;
+		}
+		sphereRadius = (float)Math.sqrt(sphereRadiusSquared);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#clone()
+	 */
+	public BoundingVolume clone() {
+		return new TriangleMesh(this);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return
+			"TriangleMesh [center=" + center +
+			", sphereRadius=" + sphereRadius +
+			", triangles=" + triangleCount +
+			", nodes=" + nodeCount +
+			"]";
+	}
+
+}
@@ -0,0 +1,155 @@
+package net.drewke.tdme.engine.primitives;
+
+import net.drewke.tdme.math.Vector3;
+
+/**
+ * Welds vertices within tolerance using a spatial hash grid with cell size of tolerance,
+ * 	so only vertices of the 27 cells around a vertex are compared
+ * 	Also used to find unique normalized directions, see ConvexMesh
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+final class VertexWelder {
+
+	private float tolerance;
+	private int vertexCount;
+	private Vector3[] vertices;
+	private long[] vertexCells;
+	private int[] vertexNext;
+	private int[] buckets;
+
+	/**
+	 * Constructor
+	 * @param tolerance
+	 */
+	VertexWelder(float tolerance) {
+		this.tolerance = tolerance;
+		this.vertexCount = 0;
+		this.vertices = new Vector3[0];
+		this.vertexCells = new long[0];
+		this.vertexNext = new int[0];
+		this.buckets = new int[0];
+	}
+
+	/**
+	 * Reset welder for given number of vertices to add
+	 * @param capacity
+	 */
+	void reset(int capacity) {
+		vertexCount = 0;
+		if (vertices.length < capacity) {
+			vertices = new Vector3[capacity];
+			vertexCells = new long[capacity * 3];
+			vertexNext = new int[capacity];
+		}
+		int bucketCount = 16;
+		while (bucketCount < capacity * 2) bucketCount*= 2;
+		if (buckets.length < bucketCount) buckets = new int[bucketCount];
+		for (int i = 0; i < buckets.length; i++) buckets[i] = -1;
+	}
+
+	/**
+	 * @return welded vertex count
+	 */
+	int size() {
+		return vertexCount;
+	}
+
+	/**
+	 * @param welded vertex index
+	 * @return welded vertex, which is the first vertex added to its position
+	 */
+	Vector3 get(int idx) {
+		return vertices[idx];
+	}
+
+	/**
+	 * Compute bucket index of given cell
+	 * @param cell x
+	 * @param cell y
+	 * @param cell z
+	 * @return bucket index
+	 */
+	private int computeBucket(long cellX, long cellY, long cellZ) {
+		long hash = cellX * 73856093L ^ cellY * 19349663L ^ cellZ * 83492791L;
+		return (int)(hash ^ (hash >>> 32)) & (buckets.length - 1);
+	}
+
+	/**
+	 * Find welded vertex within tolerance of given vertex
+	 * @param vertex
+	 * @return welded vertex index or -1 if not found
+	 */
+	int find(Vector3 vertex) {
+		float[] vertexXYZ = vertex.getArray();
+		long cellX = (long)Math.floor(vertexXYZ[0] / tolerance);
+		long cellY = (long)Math.floor(vertexXYZ[1] / tolerance);
+		long cellZ = (long)Math.floor(vertexXYZ[2] / tolerance);
+
+		// check vertices in this and neighbour cells
+		for (long x = cellX - 1; x <= cellX + 1; x++)
+		for (long y = cellY - 1; y <= cellY + 1; y++)
+		for (long z = cellZ - 1; z <= cellZ + 1; z++) {
+			for (int i = buckets[computeBucket(x, y, z)]; i != -1; i = vertexNext[i]) {
+				if (vertexCells[i * 3 + 0] == x &&
+					vertexCells[i * 3 + 1] == y &&
+					vertexCells[i * 3 + 2] == z &&
+					vertices[i].equals(vertex, tolerance) == true) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Add vertex, returns index of welded vertex within tolerance if any or of added vertex
+	 * 	vertices are not copied, welded vertices reference the first vertex added to its position
+	 * @param vertex
+	 * @return welded vertex index
+	 */
+	int add(Vector3 vertex) {
+		int weldedIdx = find(vertex);
+		if (weldedIdx != -1) return weldedIdx;
+		float[] vertexXYZ = vertex.getArray();
+		long cellX = (long)Math.floor(vertexXYZ[0] / tolerance);
+		long cellY = (long)Math.floor(vertexXYZ[1] / tolerance);
+		long cellZ = (long)Math.floor(vertexXYZ[2] / tolerance);
+
+		// grow if required
+		if (vertexCount == vertices.length) {
+			int capacity = Math.max(16, vertexCount * 2);
+			Vector3[] vertices = new Vector3[capacity];
+			long[] vertexCells = new long[capacity * 3];
+			int[] vertexNext = new int[capacity];
+			System.arraycopy(this.vertices, 0, vertices, 0, vertexCount);
+			System.arraycopy(this.vertexCells, 0, vertexCells, 0, vertexCount * 3);
+			System.arraycopy(this.vertexNext, 0, vertexNext, 0, vertexCount);
+			this.vertices = vertices;
+			this.vertexCells = vertexCells;
+			this.vertexNext = vertexNext;
+		}
+
+		// add new vertex, rehash if buckets are too full
+		int idx = vertexCount++;
+		vertices[idx] = vertex;
+		vertexCells[idx * 3 + 0] = cellX;
+		vertexCells[idx * 3 + 1] = cellY;
+		vertexCells[idx * 3 + 2] = cellZ;
+		if (vertexCount * 2 > buckets.length) {
+			buckets = new int[buckets.length * 2];
+			for (int i = 0; i < buckets.length; i++) buckets[i] = -1;
+			for (int i = 0; i < vertexCount; i++) {
+				int bucket = computeBucket(vertexCells[i * 3 + 0], vertexCells[i * 3 + 1], vertexCells[i * 3 + 2]);
+				vertexNext[i] = buckets[bucket];
+				buckets[bucket] = i;
+			}
+		} else {
+			int bucket = computeBucket(cellX, cellY, cellZ);
+			vertexNext[idx] = buckets[bucket];
+			buckets[bucket] = idx;
+		}
+		return idx;
+	}
+
+}
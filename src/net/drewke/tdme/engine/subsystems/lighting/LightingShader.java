@@ -68,6 +68,8 @@ public final class LightingShader {
 	private int uniformMVPMatrix;
 	private int uniformMVMatrix;
 	private int uniformNormalMatrix;
+	private int uniformProjectionMatrix;
+	private int uniformInstancedRendering;
 	private int uniformSceneColor;
 	private int uniformEffectColorMul;
 	private int uniformEffectColorAdd;
@@ -200,6 +202,12 @@ public final class LightingShader {
 		if (uniformMVMatrix == -1) return;
 		uniformNormalMatrix = renderer.getProgramUniformLocation(renderLightingProgramId, "normalMatrix");
 		if (uniformNormalMatrix == -1) return;
+		if (renderer.isInstancedRenderingAvailable() == true) {
+			uniformProjectionMatrix = renderer.getProgramUniformLocation(renderLightingProgramId, "projectionMatrix");
+			if (uniformProjectionMatrix == -1) return;
+			uniformInstancedRendering = renderer.getProgramUniformLocation(renderLightingProgramId, "instancedRendering");
+			if (uniformInstancedRendering == -1) return;
+		}
 		uniformSceneColor = renderer.getProgramUniformLocation(renderLightingProgramId, "sceneColor");
 		if (uniformSceneColor == -1) return;
 		uniformEffectColorMul = renderer.getProgramUniformLocation(renderLightingProgramId, "effectColorMul");
@@ -269,6 +277,7 @@ public final class LightingShader {
 		}
 		renderer.setProgramUniformFloatVec4(uniformSceneColor, defaultSceneColor);
 		// initialize dynamic uniforms
+		updateInstancedRendering(renderer);
 		updateEffect(renderer);
 		updateMaterial(renderer);
 		for (int i = 0; i < MAX_LIGHTS; i++) {
@@ -297,6 +306,22 @@ public final class LightingShader {
 		renderer.setProgramUniformFloatVec4(uniformEffectColorAdd, renderer.effectColorAdd);
 	}
 
+	/**
+	 * Update instanced rendering to program
+	 * @param renderer
+	 */
+	public void updateInstancedRendering(GLRenderer renderer) {
+		// skip if not running
+		if (isRunning == false) return;
+		if (renderer.isInstancedRenderingAvailable() == false) return;
+
+		// instances provide model view matrices, so we only need projection
+		renderer.setProgramUniformInteger(uniformInstancedRendering, renderer.instancedRendering == true?1:0);
+		if (renderer.instancedRendering == true) {
+			renderer.setProgramUniformFloatMatrix4x4(uniformProjectionMatrix, renderer.getProjectionMatrix().getArray());
+		}
+	}
+
 	/**
 	 * Update material to program
 	 * @param gl3 renderer
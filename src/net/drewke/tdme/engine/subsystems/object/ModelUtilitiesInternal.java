@@ -110,10 +110,8 @@ public class ModelUtilitiesInternal {
 
 			// calculate transformations matrices without world transformations
 			object3DModelInternal.computeTransformationsMatrices(
-				model.getSubGroups(),
 				object3DModelInternal.getModel().getImportTransformationsMatrix().clone().multiply(object3DModelInternal.getTransformationsMatrix()),
-				animationState,
-				0
+				animationState
 			);
 
 			Object3DGroup.computeTransformations(
@@ -146,6 +146,11 @@ public class Object3DBase extends Transformations {
 	protected Matrix4x4[] transformationsMatricesStack;
 	protected Matrix4x4 tmpMatrix1;
 
+	// groups in depth first order, sub groups of group i are i + 1 until end i exclusive
+	//	model hash maps are shared by all objects of a model and their iterators must not be used by concurrent transformations
+	protected Group[] transformationsGroups;
+	protected int[] transformationsGroupsEnd;
+
 	protected boolean hasSkinning;
 	protected HashMap<String, Matrix4x4>[] skinningGroupsMatrices;
 	protected Group[] skinningGroups;
@@ -206,6 +211,11 @@ public class Object3DBase extends Transformations {
 		// create transformations matrices
 		createTransformationsMatrices(transformationsMatrices, model.getSubGroups());
 
+		// create transformations groups
+		transformationsGroups = new Group[determineGroupCount(model.getSubGroups(), 0)];
+		transformationsGroupsEnd = new int[transformationsGroups.length];
+		createTransformationsGroups(model.getSubGroups(), 0);
+
 		// object 3d groups
 		object3dGroups = Object3DGroup.createGroups(this, useMeshManager, animationProcessingTarget);
 
@@ -217,10 +227,8 @@ public class Object3DBase extends Transformations {
 
 		// calculate transformations matrices
 		computeTransformationsMatrices(
-			model.getSubGroups(),
 			model.getImportTransformationsMatrix(),
-			baseAnimation,
-			0
+			baseAnimation
 		);
 
 		// do initial transformations
@@ -391,15 +399,58 @@ public class Object3DBase extends Transformations {
 	}
 
 	/**
-	 * Calculates all groups transformation matrices
+	 * Creates transformations groups in depth first order
 	 * @param groups
+	 * @param idx
+	 * @return idx after given groups and their sub groups
+	 */
+	private int createTransformationsGroups(HashMap<String, Group> groups, int idx) {
+		// iterate through groups
+		for (Group group: groups.getValuesIterator()) {
+			int groupIdx = idx++;
+			transformationsGroups[groupIdx] = group;
+
+			// add sub groups
+			HashMap<String,Group> subGroups = group.getSubGroups();
+			if (subGroups.size() > 0) {
+				idx = createTransformationsGroups(
+					subGroups,
+					idx
+				);
+			}
+			transformationsGroupsEnd[groupIdx] = idx;
+		}
+		return idx;
+	}
+
+	/**
+	 * Calculates all groups transformation matrices
+	 * @param parent transformations matrix
+	 * @param animation state
+	 */
+	protected void computeTransformationsMatrices(Matrix4x4 parentTransformationsMatrix, AnimationState animationState) {
+		computeTransformationsMatrices(
+			0,
+			transformationsGroups.length,
+			parentTransformationsMatrix,
+			animationState,
+			0
+		);
+	}
+
+	/**
+	 * Calculates transformation matrices of given range of transformations groups
+	 * @param groups begin
+	 * @param groups end, exclusive
 	 * @param parent transformations matrix
 	 * @param animation state
 	 * @param depth
 	 */
-	protected void computeTransformationsMatrices(HashMap<String, Group> groups, Matrix4x4 parentTransformationsMatrix, AnimationState animationState, int depth) {
+	protected void computeTransformationsMatrices(int groupsBegin, int groupsEnd, Matrix4x4 parentTransformationsMatrix, AnimationState animationState, int depth) {
 		// iterate through groups
-		for (Group group: groups.getValuesIterator()) {
+		for (int groupIdx = groupsBegin; groupIdx < groupsEnd; groupIdx = transformationsGroupsEnd[groupIdx]) {
+			Group group = transformationsGroups[groupIdx];
+
 			// check for overlay animation
 			AnimationState overlayAnimation = overlayAnimationsByJointId.get(group.getId());
 			if (overlayAnimation != null) animationState = overlayAnimation;
@@ -476,14 +527,14 @@ public class Object3DBase extends Transformations {
 			}
 
 			// calculate for sub groups
-			HashMap<String,Group> subGroups = group.getSubGroups(); 
-			if (subGroups.size() > 0) {
+			if (transformationsGroupsEnd[groupIdx] > groupIdx + 1) {
 				// put to matrices stack
 				transformationsMatricesStack[depth].set(transformationsMatrix);
 
 				// compute sub groups transformations
 				computeTransformationsMatrices(
-					subGroups,
+					groupIdx + 1,
+					transformationsGroupsEnd[groupIdx],
 					transformationsMatricesStack[depth],
 					animationState,
 					depth + 1
@@ -550,10 +601,8 @@ public class Object3DBase extends Transformations {
 
 			// calculate transformations matrices
 			computeTransformationsMatrices(
-				model.getSubGroups(),
 				parentTransformationsMatrix,
-				baseAnimation,
-				0
+				baseAnimation
 			);
 
 			// do transformations in group render data
@@ -568,10 +617,8 @@ public class Object3DBase extends Transformations {
 
 			// calculate transformations matrices
 			computeTransformationsMatrices(
-				model.getSubGroups(),
 				parentTransformationsMatrix,
-				baseAnimation,
-				0
+				baseAnimation
 			);
 
 			// do transformations in group render data
@@ -632,6 +679,28 @@ public class Object3DBase extends Transformations {
 		return null;
 	}
 
+	/**
+	 * Determine group count
+	 * @param groups
+	 * @param current count
+	 */
+	private int determineGroupCount(HashMap<String, Group> groups, int count) {
+		// iterate through groups
+		for (Group group: groups.getValuesIterator()) {
+			count++;
+
+			// calculate sub groups
+			HashMap<String,Group> subGroups = group.getSubGroups();
+			if (subGroups.size() > 0) {
+				count = determineGroupCount(
+					subGroups,
+					count
+				);
+			}
+		}
+		return count;
+	}
+
 	/**
 	 * Determine skinned group count
 	 * @param groups
@@ -1,5 +1,7 @@
 package net.drewke.tdme.engine.subsystems.object;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.ShortBuffer;
 
@@ -33,13 +35,31 @@ public final class Object3DGroupMesh {
 
 	protected Engine.AnimationProcessingTarget animationProcessingTarget;
 
-	private int cSkinningMaxVertexWeights = -1;
-	private float cSkinningJointWeight[][] = null;
-
 	protected Matrix4x4 cGroupTransformationsMatrix = null;
-	private Matrix4x4 cSkinningJointTransformationsMatrices[][] = null;
 	private Vector3 tmpVector3;
 
+	// skinning on CPU: packed x, y, z of untransformed vertices, normals, tangents, bitangents
+	private float cSkinningVertices[] = null;
+	private float cSkinningNormals[] = null;
+	private float cSkinningTangents[] = null;
+	private float cSkinningBitangents[] = null;
+
+	// skinning on CPU: per vertex joint weights count, joint palette offsets and weights, strided by max vertex weights
+	private int cSkinningMaxVertexWeights = -1;
+	private int cSkinningVertexJointWeights[] = null;
+	private int cSkinningVertexJointOffsets[] = null;
+	private float cSkinningVertexWeights[] = null;
+
+	// skinning on CPU: joint matrices and flat copy of them, 16 floats per joint
+	private Matrix4x4 cSkinningJointMatrices[] = null;
+	private float cSkinningJointPalette[] = null;
+
+	// skinning on CPU: vertex buffer object data being written by skinning directly
+	private FloatBuffer fbVertices = null;
+	private FloatBuffer fbNormals = null;
+	private FloatBuffer fbTangents = null;
+	private FloatBuffer fbBitangents = null;
+
 
 	protected boolean skinning = false;
 	protected int skinningJoints = -1;
@@ -154,29 +174,49 @@ public final class Object3DGroupMesh {
 			// skinning computation caches if computing skinning on CPU
 			if (mesh.animationProcessingTarget == Engine.AnimationProcessingTarget.CPU ||
 				mesh.animationProcessingTarget == Engine.AnimationProcessingTarget.CPU_NORENDERING) {
-				mesh.cSkinningJointWeight = new float[groupVertices.length][];
-				mesh.cSkinningJointTransformationsMatrices = new Matrix4x4[groupVertices.length][];
-	
-				// compute joint weight caches
+				// packed untransformed vertex data
+				mesh.cSkinningVertices = createPackedArray(groupVertices);
+				mesh.cSkinningNormals = createPackedArray(groupNormals);
+				mesh.cSkinningTangents = mesh.tangents != null?createPackedArray(groupTangents):null;
+				mesh.cSkinningBitangents = mesh.bitangents != null?createPackedArray(groupBitangents):null;
+
+				// joint matrices palette
 				Joint[] joints = skinning.getJoints();
+				mesh.cSkinningJointMatrices = new Matrix4x4[joints.length];
+				for (int jointIdx = 0; jointIdx < joints.length; jointIdx++) {
+					mesh.cSkinningJointMatrices[jointIdx] = skinningMatrices.get(joints[jointIdx].getGroupId());
+				}
+				mesh.cSkinningJointPalette = new float[joints.length * 16];
+
+				// compute joint weight caches
 				float[] weights = skinning.getWeights();
 				JointWeight[][] jointsWeights = skinning.getVerticesJointsWeights();
+				mesh.cSkinningMaxVertexWeights = 0;
+				for (int vertexIndex = 0; vertexIndex < groupVertices.length; vertexIndex++) {
+					if (jointsWeights[vertexIndex].length > mesh.cSkinningMaxVertexWeights) mesh.cSkinningMaxVertexWeights = jointsWeights[vertexIndex].length;
+				}
+				mesh.cSkinningVertexJointWeights = new int[groupVertices.length];
+				mesh.cSkinningVertexJointOffsets = new int[groupVertices.length * mesh.cSkinningMaxVertexWeights];
+				mesh.cSkinningVertexWeights = new float[groupVertices.length * mesh.cSkinningMaxVertexWeights];
 				for (int vertexIndex = 0; vertexIndex < groupVertices.length; vertexIndex++) {
-					int vertexJointWeights = jointsWeights[vertexIndex].length;
-					if (vertexJointWeights > mesh.cSkinningMaxVertexWeights) mesh.cSkinningMaxVertexWeights = vertexJointWeights;
-					mesh.cSkinningJointWeight[vertexIndex] = new float[vertexJointWeights];
-					mesh.cSkinningJointTransformationsMatrices[vertexIndex] = new Matrix4x4[vertexJointWeights];
-					int jointWeightIdx = 0;
+					mesh.cSkinningVertexJointWeights[vertexIndex] = jointsWeights[vertexIndex].length;
+					int jointWeightIdx = vertexIndex * mesh.cSkinningMaxVertexWeights;
 					for (JointWeight jointWeight : jointsWeights[vertexIndex]) {
-						Joint joint = joints[jointWeight.getJointIndex()];
-						// 
-						mesh.cSkinningJointWeight[vertexIndex][jointWeightIdx] = weights[jointWeight.getWeightIndex()]; 
-						mesh.cSkinningJointTransformationsMatrices[vertexIndex][jointWeightIdx] = skinningMatrices.get(joint.getGroupId());
-	
+						mesh.cSkinningVertexJointOffsets[jointWeightIdx] = jointWeight.getJointIndex() * 16;
+						mesh.cSkinningVertexWeights[jointWeightIdx] = weights[jointWeight.getWeightIndex()];
+
 						// next
 						jointWeightIdx++;
 					}
 				}
+
+				// vertex buffer object data if rendering
+				if (mesh.animationProcessingTarget == Engine.AnimationProcessingTarget.CPU) {
+					mesh.fbVertices = createFloatBuffer(mesh.cSkinningVertices);
+					mesh.fbNormals = createFloatBuffer(mesh.cSkinningNormals);
+					mesh.fbTangents = mesh.cSkinningTangents != null?createFloatBuffer(mesh.cSkinningTangents):null;
+					mesh.fbBitangents = mesh.cSkinningBitangents != null?createFloatBuffer(mesh.cSkinningBitangents):null;
+				}
 			}
 		}
 
@@ -197,8 +237,6 @@ public final class Object3DGroupMesh {
 	protected void computeTransformations(Group group) {
 		Vector3[] groupVertices = group.getVertices();
 		Vector3[] groupNormals = group.getNormals();
-		Vector3[] groupTangent = group.getTangents();
-		Vector3[] groupBitangent = group.getBitangents();
 
 		// transformations for skinned meshes
 		Skinning skinning = group.getSkinning();
@@ -206,80 +244,7 @@ public final class Object3DGroupMesh {
 			// compute skinning on CPU if required
 			if (animationProcessingTarget == Engine.AnimationProcessingTarget.CPU ||
 				animationProcessingTarget == Engine.AnimationProcessingTarget.CPU_NORENDERING) {
-				JointWeight[][] jointsWeights = skinning.getVerticesJointsWeights();
-				Vector3 vertex;
-				Vector3 transformedVertex;
-				Vector3 normal;
-				Vector3 transformedNormal;
-				Vector3 tangent;
-				Vector3 transformedTangent;
-				Vector3 bitangent;
-				Vector3 transformedBitangent;
-				float totalWeights;
-				float weightNormalized;
-				for (int vertexIndex = 0; vertexIndex < groupVertices.length; vertexIndex++) {
-					// do vertices
-					vertex = groupVertices[vertexIndex];
-					transformedVertex = vertices[vertexIndex].set(0f,0f,0f);
-					normal = groupNormals[vertexIndex];
-					transformedNormal = normals[vertexIndex].set(0f,0f,0f);
-					tangent = groupTangent != null?groupTangent[vertexIndex]:null;
-					transformedTangent = tangents != null?tangents[vertexIndex].set(0f,0f,0f):null;
-					bitangent = groupTangent != null?groupBitangent[vertexIndex]:null;
-					transformedBitangent = bitangents != null?bitangents[vertexIndex].set(0f,0f,0f):null;
-		
-					// compute every influence on vertex and vertex normals
-					totalWeights = 0f;
-					for (int vertexJointWeightIdx = 0; vertexJointWeightIdx < jointsWeights[vertexIndex].length; vertexJointWeightIdx++) {
-						float weight = cSkinningJointWeight[vertexIndex][vertexJointWeightIdx];
-
-						// skinning transformation matrix
-						Matrix4x4 cTransformationsMatrix = cSkinningJointTransformationsMatrices[vertexIndex][vertexJointWeightIdx];
-
-						// vertex
-						transformedVertex.add(cTransformationsMatrix.multiply(vertex, tmpVector3).scale(weight));
-
-						// normals
-						transformedNormal.add(cTransformationsMatrix.multiplyNoTranslation(normal, tmpVector3).scale(weight));
-
-						// tangent
-						if (tangent != null) {
-							transformedTangent.add(cTransformationsMatrix.multiplyNoTranslation(tangent, tmpVector3).scale(weight));
-						}
-
-						// bitangent
-						if (bitangent != null) {
-							transformedBitangent.add(cTransformationsMatrix.multiplyNoTranslation(bitangent, tmpVector3).scale(weight));
-						}
-
-						//
-						totalWeights += weight;
-					}
-	
-					// scale to full weight
-					if (Math.abs(totalWeights - 1f) > MathTools.EPSILON) {
-						weightNormalized = 1f / totalWeights;
-	
-						// vertex
-						transformedVertex.scale(weightNormalized);
-	
-						// normals
-						transformedNormal.scale(weightNormalized);
-						
-						// tangent
-						if (transformedTangent != null) {
-							transformedTangent.scale(weightNormalized);
-						}
-
-						// bitangent
-						if (transformedBitangent != null) {
-							transformedBitangent.scale(weightNormalized);
-						}
-					}
-	
-					// normalize normal
-					transformedNormal.normalize();
-				}
+				computeSkinning();
 
 				// recreate buffers
 				recreateBuffers();
@@ -304,6 +269,157 @@ public final class Object3DGroupMesh {
 		}
 	}
 
+	/**
+	 * Creates packed x, y, z array from vectors
+	 * @param vectors
+	 * @return packed array
+	 */
+	private static float[] createPackedArray(Vector3[] vectors) {
+		float[] packed = new float[vectors.length * 3];
+		for (int i = 0; i < vectors.length; i++) {
+			float[] xyz = vectors[i].getArray();
+			packed[i * 3 + 0] = xyz[0];
+			packed[i * 3 + 1] = xyz[1];
+			packed[i * 3 + 2] = xyz[2];
+		}
+		return packed;
+	}
+
+	/**
+	 * Creates a direct float buffer owned by this mesh from packed array
+	 * @param packed array
+	 * @return float buffer
+	 */
+	private static FloatBuffer createFloatBuffer(float[] packed) {
+		FloatBuffer floatBuffer = ByteBuffer.allocateDirect(packed.length * Float.SIZE / Byte.SIZE).order(ByteOrder.nativeOrder()).asFloatBuffer();
+		floatBuffer.put(packed);
+		floatBuffer.rewind();
+		return floatBuffer;
+	}
+
+	/**
+	 * Computes skinning on CPU from packed vertex data and a flat copy of joint matrices,
+	 * 	results are written to transformed vectors and vertex buffer object data if rendering,
+	 * 	arithmetic matches Matrix4x4::multiply() and Vector3::add(), scale() and normalize() exactly
+	 */
+	private void computeSkinning() {
+		// copy joint matrices into palette
+		for (int jointIdx = 0; jointIdx < cSkinningJointMatrices.length; jointIdx++) {
+			System.arraycopy(cSkinningJointMatrices[jointIdx].getArray(), 0, cSkinningJointPalette, jointIdx * 16, 16);
+		}
+
+		//
+		float[] palette = cSkinningJointPalette;
+		boolean haveTangents = cSkinningTangents != null;
+		boolean haveBitangents = cSkinningBitangents != null;
+		for (int vertexIndex = 0; vertexIndex < cSkinningVertexJointWeights.length; vertexIndex++) {
+			int offset = vertexIndex * 3;
+			float vX = cSkinningVertices[offset + 0];
+			float vY = cSkinningVertices[offset + 1];
+			float vZ = cSkinningVertices[offset + 2];
+			float nX = cSkinningNormals[offset + 0];
+			float nY = cSkinningNormals[offset + 1];
+			float nZ = cSkinningNormals[offset + 2];
+			float tX = haveTangents == true?cSkinningTangents[offset + 0]:0f;
+			float tY = haveTangents == true?cSkinningTangents[offset + 1]:0f;
+			float tZ = haveTangents == true?cSkinningTangents[offset + 2]:0f;
+			float bX = haveBitangents == true?cSkinningBitangents[offset + 0]:0f;
+			float bY = haveBitangents == true?cSkinningBitangents[offset + 1]:0f;
+			float bZ = haveBitangents == true?cSkinningBitangents[offset + 2]:0f;
+			float transformedVX = 0f, transformedVY = 0f, transformedVZ = 0f;
+			float transformedNX = 0f, transformedNY = 0f, transformedNZ = 0f;
+			float transformedTX = 0f, transformedTY = 0f, transformedTZ = 0f;
+			float transformedBX = 0f, transformedBY = 0f, transformedBZ = 0f;
+
+			// compute every influence on vertex and vertex normals
+			float totalWeights = 0f;
+			int jointWeightIdx = vertexIndex * cSkinningMaxVertexWeights;
+			for (int i = 0; i < cSkinningVertexJointWeights[vertexIndex]; i++) {
+				float weight = cSkinningVertexWeights[jointWeightIdx];
+				int m = cSkinningVertexJointOffsets[jointWeightIdx];
+				jointWeightIdx++;
+
+				// vertex
+				transformedVX+= (vX * palette[m + 0] + vY * palette[m + 4] + vZ * palette[m + 8] + palette[m + 12]) * weight;
+				transformedVY+= (vX * palette[m + 1] + vY * palette[m + 5] + vZ * palette[m + 9] + palette[m + 13]) * weight;
+				transformedVZ+= (vX * palette[m + 2] + vY * palette[m + 6] + vZ * palette[m + 10] + palette[m + 14]) * weight;
+
+				// normal
+				transformedNX+= (nX * palette[m + 0] + nY * palette[m + 4] + nZ * palette[m + 8]) * weight;
+				transformedNY+= (nX * palette[m + 1] + nY * palette[m + 5] + nZ * palette[m + 9]) * weight;
+				transformedNZ+= (nX * palette[m + 2] + nY * palette[m + 6] + nZ * palette[m + 10]) * weight;
+
+				// tangent
+				if (haveTangents == true) {
+					transformedTX+= (tX * palette[m + 0] + tY * palette[m + 4] + tZ * palette[m + 8]) * weight;
+					transformedTY+= (tX * palette[m + 1] + tY * palette[m + 5] + tZ * palette[m + 9]) * weight;
+					transformedTZ+= (tX * palette[m + 2] + tY * palette[m + 6] + tZ * palette[m + 10]) * weight;
+				}
+
+				// bitangent
+				if (haveBitangents == true) {
+					transformedBX+= (bX * palette[m + 0] + bY * palette[m + 4] + bZ * palette[m + 8]) * weight;
+					transformedBY+= (bX * palette[m + 1] + bY * palette[m + 5] + bZ * palette[m + 9]) * weight;
+					transformedBZ+= (bX * palette[m + 2] + bY * palette[m + 6] + bZ * palette[m + 10]) * weight;
+				}
+
+				//
+				totalWeights+= weight;
+			}
+
+			// scale to full weight
+			if (Math.abs(totalWeights - 1f) > MathTools.EPSILON) {
+				float weightNormalized = 1f / totalWeights;
+				transformedVX*= weightNormalized;
+				transformedVY*= weightNormalized;
+				transformedVZ*= weightNormalized;
+				transformedNX*= weightNormalized;
+				transformedNY*= weightNormalized;
+				transformedNZ*= weightNormalized;
+				transformedTX*= weightNormalized;
+				transformedTY*= weightNormalized;
+				transformedTZ*= weightNormalized;
+				transformedBX*= weightNormalized;
+				transformedBY*= weightNormalized;
+				transformedBZ*= weightNormalized;
+			}
+
+			// normalize normal
+			float normalLength = (float)Math.sqrt(
+				(transformedNX * transformedNX) + (transformedNY * transformedNY) + (transformedNZ * transformedNZ)
+			);
+			transformedNX/= normalLength;
+			transformedNY/= normalLength;
+			transformedNZ/= normalLength;
+
+			// store transformed vectors
+			vertices[vertexIndex].set(transformedVX, transformedVY, transformedVZ);
+			normals[vertexIndex].set(transformedNX, transformedNY, transformedNZ);
+			if (haveTangents == true) tangents[vertexIndex].set(transformedTX, transformedTY, transformedTZ);
+			if (haveBitangents == true) bitangents[vertexIndex].set(transformedBX, transformedBY, transformedBZ);
+
+			// store vertex buffer object data
+			if (fbVertices != null) {
+				fbVertices.put(offset + 0, transformedVX);
+				fbVertices.put(offset + 1, transformedVY);
+				fbVertices.put(offset + 2, transformedVZ);
+				fbNormals.put(offset + 0, transformedNX);
+				fbNormals.put(offset + 1, transformedNY);
+				fbNormals.put(offset + 2, transformedNZ);
+				if (fbTangents != null) {
+					fbTangents.put(offset + 0, transformedTX);
+					fbTangents.put(offset + 1, transformedTY);
+					fbTangents.put(offset + 2, transformedTZ);
+				}
+				if (fbBitangents != null) {
+					fbBitangents.put(offset + 0, transformedBX);
+					fbBitangents.put(offset + 1, transformedBY);
+					fbBitangents.put(offset + 2, transformedBZ);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Recreates group float buffers
 	 */
@@ -367,6 +483,12 @@ public final class Object3DGroupMesh {
 	 * @return vertices buffer
 	 */
 	protected FloatBuffer setupVerticesBuffer() {
+		// skinning on CPU writes vertex buffer object data directly
+		if (fbVertices != null) {
+			fbVertices.rewind();
+			return fbVertices;
+		}
+
 		FloatBuffer fbVertices = Buffer.getByteBuffer(vertices.length * 3 * Float.SIZE / Byte.SIZE).asFloatBuffer();
 
 		// create vertices buffers
@@ -384,6 +506,12 @@ public final class Object3DGroupMesh {
 	 * @return normals buffer
 	 */
 	protected FloatBuffer setupNormalsBuffer() {
+		// skinning on CPU writes vertex buffer object data directly
+		if (fbNormals != null) {
+			fbNormals.rewind();
+			return fbNormals;
+		}
+
 		FloatBuffer fbNormals = Buffer.getByteBuffer(normals.length * 3 * Float.SIZE / Byte.SIZE).asFloatBuffer();
 
 		// create vertices buffers
@@ -401,6 +529,12 @@ public final class Object3DGroupMesh {
 	 * @return tangents buffer
 	 */
 	protected FloatBuffer setupTangentsBuffer() {
+		// skinning on CPU writes vertex buffer object data directly
+		if (fbTangents != null) {
+			fbTangents.rewind();
+			return fbTangents;
+		}
+
 		// check if we have tangents
 		if (tangents == null) {
 			return null;
@@ -424,6 +558,12 @@ public final class Object3DGroupMesh {
 	 * @return bitangents buffer
 	 */
 	protected FloatBuffer setupBitangentsBuffer() {
+		// skinning on CPU writes vertex buffer object data directly
+		if (fbBitangents != null) {
+			fbBitangents.rewind();
+			return fbBitangents;
+		}
+
 		// check if we have tangents
 		if (bitangents == null) {
 			return null;
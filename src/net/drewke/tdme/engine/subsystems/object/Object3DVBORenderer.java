@@ -1,5 +1,9 @@
 package net.drewke.tdme.engine.subsystems.object;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
 import net.drewke.tdme.engine.Engine;
 import net.drewke.tdme.engine.Object3D;
 import net.drewke.tdme.engine.PointsParticleSystemEntity;
@@ -20,7 +24,6 @@ import net.drewke.tdme.utils.Console;
 import net.drewke.tdme.utils.HashMap;
 import net.drewke.tdme.utils.Key;
 import net.drewke.tdme.utils.Pool;
-import net.drewke.tdme.utils.QuickSort;
 
 /**
  * VBO renderer class
@@ -30,6 +33,7 @@ import net.drewke.tdme.utils.QuickSort;
 public final class Object3DVBORenderer {
 
 	private static final int BATCHVBORENDERER_MAX = 256;
+	private static final int INSTANCES_INITIAL = 256;
 
 	protected Engine engine;
 	protected GLRenderer renderer;
@@ -38,7 +42,6 @@ public final class Object3DVBORenderer {
 
 	private HashMap<String, ArrayList<Object3D>> visibleObjectsByModels = null;
 	private Pool<Key> keyPool = null;
-	private ArrayList<TransparentRenderFace> groupTransparentRenderFaces = null;
 	private Pool<TransparentRenderFacesGroup> transparentRenderFacesGroupPool;
 	private TransparentRenderFacesPool transparentRenderFacesPool = null;
 	private HashMap<Key, TransparentRenderFacesGroup> transparentRenderFacesGroups = null;
@@ -54,11 +57,18 @@ public final class Object3DVBORenderer {
 
 	private Matrix4x4 modelViewMatrixBackup = new Matrix4x4();
 	private Matrix4x4 modelViewMatrix = new Matrix4x4();
+	private Matrix4x4 normalMatrix = new Matrix4x4();
 	private Vector3 transformedVertex = new Vector3();
 	private Vector3 transformedNormal = new Vector3();
 
 	private Matrix4x4Negative matrix4x4Negative = new Matrix4x4Negative();
 
+	private RenderQueue renderQueue = new RenderQueue();
+
+	private int[] instancesVBOIds = null;
+	private FloatBuffer fbInstances = null;
+	private int instances = 0;
+
 	/**
 	 * Public constructor 
 	 * @param renderer
@@ -73,7 +83,6 @@ public final class Object3DVBORenderer {
 				return new Key();
 			}
 		};
-		groupTransparentRenderFaces = new ArrayList<TransparentRenderFace>();
 		transparentRenderFacesGroupPool = new Pool<TransparentRenderFacesGroup>() {
 			protected TransparentRenderFacesGroup instantiate() {
 				return new TransparentRenderFacesGroup();
@@ -91,6 +100,10 @@ public final class Object3DVBORenderer {
 	 */
 	public void initialize() {
 		psePointBatchVBORenderer.initialize();
+		if (renderer.isInstancedRenderingAvailable() == true) {
+			instancesVBOIds = Engine.getInstance().getVBOManager().addVBO("tdme.object3dvborenderer.instances", 1).getVBOGlIds();
+			fbInstances = ByteBuffer.allocateDirect(INSTANCES_INITIAL * GLRenderer.INSTANCE_FLOATS * Float.SIZE / Byte.SIZE).order(ByteOrder.nativeOrder()).asFloatBuffer();
+		}
 	}
 
 	/**
@@ -103,6 +116,11 @@ public final class Object3DVBORenderer {
 			batchVBORenderer.release();
 		}
 		psePointBatchVBORenderer.dispose();
+		// dispose instances vbo
+		if (instancesVBOIds != null) {
+			Engine.getInstance().getVBOManager().removeVBO("tdme.object3dvborenderer.instances");
+			instancesVBOIds = null;
+		}
 	}
 
 	/**
@@ -158,19 +176,41 @@ public final class Object3DVBORenderer {
 			visibleObjectsByModel.add(object);
 		}
 
-		// render objects
+		// use instanced rendering if available, shadow mapping passes set up transformations per object
+		ShadowMapping shadowMapping = engine.getShadowMapping();
+		boolean instancedRendering =
+			instancesVBOIds != null &&
+			(shadowMapping == null || shadowMapping.isRunning() == false);
+		if (instancedRendering == true) {
+			renderer.setInstancedRendering(true);
+			renderer.onUpdateInstancedRendering();
+		}
+
+		// queue objects, sort and render them
+		modelViewMatrixBackup.set(renderer.getModelViewMatrix());
 		for (ArrayList<Object3D> objectsByModel: visibleObjectsByModels.getValuesIterator()) {
 			if (objectsByModel.size() > 0) {
-				renderObjectsOfSameType(objectsByModel, renderTransparentFaces);
-				objectsByModel.clear();
+				queueObjectsOfSameType(objectsByModel, renderTransparentFaces);
 			}
 		}
+		renderQueue.sort();
+		renderRenderQueue(renderTransparentFaces, instancedRendering);
+		renderQueue.clear();
+		for (ArrayList<Object3D> objectsByModel: visibleObjectsByModels.getValuesIterator()) {
+			objectsByModel.clear();
+		}
+
+		// disable instanced rendering
+		if (instancedRendering == true) {
+			renderer.setInstancedRendering(false);
+			renderer.onUpdateInstancedRendering();
+		}
 
 		// render transparent render faces if any exist
-		ArrayList<TransparentRenderFace> transparentRenderFaces = transparentRenderFacesPool.getTransparentRenderFaces();
-		if (transparentRenderFaces.size() > 0) {
+		int transparentRenderFaceCount = transparentRenderFacesPool.size();
+		if (transparentRenderFaceCount > 0) {
 			// sort transparent render faces from far to near
-			QuickSort.sort(transparentRenderFaces);
+			transparentRenderFacesPool.sort();
 
 			// second render pass, draw color buffer for transparent objects
 			// 	set up blending, but no culling and no depth buffer
@@ -183,35 +223,15 @@ public final class Object3DVBORenderer {
 			// TODO: confirm this
 			renderer.setFrontFace(renderer.FRONTFACE_CCW);
 
-			//
-			for (TransparentRenderFace transparentRenderFace: transparentRenderFacesPool.getTransparentRenderFaces()) {
-				// do we have any faces yet?
-				if (groupTransparentRenderFaces.size() == 0) {
-					// nope, so add this one
-					groupTransparentRenderFaces.add(transparentRenderFace);
-				} else
-				// do we have more than face already?
-				if (groupTransparentRenderFaces.size() > 0) {
-					// check if we have more of first type
-					if (groupTransparentRenderFaces.get(0).object3DGroup == transparentRenderFace.object3DGroup) {
-						// yep, we can add this one
-						groupTransparentRenderFaces.add(transparentRenderFace);
-					} else {
-						// no, render grouped faces
-						prepareTransparentFaces(groupTransparentRenderFaces);
-						// reset
-						groupTransparentRenderFaces.clear();
-						// add current face
-						groupTransparentRenderFaces.add(transparentRenderFace);
-					}
+			// prepare faces of same object 3d group following each other
+			int groupTransparentRenderFacesBegin = 0;
+			for (int i = 1; i <= transparentRenderFaceCount; i++) {
+				if (i == transparentRenderFaceCount ||
+					transparentRenderFacesPool.getObject3DGroup(i) != transparentRenderFacesPool.getObject3DGroup(groupTransparentRenderFacesBegin)) {
+					prepareTransparentFaces(groupTransparentRenderFacesBegin, i);
+					groupTransparentRenderFacesBegin = i;
 				}
 			}
-	
-			// 	check if there are any left overs
-			if (groupTransparentRenderFaces.size() > 0) {
-				prepareTransparentFaces(groupTransparentRenderFaces);
-				groupTransparentRenderFaces.clear();
-			}
 
 			// render transparent faces groups
 			renderTransparentFacesGroups(transparentRenderFacesGroups);
@@ -228,11 +248,12 @@ public final class Object3DVBORenderer {
 	 * Renders transparent faces
 	 * 	TODO:	guess this should be optimized regarding GL commands
 	 * 			skinned mesh is not supported when using GPU
-	 * @param transparent render faces
+	 * @param sorted transparent render faces begin
+	 * @param sorted transparent render faces end, exclusive
 	 */
-	protected void prepareTransparentFaces(ArrayList<TransparentRenderFace> transparentRenderFaces) {
+	protected void prepareTransparentFaces(int transparentRenderFacesBegin, int transparentRenderFacesEnd) {
 		// all those faces should share the object and object 3d group, ...
-		Object3DGroup object3DGroup = transparentRenderFaces.get(0).object3DGroup;
+		Object3DGroup object3DGroup = transparentRenderFacesPool.getObject3DGroup(transparentRenderFacesBegin);
 		Object3D object3D = (Object3D)object3DGroup.object;
 
 		// model view matrix to be used with given transparent render faces
@@ -258,9 +279,9 @@ public final class Object3DVBORenderer {
 
 		// render transparent faces
 		Key transparentRenderFacesGroupKey = keyPool.allocate();
-		for (int i = 0; i < transparentRenderFaces.size(); i++) {
-			TransparentRenderFace transparentRenderFace = transparentRenderFaces.get(i);
-			int facesEntityIdx = transparentRenderFace.facesEntityIdx;
+		for (int i = transparentRenderFacesBegin; i < transparentRenderFacesEnd; i++) {
+			int facesEntityIdx = transparentRenderFacesPool.getFacesEntityIdx(i);
+			int faceIdx = transparentRenderFacesPool.getFaceIdx(i);
 
 			// determine if faces entity and so material did switch between last face and current face
 			if (facesEntity != facesEntities[facesEntityIdx]) {
@@ -310,11 +331,11 @@ public final class Object3DVBORenderer {
 
 			// add face vertices
 			for (int vertexIdx = 0; vertexIdx < 3; vertexIdx++) {
-				short arrayIdx = transparentRenderFace.object3DGroup.mesh.indices[transparentRenderFace.faceIdx * 3 + vertexIdx];
+				short arrayIdx = object3DGroup.mesh.indices[faceIdx * 3 + vertexIdx];
 				trfGroup.addVertex(
-					modelViewMatrix.multiply(transparentRenderFace.object3DGroup.mesh.vertices[arrayIdx], transformedVertex),
-					modelViewMatrix.multiplyNoTranslation(transparentRenderFace.object3DGroup.mesh.normals[arrayIdx], transformedNormal),
-					transparentRenderFace.object3DGroup.mesh.textureCoordinates != null?transparentRenderFace.object3DGroup.mesh.textureCoordinates[arrayIdx]:null
+					modelViewMatrix.multiply(object3DGroup.mesh.vertices[arrayIdx], transformedVertex),
+					modelViewMatrix.multiplyNoTranslation(object3DGroup.mesh.normals[arrayIdx], transformedNormal),
+					object3DGroup.mesh.textureCoordinates != null?object3DGroup.mesh.textureCoordinates[arrayIdx]:null
 				);
 			}
 		}
@@ -348,13 +369,11 @@ public final class Object3DVBORenderer {
 	}
 
 	/**
-	 * Renders multiple objects of same type(with same model)
-	 * @param engine
+	 * Adds faces entities of multiple objects of same type(with same model) to render queue
 	 * @param objects of same type/ with same models
 	 * @param collect render faces
-	 * @param skinning shader
 	 */
-	protected void renderObjectsOfSameType(ArrayList<Object3D> objects, boolean collectTransparentFaces) {
+	protected void queueObjectsOfSameType(ArrayList<Object3D> objects, boolean collectTransparentFaces) {
 		// do pre render steps
 		for (int i = 0; i < objects.size(); i++) {
 			Object3D object = objects.get(i);
@@ -364,28 +383,17 @@ public final class Object3DVBORenderer {
 			}
 		}
 
-		//
-		ShadowMapping shadowMapping = engine.getShadowMapping();
-		modelViewMatrixBackup.set(renderer.getModelViewMatrix());
-
-		// render faces entities
-		int currentFrontFace = -1;
-		Object3D firstObject = objects.get(0);
-
 		// all objects share the same object 3d group structure, so we just take the first one
-		int[] boundVBOBaseIds = null;
-		int[] boundVBOTangentBitangentIds = null;
-		int[] boundSkinningIds = null;
+		Object3D firstObject = objects.get(0);
 		for (int object3DGroupIdx = 0; object3DGroupIdx < firstObject.object3dGroups.length; object3DGroupIdx++) {
 			Object3DGroup object3DGroup = firstObject.object3dGroups[object3DGroupIdx];
 
-			// render each faces entity
+			// queue each faces entity
 			FacesEntity[] facesEntities = object3DGroup.group.getFacesEntities();
 			int faceIdx = 0;
 			int facesEntityIdxCount = facesEntities.length;
 			for (int faceEntityIdx = 0; faceEntityIdx < facesEntityIdxCount; faceEntityIdx++) {
 				FacesEntity facesEntity = facesEntities[faceEntityIdx];
-				boolean isTextureCoordinatesAvailable = facesEntity.isTextureCoordinatesAvailable();
 				int faces = facesEntity.getFaces().length;
 
 				// material
@@ -431,137 +439,204 @@ public final class Object3DVBORenderer {
 					// skip to next entity
 					continue;
 				}
-	
-				// optional texture coordinates
-				if (isTextureCoordinatesAvailable == true) {
-					// enable texturing client state if not yet done
-					if (renderer.renderingTexturingClientState == false) {
-						renderer.enableClientState(renderer.CLIENTSTATE_TEXTURECOORD_ARRAY);
-						renderer.renderingTexturingClientState = true;
-					}
+
+				// load textures, so we know the diffuse texture for the sort key
+				Object3DGroup.setupTextures(renderer, object3DGroup, faceEntityIdx);
+				int diffuseTextureId =
+					object3DGroup.dynamicDiffuseTextureIdsByEntities[faceEntityIdx] != Object3DGroup.GLTEXTUREID_NONE?
+					object3DGroup.dynamicDiffuseTextureIdsByEntities[faceEntityIdx]:
+					object3DGroup.materialDiffuseTextureIdsByEntities[faceEntityIdx];
+
+				// queue faces entity of all objects
+				renderQueue.add(
+					RenderQueue.createKey(
+						RenderQueue.PASS_OPAQUE,
+						RenderQueue.SHADER_LIGHTING,
+						material != null?material.getId().hashCode():0,
+						diffuseTextureId,
+						((Object3DGroupVBORenderer)object3DGroup.renderer).vboBaseIds[0]
+					),
+					objects,
+					object3DGroupIdx,
+					faceEntityIdx,
+					faceIdx
+				);
+
+				// keep track of rendered faces
+				faceIdx+= faces;
+			}
+		}
+	}
+
+	/**
+	 * Renders sorted render queue
+	 * 	With instanced rendering objects sharing buffer objects and front face are drawn with one draw call per faces entity
+	 * @param collect render faces
+	 * @param instanced rendering
+	 */
+	protected void renderRenderQueue(boolean collectTransparentFaces, boolean instancedRendering) {
+		ShadowMapping shadowMapping = engine.getShadowMapping();
+
+		// render faces entities
+		int currentFrontFace = -1;
+		int[] boundVBOBaseIds = null;
+		int[] boundVBOTextureCoordinatesIds = null;
+		int[] boundVBOTangentBitangentIds = null;
+		for (int itemIdx = 0; itemIdx < renderQueue.size(); itemIdx++) {
+			ArrayList<Object3D> objects = renderQueue.getObjects(itemIdx);
+			int object3DGroupIdx = renderQueue.getObject3DGroupIdx(itemIdx);
+			int faceEntityIdx = renderQueue.getFacesEntityIdx(itemIdx);
+			int faceIdx = renderQueue.getFaceIdx(itemIdx);
+			FacesEntity facesEntity = objects.get(0).object3dGroups[object3DGroupIdx].group.getFacesEntities()[faceEntityIdx];
+			boolean isTextureCoordinatesAvailable = facesEntity.isTextureCoordinatesAvailable();
+			int faces = facesEntity.getFaces().length;
+
+			// optional texture coordinates
+			if (isTextureCoordinatesAvailable == true) {
+				// enable texturing client state if not yet done
+				if (renderer.renderingTexturingClientState == false) {
+					renderer.enableClientState(renderer.CLIENTSTATE_TEXTURECOORD_ARRAY);
+					renderer.renderingTexturingClientState = true;
+				}
+			} else {
+				// disable texturing client state if not yet done
+				if (renderer.renderingTexturingClientState == true) {
+					renderer.disableClientState(renderer.CLIENTSTATE_TEXTURECOORD_ARRAY);
+					renderer.renderingTexturingClientState = false;
+				}				
+			}
+
+			// draw this faces entity for each object
+			int objectCount = objects.size();
+			for (int objectIdx = 0; objectIdx < objectCount; objectIdx++) {
+				Object3D object = objects.get(objectIdx);
+				Object3DGroup _object3DGroup = object.object3dGroups[object3DGroupIdx];
+
+				// set up material on first object
+				if (objectIdx == 0) {
+					// set up material
+					setupMaterial(_object3DGroup, faceEntityIdx);						
 				} else {
-					// disable texturing client state if not yet done
-					if (renderer.renderingTexturingClientState == true) {
-						renderer.disableClientState(renderer.CLIENTSTATE_TEXTURECOORD_ARRAY);
-						renderer.renderingTexturingClientState = false;
-					}				
+					// only set up textures
+					Object3DGroup.setupTextures(renderer, _object3DGroup, faceEntityIdx);
 				}
 
-				// draw this faces entity for each object
-				int objectCount = objects.size();
-				for (int objectIdx = 0; objectIdx < objectCount; objectIdx++) {
-					Object3D object = objects.get(objectIdx);
-					Object3DGroup _object3DGroup = object.object3dGroups[object3DGroupIdx];
-
-					// set up material on first object
-					if (objectIdx == 0) {
-						// set up material
-						setupMaterial(_object3DGroup, faceEntityIdx);						
-					} else {
-						// only set up textures
-						Object3DGroup.setupTextures(renderer, _object3DGroup, faceEntityIdx);
+				//	check transparency via effect
+				if (object.effectColorMul.getAlpha() < 1.0f - MathTools.EPSILON ||
+					object.effectColorAdd.getAlpha() < -MathTools.EPSILON) {
+					// add to transparent render faces, if requested
+					if (collectTransparentFaces == true) {
+						transparentRenderFacesPool.createTransparentRenderFaces(
+							(_object3DGroup.mesh.skinning == true?
+								modelViewMatrix.identity():
+								modelViewMatrix.set(_object3DGroup.groupTransformationsMatrix)
+							).
+							multiply(object.transformationsMatrix).
+							multiply(modelViewMatrixBackup),
+							_object3DGroup,
+							faceEntityIdx,
+							faceIdx
+						);
 					}
 
-					//	check transparency via effect
-					if (object.effectColorMul.getAlpha() < 1.0f - MathTools.EPSILON ||
-						object.effectColorAdd.getAlpha() < -MathTools.EPSILON) {
-						// add to transparent render faces, if requested
-						if (collectTransparentFaces == true) {
-							transparentRenderFacesPool.createTransparentRenderFaces(
-								(_object3DGroup.mesh.skinning == true?
-									modelViewMatrix.identity():
-									modelViewMatrix.set(_object3DGroup.groupTransformationsMatrix)
-								).
-								multiply(object.transformationsMatrix).
-								multiply(modelViewMatrixBackup),
-								_object3DGroup,
-								faceEntityIdx,
-								faceIdx
-							);
-						}
+					// skip to next object
+					continue;
+				}
 
-						// skip to next object
-						continue;
-					}
+				// set up local -> world transformations matrix
+				modelViewMatrix =
+					(_object3DGroup.mesh.skinning == true?
+						modelViewMatrix.identity():
+						modelViewMatrix.set(_object3DGroup.groupTransformationsMatrix)
+					).
+					multiply(object.transformationsMatrix).
+					multiply(modelViewMatrixBackup);
+				int objectFrontFace = matrix4x4Negative.isNegative(modelViewMatrix) == false?renderer.FRONTFACE_CCW:renderer.FRONTFACE_CW;
+				int[] currentVBOGlIds = ((Object3DGroupVBORenderer)_object3DGroup.renderer).vboBaseIds;
+
+				// render collected instances if buffer objects or front face change
+				if (instances > 0 &&
+					(boundVBOBaseIds != currentVBOGlIds || objectFrontFace != currentFrontFace)) {
+					renderInstances(faces, faceIdx);
+				}
 
-					// bind buffer base objects if not bound yet
-					int[] currentVBOGlIds = ((Object3DGroupVBORenderer)_object3DGroup.renderer).vboBaseIds;
-					if (boundVBOBaseIds != currentVBOGlIds) {
-						boundVBOBaseIds = currentVBOGlIds;
+				// bind texture coordinates buffer object if not bound yet, faces entities sharing buffer objects might have no texture coordinates
+				if (isTextureCoordinatesAvailable == true && boundVBOTextureCoordinatesIds != currentVBOGlIds) {
+					boundVBOTextureCoordinatesIds = currentVBOGlIds;
+					renderer.bindTextureCoordinatesBufferObject(currentVBOGlIds[3]);
+				}
 
-						//	texture coordinates
-						if (isTextureCoordinatesAvailable == true) {
-							renderer.bindTextureCoordinatesBufferObject(currentVBOGlIds[3]);
-						}
+				// bind buffer base objects if not bound yet
+				if (boundVBOBaseIds != currentVBOGlIds) {
+					boundVBOBaseIds = currentVBOGlIds;
 
-						// 	vertices
-						renderer.bindVerticesBufferObject(currentVBOGlIds[1]);
+					// 	vertices
+					renderer.bindVerticesBufferObject(currentVBOGlIds[1]);
 
-						// 	normals
-						renderer.bindNormalsBufferObject(currentVBOGlIds[2]);
+					// 	normals
+					renderer.bindNormalsBufferObject(currentVBOGlIds[2]);
 
-						// indices
-						renderer.bindIndicesBufferObject(currentVBOGlIds[0]);
-					}
-					
-					// bind tangent, bitangend buffers if not yet bound
-					int[] currentVBOTangentBitangentIds = ((Object3DGroupVBORenderer)_object3DGroup.renderer).vboTangentBitangentIds;
-					if (renderer.isNormalMappingAvailable() &&
-						currentVBOTangentBitangentIds != null && currentVBOTangentBitangentIds != boundVBOTangentBitangentIds) {
-						// tangent
-						renderer.bindTangentsBufferObject(currentVBOTangentBitangentIds[0]);
-
-						// bitangent
-						renderer.bindBitangentsBufferObject(currentVBOTangentBitangentIds[1]);
-					}
+					// indices
+					renderer.bindIndicesBufferObject(currentVBOGlIds[0]);
+				}
+				
+				// bind tangent, bitangend buffers if not yet bound
+				int[] currentVBOTangentBitangentIds = ((Object3DGroupVBORenderer)_object3DGroup.renderer).vboTangentBitangentIds;
+				if (renderer.isNormalMappingAvailable() &&
+					currentVBOTangentBitangentIds != null && currentVBOTangentBitangentIds != boundVBOTangentBitangentIds) {
+					// tangent
+					renderer.bindTangentsBufferObject(currentVBOTangentBitangentIds[0]);
+
+					// bitangent
+					renderer.bindBitangentsBufferObject(currentVBOTangentBitangentIds[1]);
+				}
+
+				// set up front face
+				if (objectFrontFace != currentFrontFace) {
+					renderer.setFrontFace(objectFrontFace);
+					currentFrontFace = objectFrontFace; 
+				}
+
+				// collect instance, it will be rendered with other instances sharing buffer objects and front face
+				if (instancedRendering == true) {
+					addInstance(modelViewMatrix, object.effectColorMul.getArray(), object.effectColorAdd.getArray());
+					continue;
+				}
+
+				// set up local -> world transformations matrix
+				renderer.getModelViewMatrix().set(modelViewMatrix);
+				renderer.onUpdateModelViewMatrix();
 
-					// set up local -> world transformations matrix
-					renderer.getModelViewMatrix().set(
+				// set up effect color
+				renderer.setEffectColorMul(object.effectColorMul.getArray());
+				renderer.setEffectColorAdd(object.effectColorAdd.getArray());
+				renderer.updateEffect();
+
+				// do transformation start to shadow mapping
+				if (shadowMapping != null) {
+					shadowMapping.startObjectTransformations(
 						(_object3DGroup.mesh.skinning == true?
 							modelViewMatrix.identity():
 							modelViewMatrix.set(_object3DGroup.groupTransformationsMatrix)
 						).
-						multiply(object.transformationsMatrix).
-						multiply(modelViewMatrixBackup)
+						multiply(object.transformationsMatrix)
 					);
-					renderer.onUpdateModelViewMatrix();
-
-					// set up front face
-					int objectFrontFace = matrix4x4Negative.isNegative(renderer.getModelViewMatrix()) == false?renderer.FRONTFACE_CCW:renderer.FRONTFACE_CW;
-					if (objectFrontFace != currentFrontFace) {
-						renderer.setFrontFace(objectFrontFace);
-						currentFrontFace = objectFrontFace; 
-					}
+				}
 
-					// set up effect color
-					renderer.setEffectColorMul(object.effectColorMul.getArray());
-					renderer.setEffectColorAdd(object.effectColorAdd.getArray());
-					renderer.onUpdateEffect();
+				// draw
+				renderer.drawIndexedTrianglesFromBufferObjects(faces, faceIdx);
 
-					// do transformation start to shadow mapping
-					if (shadowMapping != null) {
-						shadowMapping.startObjectTransformations(
-							(_object3DGroup.mesh.skinning == true?
-								modelViewMatrix.identity():
-								modelViewMatrix.set(_object3DGroup.groupTransformationsMatrix)
-							).
-							multiply(object.transformationsMatrix)
-						);
-					}
-
-					// draw
-					renderer.drawIndexedTrianglesFromBufferObjects(faces, faceIdx);
-	
-					// do transformations end to shadow mapping
-					if (shadowMapping != null) {
-						shadowMapping.endObjectTransformations();
-					}
+				// do transformations end to shadow mapping
+				if (shadowMapping != null) {
+					shadowMapping.endObjectTransformations();
 				}
+			}
 
-				// keep track of rendered faces
-				faceIdx+= faces;
-	
+			// render left over instances
+			if (instances > 0) {
+				renderInstances(faces, faceIdx);
 			}
+
 		}
 
 		// unbind buffers
@@ -573,6 +648,45 @@ public final class Object3DVBORenderer {
 		);
 	}
 
+	/**
+	 * Add instance to instances buffer
+	 * @param model view matrix
+	 * @param effect color mul
+	 * @param effect color add
+	 */
+	private void addInstance(Matrix4x4 modelViewMatrix, float[] effectColorMul, float[] effectColorAdd) {
+		// grow instances buffer if required
+		if (fbInstances.remaining() < GLRenderer.INSTANCE_FLOATS) {
+			FloatBuffer fbInstances = ByteBuffer.allocateDirect(this.fbInstances.capacity() * 2 * Float.SIZE / Byte.SIZE).order(ByteOrder.nativeOrder()).asFloatBuffer();
+			this.fbInstances.flip();
+			fbInstances.put(this.fbInstances);
+			this.fbInstances = fbInstances;
+		}
+		fbInstances.put(modelViewMatrix.getArray());
+		// normal matrix as upper 3x3 of inverse transposed model view matrix
+		float[] normalMatrixArray = normalMatrix.set(modelViewMatrix).invert().transpose().getArray();
+		fbInstances.put(normalMatrixArray, 0, 3);
+		fbInstances.put(normalMatrixArray, 4, 3);
+		fbInstances.put(normalMatrixArray, 8, 3);
+		fbInstances.put(effectColorMul);
+		fbInstances.put(effectColorAdd);
+		instances++;
+	}
+
+	/**
+	 * Render collected instances with current buffer objects, material and front face
+	 * @param faces
+	 * @param faces offset
+	 */
+	private void renderInstances(int faces, int facesOffset) {
+		fbInstances.flip();
+		renderer.uploadStreamBufferObject(instancesVBOIds[0], fbInstances.limit() * Float.SIZE / Byte.SIZE, fbInstances);
+		renderer.bindInstancesBufferObject(instancesVBOIds[0]);
+		renderer.drawInstancedIndexedTrianglesFromBufferObjects(faces, facesOffset, instances);
+		fbInstances.clear();
+		instances = 0;
+	}
+
 	/**
 	 * Set ups a material for rendering
 	 * @param object 3d group
@@ -594,7 +708,7 @@ public final class Object3DVBORenderer {
 		renderer.setMaterialSpecular(material.getSpecularColor().getArray());
 		renderer.setMaterialEmission(material.getEmissionColor().getArray());
 		renderer.setMaterialShininess(material.getShininess());
-		renderer.onUpdateMaterial();
+		renderer.updateMaterial();
 
 		// bind diffuse texture
 		renderer.setTextureUnit(LightingShader.TEXTUREUNIT_DIFFUSE);
@@ -775,7 +889,7 @@ public final class Object3DVBORenderer {
 			//
 			renderer.setEffectColorAdd(currentPse.getEffectColorAdd().getArray());
 			renderer.setEffectColorMul(currentPse.getEffectColorMul().getArray());
-			renderer.onUpdateEffect();
+			renderer.updateEffect();
 
 			depthBuffer = currentPse.isPickable();
 			if (depthBuffer) {
@@ -0,0 +1,196 @@
+package net.drewke.tdme.engine.subsystems.object;
+
+import net.drewke.tdme.engine.Object3D;
+import net.drewke.tdme.utils.ArrayList;
+
+/**
+ * Render queue of faces entities of objects sharing a model
+ * 	Items are sorted by 64 bit keys which encode pass, shader, material, texture set and VBO from most to least significant bits,
+ * 	so consecutive items share as much GL state as possible. Sorting is a stable LSD radix sort.
+ * 	Only opaque faces entities go through the queue, this is the lighting pass and the shadow map passes which call
+ * 	Object3DVBORenderer::render() too, each call sorts its own queue, so pass and shader bits are constant for now.
+ * 	Transparent faces are collected by TransparentRenderFacesPool and rendered depth sorted afterwards without this queue.
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+final class RenderQueue {
+
+	protected final static int PASS_OPAQUE = 0;
+	protected final static int SHADER_LIGHTING = 0;
+
+	private final static int PASS_BITS = 2;
+	private final static int SHADER_BITS = 4;
+	private final static int MATERIAL_BITS = 16;
+	private final static int TEXTURES_BITS = 20;
+	private final static int VBO_BITS = 22;
+
+	private int itemCount;
+	private long[] keys;
+	private long[] keysSorted;
+	private int[] order;
+	private int[] orderSorted;
+	private int[] counts;
+	private ArrayList<ArrayList<Object3D>> objects;
+	private int[] object3DGroupIdxs;
+	private int[] facesEntityIdxs;
+	private int[] faceIdxs;
+
+	/**
+	 * Constructor
+	 */
+	RenderQueue() {
+		itemCount = 0;
+		keys = new long[0];
+		keysSorted = new long[0];
+		order = new int[0];
+		orderSorted = new int[0];
+		counts = new int[256];
+		objects = new ArrayList<ArrayList<Object3D>>();
+		object3DGroupIdxs = new int[0];
+		facesEntityIdxs = new int[0];
+		faceIdxs = new int[0];
+	}
+
+	/**
+	 * Create sort key, values are masked to the bits available for them
+	 * @param pass
+	 * @param shader
+	 * @param material
+	 * @param textures
+	 * @param vbo
+	 * @return key
+	 */
+	protected static long createKey(int pass, int shader, int material, int textures, int vbo) {
+		long key = pass & ((1L << PASS_BITS) - 1);
+		key = (key << SHADER_BITS) | (shader & ((1L << SHADER_BITS) - 1));
+		key = (key << MATERIAL_BITS) | (material & ((1L << MATERIAL_BITS) - 1));
+		key = (key << TEXTURES_BITS) | (textures & ((1L << TEXTURES_BITS) - 1));
+		key = (key << VBO_BITS) | (vbo & ((1L << VBO_BITS) - 1));
+		return key;
+	}
+
+	/**
+	 * Clear queue, object references are released
+	 */
+	protected void clear() {
+		itemCount = 0;
+		objects.clear();
+	}
+
+	/**
+	 * @return item count
+	 */
+	protected int size() {
+		return itemCount;
+	}
+
+	/**
+	 * Add item
+	 * @param key
+	 * @param objects of same type/ with same models
+	 * @param object 3d group idx
+	 * @param faces entity idx
+	 * @param face idx
+	 */
+	protected void add(long key, ArrayList<Object3D> objects, int object3DGroupIdx, int facesEntityIdx, int faceIdx) {
+		// grow if required
+		if (itemCount == keys.length) {
+			int capacity = Math.max(64, itemCount * 2);
+			long[] keys = new long[capacity];
+			int[] object3DGroupIdxs = new int[capacity];
+			int[] facesEntityIdxs = new int[capacity];
+			int[] faceIdxs = new int[capacity];
+			System.arraycopy(this.keys, 0, keys, 0, itemCount);
+			System.arraycopy(this.object3DGroupIdxs, 0, object3DGroupIdxs, 0, itemCount);
+			System.arraycopy(this.facesEntityIdxs, 0, facesEntityIdxs, 0, itemCount);
+			System.arraycopy(this.faceIdxs, 0, faceIdxs, 0, itemCount);
+			this.keys = keys;
+			this.object3DGroupIdxs = object3DGroupIdxs;
+			this.facesEntityIdxs = facesEntityIdxs;
+			this.faceIdxs = faceIdxs;
+			keysSorted = new long[capacity];
+			order = new int[capacity];
+			orderSorted = new int[capacity];
+		}
+
+		// add
+		keys[itemCount] = key;
+		this.objects.add(objects);
+		object3DGroupIdxs[itemCount] = object3DGroupIdx;
+		facesEntityIdxs[itemCount] = facesEntityIdx;
+		faceIdxs[itemCount] = faceIdx;
+		itemCount++;
+	}
+
+	/**
+	 * Sort items by key, items with equal keys keep their order
+	 */
+	protected void sort() {
+		for (int i = 0; i < itemCount; i++) {
+			order[i] = i;
+			keysSorted[i] = keys[i];
+		}
+
+		// sort by 8 bits per pass, starting with least significant bits
+		for (int shift = 0; shift < 64; shift+= 8) {
+			for (int i = 0; i < counts.length; i++) counts[i] = 0;
+			for (int i = 0; i < itemCount; i++) {
+				counts[(int)(keysSorted[i] >>> shift) & 0xFF]++;
+			}
+
+			// skip pass if all keys share these bits
+			if (itemCount == 0 || counts[(int)(keysSorted[0] >>> shift) & 0xFF] == itemCount) continue;
+
+			// offsets
+			int offset = 0;
+			for (int i = 0; i < counts.length; i++) {
+				int count = counts[i];
+				counts[i] = offset;
+				offset+= count;
+			}
+
+			// scatter
+			for (int i = 0; i < itemCount; i++) {
+				int bucket = (int)(keysSorted[i] >>> shift) & 0xFF;
+				orderSorted[counts[bucket]++] = order[i];
+			}
+			for (int i = 0; i < itemCount; i++) {
+				order[i] = orderSorted[i];
+				keysSorted[i] = keys[order[i]];
+			}
+		}
+	}
+
+	/**
+	 * @param sorted item idx
+	 * @return objects of same type/ with same models
+	 */
+	protected ArrayList<Object3D> getObjects(int idx) {
+		return objects.get(order[idx]);
+	}
+
+	/**
+	 * @param sorted item idx
+	 * @return object 3d group idx
+	 */
+	protected int getObject3DGroupIdx(int idx) {
+		return object3DGroupIdxs[order[idx]];
+	}
+
+	/**
+	 * @param sorted item idx
+	 * @return faces entity idx
+	 */
+	protected int getFacesEntityIdx(int idx) {
+		return facesEntityIdxs[order[idx]];
+	}
+
+	/**
+	 * @param sorted item idx
+	 * @return face idx
+	 */
+	protected int getFaceIdx(int idx) {
+		return faceIdxs[order[idx]];
+	}
+
+}
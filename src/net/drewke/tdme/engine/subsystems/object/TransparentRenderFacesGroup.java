@@ -165,7 +165,7 @@ public final class TransparentRenderFacesGroup {
 		// effect
 		renderer.setEffectColorMul(effectColorMul.getArray());
 		renderer.setEffectColorAdd(effectColorAdd.getArray());
-		renderer.onUpdateEffect();
+		renderer.updateEffect();
 
 		// material
 		object3DVBORenderer.setupMaterial(object3DGroup, facesEntityIdx);
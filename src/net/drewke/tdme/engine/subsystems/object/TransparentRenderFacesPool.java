@@ -4,81 +4,110 @@ import net.drewke.tdme.engine.model.Face;
 import net.drewke.tdme.engine.model.FacesEntity;
 import net.drewke.tdme.math.Matrix4x4;
 import net.drewke.tdme.math.Vector3;
-import net.drewke.tdme.utils.ArrayList;
-import net.drewke.tdme.utils.Console;
-import net.drewke.tdme.utils.Pool;
 
 /**
  * Transparent render faces pool
+ * 	Faces are stored in primitive arrays which only grow, so they are reused across frames
+ * 	Sorting is a LSD radix sort on the distance float bits
  * @author andreas.drewke
  * @version $Id$
  */
 public final class TransparentRenderFacesPool {
 
-	private final static int FACES_MAX = 16384;
+	private int faceCount;
+	private float[] distancesFromCamera;
+	private Object3DGroup[] object3DGroups;
+	private int[] facesEntityIdxs;
+	private int[] faceIdxs;
 
-	private ArrayList<TransparentRenderFace> transparentRenderFaces = null;
-	private Pool<TransparentRenderFace> transparentRenderFacesPool = null;
-
-	private Vector3 tmpVector3;
+	private int[] order;
+	private int[] orderSorted;
+	private int[] keys;
+	private int[] counts;
 
 	/**
 	 * Default constructor
 	 */
 	protected TransparentRenderFacesPool() {
-		tmpVector3 = new Vector3();
-		transparentRenderFaces = new ArrayList<TransparentRenderFace>();
-		transparentRenderFacesPool = new Pool<TransparentRenderFace>() {
-			protected TransparentRenderFace instantiate() {
-				return new TransparentRenderFace();
-			}
-		};
+		faceCount = 0;
+		distancesFromCamera = new float[0];
+		object3DGroups = new Object3DGroup[0];
+		facesEntityIdxs = new int[0];
+		faceIdxs = new int[0];
+		order = new int[0];
+		orderSorted = new int[0];
+		keys = new int[0];
+		counts = new int[256];
+		ensureCapacity(1024);
 	}
 
 	/**
-	 * Creates an array of transparent render faces from
+	 * Ensure capacity for given number of faces
+	 * @param face capacity
+	 */
+	private void ensureCapacity(int faceCapacity) {
+		if (faceCapacity <= distancesFromCamera.length) return;
+		int capacity = Math.max(1, distancesFromCamera.length);
+		while (capacity < faceCapacity) capacity*= 2;
+		float[] distancesFromCamera = new float[capacity];
+		Object3DGroup[] object3DGroups = new Object3DGroup[capacity];
+		int[] facesEntityIdxs = new int[capacity];
+		int[] faceIdxs = new int[capacity];
+		System.arraycopy(this.distancesFromCamera, 0, distancesFromCamera, 0, faceCount);
+		System.arraycopy(this.object3DGroups, 0, object3DGroups, 0, faceCount);
+		System.arraycopy(this.facesEntityIdxs, 0, facesEntityIdxs, 0, faceCount);
+		System.arraycopy(this.faceIdxs, 0, faceIdxs, 0, faceCount);
+		this.distancesFromCamera = distancesFromCamera;
+		this.object3DGroups = object3DGroups;
+		this.facesEntityIdxs = facesEntityIdxs;
+		this.faceIdxs = faceIdxs;
+		order = new int[capacity];
+		orderSorted = new int[capacity];
+		keys = new int[capacity];
+	}
+
+	/**
+	 * Creates transparent render faces from
 	 * @param model view matrix
 	 * @param object3D group
 	 * @param faces entity index
 	 * @param face index
-	 * @param face index for texture coordinates
-	 * @return
 	 */
 	protected void createTransparentRenderFaces(Matrix4x4 modelViewMatrix, Object3DGroup object3DGroup, int facesEntityIdx, int faceIdx) {
 		// retrieve objects we need
 		FacesEntity[] facesEntities = object3DGroup.group.getFacesEntities();
 		FacesEntity facesEntity = facesEntities[facesEntityIdx];
-		Face[] faces = facesEntity.getFaces();		
+		Face[] faces = facesEntity.getFaces();
 		Vector3[] groupTransformedVertices = object3DGroup.mesh.vertices;
+		ensureCapacity(faceCount + faces.length);
 
-		// objects we will use for calculations
-		float distanceFromCamera;
+		// we only need the z row of model view matrix to compute distance from camera
+		float[] modelViewMatrixData = modelViewMatrix.getArray();
+		float zX = modelViewMatrixData[2] / 3.0f;
+		float zY = modelViewMatrixData[6] / 3.0f;
+		float zZ = modelViewMatrixData[10] / 3.0f;
+		float zW = modelViewMatrixData[14];
 
 		// create transparent render faces
 		for (int i = 0; i < faces.length; i++) {
-			// check for pool overflow
-			if (size() >= FACES_MAX) {
-				Console.println("TransparentRenderFacesPool::createTransparentRenderFaces(): Too many transparent render faces");
-				break;
-			}
-
-			// set up face
+			// distance of face center from camera
 			int[] faceVertexIndices = faces[i].getVertexIndices();
-			tmpVector3.set(0.0f, 0.0f, 0.0f); 
-			tmpVector3.add(groupTransformedVertices[faceVertexIndices[0]]); 
-			tmpVector3.add(groupTransformedVertices[faceVertexIndices[1]]);
-			tmpVector3.add(groupTransformedVertices[faceVertexIndices[2]]);
-			tmpVector3.scale(1.0f / 3.0f);
-			modelViewMatrix.multiply(tmpVector3, tmpVector3);
-			distanceFromCamera = -tmpVector3.getZ();
+			float[] vertex0XYZ = groupTransformedVertices[faceVertexIndices[0]].getArray();
+			float[] vertex1XYZ = groupTransformedVertices[faceVertexIndices[1]].getArray();
+			float[] vertex2XYZ = groupTransformedVertices[faceVertexIndices[2]].getArray();
+			float distanceFromCamera = -(
+				(vertex0XYZ[0] + vertex1XYZ[0] + vertex2XYZ[0]) * zX +
+				(vertex0XYZ[1] + vertex1XYZ[1] + vertex2XYZ[1]) * zY +
+				(vertex0XYZ[2] + vertex1XYZ[2] + vertex2XYZ[2]) * zZ +
+				zW
+			);
 
 			// create transparent render face
-			TransparentRenderFace transparentRenderFace = transparentRenderFacesPool.allocate();
-			transparentRenderFace.object3DGroup = object3DGroup;
-			transparentRenderFace.facesEntityIdx = facesEntityIdx;
-			transparentRenderFace.faceIdx = faceIdx;
-			transparentRenderFace.distanceFromCamera = distanceFromCamera;
-			transparentRenderFaces.add(transparentRenderFace);
+			distancesFromCamera[faceCount] = distanceFromCamera;
+			object3DGroups[faceCount] = object3DGroup;
+			facesEntityIdxs[faceCount] = facesEntityIdx;
+			faceIdxs[faceCount] = faceIdx;
+			faceCount++;
 			faceIdx++;
 		}
 	}
@@ -87,22 +116,87 @@ public final class TransparentRenderFacesPool {
 	 * @return allocated faces
 	 */
 	public int size() {
-		return transparentRenderFacesPool.size();
+		return faceCount;
 	}
 
 	/**
-	 * Reset
+	 * Reset, object 3d group references are released
 	 */
 	protected void reset() {
-		transparentRenderFacesPool.reset();
-		transparentRenderFaces.clear();
+		for (int i = 0; i < faceCount; i++) object3DGroups[i] = null;
+		faceCount = 0;
+	}
+
+	/**
+	 * Sort faces from far to near, faces with equal distance keep their order
+	 */
+	protected void sort() {
+		// keys which sort ascending as unsigned int from far to near
+		for (int i = 0; i < faceCount; i++) {
+			int bits = Float.floatToRawIntBits(distancesFromCamera[i]);
+			keys[i] = ~(bits ^ ((bits >> 31) | 0x80000000));
+			order[i] = i;
+		}
+
+		// sort by 8 bits per pass, starting with least significant bits
+		for (int shift = 0; shift < 32; shift+= 8) {
+			for (int i = 0; i < counts.length; i++) counts[i] = 0;
+			for (int i = 0; i < faceCount; i++) {
+				counts[(keys[order[i]] >>> shift) & 0xFF]++;
+			}
+
+			// skip pass if all keys share these bits
+			if (faceCount == 0 || counts[(keys[order[0]] >>> shift) & 0xFF] == faceCount) continue;
+
+			// offsets
+			int offset = 0;
+			for (int i = 0; i < counts.length; i++) {
+				int count = counts[i];
+				counts[i] = offset;
+				offset+= count;
+			}
+
+			// scatter
+			for (int i = 0; i < faceCount; i++) {
+				int face = order[i];
+				orderSorted[counts[(keys[face] >>> shift) & 0xFF]++] = face;
+			}
+			int[] tmp = order;
+			order = orderSorted;
+			orderSorted = tmp;
+		}
+	}
+
+	/**
+	 * @param sorted face idx
+	 * @return object 3d group
+	 */
+	protected Object3DGroup getObject3DGroup(int idx) {
+		return object3DGroups[order[idx]];
+	}
+
+	/**
+	 * @param sorted face idx
+	 * @return faces entity idx
+	 */
+	protected int getFacesEntityIdx(int idx) {
+		return facesEntityIdxs[order[idx]];
+	}
+
+	/**
+	 * @param sorted face idx
+	 * @return face idx
+	 */
+	protected int getFaceIdx(int idx) {
+		return faceIdxs[order[idx]];
 	}
 
 	/**
-	 * @return transparent render faces vector
+	 * @param sorted face idx
+	 * @return distance from camera
 	 */
-	protected ArrayList<TransparentRenderFace> getTransparentRenderFaces() {
-		return transparentRenderFaces;
+	protected float getDistanceFromCamera(int idx) {
+		return distancesFromCamera[order[idx]];
 	}
 
 }
@@ -146,6 +146,7 @@ public abstract class GL2Renderer extends GLRenderer {
 	 */
 	final public void initializeFrame() {
 		if (gl.getContext().isCurrent() == false) gl.getContext().makeCurrent();
+		invalidateStateCache();
 	}
 
 	/*
@@ -187,6 +188,14 @@ public abstract class GL2Renderer extends GLRenderer {
 		return false;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#isInstancedRenderingAvailable()
+	 */
+	final public boolean isInstancedRenderingAvailable() {
+		return false;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.GLRenderer#getTextureUnits()
@@ -278,6 +287,7 @@ public abstract class GL2Renderer extends GLRenderer {
 	 */
 	final public void useProgram(int programId) {
 		gl.glUseProgramObjectARB(programId);
+		invalidateStateCache();
 	}
 
 	/*
@@ -524,6 +534,7 @@ public abstract class GL2Renderer extends GLRenderer {
 	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setFrontFace(int)
 	 */
 	final public void setFrontFace(int frontFace) {
+		if (updateFrontFace(frontFace) == false) return;
 		gl.glFrontFace(frontFace);
 	}
 
@@ -572,6 +583,7 @@ public abstract class GL2Renderer extends GLRenderer {
 
 		// unbind, return
 		gl.glBindTexture(GL2.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		return depthTextureGlId;
 	}
 
@@ -608,6 +620,7 @@ public abstract class GL2Renderer extends GLRenderer {
 
 		// unbind, return
 		gl.glBindTexture(GL2.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		return colorBufferTextureGlId;
 	}
 
@@ -655,6 +668,7 @@ public abstract class GL2Renderer extends GLRenderer {
 			null
 		);
 		gl.glBindTexture(GL2.GL_TEXTURE_2D, 0);
+		invalidateBoundTexture();
 	}
 
 	/*
@@ -675,6 +689,7 @@ public abstract class GL2Renderer extends GLRenderer {
 			null
 		);
 		gl.glBindTexture(GL2.GL_TEXTURE_2D, 0);
+		invalidateBoundTexture();
 	}
 
 	/*
@@ -682,6 +697,7 @@ public abstract class GL2Renderer extends GLRenderer {
 	 * @see net.drewke.tdme.engine.GLRenderer#bindTexture(int)
 	 */
 	final public void bindTexture(int textureId) {
+		if (updateBoundTexture(textureId) == false) return;
 		// bind depth texture
 		gl.glBindTexture(GL2.GL_TEXTURE_2D, textureId);
 
@@ -695,6 +711,7 @@ public abstract class GL2Renderer extends GLRenderer {
 	 */
 	final public void disposeTexture(int textureId) {
 		gl.glDeleteTextures(1, new int[] {textureId}, 0);
+		invalidateBoundTexture(textureId);
 	}
 
 	/*
@@ -806,6 +823,16 @@ public abstract class GL2Renderer extends GLRenderer {
 		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, ID_NONE);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#uploadStreamBufferObject(int, int, java.nio.FloatBuffer)
+	 */
+	final public void uploadStreamBufferObject(int bufferObjectId, int size, FloatBuffer data) {
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, bufferObjectId);
+		gl.glBufferData(GL2.GL_ARRAY_BUFFER, size, data, GL2.GL_STREAM_DRAW);
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, ID_NONE);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.GLRenderer#bindIndicesBufferObject(int)
@@ -890,6 +917,14 @@ public abstract class GL2Renderer extends GLRenderer {
 		Console.println("GL2Renderer::bindBitangentsBufferObject()::not implemented yet");	
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindInstancesBufferObject(int)
+	 */
+	final public void bindInstancesBufferObject(int bufferObjectId) {
+		Console.println("GL2Renderer::bindInstancesBufferObject()::not implemented yet");
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.GLRenderer#drawTrianglesFromBufferObjects(int, int)
@@ -898,6 +933,14 @@ public abstract class GL2Renderer extends GLRenderer {
 		gl.glDrawElements(GL2.GL_TRIANGLES, triangles * 3, GL2.GL_UNSIGNED_SHORT, (long)trianglesOffset * 3L * 2L);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#drawInstancedIndexedTrianglesFromBufferObjects(int, int, int)
+	 */
+	final public void drawInstancedIndexedTrianglesFromBufferObjects(int triangles, int trianglesOffset, int instances) {
+		Console.println("GL2Renderer::drawInstancedIndexedTrianglesFromBufferObjects()::not implemented yet");
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#drawTrianglesFromBufferObjects(int, int)
@@ -987,6 +1030,7 @@ public abstract class GL2Renderer extends GLRenderer {
 	final public void initGuiMode() {
 		setTextureUnit(0);
 		gl.glBindTexture(GL2.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		gl.glEnable(GL2.GL_BLEND);
 		gl.glDisable(GL2.GL_DEPTH_TEST);
 		gl.glDisable(GL2.GL_CULL_FACE);
@@ -1000,6 +1044,7 @@ public abstract class GL2Renderer extends GLRenderer {
 	final public void doneGuiMode() {
 		gl.glGetError();
 		gl.glBindTexture(GL2.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		gl.glDisable(GL2.GL_BLEND);
 		gl.glEnable(GL2.GL_DEPTH_TEST);
 		gl.glEnable(GL2.GL_CULL_FACE);
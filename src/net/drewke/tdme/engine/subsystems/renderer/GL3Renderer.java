@@ -28,6 +28,7 @@ public abstract class GL3Renderer extends GLRenderer {
 
 	private GL3 gl;
 	private int engineVAO;
+	private boolean instancesBufferObjectBound;
 
 	/**
 	 * final public constructor
@@ -55,6 +56,8 @@ public abstract class GL3Renderer extends GLRenderer {
 
 		DEPTHFUNCTION_LESSEQUAL = GL3.GL_LEQUAL;
 		DEPTHFUNCTION_EQUAL = GL3.GL_EQUAL;
+
+		instancesBufferObjectBound = false;
 	}
 
 	/*
@@ -111,6 +114,7 @@ public abstract class GL3Renderer extends GLRenderer {
 	final public void initializeFrame() {
 		if (gl.getContext().isCurrent() == false) gl.getContext().makeCurrent();
 		gl.glBindVertexArray(engineVAO);
+		invalidateStateCache();
 	}
 
 	/*
@@ -160,6 +164,14 @@ public abstract class GL3Renderer extends GLRenderer {
 		return false;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#isInstancedRenderingAvailable()
+	 */
+	final public boolean isInstancedRenderingAvailable() {
+		return true;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.GLRenderer#getTextureUnits()
@@ -244,6 +256,7 @@ public abstract class GL3Renderer extends GLRenderer {
 	 */
 	final public void useProgram(int programId) {
 		gl.glUseProgram(programId);
+		invalidateStateCache();
 	}
 
 	/*
@@ -488,6 +501,7 @@ public abstract class GL3Renderer extends GLRenderer {
 	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setFrontFace(int)
 	 */
 	final public void setFrontFace(int frontFace) {
+		if (updateFrontFace(frontFace) == false) return;
 		gl.glFrontFace(frontFace);
 	}
 
@@ -537,6 +551,7 @@ public abstract class GL3Renderer extends GLRenderer {
 
 		// unbind, return
 		gl.glBindTexture(GL3.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		return depthTextureGlId;
 	}
 
@@ -573,6 +588,7 @@ public abstract class GL3Renderer extends GLRenderer {
 
 		// unbind, return
 		gl.glBindTexture(GL3.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		return colorBufferTextureGlId;
 	}
 
@@ -620,6 +636,7 @@ public abstract class GL3Renderer extends GLRenderer {
 			null
 		);
 		gl.glBindTexture(GL3.GL_TEXTURE_2D, 0);
+		invalidateBoundTexture();
 	}
 
 	/*
@@ -640,6 +657,7 @@ public abstract class GL3Renderer extends GLRenderer {
 			null
 		);
 		gl.glBindTexture(GL3.GL_TEXTURE_2D, 0);
+		invalidateBoundTexture();
 	}
 
 	/*
@@ -647,6 +665,7 @@ public abstract class GL3Renderer extends GLRenderer {
 	 * @see net.drewke.tdme.engine.GLRenderer#bindTexture(int)
 	 */
 	final public void bindTexture(int textureId) {
+		if (updateBoundTexture(textureId) == false) return;
 		// bind depth texture
 		gl.glBindTexture(GL3.GL_TEXTURE_2D, textureId);
 		//
@@ -660,6 +679,7 @@ public abstract class GL3Renderer extends GLRenderer {
 	final public void disposeTexture(int textureId) {
 		// delete texture
 		gl.glDeleteTextures(1, new int[] {textureId}, 0);
+		invalidateBoundTexture(textureId);
 	}
 
 	/*
@@ -770,6 +790,18 @@ public abstract class GL3Renderer extends GLRenderer {
 		gl.glBindBuffer(GL3.GL_ARRAY_BUFFER, ID_NONE);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#uploadStreamBufferObject(int, int, java.nio.FloatBuffer)
+	 */
+	final public void uploadStreamBufferObject(int bufferObjectId, int size, FloatBuffer data) {
+		gl.glBindBuffer(GL3.GL_ARRAY_BUFFER, bufferObjectId);
+		// orphan old storage, so we do not need to wait for draws still using it
+		gl.glBufferData(GL3.GL_ARRAY_BUFFER, size, null, GL3.GL_STREAM_DRAW);
+		gl.glBufferSubData(GL3.GL_ARRAY_BUFFER, 0, size, data);
+		gl.glBindBuffer(GL3.GL_ARRAY_BUFFER, ID_NONE);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.GLRenderer#bindIndicesBufferObject(int)
@@ -868,6 +900,36 @@ public abstract class GL3Renderer extends GLRenderer {
 		gl.glVertexAttribPointer(8, 3, GL3.GL_FLOAT, false, 0, 0L);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindInstancesBufferObject(int)
+	 */
+	final public void bindInstancesBufferObject(int bufferObjectId) {
+		int stride = INSTANCE_FLOATS * 4;
+		gl.glBindBuffer(GL3.GL_ARRAY_BUFFER, bufferObjectId);
+		// model view matrix columns
+		for (int i = 0; i < 4; i++) {
+			gl.glEnableVertexAttribArray(9 + i);
+			gl.glVertexAttribPointer(9 + i, 4, GL3.GL_FLOAT, false, stride, i * 4L * 4L);
+			gl.glVertexAttribDivisor(9 + i, 1);
+		}
+		// normal matrix columns
+		for (int i = 0; i < 3; i++) {
+			gl.glEnableVertexAttribArray(3 + i);
+			gl.glVertexAttribPointer(3 + i, 3, GL3.GL_FLOAT, false, stride, (16L + i * 3L) * 4L);
+			gl.glVertexAttribDivisor(3 + i, 1);
+		}
+		// effect color mul
+		gl.glEnableVertexAttribArray(13);
+		gl.glVertexAttribPointer(13, 4, GL3.GL_FLOAT, false, stride, 25L * 4L);
+		gl.glVertexAttribDivisor(13, 1);
+		// effect color add
+		gl.glEnableVertexAttribArray(14);
+		gl.glVertexAttribPointer(14, 4, GL3.GL_FLOAT, false, stride, 29L * 4L);
+		gl.glVertexAttribDivisor(14, 1);
+		instancesBufferObjectBound = true;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.GLRenderer#drawTrianglesFromBufferObjects(int, int)
@@ -876,6 +938,14 @@ public abstract class GL3Renderer extends GLRenderer {
 		gl.glDrawElements(GL3.GL_TRIANGLES, triangles * 3, GL3.GL_UNSIGNED_SHORT, (long)trianglesOffset * 3L * 2L);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#drawInstancedIndexedTrianglesFromBufferObjects(int, int, int)
+	 */
+	final public void drawInstancedIndexedTrianglesFromBufferObjects(int triangles, int trianglesOffset, int instances) {
+		gl.glDrawElementsInstanced(GL3.GL_TRIANGLES, triangles * 3, GL3.GL_UNSIGNED_SHORT, (long)trianglesOffset * 3L * 2L, instances);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#drawTrianglesFromBufferObjects(int, int)
@@ -906,6 +976,18 @@ public abstract class GL3Renderer extends GLRenderer {
 		gl.glDisableVertexAttribArray(6);
 		gl.glDisableVertexAttribArray(7);
 		gl.glDisableVertexAttribArray(8);
+		// instances
+		if (instancesBufferObjectBound == true) {
+			for (int i = 3; i <= 5; i++) {
+				gl.glVertexAttribDivisor(i, 0);
+				gl.glDisableVertexAttribArray(i);
+			}
+			for (int i = 9; i <= 14; i++) {
+				gl.glVertexAttribDivisor(i, 0);
+				gl.glDisableVertexAttribArray(i);
+			}
+			instancesBufferObjectBound = false;
+		}
 		// unbind buffers
 		gl.glBindBuffer(GL3.GL_ARRAY_BUFFER, ID_NONE);
 		gl.glBindBuffer(GL3.GL_ELEMENT_ARRAY_BUFFER, ID_NONE);
@@ -977,6 +1059,7 @@ public abstract class GL3Renderer extends GLRenderer {
 	final public void initGuiMode() {
 		setTextureUnit(0);
 		gl.glBindTexture(GL3.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		gl.glEnable(GL3.GL_BLEND);
 		gl.glDisable(GL3.GL_DEPTH_TEST);
 		gl.glDisable(GL3.GL_CULL_FACE);
@@ -990,6 +1073,7 @@ public abstract class GL3Renderer extends GLRenderer {
 	final public void doneGuiMode() {
 		gl.glGetError();
 		gl.glBindTexture(GL3.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		gl.glDisable(GL3.GL_BLEND);
 		gl.glEnable(GL3.GL_DEPTH_TEST);
 		gl.glEnable(GL3.GL_CULL_FACE);
@@ -98,6 +98,7 @@ public abstract class GLES2Renderer extends GLRenderer {
 	 */
 	final public void initializeFrame() {
 		if (gl.getContext().isCurrent() == false) gl.getContext().makeCurrent();
+		invalidateStateCache();
 	}
 
 	/*
@@ -147,6 +148,14 @@ public abstract class GLES2Renderer extends GLRenderer {
 		return false;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#isInstancedRenderingAvailable()
+	 */
+	final public boolean isInstancedRenderingAvailable() {
+		return false;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.GLRenderer#getTextureUnits()
@@ -232,6 +241,7 @@ public abstract class GLES2Renderer extends GLRenderer {
 	 */
 	final public void useProgram(int programId) {
 		gl.glUseProgram(programId);
+		invalidateStateCache();
 	}
 
 	/*
@@ -478,6 +488,7 @@ public abstract class GLES2Renderer extends GLRenderer {
 	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setFrontFace(int)
 	 */
 	final public void setFrontFace(int frontFace) {
+		if (updateFrontFace(frontFace) == false) return;
 		gl.glFrontFace(frontFace);
 	}
 
@@ -527,6 +538,7 @@ public abstract class GLES2Renderer extends GLRenderer {
 
 		// unbind, return
 		gl.glBindTexture(GLES2.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		return depthTextureGlId;
 	}
 
@@ -563,6 +575,7 @@ public abstract class GLES2Renderer extends GLRenderer {
 
 		// unbind, return
 		gl.glBindTexture(GLES2.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		return colorBufferTextureGlId;
 	}
 
@@ -610,6 +623,7 @@ public abstract class GLES2Renderer extends GLRenderer {
 			null
 		);
 		gl.glBindTexture(GLES2.GL_TEXTURE_2D, 0);
+		invalidateBoundTexture();
 	}
 
 	/*
@@ -630,6 +644,7 @@ public abstract class GLES2Renderer extends GLRenderer {
 			null
 		);
 		gl.glBindTexture(GLES2.GL_TEXTURE_2D, 0);
+		invalidateBoundTexture();
 	}
 
 	/*
@@ -637,6 +652,7 @@ public abstract class GLES2Renderer extends GLRenderer {
 	 * @see net.drewke.tdme.engine.GLRenderer#bindTexture(int)
 	 */
 	final public void bindTexture(int textureId) {
+		if (updateBoundTexture(textureId) == false) return;
 		// bind depth texture
 		gl.glBindTexture(GLES2.GL_TEXTURE_2D, textureId);
 		//
@@ -649,6 +665,7 @@ public abstract class GLES2Renderer extends GLRenderer {
 	 */
 	final public void disposeTexture(int textureId) {
 		gl.glDeleteTextures(1, new int[] {textureId}, 0);
+		invalidateBoundTexture(textureId);
 	}
 
 	/*
@@ -762,6 +779,16 @@ public abstract class GLES2Renderer extends GLRenderer {
 		gl.glBindBuffer(GLES2.GL_ARRAY_BUFFER, ID_NONE);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#uploadStreamBufferObject(int, int, java.nio.FloatBuffer)
+	 */
+	final public void uploadStreamBufferObject(int bufferObjectId, int size, FloatBuffer data) {
+		gl.glBindBuffer(GLES2.GL_ARRAY_BUFFER, bufferObjectId);
+		gl.glBufferData(GLES2.GL_ARRAY_BUFFER, size, data, GLES2.GL_STREAM_DRAW);
+		gl.glBindBuffer(GLES2.GL_ARRAY_BUFFER, ID_NONE);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.GLRenderer#bindIndicesBufferObject(int)
@@ -856,6 +883,14 @@ public abstract class GLES2Renderer extends GLRenderer {
 		Console.println("GLES2Renderer::bindBitangentsBufferObject()::not implemented yet");	
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindInstancesBufferObject(int)
+	 */
+	final public void bindInstancesBufferObject(int bufferObjectId) {
+		Console.println("GLES2Renderer::bindInstancesBufferObject()::not implemented yet");
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.GLRenderer#drawTrianglesFromBufferObjects(int, int)
@@ -864,6 +899,14 @@ public abstract class GLES2Renderer extends GLRenderer {
 		gl.glDrawElements(GLES2.GL_TRIANGLES, triangles * 3, GLES2.GL_UNSIGNED_SHORT, (long)trianglesOffset * 3L * 2L);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#drawInstancedIndexedTrianglesFromBufferObjects(int, int, int)
+	 */
+	final public void drawInstancedIndexedTrianglesFromBufferObjects(int triangles, int trianglesOffset, int instances) {
+		Console.println("GLES2Renderer::drawInstancedIndexedTrianglesFromBufferObjects()::not implemented yet");
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#drawTrianglesFromBufferObjects(int, int)
@@ -953,6 +996,7 @@ public abstract class GLES2Renderer extends GLRenderer {
 	final public void initGuiMode() {
 		setTextureUnit(0);
 		gl.glBindTexture(GLES2.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		gl.glEnable(GLES2.GL_BLEND);
 		gl.glDisable(GLES2.GL_DEPTH_TEST);
 		gl.glDisable(GLES2.GL_CULL_FACE);
@@ -964,6 +1008,7 @@ public abstract class GLES2Renderer extends GLRenderer {
 	 */
 	final public void doneGuiMode() {
 		gl.glBindTexture(GLES2.GL_TEXTURE_2D, ID_NONE);
+		invalidateBoundTexture();
 		gl.glDisable(GLES2.GL_BLEND);
 		gl.glEnable(GLES2.GL_DEPTH_TEST);
 		gl.glEnable(GLES2.GL_CULL_FACE);
@@ -71,6 +71,8 @@ abstract public class GLRenderer {
 	public int FRONTFACE_CW = -1;
 	public int FRONTFACE_CCW = -1;
 
+	public final static int INSTANCE_FLOATS = 16 + 9 + 4 + 4;
+
 	public float[] effectColorMul;
 	public float[] effectColorAdd;
 
@@ -91,10 +93,21 @@ abstract public class GLRenderer {
 
 	public boolean renderingTexturingClientState;
 
+	public boolean instancedRendering;
+
 	public float pointSize;
 
 	protected FloatBuffer pixelDepthBuffer = FloatBuffer.allocate(1);
 
+	// state cache, binds and uploads are skipped if the value did not change
+	protected final static int STATE_UNKNOWN = Integer.MIN_VALUE;
+	protected int[] boundTextureIds;
+	protected int frontFace;
+	protected boolean effectChanged;
+	protected boolean materialChanged;
+	protected int stateChanges;
+	protected int stateChangesSkipped;
+
 	/**
 	 * public constructor
 	 */
@@ -144,6 +157,111 @@ abstract public class GLRenderer {
 			textureMatrix[i] = new Matrix4x4().identity();
 		}
 		activeTextureUnit = 0;
+
+		// state cache
+		boundTextureIds = new int[16];
+		invalidateStateCache();
+		stateChanges = 0;
+		stateChangesSkipped = 0;
+	}
+
+	/**
+	 * Invalidate state cache, required if GL state or program was changed without using the cache
+	 */
+	public void invalidateStateCache() {
+		for (int i = 0; i < boundTextureIds.length; i++) boundTextureIds[i] = STATE_UNKNOWN;
+		frontFace = STATE_UNKNOWN;
+		effectChanged = true;
+		materialChanged = true;
+	}
+
+	/**
+	 * Update bound texture of active texture unit in state cache
+	 * @param texture id
+	 * @return if texture needs to be bound
+	 */
+	protected boolean updateBoundTexture(int textureId) {
+		if (activeTextureUnit >= boundTextureIds.length) return true;
+		if (boundTextureIds[activeTextureUnit] == textureId) {
+			stateChangesSkipped++;
+			return false;
+		}
+		boundTextureIds[activeTextureUnit] = textureId;
+		stateChanges++;
+		return true;
+	}
+
+	/**
+	 * Invalidate bound texture of active texture unit in state cache, e.g. after binding it without cache
+	 */
+	protected void invalidateBoundTexture() {
+		if (activeTextureUnit >= boundTextureIds.length) return;
+		boundTextureIds[activeTextureUnit] = STATE_UNKNOWN;
+	}
+
+	/**
+	 * Invalidate given texture in state cache of all texture units, e.g. if texture id gets disposed
+	 * @param texture id
+	 */
+	protected void invalidateBoundTexture(int textureId) {
+		for (int i = 0; i < boundTextureIds.length; i++) {
+			if (boundTextureIds[i] == textureId) boundTextureIds[i] = STATE_UNKNOWN;
+		}
+	}
+
+	/**
+	 * Update front face in state cache
+	 * @param front face
+	 * @return if front face needs to be set
+	 */
+	protected boolean updateFrontFace(int frontFace) {
+		if (this.frontFace == frontFace) {
+			stateChangesSkipped++;
+			return false;
+		}
+		this.frontFace = frontFace;
+		stateChanges++;
+		return true;
+	}
+
+	/**
+	 * @return state changes done through state cache
+	 */
+	public int getStateChanges() {
+		return stateChanges;
+	}
+
+	/**
+	 * @return state changes skipped by state cache as value did not change
+	 */
+	public int getStateChangesSkipped() {
+		return stateChangesSkipped;
+	}
+
+	/**
+	 * Reset state change counters
+	 */
+	public void resetStateChangeCounters() {
+		stateChanges = 0;
+		stateChangesSkipped = 0;
+	}
+
+	/**
+	 * Copy given values into given array
+	 * @param source
+	 * @param destination
+	 * @return if any value changed
+	 */
+	private static boolean copyIfChanged(float[] source, float[] destination) {
+		boolean changed = false;
+		int length = Math.min(source.length, destination.length);
+		for (int i = 0; i < length; i++) {
+			if (destination[i] != source[i]) {
+				destination[i] = source[i];
+				changed = true;
+			}
+		}
+		return changed;
 	}
 
 	/**
@@ -199,6 +317,11 @@ abstract public class GLRenderer {
 	 */
 	abstract public boolean isDisplacementMappingAvailable();
 
+	/**
+	 * @return if instanced rendering is supported
+	 */
+	abstract public boolean isInstancedRenderingAvailable();
+
 	/**
 	 * @return number of texture units
 	 */
@@ -558,6 +681,14 @@ abstract public class GLRenderer {
 	 */
 	abstract public void uploadBufferObject(int bufferObjectId, int size, ShortBuffer data);
 
+	/**
+	 * Uploads buffer data to buffer object which is respecified every frame
+	 * @param buffer object id
+	 * @param size
+	 * @param data
+	 */
+	abstract public void uploadStreamBufferObject(int bufferObjectId, int size, FloatBuffer data);
+
 	/**
 	 * Bind indices buffer object
 	 * @param buffer object id
@@ -618,6 +749,13 @@ abstract public class GLRenderer {
 	 */
 	abstract public void bindBitangentsBufferObject(int bufferObjectId);
 
+	/**
+	 * Bind instances buffer object
+	 * 	each instance has INSTANCE_FLOATS floats, model view matrix, normal matrix as 3x3, effect color mul and effect color add
+	 * @param buffer object id
+	 */
+	abstract public void bindInstancesBufferObject(int bufferObjectId);
+
 	/**
 	 * Draw indexed triangles from buffer objects 
 	 * @param triangles
@@ -625,6 +763,14 @@ abstract public class GLRenderer {
 	 */
 	abstract public void drawIndexedTrianglesFromBufferObjects(int triangles, int trianglesOffset);
 
+	/**
+	 * Draw indexed triangles from buffer objects for each instance of bound instances buffer object
+	 * @param triangles
+	 * @param triangles offset
+	 * @param instances
+	 */
+	abstract public void drawInstancedIndexedTrianglesFromBufferObjects(int triangles, int trianglesOffset, int instances);
+
 	/**
 	 * Draw triangles from buffer objects 
 	 * @param triangles
@@ -781,7 +927,7 @@ abstract public class GLRenderer {
 	 * @param effect color for multiplication
 	 */
 	public void setEffectColorMul(float[] effectColorMul) {
-		System.arraycopy(effectColorMul, 0, this.effectColorMul, 0, Math.min(effectColorMul.length, this.effectColorMul.length));
+		if (copyIfChanged(effectColorMul, this.effectColorMul) == true) effectChanged = true;
 	}
 
 	/**
@@ -789,7 +935,7 @@ abstract public class GLRenderer {
 	 * @param effect color for addition
 	 */
 	public void setEffectColorAdd(float[] effectColorAdd) {
-		System.arraycopy(effectColorAdd, 0, this.effectColorAdd, 0, Math.min(effectColorAdd.length, this.effectColorAdd.length));
+		if (copyIfChanged(effectColorAdd, this.effectColorAdd) == true) effectChanged = true;
 	}
 
 	/**
@@ -797,6 +943,32 @@ abstract public class GLRenderer {
 	 */
 	abstract public void onUpdateEffect();
 
+	/**
+	 * Update effect if effect colors changed since last update through state cache
+	 */
+	public void updateEffect() {
+		if (effectChanged == false) {
+			stateChangesSkipped++;
+			return;
+		}
+		effectChanged = false;
+		stateChanges++;
+		onUpdateEffect();
+	}
+
+	/**
+	 * Set up instanced rendering, matrices and effect colors are taken from bound instances buffer object if enabled
+	 * @param instanced rendering
+	 */
+	public void setInstancedRendering(boolean instancedRendering) {
+		this.instancedRendering = instancedRendering;
+	}
+
+	/**
+	 * Update instanced rendering
+	 */
+	abstract public void onUpdateInstancedRendering();
+
 	/**
 	 * Enable materials
 	 */
@@ -814,7 +986,7 @@ abstract public class GLRenderer {
 	 * @param ambient
 	 */
 	public void setMaterialAmbient(float[] ambient) {
-		System.arraycopy(ambient, 0, material.ambient, 0, Math.min(ambient.length, material.ambient.length));
+		if (copyIfChanged(ambient, material.ambient) == true) materialChanged = true;
 	}
 
 	/**
@@ -822,7 +994,7 @@ abstract public class GLRenderer {
 	 * @param diffuse
 	 */
 	public void setMaterialDiffuse(float[] diffuse) {
-		System.arraycopy(diffuse, 0, material.diffuse, 0, Math.min(diffuse.length, material.diffuse.length));
+		if (copyIfChanged(diffuse, material.diffuse) == true) materialChanged = true;
 	}
 
 	/**
@@ -830,7 +1002,7 @@ abstract public class GLRenderer {
 	 * @param specular
 	 */
 	public void setMaterialSpecular(float[] specular) {
-		System.arraycopy(specular, 0, material.specular, 0, Math.min(specular.length, material.specular.length));
+		if (copyIfChanged(specular, material.specular) == true) materialChanged = true;
 	}
 
 	/**
@@ -838,7 +1010,7 @@ abstract public class GLRenderer {
 	 * @param emission
 	 */
 	public void setMaterialEmission(float[] emission) {
-		System.arraycopy(emission, 0, material.emission, 0, Math.min(emission.length, material.emission.length));
+		if (copyIfChanged(emission, material.emission) == true) materialChanged = true;
 	}
 
 	/**
@@ -846,7 +1018,9 @@ abstract public class GLRenderer {
 	 * @param shininess
 	 */
 	public void setMaterialShininess(float shininess) {
+		if (material.shininess == shininess) return;
 		material.shininess = shininess;
+		materialChanged = true;
 	}
 
 	/**
@@ -854,6 +1028,19 @@ abstract public class GLRenderer {
 	 */
 	abstract public void onUpdateMaterial();
 
+	/**
+	 * Update material if material changed since last update through state cache
+	 */
+	public void updateMaterial() {
+		if (materialChanged == false) {
+			stateChangesSkipped++;
+			return;
+		}
+		materialChanged = false;
+		stateChanges++;
+		onUpdateMaterial();
+	}
+
 	/**
 	 * Reads a pixel depth
 	 * @param x
@@ -290,6 +290,13 @@ public final class ShadowMapping {
 		}
 	}
 
+	/**
+	 * @return if shadow mapping pre or render pass is running
+	 */
+	public boolean isRunning() {
+		return runState != RunState.NONE;
+	}
+
 	/**
 	 * Start object transformations
 	 * @param gl
@@ -421,9 +421,19 @@ public final class TriangleTriangleIntersection {
 		}
 
 		/* compute interval for triangle 2 */
-		compute_intervals_isectline(U0, U1, U2, up0, up1, up2, du0, du1, du2,
+		coplanar = compute_intervals_isectline(U0, U1, U2, up0, up1, up2, du0, du1, du2,
 				du0du1, du0du2, isect2, 0, isect2, 1, isectpointB1,
 				isectpointB2);
+		/* do not use intervals and points of a previous computation */
+		if (coplanar == true) {
+			if (coplanar_tri_tri(N1.getArray(), V0.getArray(),
+					V1.getArray(), V2.getArray(), U0.getArray(), U1.getArray(),
+					U2.getArray()) == true) {
+				return ReturnValue.COPLANAR_INTERSECTION;
+			} else {
+				return ReturnValue.NOINTERSECTION;
+			}
+		}
 
 		smallest1 = SORT2(isect1.getArray());
 		smallest2 = SORT2(isect2.getArray());
@@ -16,11 +16,11 @@ import net.drewke.tdme.engine.physics.RigidBody;
 import net.drewke.tdme.engine.physics.World;
 import net.drewke.tdme.engine.primitives.Capsule;
 import net.drewke.tdme.engine.primitives.ConvexMesh;
+import net.drewke.tdme.engine.primitives.HeightField;
 import net.drewke.tdme.engine.primitives.OrientedBoundingBox;
 import net.drewke.tdme.engine.primitives.PrimitiveModel;
 import net.drewke.tdme.engine.primitives.Sphere;
 import net.drewke.tdme.math.Vector3;
-import net.drewke.tdme.utils.ArrayList;
 import net.drewke.tdme.utils.Console;
 
 import com.jogamp.newt.event.KeyEvent;
@@ -373,11 +373,8 @@ public final class PhysicsTest3 implements GLEventListener, MouseListener, Mouse
 			entity.getTranslation().setY(-4f);
 			entity.update();
 			engine.addEntity(entity);
-			ArrayList<ConvexMesh> groundConvexMeshes = new ArrayList<ConvexMesh>();
-			ConvexMesh.createTerrainConvexMeshes(new Object3DModel(_terrainModel), groundConvexMeshes);
-			for (int i = 0; i < groundConvexMeshes.size(); i++) { 
-				world.addStaticRigidBody("ground" + i, true, RIGID_TYPEID_STANDARD, entity, groundConvexMeshes.get(i), 0.5f);
-			}
+			HeightField groundHeightField = HeightField.createTerrainHeightField(new Object3DModel(_terrainModel), 0.5f);
+			world.addStaticRigidBody("ground", true, RIGID_TYPEID_STANDARD, entity, groundHeightField, 0.5f);
 
 			// load barrel, set up bounding volume
 			Model _barrel = DAEReader.read("resources/tests/models/barrel", "barrel.dae");
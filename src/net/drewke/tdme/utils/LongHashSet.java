@@ -0,0 +1,236 @@
+package net.drewke.tdme.utils;
+
+/**
+ * Open addressing hash set for primitive long keys,
+ * 	keys are also stored densely in insertion order to allow index based iteration without iterator objects
+ * 	Note: Can be used to store pairs of int values, see pack()
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class LongHashSet {
+
+	private final static int SLOT_EMPTY = -1;
+
+	private int size;
+	private int mask;
+	private int[] slots;
+	private long[] keys;
+
+	/**
+	 * Public constructor
+	 */
+	public LongHashSet() {
+		this(256);
+	}
+
+	/**
+	 * Public constructor
+	 * @param initial capacity
+	 */
+	public LongHashSet(int capacity) {
+		int slotCount = 16;
+		while (slotCount < capacity * 2) slotCount*= 2;
+		size = 0;
+		mask = slotCount - 1;
+		slots = new int[slotCount];
+		keys = new long[slotCount / 2];
+		for (int i = 0; i < slots.length; i++) slots[i] = SLOT_EMPTY;
+	}
+
+	/**
+	 * Pack a pair of int values into a long key
+	 * @param value 1
+	 * @param value 2
+	 * @return long key
+	 */
+	public static long pack(int value1, int value2) {
+		return ((long)value1 << 32) | (value2 & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Unpack first int value of pair from given long key
+	 * @param key
+	 * @return first value
+	 */
+	public static int unpackFirst(long key) {
+		return (int)(key >>> 32);
+	}
+
+	/**
+	 * Unpack second int value of pair from given long key
+	 * @param key
+	 * @return second value
+	 */
+	public static int unpackSecond(long key) {
+		return (int)key;
+	}
+
+	/**
+	 * Compute home slot of given key
+	 * @param key
+	 * @return home slot
+	 */
+	private int computeSlot(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int)(hash ^ (hash >>> 32)) & mask;
+	}
+
+	/**
+	 * Find slot of given key
+	 * @param key
+	 * @return slot or -1 if key is not contained
+	 */
+	private int findSlot(long key) {
+		int slot = computeSlot(key);
+		while (true == true) {
+			int keyIdx = slots[slot];
+			if (keyIdx == SLOT_EMPTY) return -1;
+			if (keys[keyIdx] == key) return slot;
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Grow set
+	 */
+	private void grow() {
+		long[] oldKeys = keys;
+		int oldSize = size;
+		slots = new int[slots.length * 2];
+		keys = new long[slots.length / 2];
+		mask = slots.length - 1;
+		size = 0;
+		for (int i = 0; i < slots.length; i++) slots[i] = SLOT_EMPTY;
+		for (int i = 0; i < oldSize; i++) {
+			add(oldKeys[i]);
+		}
+	}
+
+	/**
+	 * Adds given key
+	 * @param key
+	 * @return if key has been added, false if it was contained already
+	 */
+	public boolean add(long key) {
+		int slot = computeSlot(key);
+		while (true == true) {
+			int keyIdx = slots[slot];
+			if (keyIdx == SLOT_EMPTY) break;
+			if (keys[keyIdx] == key) return false;
+			slot = (slot + 1) & mask;
+		}
+		if (size == keys.length) {
+			grow();
+			return add(key);
+		}
+		keys[size] = key;
+		slots[slot] = size;
+		size++;
+		return true;
+	}
+
+	/**
+	 * @param key
+	 * @return if given key is contained
+	 */
+	public boolean contains(long key) {
+		return findSlot(key) != -1;
+	}
+
+	/**
+	 * @param key
+	 * @return index of key in insertion order or -1 if not contained
+	 */
+	public int indexOf(long key) {
+		int slot = findSlot(key);
+		return slot == -1?-1:slots[slot];
+	}
+
+	/**
+	 * Removes given key
+	 * 	Note: the last key will take over the index of the removed key
+	 * @param key
+	 * @return if key has been removed
+	 */
+	public boolean remove(long key) {
+		int slot = findSlot(key);
+		if (slot == -1) return false;
+		int keyIdx = slots[slot];
+
+		// remove slot, shift following slots of same probe sequence back
+		int emptySlot = slot;
+		int nextSlot = (slot + 1) & mask;
+		while (slots[nextSlot] != SLOT_EMPTY) {
+			int homeSlot = computeSlot(keys[slots[nextSlot]]);
+			// check if home slot is cyclically outside of (empty slot, next slot]
+			if (((nextSlot - homeSlot) & mask) >= ((nextSlot - emptySlot) & mask)) {
+				slots[emptySlot] = slots[nextSlot];
+				emptySlot = nextSlot;
+			}
+			nextSlot = (nextSlot + 1) & mask;
+		}
+		slots[emptySlot] = SLOT_EMPTY;
+
+		// move last key into removed key index
+		size--;
+		if (keyIdx != size) {
+			long lastKey = keys[size];
+			keys[keyIdx] = lastKey;
+			slots[findSlot(lastKey)] = keyIdx;
+		}
+		return true;
+	}
+
+	/**
+	 * @return number of keys
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return if set is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Get key at given index in insertion order
+	 * @param idx
+	 * @return key
+	 */
+	public long get(int idx) {
+		return keys[idx];
+	}
+
+	/**
+	 * Clears this set
+	 */
+	public void clear() {
+		// only reset used slots, which is faster than filling all slots for sparse sets
+		for (int i = 0; i < size; i++) {
+			int slot = computeSlot(keys[i]);
+			while (slots[slot] != SLOT_EMPTY) {
+				slots[slot] = SLOT_EMPTY;
+				slot = (slot + 1) & mask;
+			}
+		}
+		size = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		String result = "LongHashSet[";
+		for (int i = 0; i < size; i++) {
+			if (i > 0) result+= ", ";
+			result+= keys[i];
+		}
+		result+= "]";
+		return result;
+	}
+
+}
@@ -0,0 +1,90 @@
+package net.drewke.tdme.engine;
+
+import java.util.ArrayList;
+
+import net.drewke.tdme.engine.model.Animation;
+import net.drewke.tdme.engine.model.Group;
+import net.drewke.tdme.engine.model.Model;
+import net.drewke.tdme.engine.model.Model.UpVector;
+import net.drewke.tdme.engine.model.RotationOrder;
+import net.drewke.tdme.engine.primitives.BoundingBox;
+import net.drewke.tdme.math.Matrix4x4;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+
+/**
+ * Engine tests and the models they use
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class EngineTests {
+
+	/**
+	 * @return engine tests
+	 */
+	public static ArrayList<Test> getTests() {
+		ArrayList<Test> tests = new ArrayList<Test>();
+		tests.add(new ParallelTransformationsTest(64, 4));
+		return tests;
+	}
+
+	/**
+	 * Create animated model with a hierarchy of groups without faces, each group rotates around its own axis,
+	 * 	as there are no faces to compute a bounding box from a fixed one is given
+	 * @param id
+	 * @param groups per level
+	 * @param levels
+	 * @param frames
+	 * @return model
+	 */
+	protected static Model createAnimatedHierarchyModel(String id, int groupsPerLevel, int levels, int frames) {
+		Model model = new Model(id, id, UpVector.Y_UP, RotationOrder.XYZ, new BoundingBox(new Vector3(-1f, -1f, -1f), new Vector3(1f, 1f, 1f)));
+		for (int i = 0; i < groupsPerLevel; i++) {
+			Group group = createAnimatedGroup(model, null, "group." + i, i, frames);
+			model.getSubGroups().put(group.getId(), group);
+			createAnimatedSubGroups(model, group, groupsPerLevel, levels - 1, frames);
+		}
+		model.addAnimationSetup(Model.ANIMATIONSETUP_DEFAULT, 0, frames - 1, true);
+		return model;
+	}
+
+	/**
+	 * Create animated sub groups of given group
+	 * @param model
+	 * @param parent group
+	 * @param groups per level
+	 * @param levels
+	 * @param frames
+	 */
+	private static void createAnimatedSubGroups(Model model, Group parentGroup, int groupsPerLevel, int levels, int frames) {
+		if (levels == 0) return;
+		for (int i = 0; i < groupsPerLevel; i++) {
+			Group group = createAnimatedGroup(model, parentGroup, parentGroup.getId() + "." + i, i, frames);
+			parentGroup.getSubGroups().put(group.getId(), group);
+			createAnimatedSubGroups(model, group, groupsPerLevel, levels - 1, frames);
+		}
+	}
+
+	/**
+	 * Create animated group and register it in model
+	 * @param model
+	 * @param parent group
+	 * @param id
+	 * @param idx
+	 * @param frames
+	 * @return group
+	 */
+	private static Group createAnimatedGroup(Model model, Group parentGroup, String id, int idx, int frames) {
+		Group group = new Group(model, parentGroup, id, id);
+		group.getTransformationsMatrix().identity().translate(new Vector3(idx + 1f, 0.5f, 0f));
+		Animation animation = group.createAnimation(frames);
+		Matrix4x4[] animationMatrices = animation.getTransformationsMatrices();
+		Vector3 axis = new Vector3(idx % 3 == 0?1f:0f, idx % 3 == 1?1f:0f, idx % 3 == 2?1f:0f);
+		for (int i = 0; i < frames; i++) {
+			animationMatrices[i].identity().rotate(360f * i / frames, axis).translate(new Vector3(idx + 1f, 0.5f, 0f));
+		}
+		model.getGroups().put(group.getId(), group);
+		return group;
+	}
+
+}
@@ -0,0 +1,94 @@
+package net.drewke.tdme.engine;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import net.drewke.tdme.engine.subsystems.manager.MeshManager;
+import net.drewke.tdme.engine.subsystems.manager.TextureManager;
+import net.drewke.tdme.engine.subsystems.manager.VBOManager;
+import net.drewke.tdme.engine.subsystems.renderer.GLRenderer;
+import net.drewke.tdme.utils.ArrayList;
+
+/**
+ * Sets up engine singleton with given renderer and managers without a GL drawable
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class HeadlessEngine {
+
+	/**
+	 * Set up engine singleton with given renderer and new managers
+	 * @param renderer
+	 * @return engine
+	 */
+	public static Engine initialize(GLRenderer renderer) {
+		Engine.renderer = renderer;
+		setManager("textureManager", new TextureManager(renderer));
+		setManager("vboManager", new VBOManager(renderer));
+		setManager("meshManager", new MeshManager());
+		return Engine.getInstance();
+	}
+
+	/**
+	 * Release engine singleton, renderer and managers
+	 */
+	public static void dispose() {
+		if (Engine.instance != null) Engine.instance.setWorkerThreads(1);
+		Engine.instance = null;
+		Engine.renderer = null;
+		setManager("textureManager", null);
+		setManager("vboManager", null);
+		setManager("meshManager", null);
+	}
+
+	/**
+	 * Compute transformations of given objects like engine does for visible objects of a frame,
+	 * 	using worker threads if more than one is set up
+	 * @param engine
+	 * @param objects
+	 */
+	@SuppressWarnings("unchecked")
+	public static void computeTransformations(Engine engine, ArrayList<Object3D> objects) {
+		try {
+			Field field = Engine.class.getDeclaredField("computeTransformationsObjects");
+			field.setAccessible(true);
+			ArrayList<Object3D> computeTransformationsObjects = (ArrayList<Object3D>)field.get(engine);
+			computeTransformationsObjects.addAll(objects);
+			try {
+				if (engine.getWorkerThreads() == 1) {
+					for (int i = 0; i < computeTransformationsObjects.size(); i++) {
+						computeTransformationsObjects.get(i).computeTransformations();
+					}
+				} else {
+					Method method = Engine.class.getDeclaredMethod("computeTransformationsParallel");
+					method.setAccessible(true);
+					method.invoke(engine);
+				}
+			} finally {
+				computeTransformationsObjects.clear();
+			}
+		} catch (InvocationTargetException ite) {
+			if (ite.getCause() instanceof RuntimeException) throw (RuntimeException)ite.getCause();
+			throw new RuntimeException("HeadlessEngine::computeTransformations(): " + ite.getCause(), ite.getCause());
+		} catch (Exception exception) {
+			throw new RuntimeException("HeadlessEngine::computeTransformations(): " + exception.getMessage(), exception);
+		}
+	}
+
+	/**
+	 * Set private static manager field of engine
+	 * @param field name
+	 * @param manager
+	 */
+	private static void setManager(String fieldName, Object manager) {
+		try {
+			Field field = Engine.class.getDeclaredField(fieldName);
+			field.setAccessible(true);
+			field.set(null, manager);
+		} catch (Exception exception) {
+			throw new RuntimeException("HeadlessEngine::setManager(): " + fieldName + ": " + exception.getMessage(), exception);
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package net.drewke.tdme.engine;
+
+import java.util.Arrays;
+
+import net.drewke.tdme.engine.model.Group;
+import net.drewke.tdme.engine.model.Model;
+import net.drewke.tdme.engine.subsystems.renderer.RecordingRenderer;
+import net.drewke.tdme.math.Matrix4x4;
+import net.drewke.tdme.test.Test;
+import net.drewke.tdme.utils.ArrayList;
+
+/**
+ * Computes transformations of animated objects sharing a model serially and with worker threads,
+ * 	checks that each frame results in the same group transformations matrices
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class ParallelTransformationsTest extends Test {
+
+	private final static int FRAMES = 40;
+
+	private int objectCount;
+	private int workerThreads;
+
+	/**
+	 * Public constructor
+	 * @param object count
+	 * @param worker threads
+	 */
+	public ParallelTransformationsTest(int objectCount, int workerThreads) {
+		super("ParallelTransformations." + objectCount + "." + workerThreads);
+		this.objectCount = objectCount;
+		this.workerThreads = workerThreads;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		try {
+			Engine engine = HeadlessEngine.initialize(new RecordingRenderer(true));
+			Model model = EngineTests.createAnimatedHierarchyModel("hierarchy", 4, 3, 30);
+			model.setFPS(1000f);
+
+			// objects computed serially and objects computed in parallel
+			ArrayList<Object3D> serialObjects = new ArrayList<Object3D>();
+			ArrayList<Object3D> parallelObjects = new ArrayList<Object3D>();
+			for (int i = 0; i < objectCount; i++) {
+				serialObjects.add(new Object3D("serial" + i, model));
+				parallelObjects.add(new Object3D("parallel" + i, model));
+			}
+
+			// compute frames, both object sets see the same frame times
+			for (int frame = 0; frame < FRAMES; frame++) {
+				engine.getTiming().updateTiming();
+				engine.setWorkerThreads(1);
+				HeadlessEngine.computeTransformations(engine, serialObjects);
+				engine.setWorkerThreads(workerThreads);
+				HeadlessEngine.computeTransformations(engine, parallelObjects);
+
+				// compare
+				for (int i = 0; i < objectCount; i++)
+				for (Group group: model.getGroups().getValuesIterator()) {
+					Matrix4x4 serialMatrix = serialObjects.get(i).getTransformationsMatrix(group.getId());
+					Matrix4x4 parallelMatrix = parallelObjects.get(i).getTransformationsMatrix(group.getId());
+					if (Arrays.equals(serialMatrix.getArray(), parallelMatrix.getArray()) == false) {
+						throw new AssertionError("frame " + frame + ", object " + i + ", group " + group.getId() + ": " + serialMatrix + " != " + parallelMatrix);
+					}
+				}
+				Thread.sleep(2L);
+			}
+		} finally {
+			HeadlessEngine.dispose();
+		}
+	}
+
+}
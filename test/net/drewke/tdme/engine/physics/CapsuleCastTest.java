@@ -0,0 +1,93 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.engine.primitives.Capsule;
+import net.drewke.tdme.engine.primitives.HeightField;
+import net.drewke.tdme.engine.primitives.Sphere;
+import net.drewke.tdme.engine.primitives.Triangle;
+import net.drewke.tdme.engine.primitives.TriangleMesh;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+
+/**
+ * Casts capsules against convex bounding volumes, height fields and triangle meshes and checks hit fractions,
+ * 	including a long thin capsule against a small box which fits between spheres sampled along the capsule axis
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class CapsuleCastTest extends Test {
+
+	private final static float TOLERANCE = 0.01f;
+
+	private RayCastHit hit = new RayCastHit();
+
+	/**
+	 * Public constructor
+	 */
+	public CapsuleCastTest() {
+		super("CapsuleCast.conservativeAdvancement");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		// long thin capsule along x axis moving along z axis against small box between former sample spheres
+		Capsule longCapsule = new Capsule(new Vector3(-10f, 0f, 0f), new Vector3(10f, 0f, 0f), 0.1f);
+		BoundingVolume smallBox = PhysicsTests.createBox(new Vector3(0f, 0f, 2f), new Vector3(0.1f, 0.5f, 0.1f));
+		assertHit(smallBox, longCapsule, new Vector3(0f, 0f, 4f), (1.9f - 0.1f) / 4f, "small box");
+		assertEquals(-1f, hit.getNormal().getZ(), TOLERANCE, "small box normal");
+
+		// vertical capsule moving along x axis against sphere
+		Capsule capsule = new Capsule(new Vector3(0f, -1f, 0f), new Vector3(0f, 1f, 0f), 0.5f);
+		assertHit(new Sphere(new Vector3(5f, 0f, 0f), 1f), capsule, new Vector3(10f, 0f, 0f), (5f - 1.5f) / 10f, "sphere");
+
+		// missing and moving away
+		assertNoHit(new Sphere(new Vector3(5f, 3f, 0f), 1f), capsule, new Vector3(10f, 0f, 0f), "sphere above");
+		assertNoHit(new Sphere(new Vector3(-5f, 0f, 0f), 1f), capsule, new Vector3(10f, 0f, 0f), "sphere behind");
+
+		// starting inside
+		assertHit(PhysicsTests.createBox(new Vector3(0f, 0f, 0f), new Vector3(1f, 1f, 1f)), capsule, new Vector3(10f, 0f, 0f), 0f, "overlapping box");
+
+		// horizontal capsule moving down on flat height field and triangle mesh
+		Capsule lyingCapsule = new Capsule(new Vector3(-3f, 2f, 0.5f), new Vector3(3f, 2f, 0.5f), 0.25f);
+		float[] heights = new float[10 * 10];
+		HeightField heightField = new HeightField(new Vector3(-5f, 0f, -5f), 10, 10, 1f, heights);
+		assertHit(heightField, lyingCapsule, new Vector3(0f, -4f, 0f), (2f - 0.25f) / 4f, "height field");
+		assertNoHit(heightField, lyingCapsule, new Vector3(0f, 4f, 0f), "height field above");
+		TriangleMesh mesh = new TriangleMesh(new Triangle[] {
+			new Triangle(new Vector3(-5f, 0f, -5f), new Vector3(-5f, 0f, 5f), new Vector3(5f, 0f, -5f)),
+			new Triangle(new Vector3(5f, 0f, -5f), new Vector3(-5f, 0f, 5f), new Vector3(5f, 0f, 5f))
+		});
+		assertHit(mesh, lyingCapsule, new Vector3(0f, -4f, 0f), (2f - 0.25f) / 4f, "triangle mesh");
+		assertEquals(1f, hit.getNormal().getY(), TOLERANCE, "triangle mesh normal");
+	}
+
+	/**
+	 * Assert capsule cast hits bounding volume at given fraction
+	 * @param bounding volume
+	 * @param capsule
+	 * @param movement
+	 * @param fraction
+	 * @param message
+	 */
+	private void assertHit(BoundingVolume bv, Capsule capsule, Vector3 movement, float fraction, String message) {
+		hit.reset(1f);
+		assertTrue(CollisionDetection.getInstance().doCapsuleCast(bv, capsule, movement, hit) == true, "expected hit of " + message);
+		assertEquals(fraction, hit.getFraction(), TOLERANCE, "hit fraction of " + message);
+	}
+
+	/**
+	 * Assert capsule cast misses bounding volume
+	 * @param bounding volume
+	 * @param capsule
+	 * @param movement
+	 * @param message
+	 */
+	private void assertNoHit(BoundingVolume bv, Capsule capsule, Vector3 movement, String message) {
+		hit.reset(1f);
+		assertTrue(CollisionDetection.getInstance().doCapsuleCast(bv, capsule, movement, hit) == false, "expected no hit of " + message);
+	}
+
+}
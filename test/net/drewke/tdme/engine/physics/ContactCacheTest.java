@@ -0,0 +1,152 @@
+package net.drewke.tdme.engine.physics;
+
+import java.nio.ByteBuffer;
+
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+
+/**
+ * Merges hit points into a contact manifold, checks that manifold points are anchored in body space and follow rigid body motion,
+ * 	that hit points are matched by feature before proximity, that points drifting apart get removed,
+ * 	that the manifold is reduced to its maximum point count and that it survives a save and restore
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class ContactCacheTest extends Test {
+
+	private final static float TOLERANCE = 0.0001f;
+
+	private World world;
+	private RigidBody rb1;
+	private RigidBody rb2;
+	private ContactCache cache;
+	private CollisionResponse collision;
+	private float[] lamdaValues;
+
+	/**
+	 * Public constructor
+	 */
+	public ContactCacheTest() {
+		super("ContactCache.persistentManifold");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		world = new World();
+		rb1 = PhysicsTests.addRigidBody(world, "box.1", PhysicsTests.createTransformations(0f, 0.5f, 0f), PhysicsTests.createBox(new Vector3(), new Vector3(0.5f, 0.5f, 0.5f)), 1f);
+		rb2 = PhysicsTests.addRigidBody(world, "box.2", PhysicsTests.createTransformations(0f, -0.5f, 0f), PhysicsTests.createBox(new Vector3(), new Vector3(0.5f, 0.5f, 0.5f)), 1f);
+		cache = new ContactCache();
+		collision = new CollisionResponse();
+		lamdaValues = new float[CollisionResponse.HITPOINT_COUNT * 3];
+
+		// 4 corners of contact face
+		setCollision(new float[] {-0.5f, -0.5f, 0.5f, 0.5f}, new float[] {-0.5f, 0.5f, -0.5f, 0.5f}, new int[] {1, 2, 3, 4});
+		setLamdaValues(4, 1f);
+		cache.update(rb1, rb2, collision, lamdaValues, 0);
+		cache.removeStale();
+		assertEquals(4, cache.get(rb1, rb2).pointCount, "manifold points");
+
+		// move and rotate both bodies rigidly, hit points move along and get matched without features
+		rb1.orientation.rotate(90f, new Vector3(0f, 1f, 0f));
+		rb2.orientation.set(rb1.orientation);
+		rb1.position.add(new Vector3(3f, 0f, 1f));
+		rb2.position.add(new Vector3(3f, 0f, 1f));
+		setCollision(new float[] {-0.5f, -0.5f, 0.5f, 0.5f}, new float[] {-0.5f, 0.5f, -0.5f, 0.5f}, null);
+		assertTrue(cache.warmStart(rb1, rb2, collision, lamdaValues, 0) == true, "expected manifold");
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i + 1f, lamdaValues[i * 3], TOLERANCE, "warm started impulse of moved hit point " + i);
+		}
+
+		// features match before proximity, 1st hit point is nearest to manifold point of feature 1 but has feature 2
+		setCollision(new float[] {-0.5f, -0.5f}, new float[] {-0.45f, -0.56f}, new int[] {2, CollisionResponse.FEATURE_NONE});
+		cache.warmStart(rb1, rb2, collision, lamdaValues, 0);
+		assertEquals(2f, lamdaValues[0 * 3], TOLERANCE, "warm started impulse of feature 2");
+		assertEquals(1f, lamdaValues[1 * 3], TOLERANCE, "warm started impulse of nearest point");
+
+		// new hit points get added to manifold, matched points get replaced, manifold is reduced to its maximum point count
+		setCollision(new float[] {-0.5f, 0f, 0f, 0f, 0f, 0.25f}, new float[] {-0.5f, 0f, 0.25f, -0.25f, 0.5f, 0f}, new int[] {1, 5, 6, 7, 8, 9});
+		setLamdaValues(6, 10f);
+		cache.update(rb1, rb2, collision, lamdaValues, 0);
+		cache.removeStale();
+		ContactCache.ContactManifold manifold = cache.get(rb1, rb2);
+		assertEquals(ContactCache.MANIFOLD_POINTS_MAX, manifold.pointCount, "reduced manifold points");
+		for (int i = 0; i < 6; i++) {
+			assertTrue(findFeature(manifold, collision.getHitPointFeatureAt(i)) != -1, "expected hit point " + i + " to be in manifold");
+		}
+		assertEquals(10f, manifold.impulses[findFeature(manifold, 1) * 3], TOLERANCE, "replaced impulse of feature 1");
+
+		// save and restore
+		ByteBuffer buffer = ByteBuffer.allocate(cache.computeStateSize());
+		cache.saveState(buffer);
+		assertEquals(buffer.capacity(), buffer.position(), "saved state size");
+		buffer.flip();
+		ContactCache restoredCache = new ContactCache();
+		restoredCache.restoreState(buffer);
+		ContactCache.ContactManifold restoredManifold = restoredCache.get(rb1, rb2);
+		assertTrue(restoredManifold != null, "expected restored manifold");
+		assertEquals(manifold.pointCount, restoredManifold.pointCount, "restored manifold points");
+		for (int j = 0; j < manifold.pointCount; j++) {
+			assertEquals(manifold.pointsFeature[j], restoredManifold.pointsFeature[j], "restored feature of point " + j);
+			for (int k = 0; k < 3; k++) {
+				assertEquals(manifold.points1[j * 3 + k], restoredManifold.points1[j * 3 + k], 0f, "restored body 1 point " + j);
+				assertEquals(manifold.points2[j * 3 + k], restoredManifold.points2[j * 3 + k], 0f, "restored body 2 point " + j);
+				assertEquals(manifold.impulses[j * 3 + k], restoredManifold.impulses[j * 3 + k], 0f, "restored impulse of point " + j);
+			}
+		}
+
+		// separate bodies tangentially, drifted points are neither warm started nor kept
+		rb2.position.add(new Vector3(0.5f, 0f, 0f));
+		setCollision(new float[] {-0.5f}, new float[] {-0.5f}, new int[] {1});
+		assertTrue(cache.warmStart(rb1, rb2, collision, lamdaValues, 0) == true, "expected manifold");
+		assertEquals(0f, lamdaValues[0], 0f, "warm started impulse of drifted point");
+		setLamdaValues(1, 20f);
+		cache.update(rb1, rb2, collision, lamdaValues, 0);
+		assertEquals(1, cache.get(rb1, rb2).pointCount, "manifold points after drift");
+	}
+
+	/**
+	 * Set collision with normal pointing up and hit points on bottom face of rigid body 1
+	 * @param hit points x in body space of rigid body 1
+	 * @param hit points z in body space of rigid body 1
+	 * @param hit point features or null
+	 */
+	private void setCollision(float[] x, float[] z, int[] features) {
+		collision.reset();
+		CollisionResponse.Entity entity = collision.addResponse(-0.01f);
+		entity.getNormal().set(0f, 1f, 0f);
+		for (int i = 0; i < x.length; i++) {
+			Vector3 hitPoint = rb1.orientation.multiply(new Vector3(x[i], -0.5f, z[i]), new Vector3()).add(rb1.position);
+			entity.addHitPoint(hitPoint, features == null?CollisionResponse.FEATURE_NONE:features[i]);
+		}
+	}
+
+	/**
+	 * Set normal lamda values of hit points to offset + hit point idx + 1
+	 * @param hit point count
+	 * @param offset
+	 */
+	private void setLamdaValues(int hitPointCount, float offset) {
+		for (int i = 0; i < hitPointCount; i++) {
+			lamdaValues[i * 3 + 0] = offset + i;
+			lamdaValues[i * 3 + 1] = 0f;
+			lamdaValues[i * 3 + 2] = 0f;
+		}
+	}
+
+	/**
+	 * Find manifold point with given feature
+	 * @param manifold
+	 * @param feature
+	 * @return manifold point idx or -1
+	 */
+	private static int findFeature(ContactCache.ContactManifold manifold, int feature) {
+		for (int j = 0; j < manifold.pointCount; j++) {
+			if (manifold.pointsFeature[j] == feature) return j;
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,76 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+
+/**
+ * Removes a rigid body while iterating contact events of last update,
+ * 	checks that events of the update are kept and collision end events of the removed rigid body are appended and dispatched once
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class ContactEventsTest extends Test {
+
+	private int dispatchedEventCount;
+	private int dispatchedCollisionEndCount;
+
+	/**
+	 * Public constructor
+	 */
+	public ContactEventsTest() {
+		super("ContactEvents.removeWhileIterating");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		World world = new World();
+		world.addStaticRigidBody("ground", true, RigidBody.TYPEIDS_ALL, PhysicsTests.createTransformations(0f, -1f, 0f), PhysicsTests.createBox(new Vector3(), new Vector3(10f, 1f, 10f)), 0.5f);
+		for (int i = 0; i < 3; i++) {
+			PhysicsTests.addRigidBody(world, "box." + i, PhysicsTests.createTransformations(i * 2f, 0.45f, 0f), PhysicsTests.createBox(new Vector3(), new Vector3(0.5f, 0.5f, 0.5f)), 1f);
+		}
+		world.addContactEventListener(new ContactEventListener() {
+			public void onContactEvents(ContactEventBuffer events) {
+				dispatchedEventCount+= events.getEventCount();
+				for (int i = 0; i < events.getEventCount(); i++) {
+					if (events.getType(i) == ContactEventBuffer.EVENT_COLLISION_END) dispatchedCollisionEndCount++;
+				}
+			}
+		});
+		for (int i = 0; i < 3; i++) world.update(1f / 60f);
+
+		// iterate events of last update and remove colliding rigid body
+		ContactEventBuffer events = world.getContactEvents();
+		int eventCount = events.getEventCount();
+		assertTrue(eventCount >= 3, "expected collisions of boxes with ground, got " + eventCount + " events");
+		RigidBody[] rigidBodies1 = new RigidBody[eventCount];
+		RigidBody[] rigidBodies2 = new RigidBody[eventCount];
+		for (int i = 0; i < eventCount; i++) {
+			rigidBodies1[i] = events.getRigidBody1(i);
+			rigidBodies2[i] = events.getRigidBody2(i);
+		}
+		dispatchedEventCount = 0;
+		dispatchedCollisionEndCount = 0;
+		for (int i = 0; i < eventCount; i++) {
+			if (i == 0) world.removeRigidBody("box.1");
+			assertTrue(events.getRigidBody1(i) == rigidBodies1[i] && events.getRigidBody2(i) == rigidBodies2[i], "event " + i + " changed while iterating");
+		}
+
+		// collision end events of removed rigid body got appended and dispatched
+		assertEquals(eventCount + dispatchedEventCount, events.getEventCount(), "appended events");
+		assertTrue(dispatchedCollisionEndCount > 0 && dispatchedCollisionEndCount == dispatchedEventCount, "dispatched " + dispatchedCollisionEndCount + " collision end events of " + dispatchedEventCount + " events");
+		for (int i = eventCount; i < events.getEventCount(); i++) {
+			assertEquals(ContactEventBuffer.EVENT_COLLISION_END, events.getType(i), "type of appended event " + i);
+			assertTrue(events.getRigidBody1(i).getId().equals("box.1") || events.getRigidBody2(i).getId().equals("box.1"), "appended event " + i + " of removed rigid body");
+		}
+
+		// next update starts with a empty buffer
+		world.update(1f / 60f);
+		for (int i = 0; i < events.getEventCount(); i++) {
+			assertTrue(events.getRigidBody1(i).getId().equals("box.1") == false && events.getRigidBody2(i).getId().equals("box.1") == false, "event " + i + " of removed rigid body after update");
+		}
+	}
+
+}
@@ -0,0 +1,108 @@
+package net.drewke.tdme.engine.physics;
+
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+
+/**
+ * Simulates two stacks of 2 boxes and a single box on static ground, checks that each of them is a island,
+ * 	that bodies of a island go to sleep together and that waking up a island keeps other islands sleeping
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class IslandsTest extends Test {
+
+	private final static int FRAMES_MAX = 1000;
+
+	/**
+	 * Public constructor
+	 */
+	public IslandsTest() {
+		super("Islands.sleeping");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		World world = new World();
+		world.addStaticRigidBody("ground", true, RigidBody.TYPEIDS_ALL, PhysicsTests.createTransformations(0f, -1f, 0f), PhysicsTests.createBox(new Vector3(), new Vector3(20f, 1f, 20f)), 0.5f);
+		RigidBody[] stack1 = createStack(world, "stack1", -5f, 0.5f, 2);
+		RigidBody[] stack2 = createStack(world, "stack2", 5f, 0.25f, 2);
+		RigidBody[] single = createStack(world, "single", 0f, 0.5f, 1);
+
+		// islands
+		for (int i = 0; i < 60; i++) world.update(1f / 60f);
+		assertEquals(3, world.getStatistics().getIslandCount(), "islands");
+		assertIsland(stack1);
+		assertIsland(stack2);
+		assertIsland(single);
+		assertTrue(stack1[0].islandIdx != stack2[0].islandIdx, "stacks share island");
+		assertTrue(stack1[0].islandIdx != single[0].islandIdx && stack2[0].islandIdx != single[0].islandIdx, "single box shares island with a stack");
+
+		// islands go to sleep together
+		int frame = 0;
+		for (; frame < FRAMES_MAX; frame++) {
+			world.update(1f / 60f);
+			assertSleepingTogether(stack1);
+			assertSleepingTogether(stack2);
+			if (stack1[0].isSleeping() == true && stack2[0].isSleeping() == true && single[0].isSleeping() == true) break;
+		}
+		assertTrue(frame < FRAMES_MAX, "expected all islands to sleep within " + FRAMES_MAX + " frames");
+
+		// wake up top of stack 1, whole stack gets awake, others keep sleeping
+		RigidBody top = stack1[stack1.length - 1];
+		top.addForce(new Vector3(top.position).add(new Vector3(0f, 0.5f, 0f)), new Vector3(50f, 0f, 0f));
+		for (int i = 0; i < 5; i++) world.update(1f / 60f);
+		for (int i = 0; i < stack1.length; i++) {
+			assertTrue(stack1[i].isSleeping() == false, "expected box " + i + " of woken stack to be awake");
+		}
+		assertTrue(stack2[0].isSleeping() == true && stack2[1].isSleeping() == true, "expected other stack to keep sleeping");
+		assertTrue(single[0].isSleeping() == true, "expected single box to keep sleeping");
+	}
+
+	/**
+	 * Create stack of boxes on ground
+	 * @param world
+	 * @param id
+	 * @param x
+	 * @param half height of boxes
+	 * @param boxes
+	 * @return rigid bodies from bottom to top
+	 */
+	private static RigidBody[] createStack(World world, String id, float x, float halfHeight, int boxes) {
+		RigidBody[] stack = new RigidBody[boxes];
+		for (int i = 0; i < boxes; i++) {
+			stack[i] = PhysicsTests.addRigidBody(
+				world,
+				id + "." + i,
+				PhysicsTests.createTransformations(x, halfHeight + i * halfHeight * 2f, 0f),
+				PhysicsTests.createBox(new Vector3(), new Vector3(1f - halfHeight, halfHeight, 1f - halfHeight)),
+				1f
+			);
+		}
+		return stack;
+	}
+
+	/**
+	 * Assert that given rigid bodies are in the same island
+	 * @param rigid bodies
+	 */
+	private void assertIsland(RigidBody[] rigidBodies) {
+		assertTrue(rigidBodies[0].islandIdx != -1, "expected " + rigidBodies[0].getId() + " to be in a island");
+		for (int i = 1; i < rigidBodies.length; i++) {
+			assertEquals(rigidBodies[0].islandIdx, rigidBodies[i].islandIdx, "island of " + rigidBodies[i].getId());
+		}
+	}
+
+	/**
+	 * Assert that given rigid bodies are either all sleeping or all awake
+	 * @param rigid bodies
+	 */
+	private void assertSleepingTogether(RigidBody[] rigidBodies) {
+		for (int i = 1; i < rigidBodies.length; i++) {
+			assertTrue(rigidBodies[i].isSleeping() == rigidBodies[0].isSleeping(), rigidBodies[i].getId() + " sleeps apart from its island");
+		}
+	}
+
+}
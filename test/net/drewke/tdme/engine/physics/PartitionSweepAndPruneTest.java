@@ -0,0 +1,128 @@
+package net.drewke.tdme.engine.physics;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+
+/**
+ * Checks near to queries of sweep and prune partition against brute force overlap tests,
+ * 	with oversized proxies and after removing the proxy with the largest extent
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class PartitionSweepAndPruneTest extends Test {
+
+	private final static int BODIES = 300;
+	private final static int QUERIES = 200;
+
+	private Vector3 sideVector = new Vector3(1f, 0f, 0f);
+	private Vector3 upVector = new Vector3(0f, 1f, 0f);
+	private Vector3 forwardVector = new Vector3(0f, 0f, 1f);
+
+	/**
+	 * Public constructor
+	 */
+	public PartitionSweepAndPruneTest() {
+		super("PartitionSweepAndPrune.nearTo");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		World world = new World();
+		PartitionSweepAndPrune partition = new PartitionSweepAndPrune();
+		world.setPartition(partition);
+		ArrayList<RigidBody> rigidBodies = new ArrayList<RigidBody>();
+
+		// oversized ground, a long not oversized wall and small boxes
+		rigidBodies.add(world.addStaticRigidBody("ground", true, RigidBody.TYPEIDS_ALL, PhysicsTests.createTransformations(0f, -1f, 0f), PhysicsTests.createBox(new Vector3(), new Vector3(100f, 1f, 100f)), 0.5f));
+		rigidBodies.add(world.addStaticRigidBody("wall", true, RigidBody.TYPEIDS_ALL, PhysicsTests.createTransformations(0f, 2f, 0f), PhysicsTests.createBox(new Vector3(), new Vector3(10f, 2f, 0.5f)), 0.5f));
+		Random random = new Random(1);
+		for (int i = 0; i < BODIES; i++) {
+			rigidBodies.add(
+				PhysicsTests.addRigidBody(
+					world,
+					"box." + i,
+					PhysicsTests.createTransformations(random.nextFloat() * 80f - 40f, random.nextFloat() * 4f, random.nextFloat() * 80f - 40f),
+					PhysicsTests.createBox(new Vector3(), new Vector3(0.5f, 0.5f, 0.5f)),
+					1f
+				)
+			);
+		}
+		checkQueries(partition, rigidBodies, random);
+		assertEquals(20.2f, getExtentMax(partition), 0.001f, "max extent with wall");
+
+		// max extent shrinks after removing wall
+		world.removeRigidBody("wall");
+		rigidBodies.remove(1);
+		checkQueries(partition, rigidBodies, random);
+		assertEquals(1.2f, getExtentMax(partition), 0.001f, "max extent without wall");
+	}
+
+	/**
+	 * Check near to queries at random positions against brute force overlap tests
+	 * @param partition
+	 * @param rigid bodies
+	 * @param random
+	 */
+	private void checkQueries(PartitionSweepAndPrune partition, ArrayList<RigidBody> rigidBodies, Random random) {
+		for (int i = 0; i < QUERIES; i++) {
+			BoundingVolume query = PhysicsTests.createBox(
+				new Vector3(random.nextFloat() * 90f - 45f, random.nextFloat() * 6f - 1f, random.nextFloat() * 90f - 45f),
+				new Vector3(random.nextFloat() * 2f, random.nextFloat() * 2f, random.nextFloat() * 2f)
+			);
+			HashSet<String> expected = new HashSet<String>();
+			for (RigidBody rigidBody: rigidBodies) {
+				if (doOverlap(rigidBody.cbv, query) == true) expected.add(rigidBody.getId());
+			}
+			HashSet<String> actual = new HashSet<String>();
+			int count = 0;
+			for (RigidBody rigidBody: partition.getObjectsNearTo(query)) {
+				actual.add(rigidBody.getId());
+				count++;
+			}
+			assertEquals(actual.size(), count, "query " + i + " reported rigid bodies more than once");
+			assertTrue(expected.equals(actual), "query " + i + ": expected " + expected + ", got " + actual);
+		}
+	}
+
+	/**
+	 * Brute force overlap test of padded axis aligned bounds like the partition computes them
+	 * @param bounding volume 1
+	 * @param bounding volume 2
+	 * @return if bounds overlap
+	 */
+	private boolean doOverlap(BoundingVolume bv1, BoundingVolume bv2) {
+		Vector3[] axes = {sideVector, upVector, forwardVector};
+		for (int axis = 0; axis < 3; axis++) {
+			float center1 = bv1.getCenter().getArray()[axis];
+			float center2 = bv2.getCenter().getArray()[axis];
+			float halfExtension1 = (bv1.computeDimensionOnAxis(axes[axis]) + 0.2f) / 2f;
+			float halfExtension2 = (bv2.computeDimensionOnAxis(axes[axis]) + 0.2f) / 2f;
+			if (center1 - halfExtension1 >= center2 + halfExtension2 ||
+				center2 - halfExtension2 >= center1 + halfExtension1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param partition
+	 * @return max extent of not oversized proxies, as used by last query
+	 * @throws Exception
+	 */
+	private float getExtentMax(PartitionSweepAndPrune partition) throws Exception {
+		Field field = PartitionSweepAndPrune.class.getDeclaredField("extentMax");
+		field.setAccessible(true);
+		return field.getFloat(partition);
+	}
+
+}
@@ -0,0 +1,88 @@
+package net.drewke.tdme.engine.physics;
+
+import java.util.ArrayList;
+
+import net.drewke.tdme.engine.Transformations;
+import net.drewke.tdme.engine.primitives.BoundingVolume;
+import net.drewke.tdme.engine.primitives.OrientedBoundingBox;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+
+/**
+ * Physics tests and the shapes and worlds they use
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class PhysicsTests {
+
+	/**
+	 * @return physics tests
+	 */
+	public static ArrayList<Test> getTests() {
+		ArrayList<Test> tests = new ArrayList<Test>();
+		tests.add(new PartitionSweepAndPruneTest());
+		tests.add(new ContactEventsTest());
+		tests.add(new ContactCacheTest());
+		tests.add(new CapsuleCastTest());
+		for (WorldDeterminismTest.PartitionType partitionType: WorldDeterminismTest.PartitionType.values()) {
+			tests.add(new WorldDeterminismTest(partitionType));
+		}
+		tests.add(new WorldReplayTest());
+		tests.add(new IslandsTest());
+		return tests;
+	}
+
+	/**
+	 * Create transformations with given translation
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return transformations
+	 */
+	protected static Transformations createTransformations(float x, float y, float z) {
+		Transformations transformations = new Transformations();
+		transformations.getTranslation().set(x, y, z);
+		transformations.update();
+		return transformations;
+	}
+
+	/**
+	 * Create axis aligned oriented bounding box
+	 * @param center
+	 * @param half extension
+	 * @return oriented bounding box
+	 */
+	protected static OrientedBoundingBox createBox(Vector3 center, Vector3 halfExtension) {
+		return new OrientedBoundingBox(
+			center,
+			OrientedBoundingBox.AABB_AXIS_X.clone(),
+			OrientedBoundingBox.AABB_AXIS_Y.clone(),
+			OrientedBoundingBox.AABB_AXIS_Z.clone(),
+			halfExtension
+		);
+	}
+
+	/**
+	 * Add dynamic rigid body
+	 * @param world
+	 * @param id
+	 * @param transformations
+	 * @param bounding volume
+	 * @param mass
+	 * @return rigid body
+	 */
+	protected static RigidBody addRigidBody(World world, String id, Transformations transformations, BoundingVolume boundingVolume, float mass) {
+		return world.addRigidBody(
+			id,
+			true,
+			RigidBody.TYPEIDS_ALL,
+			transformations,
+			boundingVolume,
+			0f,
+			0.5f,
+			mass,
+			RigidBody.computeInertiaMatrix(boundingVolume, mass, 1f, 1f, 1f)
+		);
+	}
+
+}
@@ -0,0 +1,139 @@
+package net.drewke.tdme.engine.physics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import net.drewke.tdme.engine.primitives.Sphere;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+
+/**
+ * Simulates boxes and spheres falling onto each other in deterministic mode,
+ * 	checks that states after each update are bit identical for all worker thread counts and partition algorithms
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class WorldDeterminismTest extends Test {
+
+	/**
+	 * Partition algorithms
+	 */
+	public enum PartitionType {OCTTREE, SWEEP_AND_PRUNE, DYNAMIC_AABB_TREE};
+
+	private final static int[] WORKER_THREADS = {0, 1, 2, 4, 8};
+	protected final static int TICKS = 90;
+	protected final static float DELTA_TIME = 1f / 60f;
+
+	private PartitionType partitionType;
+
+	/**
+	 * Public constructor
+	 * @param partition type
+	 */
+	public WorldDeterminismTest(PartitionType partitionType) {
+		super("WorldDeterminism." + partitionType.name().toLowerCase());
+		this.partitionType = partitionType;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		// reference states with oct tree partition and 1 worker thread
+		byte[][] referenceStates = simulate(createWorld(PartitionType.OCTTREE, 1));
+		for (int i = 0; i < WORKER_THREADS.length; i++) {
+			byte[][] states = simulate(createWorld(partitionType, WORKER_THREADS[i]));
+			for (int tick = 0; tick < TICKS; tick++) {
+				assertTrue(
+					Arrays.equals(referenceStates[tick], states[tick]) == true,
+					"state after tick " + tick + " with " + WORKER_THREADS[i] + " worker threads differs from reference state"
+				);
+			}
+		}
+	}
+
+	/**
+	 * Update given world and save state after each tick, worker threads get shut down afterwards
+	 * @param world
+	 * @return states
+	 */
+	private byte[][] simulate(World world) {
+		byte[][] states = new byte[TICKS][];
+		for (int tick = 0; tick < TICKS; tick++) {
+			applyInputs(world, tick);
+			world.update(DELTA_TIME);
+			states[tick] = saveState(world);
+		}
+		assertTrue(world.getContactEvents().getEventCount() >= 12, "expected boxes and spheres to be in contact, got " + world.getContactEvents().getEventCount() + " events");
+		world.setWorkerThreads(1);
+		return states;
+	}
+
+	/**
+	 * Save state of given world
+	 * @param world
+	 * @return state
+	 */
+	protected static byte[] saveState(World world) {
+		ByteBuffer buffer = ByteBuffer.allocate(world.computeStateSize());
+		world.saveState(buffer);
+		return buffer.array();
+	}
+
+	/**
+	 * Apply forces of given tick
+	 * @param world
+	 * @param tick
+	 */
+	protected static void applyInputs(World world, int tick) {
+		if (tick == 0) {
+			RigidBody rigidBody = world.getRigidBody("tumbler");
+			rigidBody.addForce(new Vector3(rigidBody.position).add(new Vector3(0.5f, 0.5f, 0f)), new Vector3(-400f, 0f, 300f));
+		}
+		if (tick == 30) {
+			RigidBody rigidBody = world.getRigidBody("stack.0.3");
+			rigidBody.addForce(new Vector3(rigidBody.position).add(new Vector3(0f, 0.25f, 0.5f)), new Vector3(300f, 0f, 0f));
+		}
+	}
+
+	/**
+	 * Create deterministic world with ground, box stacks, falling spheres and a tumbling box
+	 * @param partition type
+	 * @param worker threads
+	 * @return world
+	 */
+	protected static World createWorld(PartitionType partitionType, int workerThreads) {
+		World world = new World();
+		switch (partitionType) {
+			case OCTTREE: world.setPartition(new PartitionOctTree()); break;
+			case SWEEP_AND_PRUNE: world.setPartition(new PartitionSweepAndPrune()); break;
+			case DYNAMIC_AABB_TREE: world.setPartition(new PartitionDynamicAABBTree()); break;
+		}
+		world.setDeterministic(true);
+		world.setWorkerThreads(workerThreads);
+		world.addStaticRigidBody("ground", true, RigidBody.TYPEIDS_ALL, PhysicsTests.createTransformations(0f, -1f, 0f), PhysicsTests.createBox(new Vector3(), new Vector3(20f, 1f, 20f)), 0.5f);
+		for (int stack = 0; stack < 3; stack++)
+		for (int level = 0; level < 4; level++) {
+			PhysicsTests.addRigidBody(
+				world,
+				"stack." + stack + "." + level,
+				PhysicsTests.createTransformations(stack * 3f - 3f, 0.5f + level * 1.01f, level * 0.05f),
+				PhysicsTests.createBox(new Vector3(), new Vector3(0.5f, 0.5f, 0.5f)),
+				1f
+			);
+		}
+		for (int i = 0; i < 6; i++) {
+			PhysicsTests.addRigidBody(
+				world,
+				"sphere." + i,
+				PhysicsTests.createTransformations(i * 1.1f - 3f, 5f + i * 0.5f, 0.2f * i - 0.5f),
+				new Sphere(new Vector3(), 0.4f),
+				0.5f
+			);
+		}
+		PhysicsTests.addRigidBody(world, "tumbler", PhysicsTests.createTransformations(0f, 2f, 4f), PhysicsTests.createBox(new Vector3(), new Vector3(1f, 0.25f, 0.5f)), 2f);
+		return world;
+	}
+
+}
@@ -0,0 +1,60 @@
+package net.drewke.tdme.engine.physics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import net.drewke.tdme.test.Test;
+
+/**
+ * Records updates of a deterministic world and replays them with other worker thread counts,
+ * 	checks that restoring a saved state and updating again reproduces the states of the first run
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class WorldReplayTest extends Test {
+
+	/**
+	 * Public constructor
+	 */
+	public WorldReplayTest() {
+		super("WorldReplay.replayAndRestore");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		int ticks = WorldDeterminismTest.TICKS;
+		int restoreTick = ticks / 2;
+		World world = WorldDeterminismTest.createWorld(WorldDeterminismTest.PartitionType.SWEEP_AND_PRUNE, 1);
+
+		// record
+		WorldReplay replay = new WorldReplay(world);
+		replay.startRecording();
+		byte[][] states = new byte[ticks][];
+		for (int tick = 0; tick < ticks; tick++) {
+			WorldDeterminismTest.applyInputs(world, tick);
+			replay.update(WorldDeterminismTest.DELTA_TIME);
+			states[tick] = WorldDeterminismTest.saveState(world);
+		}
+		assertEquals(ticks, replay.getTicks(), "recorded ticks");
+
+		// replay with 1 and with 4 worker threads
+		assertEquals(-1, replay.replay(), "first mismatching tick of replay");
+		assertTrue(Arrays.equals(states[ticks - 1], WorldDeterminismTest.saveState(world)) == true, "state after replay differs");
+		world.setWorkerThreads(4);
+		assertEquals(-1, replay.replay(), "first mismatching tick of replay with 4 worker threads");
+		world.setWorkerThreads(1);
+
+		// restore state of a tick and update again
+		world.restoreState(ByteBuffer.wrap(states[restoreTick]));
+		assertTrue(Arrays.equals(states[restoreTick], WorldDeterminismTest.saveState(world)) == true, "restored state differs");
+		for (int tick = restoreTick + 1; tick < ticks; tick++) {
+			WorldDeterminismTest.applyInputs(world, tick);
+			world.update(WorldDeterminismTest.DELTA_TIME);
+			assertTrue(Arrays.equals(states[tick], WorldDeterminismTest.saveState(world)) == true, "state after restore and tick " + tick + " differs");
+		}
+	}
+
+}
@@ -0,0 +1,28 @@
+package net.drewke.tdme.engine.primitives;
+
+import java.util.ArrayList;
+
+import net.drewke.tdme.test.Test;
+
+/**
+ * Primitives tests
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class PrimitivesTests {
+
+	/**
+	 * @return primitives tests
+	 */
+	public static ArrayList<Test> getTests() {
+		ArrayList<Test> tests = new ArrayList<Test>();
+		tests.add(new VertexWelderTest());
+		tests.add(new QuickHullTest(QuickHullTest.Shape.CUBE));
+		tests.add(new QuickHullTest(QuickHullTest.Shape.SPHERE));
+		tests.add(new QuickHullTest(QuickHullTest.Shape.RANDOM));
+		tests.add(new QuickHullTest(QuickHullTest.Shape.COPLANAR));
+		tests.add(new QuickHullTest(QuickHullTest.Shape.LESS_THAN_4));
+		return tests;
+	}
+
+}
@@ -0,0 +1,187 @@
+package net.drewke.tdme.engine.primitives;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+
+/**
+ * Computes convex hulls of point sets, checks that every point is inside or on every hull face,
+ * 	that the hull is a closed triangle mesh satisfying Euler's formula and that degenerate point sets give no hull
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class QuickHullTest extends Test {
+
+	/**
+	 * Point sets
+	 */
+	public enum Shape {CUBE, SPHERE, RANDOM, COPLANAR, LESS_THAN_4};
+
+	private final static float TOLERANCE = 0.0001f;
+
+	private Shape shape;
+
+	/**
+	 * Public constructor
+	 * @param shape
+	 */
+	public QuickHullTest(Shape shape) {
+		super("QuickHull." + shape.name().toLowerCase());
+		this.shape = shape;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		Vector3[] points = createPoints();
+		Triangle[] triangles = new QuickHull().computeConvexHull(points, points.length, -1);
+
+		// degenerate point sets give no hull
+		if (shape == Shape.COPLANAR || shape == Shape.LESS_THAN_4) {
+			assertTrue(triangles == null, "expected no hull of degenerate points");
+			assertTrue(ConvexMesh.createConvexHull(points, -1) == null, "expected no convex mesh of degenerate points");
+			return;
+		}
+		assertTrue(triangles != null && triangles.length >= 4, "expected hull");
+
+		// every point is inside or on every face
+		Vector3 edge1 = new Vector3();
+		Vector3 edge2 = new Vector3();
+		Vector3 normal = new Vector3();
+		for (int i = 0; i < triangles.length; i++) {
+			Vector3[] vertices = triangles[i].getVertices();
+			edge1.set(vertices[1]).sub(vertices[0]);
+			edge2.set(vertices[2]).sub(vertices[0]);
+			Vector3.computeCrossProduct(edge1, edge2, normal).normalize();
+			for (int j = 0; j < points.length; j++) {
+				float distance = Vector3.computeDotProduct(normal, edge1.set(points[j]).sub(vertices[0]));
+				assertTrue(distance <= TOLERANCE, "point " + j + " is " + distance + " outside of face " + i);
+			}
+		}
+
+		// closed triangle mesh, each edge is shared by exactly two triangles in opposite directions
+		HashMap<String, Integer> vertexIdxs = new HashMap<String, Integer>();
+		HashMap<Long, Integer> edges = new HashMap<Long, Integer>();
+		for (int i = 0; i < triangles.length; i++) {
+			Vector3[] vertices = triangles[i].getVertices();
+			int[] idxs = new int[3];
+			for (int j = 0; j < 3; j++) idxs[j] = getVertexIdx(vertexIdxs, vertices[j]);
+			for (int j = 0; j < 3; j++) {
+				long edge = (long)idxs[j] << 32 | idxs[(j + 1) % 3];
+				assertTrue(edges.containsKey(edge) == false, "directed edge " + idxs[j] + " -> " + idxs[(j + 1) % 3] + " used twice");
+				edges.put(edge, i);
+			}
+		}
+		for (Long edge: edges.keySet()) {
+			long edgeReversed = (edge & 0xFFFFFFFFL) << 32 | edge >>> 32;
+			assertTrue(edges.containsKey(edgeReversed) == true, "edge " + (edge >>> 32) + " -> " + (edge & 0xFFFFFFFFL) + " has no opposite edge");
+		}
+
+		// Euler's formula
+		int vertexCount = vertexIdxs.size();
+		int edgeCount = edges.size() / 2;
+		int faceCount = triangles.length;
+		assertEquals(2, vertexCount - edgeCount + faceCount, "V - E + F with V = " + vertexCount + ", E = " + edgeCount + ", F = " + faceCount);
+
+		// cube hull has the 8 corners only
+		if (shape == Shape.CUBE) assertEquals(8, vertexCount, "cube hull vertices");
+	}
+
+	/**
+	 * Get index of given vertex, vertices of triangles are copies, so they are identified by their exact coordinates
+	 * @param vertex idxs
+	 * @param vertex
+	 * @return vertex idx
+	 */
+	private static int getVertexIdx(HashMap<String, Integer> vertexIdxs, Vector3 vertex) {
+		float[] vertexXYZ = vertex.getArray();
+		String key = vertexXYZ[0] + "," + vertexXYZ[1] + "," + vertexXYZ[2];
+		Integer idx = vertexIdxs.get(key);
+		if (idx == null) {
+			idx = vertexIdxs.size();
+			vertexIdxs.put(key, idx);
+		}
+		return idx;
+	}
+
+	/**
+	 * @return points of shape
+	 */
+	private Vector3[] createPoints() {
+		Random random = new Random(1);
+		switch (shape) {
+			case CUBE:
+				{
+					// corners, face centers, edge centers and inner points including duplicates
+					Vector3[] points = new Vector3[8 + 6 + 12 + 200];
+					int pointCount = 0;
+					for (int x = -1; x <= 1; x++)
+					for (int y = -1; y <= 1; y++)
+					for (int z = -1; z <= 1; z++) {
+						int onFaces = (x != 0?1:0) + (y != 0?1:0) + (z != 0?1:0);
+						if (onFaces > 0) points[pointCount++] = new Vector3(x, y, z);
+					}
+					for (int i = pointCount; i < points.length; i++) {
+						points[i] = i % 10 == 0?
+							new Vector3(1f, 1f, 1f):
+							new Vector3(random.nextFloat() * 2f - 1f, random.nextFloat() * 2f - 1f, random.nextFloat() * 2f - 1f);
+					}
+					return points;
+				}
+			case SPHERE:
+				{
+					// points on unit sphere
+					Vector3[] points = new Vector3[500];
+					for (int i = 0; i < points.length; i++) {
+						points[i] = new Vector3(
+							(float)random.nextGaussian(),
+							(float)random.nextGaussian(),
+							(float)random.nextGaussian()
+						).normalize();
+					}
+					return points;
+				}
+			case RANDOM:
+				{
+					// points in a stretched box away from origin
+					Vector3[] points = new Vector3[1000];
+					for (int i = 0; i < points.length; i++) {
+						points[i] = new Vector3(
+							100f + random.nextFloat() * 10f,
+							random.nextFloat() * 0.5f,
+							-50f + random.nextFloat() * 3f
+						);
+					}
+					return points;
+				}
+			case COPLANAR:
+				{
+					// points on a tilted plane
+					Vector3[] points = new Vector3[100];
+					for (int i = 0; i < points.length; i++) {
+						float u = random.nextFloat() * 4f - 2f;
+						float v = random.nextFloat() * 4f - 2f;
+						points[i] = new Vector3(u, u * 0.5f + v * 0.25f, v);
+					}
+					return points;
+				}
+			case LESS_THAN_4:
+				{
+					// 3 points and duplicates which get welded
+					return new Vector3[] {
+						new Vector3(0f, 0f, 0f),
+						new Vector3(1f, 0f, 0f),
+						new Vector3(0f, 1f, 1f),
+						new Vector3(1f, 0f, 0f),
+						new Vector3(0f, 0f, 0f)
+					};
+				}
+		}
+		return null;
+	}
+
+}
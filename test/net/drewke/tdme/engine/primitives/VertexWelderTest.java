@@ -0,0 +1,78 @@
+package net.drewke.tdme.engine.primitives;
+
+import java.util.Random;
+
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+
+/**
+ * Checks that vertex welder welds vertices within tolerance, also across hash grid cell borders,
+ * 	and keeps vertices apart which are not within tolerance
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class VertexWelderTest extends Test {
+
+	private final static float TOLERANCE = 0.01f;
+
+	/**
+	 * Public constructor
+	 */
+	public VertexWelderTest() {
+		super("VertexWelder.tolerance");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		VertexWelder vertexWelder = new VertexWelder(TOLERANCE);
+
+		// single vertices around a cell border
+		vertexWelder.reset(4);
+		Vector3 vertex = new Vector3(TOLERANCE * 10f - TOLERANCE * 0.1f, 1f, -1f);
+		assertEquals(0, vertexWelder.add(vertex), "first vertex");
+		assertEquals(0, vertexWelder.add(new Vector3(vertex).addX(TOLERANCE * 0.5f)), "vertex in next cell within tolerance");
+		assertEquals(0, vertexWelder.add(new Vector3(vertex).add(new Vector3(-TOLERANCE * 0.9f, TOLERANCE * 0.9f, -TOLERANCE * 0.9f))), "vertex within tolerance on each axis");
+		assertEquals(1, vertexWelder.add(new Vector3(vertex).addX(TOLERANCE * 1.5f)), "vertex out of tolerance on x axis");
+		assertEquals(2, vertexWelder.add(new Vector3(vertex).addZ(-TOLERANCE * 1.1f)), "vertex out of tolerance on z axis");
+		assertEquals(-1, vertexWelder.find(new Vector3(vertex).addY(TOLERANCE * 2f)), "find vertex out of tolerance");
+		assertEquals(3, vertexWelder.size(), "welded vertex count");
+
+		// random vertices with jittered duplicates, welder grows beyond initial capacity
+		Random random = new Random(1);
+		int vertexCount = 4000;
+		Vector3[] vertices = new Vector3[vertexCount];
+		int[] weldedIdxs = new int[vertexCount];
+		vertexWelder.reset(16);
+		for (int i = 0; i < vertexCount; i++) {
+			if (i > 0 && random.nextInt(3) == 0) {
+				vertices[i] = new Vector3(vertices[random.nextInt(i)]).add(
+					new Vector3(
+						(random.nextFloat() - 0.5f) * TOLERANCE,
+						(random.nextFloat() - 0.5f) * TOLERANCE,
+						(random.nextFloat() - 0.5f) * TOLERANCE
+					)
+				);
+			} else {
+				vertices[i] = new Vector3(random.nextFloat(), random.nextFloat(), random.nextFloat()).scale(0.5f);
+			}
+			weldedIdxs[i] = vertexWelder.add(vertices[i]);
+		}
+
+		// each vertex is within tolerance of its welded vertex
+		for (int i = 0; i < vertexCount; i++) {
+			assertTrue(vertexWelder.get(weldedIdxs[i]).equals(vertices[i], TOLERANCE) == true, "vertex " + i + " not within tolerance of its welded vertex");
+			int foundIdx = vertexWelder.find(vertices[i]);
+			assertTrue(foundIdx != -1 && vertexWelder.get(foundIdx).equals(vertices[i], TOLERANCE) == true, "find vertex " + i);
+		}
+
+		// welded vertices are not within tolerance of each other
+		for (int i = 0; i < vertexWelder.size(); i++)
+		for (int j = i + 1; j < vertexWelder.size(); j++) {
+			assertTrue(vertexWelder.get(i).equals(vertexWelder.get(j), TOLERANCE) == false, "welded vertices " + i + " and " + j + " are within tolerance");
+		}
+	}
+
+}
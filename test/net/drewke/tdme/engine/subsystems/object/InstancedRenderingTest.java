@@ -0,0 +1,99 @@
+package net.drewke.tdme.engine.subsystems.object;
+
+import net.drewke.tdme.engine.Engine;
+import net.drewke.tdme.engine.HeadlessEngine;
+import net.drewke.tdme.engine.Object3D;
+import net.drewke.tdme.engine.model.Material;
+import net.drewke.tdme.engine.model.Model;
+import net.drewke.tdme.engine.subsystems.renderer.GLRenderer;
+import net.drewke.tdme.engine.subsystems.renderer.RecordingRenderer;
+import net.drewke.tdme.math.Matrix4x4;
+import net.drewke.tdme.test.Test;
+import net.drewke.tdme.utils.ArrayList;
+
+/**
+ * Renders objects sharing a model with recording renderer,
+ * 	checks that they are drawn with one instanced draw call and that per instance normal matrices are uploaded
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class InstancedRenderingTest extends Test {
+
+	private int objectCount;
+	private boolean instancedRendering;
+
+	/**
+	 * Public constructor
+	 * @param object count
+	 * @param instanced rendering
+	 */
+	public InstancedRenderingTest(int objectCount, boolean instancedRendering) {
+		super("InstancedRendering." + objectCount + (instancedRendering == true?".instanced":".notinstanced"));
+		this.objectCount = objectCount;
+		this.instancedRendering = instancedRendering;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		RecordingRenderer renderer = new RecordingRenderer(instancedRendering);
+		try {
+			Engine engine = HeadlessEngine.initialize(renderer);
+			Model model = ObjectTests.createBoxModel(
+				"box",
+				1,
+				new Material[] {ObjectTests.createMaterial("material", 1f, 0f, 0f)}
+			);
+
+			// objects with different non uniform scales, so normal matrices differ from model view matrices
+			ArrayList<Object3D> objects = new ArrayList<Object3D>();
+			for (int i = 0; i < objectCount; i++) {
+				Object3D object = new Object3D("box" + i, model);
+				object.getTranslation().set(i * 2f, 0f, -10f);
+				object.getScale().set(1f + i * 0.25f, 1f, 2f);
+				object.update();
+				object.computeTransformations();
+				objects.add(object);
+			}
+
+			// render
+			Object3DVBORenderer object3DVBORenderer = new Object3DVBORenderer(engine, renderer);
+			object3DVBORenderer.initialize();
+			renderer.reset();
+			object3DVBORenderer.render(objects, false);
+
+			// check draw calls
+			if (instancedRendering == false) {
+				assertEquals(objectCount, renderer.getDrawCalls(), "draw calls");
+				assertEquals(0, renderer.getInstancedDrawCalls(), "instanced draw calls");
+				return;
+			}
+			assertEquals(0, renderer.getDrawCalls(), "draw calls");
+			assertEquals(1, renderer.getInstancedDrawCalls(), "instanced draw calls");
+			assertEquals(objectCount, renderer.getDrawnInstances(), "drawn instances");
+
+			// check normal matrices of instances
+			float[] instancesData = renderer.getStreamBufferData();
+			assertEquals(objectCount * GLRenderer.INSTANCE_FLOATS, instancesData.length, "instances data floats");
+			Matrix4x4 normalMatrix = new Matrix4x4();
+			for (int i = 0; i < objectCount; i++) {
+				float[] normalMatrixArray = normalMatrix.set(objects.get(i).getTransformationsMatrix()).invert().transpose().getArray();
+				int instanceOffset = i * GLRenderer.INSTANCE_FLOATS;
+				for (int column = 0; column < 3; column++)
+				for (int row = 0; row < 3; row++) {
+					assertEquals(
+						normalMatrixArray[column * 4 + row],
+						instancesData[instanceOffset + 16 + column * 3 + row],
+						1e-5f,
+						"instance " + i + " normal matrix [" + column + "][" + row + "]"
+					);
+				}
+			}
+		} finally {
+			HeadlessEngine.dispose();
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+package net.drewke.tdme.engine.subsystems.object;
+
+import java.util.ArrayList;
+
+import net.drewke.tdme.engine.Engine;
+import net.drewke.tdme.engine.model.Face;
+import net.drewke.tdme.engine.model.FacesEntity;
+import net.drewke.tdme.engine.model.Group;
+import net.drewke.tdme.engine.model.Material;
+import net.drewke.tdme.engine.model.Model;
+import net.drewke.tdme.engine.model.Model.UpVector;
+import net.drewke.tdme.engine.model.ModelHelper;
+import net.drewke.tdme.engine.model.RotationOrder;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+
+/**
+ * Object 3D tests and the models they use
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class ObjectTests {
+
+	private static int[][] boxFacesVerticesIndexes = {
+		{0,4,7}, {7,3,0},
+		{6,5,1}, {1,2,6},
+		{5,4,0}, {0,1,5},
+		{3,7,6}, {6,2,3},
+		{2,1,0}, {0,3,2},
+		{4,5,6}, {6,7,4},
+	};
+
+	/**
+	 * @return object 3d tests
+	 */
+	public static ArrayList<Test> getTests() {
+		ArrayList<Test> tests = new ArrayList<Test>();
+		tests.add(new InstancedRenderingTest(16, true));
+		tests.add(new InstancedRenderingTest(16, false));
+		tests.add(new RenderQueueTest(6, true));
+		tests.add(new RenderQueueTest(6, false));
+		for (Engine.AnimationProcessingTarget animationProcessingTarget: Engine.AnimationProcessingTarget.values()) {
+			tests.add(new SkinningTest(animationProcessingTarget, false, false));
+			tests.add(new SkinningTest(animationProcessingTarget, true, true));
+			tests.add(new SkinningTest(animationProcessingTarget, true, false));
+			tests.add(new SkinningTest(animationProcessingTarget, false, true));
+		}
+		return tests;
+	}
+
+	/**
+	 * Create material with given id and diffuse color
+	 * @param id
+	 * @param red
+	 * @param green
+	 * @param blue
+	 * @return material
+	 */
+	protected static Material createMaterial(String id, float red, float green, float blue) {
+		Material material = new Material(id);
+		material.getDiffuseColor().set(red, green, blue, 1f);
+		return material;
+	}
+
+	/**
+	 * Create unit box model, its faces are distributed over faces entities using given materials round robin
+	 * @param id
+	 * @param faces entities, 1 to 12
+	 * @param materials
+	 * @return model
+	 */
+	protected static Model createBoxModel(String id, int facesEntityCount, Material[] materials) {
+		Model model = new Model(id, id, UpVector.Y_UP, RotationOrder.XYZ, null);
+		for (Material material: materials) {
+			model.getMaterials().put(material.getId(), material);
+		}
+
+		// group
+		Group group = new Group(model, null, "group", "group");
+
+		// vertices
+		Vector3[] vertices = new Vector3[] {
+			new Vector3(-0.5f, -0.5f, -0.5f),
+			new Vector3(+0.5f, -0.5f, -0.5f),
+			new Vector3(+0.5f, +0.5f, -0.5f),
+			new Vector3(-0.5f, +0.5f, -0.5f),
+			new Vector3(-0.5f, -0.5f, +0.5f),
+			new Vector3(+0.5f, -0.5f, +0.5f),
+			new Vector3(+0.5f, +0.5f, +0.5f),
+			new Vector3(-0.5f, +0.5f, +0.5f)
+		};
+
+		// normals
+		Vector3[] normals = new Vector3[] {
+			new Vector3(-1.0f, 0.0f, 0.0f),
+			new Vector3(+1.0f, 0.0f, 0.0f),
+			new Vector3(0.0f, -1.0f, 0.0f),
+			new Vector3(0.0f, +1.0f, 0.0f),
+			new Vector3(0.0f, 0.0f, -1.0f),
+			new Vector3(0.0f, 0.0f, +1.0f)
+		};
+
+		// faces entities, each gets a consecutive range of faces
+		FacesEntity[] facesEntities = new FacesEntity[facesEntityCount];
+		int faceIdx = 0;
+		for (int i = 0; i < facesEntityCount; i++) {
+			int facesEnd = (i + 1) * boxFacesVerticesIndexes.length / facesEntityCount;
+			Face[] faces = new Face[facesEnd - faceIdx];
+			for (int j = 0; j < faces.length; j++, faceIdx++) {
+				int[] fvi = boxFacesVerticesIndexes[faceIdx];
+				int ni = faceIdx / 2;
+				faces[j] = new Face(group, fvi[0], fvi[1], fvi[2], ni, ni, ni);
+			}
+			facesEntities[i] = new FacesEntity(group, "faces entity " + i);
+			facesEntities[i].setMaterial(materials[i % materials.length]);
+			facesEntities[i].setFaces(faces);
+		}
+
+		// set up group
+		group.setVertices(vertices);
+		group.setNormals(normals);
+		group.setFacesEntities(facesEntities);
+		group.determineFeatures();
+		model.getGroups().put(group.getId(), group);
+		model.getSubGroups().put(group.getId(), group);
+
+		// prepare for indexed rendering
+		ModelHelper.prepareForIndexedRendering(model);
+		return model;
+	}
+
+}
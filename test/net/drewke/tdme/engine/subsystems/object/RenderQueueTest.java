@@ -0,0 +1,85 @@
+package net.drewke.tdme.engine.subsystems.object;
+
+import net.drewke.tdme.engine.Engine;
+import net.drewke.tdme.engine.HeadlessEngine;
+import net.drewke.tdme.engine.Object3D;
+import net.drewke.tdme.engine.model.Material;
+import net.drewke.tdme.engine.model.Model;
+import net.drewke.tdme.engine.subsystems.renderer.RecordingRenderer;
+import net.drewke.tdme.test.Test;
+import net.drewke.tdme.utils.ArrayList;
+
+/**
+ * Renders objects of two models with faces entities alternating between two materials with recording renderer,
+ * 	checks that sorted render queue uploads each material once and state cache skips redundant changes
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class RenderQueueTest extends Test {
+
+	private int facesEntityCount;
+	private boolean instancedRendering;
+
+	/**
+	 * Public constructor
+	 * @param faces entity count per model
+	 * @param instanced rendering
+	 */
+	public RenderQueueTest(int facesEntityCount, boolean instancedRendering) {
+		super("RenderQueue." + facesEntityCount + (instancedRendering == true?".instanced":".notinstanced"));
+		this.facesEntityCount = facesEntityCount;
+		this.instancedRendering = instancedRendering;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		RecordingRenderer renderer = new RecordingRenderer(instancedRendering);
+		try {
+			Engine engine = HeadlessEngine.initialize(renderer);
+			Material[] materials = new Material[] {
+				ObjectTests.createMaterial("material.a", 1f, 0f, 0f),
+				ObjectTests.createMaterial("material.b", 0f, 1f, 0f)
+			};
+			Model[] models = new Model[] {
+				ObjectTests.createBoxModel("box.a", facesEntityCount, materials),
+				ObjectTests.createBoxModel("box.b", facesEntityCount, materials)
+			};
+
+			// objects of both models
+			ArrayList<Object3D> objects = new ArrayList<Object3D>();
+			for (int i = 0; i < 8; i++) {
+				Object3D object = new Object3D("box" + i, models[i % models.length]);
+				object.getTranslation().set(i * 2f, 0f, -10f);
+				object.update();
+				object.computeTransformations();
+				objects.add(object);
+			}
+
+			// render
+			Object3DVBORenderer object3DVBORenderer = new Object3DVBORenderer(engine, renderer);
+			object3DVBORenderer.initialize();
+			renderer.reset();
+			object3DVBORenderer.render(objects, false);
+
+			// in model order materials would switch with every faces entity, sorted each material is uploaded once
+			int facesEntitiesRendered = models.length * facesEntityCount;
+			assertEquals(materials.length, renderer.getMaterialUpdates(), "material updates");
+			assertTrue(
+				renderer.getStateChangesSkipped() >= facesEntitiesRendered - materials.length,
+				"state changes skipped: expected at least " + (facesEntitiesRendered - materials.length) + ", but was " + renderer.getStateChangesSkipped()
+			);
+			assertEquals(1, renderer.getFrontFaceChanges(), "front face changes");
+			if (instancedRendering == true) {
+				assertEquals(facesEntitiesRendered, renderer.getInstancedDrawCalls(), "instanced draw calls");
+			} else {
+				assertEquals(facesEntitiesRendered * objects.size() / models.length, renderer.getDrawCalls(), "draw calls");
+			}
+		} finally {
+			HeadlessEngine.dispose();
+		}
+	}
+
+}
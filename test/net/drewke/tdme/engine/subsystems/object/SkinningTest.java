@@ -0,0 +1,241 @@
+package net.drewke.tdme.engine.subsystems.object;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import net.drewke.tdme.engine.Engine;
+import net.drewke.tdme.engine.model.Group;
+import net.drewke.tdme.engine.model.Joint;
+import net.drewke.tdme.engine.model.JointWeight;
+import net.drewke.tdme.engine.model.Model;
+import net.drewke.tdme.engine.model.Model.UpVector;
+import net.drewke.tdme.engine.model.RotationOrder;
+import net.drewke.tdme.engine.model.Skinning;
+import net.drewke.tdme.math.MathTools;
+import net.drewke.tdme.math.Matrix4x4;
+import net.drewke.tdme.math.Vector3;
+import net.drewke.tdme.test.Test;
+import net.drewke.tdme.utils.HashMap;
+
+/**
+ * Skins a randomly weighted group on CPU and compares transformed vertices, normals, tangents and bitangents
+ * 	and vertex buffer object data with reference skinning using Matrix4x4 and Vector3 operations
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class SkinningTest extends Test {
+
+	private final static int VERTICES = 200;
+	private final static int JOINTS = 6;
+	private final static int FRAMES = 3;
+
+	private Engine.AnimationProcessingTarget animationProcessingTarget;
+	private boolean tangents;
+	private boolean bitangents;
+
+	/**
+	 * Public constructor
+	 * @param animation processing target
+	 * @param tangents
+	 * @param bitangents
+	 */
+	public SkinningTest(Engine.AnimationProcessingTarget animationProcessingTarget, boolean tangents, boolean bitangents) {
+		super(
+			"Skinning." + animationProcessingTarget.toString().toLowerCase() +
+			(tangents == true?".tangents":"") +
+			(bitangents == true?".bitangents":"")
+		);
+		this.animationProcessingTarget = animationProcessingTarget;
+		this.tangents = tangents;
+		this.bitangents = bitangents;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		Random random = new Random(1234L);
+
+		// skinned group
+		Model model = new Model("skinning", "skinning", UpVector.Y_UP, RotationOrder.XYZ, null);
+		Group group = new Group(model, null, "group", "group");
+		group.setVertices(createVectors(random, VERTICES, false));
+		group.setNormals(createVectors(random, VERTICES, true));
+		if (tangents == true) group.setTangents(createVectors(random, VERTICES, true));
+		if (bitangents == true) group.setBitangents(createVectors(random, VERTICES, true));
+		Skinning skinning = group.createSkinning();
+		Joint[] joints = new Joint[JOINTS];
+		for (int i = 0; i < joints.length; i++) joints[i] = new Joint("joint." + i);
+		skinning.setJoints(joints);
+
+		// 1 to 4 weights per vertex, every 4th vertex has weights not summing up to 1
+		float[] weights = new float[VERTICES * 4];
+		JointWeight[][] verticesJointsWeights = new JointWeight[VERTICES][];
+		int weightIdx = 0;
+		for (int vertexIdx = 0; vertexIdx < VERTICES; vertexIdx++) {
+			JointWeight[] vertexJointsWeights = new JointWeight[1 + random.nextInt(4)];
+			float totalWeights = 0f;
+			for (int i = 0; i < vertexJointsWeights.length; i++) {
+				weights[weightIdx + i] = 0.1f + random.nextFloat();
+				totalWeights+= weights[weightIdx + i];
+			}
+			for (int i = 0; i < vertexJointsWeights.length; i++) {
+				if (vertexIdx % 4 != 0) weights[weightIdx + i]/= totalWeights;
+				vertexJointsWeights[i] = new JointWeight(random.nextInt(JOINTS), weightIdx + i);
+			}
+			weightIdx+= vertexJointsWeights.length;
+			verticesJointsWeights[vertexIdx] = vertexJointsWeights;
+		}
+		skinning.setWeights(weights);
+		skinning.setVerticesJointsWeights(verticesJointsWeights);
+
+		// skinning matrices
+		HashMap<String, Matrix4x4> transformationsMatrices = new HashMap<String, Matrix4x4>();
+		transformationsMatrices.put(group.getId(), new Matrix4x4().identity());
+		HashMap<String, Matrix4x4> skinningMatrices = new HashMap<String, Matrix4x4>();
+		for (Joint joint: joints) {
+			skinningMatrices.put(joint.getGroupId(), new Matrix4x4().identity());
+		}
+
+		// skin some frames with changing joint matrices
+		Object3DGroupMesh mesh = Object3DGroupMesh.createMesh(animationProcessingTarget, group, transformationsMatrices, skinningMatrices);
+		assertTrue((mesh.tangents != null) == tangents, "mesh tangents");
+		assertTrue((mesh.bitangents != null) == bitangents, "mesh bitangents");
+		for (int frame = 0; frame < FRAMES; frame++) {
+			for (Joint joint: joints) {
+				Vector3 axis = createVectors(random, 1, true)[0];
+				skinningMatrices.get(joint.getGroupId()).
+					identity().
+					scale(0.5f + random.nextFloat()).
+					rotate(random.nextFloat() * 360f, axis).
+					translate(createVectors(random, 1, false)[0]);
+			}
+			mesh.computeTransformations(group);
+
+			// reference
+			Vector3[] expectedVertices = new Vector3[VERTICES];
+			Vector3[] expectedNormals = new Vector3[VERTICES];
+			Vector3[] expectedTangents = tangents == true?new Vector3[VERTICES]:null;
+			Vector3[] expectedBitangents = bitangents == true?new Vector3[VERTICES]:null;
+			computeReferenceSkinning(group, skinningMatrices, expectedVertices, expectedNormals, expectedTangents, expectedBitangents);
+
+			// compare transformed vectors
+			assertVectorsEqual(expectedVertices, mesh.vertices, "frame " + frame + ": vertices");
+			assertVectorsEqual(expectedNormals, mesh.normals, "frame " + frame + ": normals");
+			if (tangents == true) assertVectorsEqual(expectedTangents, mesh.tangents, "frame " + frame + ": tangents");
+			if (bitangents == true) assertVectorsEqual(expectedBitangents, mesh.bitangents, "frame " + frame + ": bitangents");
+
+			// skinned bitangents must not stay zero without tangents
+			if (bitangents == true) {
+				float bitangentsLengthSum = 0f;
+				for (Vector3 bitangent: mesh.bitangents) bitangentsLengthSum+= bitangent.computeLength();
+				assertTrue(bitangentsLengthSum > VERTICES * 0.1f, "frame " + frame + ": bitangents not skinned");
+			}
+
+			// compare vertex buffer object data
+			if (animationProcessingTarget == Engine.AnimationProcessingTarget.CPU) {
+				assertBufferEqual(expectedVertices, mesh.setupVerticesBuffer(), "frame " + frame + ": vertices buffer");
+				assertBufferEqual(expectedNormals, mesh.setupNormalsBuffer(), "frame " + frame + ": normals buffer");
+				if (tangents == true) assertBufferEqual(expectedTangents, mesh.setupTangentsBuffer(), "frame " + frame + ": tangents buffer");
+				if (bitangents == true) assertBufferEqual(expectedBitangents, mesh.setupBitangentsBuffer(), "frame " + frame + ": bitangents buffer");
+			}
+		}
+	}
+
+	/**
+	 * Reference skinning with Matrix4x4 and Vector3 operations, tangents and bitangents are skinned if available each
+	 * @param group
+	 * @param skinning matrices
+	 * @param vertices
+	 * @param normals
+	 * @param tangents or null
+	 * @param bitangents or null
+	 */
+	private static void computeReferenceSkinning(Group group, HashMap<String, Matrix4x4> skinningMatrices, Vector3[] vertices, Vector3[] normals, Vector3[] tangents, Vector3[] bitangents) {
+		Skinning skinning = group.getSkinning();
+		Joint[] joints = skinning.getJoints();
+		float[] weights = skinning.getWeights();
+		JointWeight[][] jointsWeights = skinning.getVerticesJointsWeights();
+		Vector3 tmpVector3 = new Vector3();
+		for (int vertexIdx = 0; vertexIdx < vertices.length; vertexIdx++) {
+			vertices[vertexIdx] = new Vector3();
+			normals[vertexIdx] = new Vector3();
+			if (tangents != null) tangents[vertexIdx] = new Vector3();
+			if (bitangents != null) bitangents[vertexIdx] = new Vector3();
+			float totalWeights = 0f;
+			for (JointWeight jointWeight: jointsWeights[vertexIdx]) {
+				float weight = weights[jointWeight.getWeightIndex()];
+				Matrix4x4 matrix = skinningMatrices.get(joints[jointWeight.getJointIndex()].getGroupId());
+				vertices[vertexIdx].add(matrix.multiply(group.getVertices()[vertexIdx], tmpVector3).scale(weight));
+				normals[vertexIdx].add(matrix.multiplyNoTranslation(group.getNormals()[vertexIdx], tmpVector3).scale(weight));
+				if (tangents != null) tangents[vertexIdx].add(matrix.multiplyNoTranslation(group.getTangents()[vertexIdx], tmpVector3).scale(weight));
+				if (bitangents != null) bitangents[vertexIdx].add(matrix.multiplyNoTranslation(group.getBitangents()[vertexIdx], tmpVector3).scale(weight));
+				totalWeights+= weight;
+			}
+			if (Math.abs(totalWeights - 1f) > MathTools.EPSILON) {
+				float weightNormalized = 1f / totalWeights;
+				vertices[vertexIdx].scale(weightNormalized);
+				normals[vertexIdx].scale(weightNormalized);
+				if (tangents != null) tangents[vertexIdx].scale(weightNormalized);
+				if (bitangents != null) bitangents[vertexIdx].scale(weightNormalized);
+			}
+			normals[vertexIdx].normalize();
+		}
+	}
+
+	/**
+	 * Create random vectors
+	 * @param random
+	 * @param count
+	 * @param normalize
+	 * @return vectors
+	 */
+	private static Vector3[] createVectors(Random random, int count, boolean normalize) {
+		Vector3[] vectors = new Vector3[count];
+		for (int i = 0; i < count; i++) {
+			vectors[i] = new Vector3(random.nextFloat() * 2f - 1f, random.nextFloat() * 2f - 1f, random.nextFloat() * 2f - 1f);
+			if (normalize == true) vectors[i].add(new Vector3(0.01f, 0.01f, 0.01f)).normalize();
+		}
+		return vectors;
+	}
+
+	/**
+	 * Check that given vectors are bit identical
+	 * @param expected
+	 * @param actual
+	 * @param message
+	 */
+	private static void assertVectorsEqual(Vector3[] expected, Vector3[] actual, String message) {
+		assertEquals(expected.length, actual.length, message + " length");
+		for (int i = 0; i < expected.length; i++) {
+			float[] expectedXYZ = expected[i].getArray();
+			float[] actualXYZ = actual[i].getArray();
+			for (int j = 0; j < 3; j++) {
+				if (Float.floatToIntBits(expectedXYZ[j]) != Float.floatToIntBits(actualXYZ[j])) {
+					throw new AssertionError(message + " [" + i + "]: expected " + expected[i] + ", but was " + actual[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check that given buffer holds given vectors bit identical
+	 * @param expected
+	 * @param buffer
+	 * @param message
+	 */
+	private static void assertBufferEqual(Vector3[] expected, FloatBuffer buffer, String message) {
+		assertEquals(expected.length * 3, buffer.remaining(), message + " length");
+		for (int i = 0; i < expected.length; i++) {
+			float[] expectedXYZ = expected[i].getArray();
+			for (int j = 0; j < 3; j++) {
+				float actual = buffer.get(buffer.position() + i * 3 + j);
+				if (Float.floatToIntBits(expectedXYZ[j]) != Float.floatToIntBits(actual)) {
+					throw new AssertionError(message + " [" + i + "][" + j + "]: expected " + expectedXYZ[j] + ", but was " + actual);
+				}
+			}
+		}
+	}
+
+}
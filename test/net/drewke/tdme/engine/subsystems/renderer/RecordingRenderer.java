@@ -0,0 +1,810 @@
+package net.drewke.tdme.engine.subsystems.renderer;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+import net.drewke.tdme.engine.fileio.textures.Texture;
+import net.drewke.tdme.math.Matrix4x4;
+
+import com.jogamp.opengl.GL;
+
+/**
+ * Headless renderer recording draw calls and state changes instead of issuing GL commands
+ * 	Binds and front face changes go through the state cache like GL3 renderer does
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class RecordingRenderer extends GLRenderer {
+
+	private boolean instancedRenderingAvailable;
+	private int objectIdx;
+
+	private int drawCalls;
+	private int instancedDrawCalls;
+	private int drawnInstances;
+	private int materialUpdates;
+	private int textureBinds;
+	private int frontFaceChanges;
+	private int bufferObjectBinds;
+	private float[] streamBufferData;
+
+	/**
+	 * Public constructor
+	 * @param instanced rendering available
+	 */
+	public RecordingRenderer(boolean instancedRenderingAvailable) {
+		ID_NONE = 0;
+		FRONTFACE_CW = 1;
+		FRONTFACE_CCW = 2;
+		this.instancedRenderingAvailable = instancedRenderingAvailable;
+		this.objectIdx = 0;
+		reset();
+	}
+
+	/**
+	 * Reset recorded counters and state cache
+	 */
+	public void reset() {
+		drawCalls = 0;
+		instancedDrawCalls = 0;
+		drawnInstances = 0;
+		materialUpdates = 0;
+		textureBinds = 0;
+		frontFaceChanges = 0;
+		bufferObjectBinds = 0;
+		streamBufferData = null;
+		invalidateStateCache();
+		resetStateChangeCounters();
+	}
+
+	/**
+	 * @return non instanced draw calls
+	 */
+	public int getDrawCalls() {
+		return drawCalls;
+	}
+
+	/**
+	 * @return instanced draw calls
+	 */
+	public int getInstancedDrawCalls() {
+		return instancedDrawCalls;
+	}
+
+	/**
+	 * @return instances drawn by instanced draw calls
+	 */
+	public int getDrawnInstances() {
+		return drawnInstances;
+	}
+
+	/**
+	 * @return material uploads
+	 */
+	public int getMaterialUpdates() {
+		return materialUpdates;
+	}
+
+	/**
+	 * @return texture binds not skipped by state cache
+	 */
+	public int getTextureBinds() {
+		return textureBinds;
+	}
+
+	/**
+	 * @return front face changes not skipped by state cache
+	 */
+	public int getFrontFaceChanges() {
+		return frontFaceChanges;
+	}
+
+	/**
+	 * @return buffer object binds
+	 */
+	public int getBufferObjectBinds() {
+		return bufferObjectBinds;
+	}
+
+	/**
+	 * @return data of last stream buffer object upload or null
+	 */
+	public float[] getStreamBufferData() {
+		return streamBufferData;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setGL(GL)
+	 */
+	public void setGL(GL gl) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#initialize()
+	 */
+	public void initialize() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#initializeFrame()
+	 */
+	public void initializeFrame() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#getGLVersion()
+	 */
+	public String getGLVersion() {
+		return "recording";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#isBufferObjectsAvailable()
+	 */
+	public boolean isBufferObjectsAvailable() {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#isDepthTextureAvailable()
+	 */
+	public boolean isDepthTextureAvailable() {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#isUsingProgramAttributeLocation()
+	 */
+	public boolean isUsingProgramAttributeLocation() {
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#isSpecularMappingAvailable()
+	 */
+	public boolean isSpecularMappingAvailable() {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#isNormalMappingAvailable()
+	 */
+	public boolean isNormalMappingAvailable() {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#isDisplacementMappingAvailable()
+	 */
+	public boolean isDisplacementMappingAvailable() {
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#isInstancedRenderingAvailable()
+	 */
+	public boolean isInstancedRenderingAvailable() {
+		return instancedRenderingAvailable;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#getTextureUnits()
+	 */
+	public int getTextureUnits() {
+		return 4;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#loadShader(int, String, String)
+	 */
+	public int loadShader(int type, String pathName, String fileName) {
+		return ++objectIdx;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#useProgram(int)
+	 */
+	public void useProgram(int programId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#createProgram()
+	 */
+	public int createProgram() {
+		return ++objectIdx;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#attachShaderToProgram(int, int)
+	 */
+	public void attachShaderToProgram(int programId, int shaderId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#linkProgram(int)
+	 */
+	public boolean linkProgram(int programId) {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#getProgramUniformLocation(int, String)
+	 */
+	public int getProgramUniformLocation(int programId, String name) {
+		return ++objectIdx;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setProgramUniformInteger(int, int)
+	 */
+	public void setProgramUniformInteger(int uniformId, int value) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setProgramUniformFloat(int, float)
+	 */
+	public void setProgramUniformFloat(int uniformId, float value) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setProgramUniformFloatMatrix3x3(int, float[])
+	 */
+	public void setProgramUniformFloatMatrix3x3(int uniformId, float[] value) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setProgramUniformFloatMatrix4x4(int, float[])
+	 */
+	public void setProgramUniformFloatMatrix4x4(int uniformId, float[] value) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setProgramUniformFloatMatrices4x4(int, int, FloatBuffer)
+	 */
+	public void setProgramUniformFloatMatrices4x4(int uniformId, int count, FloatBuffer data) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setProgramUniformFloatVec4(int, float[])
+	 */
+	public void setProgramUniformFloatVec4(int uniformId, float[] data) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setProgramUniformFloatVec3(int, float[])
+	 */
+	public void setProgramUniformFloatVec3(int uniformId, float[] data) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setProgramAttributeLocation(int, int, String)
+	 */
+	public void setProgramAttributeLocation(int programId, int location, String name) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setViewPort(int, int, int, int)
+	 */
+	public void setViewPort(int x, int y, int width, int height) {
+		this.viewPortX = x;
+		this.viewPortY = y;
+		this.viewPortWidth = width;
+		this.viewPortHeight = height;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#updateViewPort()
+	 */
+	public void updateViewPort() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#onUpdateProjectionMatrix()
+	 */
+	public void onUpdateProjectionMatrix() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#onUpdateCameraMatrix()
+	 */
+	public void onUpdateCameraMatrix() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#onUpdateModelViewMatrix()
+	 */
+	public void onUpdateModelViewMatrix() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#getTextureMatrix()
+	 */
+	public Matrix4x4 getTextureMatrix() {
+		return textureMatrix[activeTextureUnit];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#onUpdateTextureMatrix()
+	 */
+	public void onUpdateTextureMatrix() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setClearColor(float, float, float, float)
+	 */
+	public void setClearColor(float red, float green, float blue, float alpha) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#enableCulling()
+	 */
+	public void enableCulling() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#disableCulling()
+	 */
+	public void disableCulling() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#enableBlending()
+	 */
+	public void enableBlending() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#disableBlending()
+	 */
+	public void disableBlending() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#enableDepthBuffer()
+	 */
+	public void enableDepthBuffer() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#disableDepthBuffer()
+	 */
+	public void disableDepthBuffer() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setDepthFunction(int)
+	 */
+	public void setDepthFunction(int depthFunction) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setColorMask(boolean, boolean, boolean, boolean)
+	 */
+	public void setColorMask(boolean red, boolean green, boolean blue, boolean alpha) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#clear(int)
+	 */
+	public void clear(int mask) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setCullFace(int)
+	 */
+	public void setCullFace(int cullFace) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setFrontFace(int)
+	 */
+	public void setFrontFace(int frontFace) {
+		if (updateFrontFace(frontFace) == false) return;
+		frontFaceChanges++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#createTexture()
+	 */
+	public int createTexture() {
+		invalidateBoundTexture();
+		return ++objectIdx;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#createDepthBufferTexture(int, int)
+	 */
+	public int createDepthBufferTexture(int width, int height) {
+		invalidateBoundTexture();
+		return ++objectIdx;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#createColorBufferTexture(int, int)
+	 */
+	public int createColorBufferTexture(int width, int height) {
+		invalidateBoundTexture();
+		return ++objectIdx;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#uploadTexture(Texture)
+	 */
+	public void uploadTexture(Texture texture) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#resizeDepthBufferTexture(int, int, int)
+	 */
+	public void resizeDepthBufferTexture(int textureId, int width, int height) {
+		invalidateBoundTexture();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#resizeColorBufferTexture(int, int, int)
+	 */
+	public void resizeColorBufferTexture(int textureId, int width, int height) {
+		invalidateBoundTexture();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindTexture(int)
+	 */
+	public void bindTexture(int textureId) {
+		if (updateBoundTexture(textureId) == false) return;
+		textureBinds++;
+		onBindTexture(textureId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#onBindTexture(int)
+	 */
+	public void onBindTexture(int textureId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#disposeTexture(int)
+	 */
+	public void disposeTexture(int textureId) {
+		invalidateBoundTexture(textureId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#createFramebufferObject(int, int)
+	 */
+	public int createFramebufferObject(int depthBufferTextureGlId, int colorBufferTextureGlId) {
+		return ++objectIdx;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindFrameBuffer(int)
+	 */
+	public void bindFrameBuffer(int frameBufferId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#disposeFrameBufferObject(int)
+	 */
+	public void disposeFrameBufferObject(int frameBufferId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#createBufferObjects(int)
+	 */
+	public int[] createBufferObjects(int buffers) {
+		int[] bufferObjectIds = new int[buffers];
+		for (int i = 0; i < buffers; i++) bufferObjectIds[i] = ++objectIdx;
+		return bufferObjectIds;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#uploadBufferObject(int, int, FloatBuffer)
+	 */
+	public void uploadBufferObject(int bufferObjectId, int size, FloatBuffer data) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#uploadIndicesBufferObject(int, int, ShortBuffer)
+	 */
+	public void uploadIndicesBufferObject(int bufferObjectId, int size, ShortBuffer data) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#uploadBufferObject(int, int, ShortBuffer)
+	 */
+	public void uploadBufferObject(int bufferObjectId, int size, ShortBuffer data) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#uploadStreamBufferObject(int, int, FloatBuffer)
+	 */
+	public void uploadStreamBufferObject(int bufferObjectId, int size, FloatBuffer data) {
+		streamBufferData = new float[size / 4];
+		data.get(streamBufferData);
+		data.rewind();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindIndicesBufferObject(int)
+	 */
+	public void bindIndicesBufferObject(int bufferObjectId) {
+		bufferObjectBinds++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindTextureCoordinatesBufferObject(int)
+	 */
+	public void bindTextureCoordinatesBufferObject(int bufferObjectId) {
+		bufferObjectBinds++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindVerticesBufferObject(int)
+	 */
+	public void bindVerticesBufferObject(int bufferObjectId) {
+		bufferObjectBinds++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindSkinningVerticesJointsBufferObject(int)
+	 */
+	public void bindSkinningVerticesJointsBufferObject(int bufferObjectId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindSkinningVerticesVertexJointsIdxBufferObject(int)
+	 */
+	public void bindSkinningVerticesVertexJointsIdxBufferObject(int bufferObjectId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindSkinningVerticesVertexJointsWeightBufferObject(int)
+	 */
+	public void bindSkinningVerticesVertexJointsWeightBufferObject(int bufferObjectId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindNormalsBufferObject(int)
+	 */
+	public void bindNormalsBufferObject(int bufferObjectId) {
+		bufferObjectBinds++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindColorsBufferObject(int)
+	 */
+	public void bindColorsBufferObject(int bufferObjectId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindTangentsBufferObject(int)
+	 */
+	public void bindTangentsBufferObject(int bufferObjectId) {
+		bufferObjectBinds++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindBitangentsBufferObject(int)
+	 */
+	public void bindBitangentsBufferObject(int bufferObjectId) {
+		bufferObjectBinds++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#bindInstancesBufferObject(int)
+	 */
+	public void bindInstancesBufferObject(int bufferObjectId) {
+		bufferObjectBinds++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#drawIndexedTrianglesFromBufferObjects(int, int)
+	 */
+	public void drawIndexedTrianglesFromBufferObjects(int triangles, int trianglesOffset) {
+		drawCalls++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#drawInstancedIndexedTrianglesFromBufferObjects(int, int, int)
+	 */
+	public void drawInstancedIndexedTrianglesFromBufferObjects(int triangles, int trianglesOffset, int instances) {
+		instancedDrawCalls++;
+		drawnInstances+= instances;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#drawTrianglesFromBufferObjects(int, int)
+	 */
+	public void drawTrianglesFromBufferObjects(int triangles, int trianglesOffset) {
+		drawCalls++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#drawPointsFromBufferObjects(int, int)
+	 */
+	public void drawPointsFromBufferObjects(int points, int pointsOffset) {
+		drawCalls++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#unbindBufferObjects()
+	 */
+	public void unbindBufferObjects() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#disposeBufferObjects(int[])
+	 */
+	public void disposeBufferObjects(int[] bufferObjectIds) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#getTextureUnit()
+	 */
+	public int getTextureUnit() {
+		return activeTextureUnit;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#setTextureUnit(int)
+	 */
+	public void setTextureUnit(int textureUnit) {
+		activeTextureUnit = textureUnit;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#enableClientState(int)
+	 */
+	public void enableClientState(int clientState) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#disableClientState(int)
+	 */
+	public void disableClientState(int clientState) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#onUpdateLight(int)
+	 */
+	public void onUpdateLight(int lightId) {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#onUpdateEffect()
+	 */
+	public void onUpdateEffect() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#onUpdateInstancedRendering()
+	 */
+	public void onUpdateInstancedRendering() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#onUpdateMaterial()
+	 */
+	public void onUpdateMaterial() {
+		materialUpdates++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#readPixelDepth(int, int)
+	 */
+	public float readPixelDepth(int x, int y) {
+		return 0f;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#readPixels(int, int, int, int)
+	 */
+	public ByteBuffer readPixels(int x, int y, int width, int height) {
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#initGuiMode()
+	 */
+	public void initGuiMode() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.engine.subsystems.renderer.GLRenderer#doneGuiMode()
+	 */
+	public void doneGuiMode() {
+	}
+
+}
@@ -0,0 +1,71 @@
+package net.drewke.tdme.test;
+
+/**
+ * Test, a named check run by test runner
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public abstract class Test {
+
+	private String name;
+
+	/**
+	 * Public constructor
+	 * @param name
+	 */
+	public Test(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Run test, a failed check throws an assertion error
+	 * @throws Exception
+	 */
+	public abstract void run() throws Exception;
+
+	/**
+	 * Check that given condition is true
+	 * @param condition
+	 * @param message
+	 */
+	protected static void assertTrue(boolean condition, String message) {
+		if (condition == false) throw new AssertionError(message);
+	}
+
+	/**
+	 * Check that given values are equal
+	 * @param expected
+	 * @param actual
+	 * @param message
+	 */
+	protected static void assertEquals(int expected, int actual, String message) {
+		if (expected != actual) throw new AssertionError(message + ": expected " + expected + ", but was " + actual);
+	}
+
+	/**
+	 * Check that given values are equal within given tolerance
+	 * @param expected
+	 * @param actual
+	 * @param tolerance
+	 * @param message
+	 */
+	protected static void assertEquals(float expected, float actual, float tolerance, String message) {
+		if (Math.abs(expected - actual) > tolerance) throw new AssertionError(message + ": expected " + expected + ", but was " + actual);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return name;
+	}
+
+}
@@ -0,0 +1,88 @@
+package net.drewke.tdme.test;
+
+import java.util.ArrayList;
+import java.util.regex.Pattern;
+
+import net.drewke.tdme.engine.EngineTests;
+import net.drewke.tdme.engine.physics.PhysicsTests;
+import net.drewke.tdme.engine.primitives.PrimitivesTests;
+import net.drewke.tdme.engine.subsystems.object.ObjectTests;
+import net.drewke.tdme.utils.UtilsTests;
+
+/**
+ * Headless test runner
+ * 	Runs each test, reports passed and failed tests and exits with a non zero status if any test failed
+ *
+ * 	Usage: TestRunner [-l] [test name regex]
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class TestRunner {
+
+	/**
+	 * Run given test and print its report line
+	 * @param test
+	 * @return if test passed
+	 */
+	public static boolean run(Test test) {
+		long timeStart = System.currentTimeMillis();
+		Throwable failure = null;
+		try {
+			test.run();
+		} catch (Throwable throwable) {
+			failure = throwable;
+		}
+		long time = System.currentTimeMillis() - timeStart;
+		if (failure == null) {
+			System.out.println("PASS " + test.getName() + " (" + time + "ms)");
+			return true;
+		}
+		System.out.println("FAIL " + test.getName() + " (" + time + "ms): " + failure);
+		if (failure instanceof AssertionError == false) failure.printStackTrace(System.out);
+		return false;
+	}
+
+	/**
+	 * Main
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		Pattern pattern = null;
+		boolean list = false;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-l") == true) {
+				list = true;
+			} else {
+				pattern = Pattern.compile(args[i]);
+			}
+		}
+
+		// collect tests
+		ArrayList<Test> allTests = new ArrayList<Test>();
+		allTests.addAll(EngineTests.getTests());
+		allTests.addAll(ObjectTests.getTests());
+		allTests.addAll(PhysicsTests.getTests());
+		allTests.addAll(PrimitivesTests.getTests());
+		allTests.addAll(UtilsTests.getTests());
+		ArrayList<Test> tests = new ArrayList<Test>();
+		for (Test test: allTests) {
+			if (pattern != null && pattern.matcher(test.getName()).find() == false) continue;
+			tests.add(test);
+		}
+
+		// list or run them
+		if (list == true) {
+			for (Test test: tests) {
+				System.out.println(test.getName());
+			}
+			return;
+		}
+		int failed = 0;
+		for (Test test: tests) {
+			if (run(test) == false) failed++;
+		}
+		System.out.println((tests.size() - failed) + " passed, " + failed + " failed");
+		if (failed > 0) System.exit(1);
+	}
+
+}
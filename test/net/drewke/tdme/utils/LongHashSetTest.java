@@ -0,0 +1,95 @@
+package net.drewke.tdme.utils;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import net.drewke.tdme.test.Test;
+
+/**
+ * Adds and removes random keys to long hash set and a reference set, checks that contained keys, dense key storage
+ * 	and indices match after every operation, also for colliding keys, growing and clearing
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class LongHashSetTest extends Test {
+
+	private final static int OPERATIONS = 20000;
+
+	/**
+	 * Public constructor
+	 */
+	public LongHashSetTest() {
+		super("LongHashSet.reference");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.drewke.tdme.test.Test#run()
+	 */
+	public void run() throws Exception {
+		// pack and unpack
+		long key = LongHashSet.pack(-5, Integer.MAX_VALUE);
+		assertEquals(-5, LongHashSet.unpackFirst(key), "first value");
+		assertEquals(Integer.MAX_VALUE, LongHashSet.unpackSecond(key), "second value");
+		key = LongHashSet.pack(Integer.MIN_VALUE, -1);
+		assertEquals(Integer.MIN_VALUE, LongHashSet.unpackFirst(key), "first value");
+		assertEquals(-1, LongHashSet.unpackSecond(key), "second value");
+		assertTrue(LongHashSet.pack(1, 2) != LongHashSet.pack(2, 1), "expected pairs to be ordered");
+
+		// random operations with few distinct keys, so removals shift colliding probe sequences, starting small so set grows
+		Random random = new Random(1);
+		LongHashSet set = new LongHashSet(1);
+		HashSet<Long> referenceSet = new HashSet<Long>();
+		for (int i = 0; i < OPERATIONS; i++) {
+			key = LongHashSet.pack(random.nextInt(40), random.nextInt(40) - 20);
+			int operation = random.nextInt(3);
+			if (operation == 0 || (operation == 1 && i < OPERATIONS / 2)) {
+				assertTrue(set.add(key) == referenceSet.add(key), "add of " + key + " in operation " + i);
+			} else {
+				assertTrue(set.remove(key) == referenceSet.remove(key), "remove of " + key + " in operation " + i);
+			}
+			assertTrue(set.contains(key) == referenceSet.contains(key), "contains of " + key + " in operation " + i);
+			if (i % 100 == 0) assertSetEquals(set, referenceSet, "operation " + i);
+		}
+		assertSetEquals(set, referenceSet, "random operations");
+
+		// clear and reuse
+		set.clear();
+		referenceSet.clear();
+		assertTrue(set.isEmpty() == true, "expected empty set after clear");
+		for (int i = 0; i < 1000; i++) {
+			key = random.nextLong();
+			assertTrue(set.add(key) == referenceSet.add(key), "add of " + key + " after clear");
+		}
+		assertSetEquals(set, referenceSet, "after clear");
+
+		// remove all in insertion order, last key takes over index of removed key
+		while (set.isEmpty() == false) {
+			long firstKey = set.get(0);
+			long lastKey = set.get(set.size() - 1);
+			assertTrue(set.remove(firstKey) == true, "remove of first key " + firstKey);
+			referenceSet.remove(firstKey);
+			if (set.isEmpty() == false) assertEquals(0, set.indexOf(lastKey), "index of last key after removing first key");
+		}
+		assertSetEquals(set, referenceSet, "after removing all");
+	}
+
+	/**
+	 * Assert that given set and reference set contain the same keys and keys are stored densely at their index
+	 * @param set
+	 * @param reference set
+	 * @param message
+	 */
+	private void assertSetEquals(LongHashSet set, HashSet<Long> referenceSet, String message) {
+		assertEquals(referenceSet.size(), set.size(), "size after " + message);
+		for (int i = 0; i < set.size(); i++) {
+			long key = set.get(i);
+			assertTrue(referenceSet.contains(key) == true, "unexpected key " + key + " at index " + i + " after " + message);
+			assertEquals(i, set.indexOf(key), "index of key " + key + " after " + message);
+		}
+		for (Long key: referenceSet) {
+			assertTrue(set.contains(key) == true, "missing key " + key + " after " + message);
+		}
+	}
+
+}
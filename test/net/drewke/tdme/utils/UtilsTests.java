@@ -0,0 +1,23 @@
+package net.drewke.tdme.utils;
+
+import java.util.ArrayList;
+
+import net.drewke.tdme.test.Test;
+
+/**
+ * Utils tests
+ * @author Andreas Drewke
+ * @version $Id$
+ */
+public final class UtilsTests {
+
+	/**
+	 * @return utils tests
+	 */
+	public static ArrayList<Test> getTests() {
+		ArrayList<Test> tests = new ArrayList<Test>();
+		tests.add(new LongHashSetTest());
+		return tests;
+	}
+
+}